@@ -128,6 +128,7 @@ import static io.dingodb.calcite.rule.DingoRules.DINGO_AGGREGATE_RULE;
 import static io.dingodb.calcite.rule.DingoRules.DINGO_AGGREGATE_SCAN_RULE;
 import static io.dingodb.calcite.rule.DingoRules.DINGO_FILTER_RULE;
 import static io.dingodb.calcite.rule.DingoRules.DINGO_PROJECT_RULE;
+import static io.dingodb.calcite.rule.DingoRules.DINGO_SKETCH_AGGREGATE_RULE;
 import static io.dingodb.calcite.rule.dingo.DingoPhysicalRules.DINGO_REDUCE_AGGREGATE_RULE;
 import static io.dingodb.calcite.rule.dingo.DingoPhysicalRules.DINGO_REL_OP_RULE;
 import static io.dingodb.calcite.rule.dingo.DingoPhysicalRules.DINGO_SCAN_WITH_REL_OP_RULE;
@@ -355,6 +356,8 @@ public class DingoParser {
             builder.add(DINGO_REL_OP_RULE);
             builder.add(DINGO_SCAN_WITH_REL_OP_RULE);
             builder.add(DINGO_REDUCE_AGGREGATE_RULE);
+            builder.add(DINGO_SKETCH_AGGREGATE_RULE);
+            builder.add(DINGO_AGGREGATE_REDUCE_RULE);
         } else {
             builder.add(DINGO_FILTER_RULE);
             builder.add(DINGO_PROJECT_RULE);
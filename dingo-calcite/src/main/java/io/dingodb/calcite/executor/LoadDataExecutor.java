@@ -16,6 +16,7 @@
 
 package io.dingodb.calcite.executor;
 
+import com.codahale.metrics.Timer;
 import io.dingodb.calcite.DingoParserContext;
 import io.dingodb.calcite.grammar.ddl.SqlLoadData;
 import io.dingodb.calcite.runtime.DingoResource;
@@ -23,8 +24,8 @@ import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.concurrent.Executors;
-import io.dingodb.common.environment.ExecutionEnvironment;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.metrics.DingoMetrics;
 import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.type.DingoType;
@@ -36,7 +37,6 @@ import io.dingodb.exec.converter.ImportFileConverter;
 import io.dingodb.exec.transaction.base.TxnLocalData;
 import io.dingodb.exec.transaction.impl.TransactionManager;
 import io.dingodb.exec.transaction.util.Txn;
-import io.dingodb.exec.utils.ByteUtils;
 import io.dingodb.meta.DdlService;
 import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Column;
@@ -53,25 +53,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -79,8 +87,22 @@ import static io.dingodb.common.util.NoBreakFunctions.wrap;
 import static io.dingodb.common.util.Utils.getByteIndexOf;
 import static io.dingodb.exec.transaction.util.TransactionUtil.max_pre_write_count;
 
+/**
+ * Load data is executed as a pipeline.
+ * <ul>
+ *     <li>one reader thread reads the file in large blocks and splits them at line boundaries</li>
+ *     <li>parser threads split fields, convert and encode rows, and group them by region</li>
+ *     <li>writer threads commit full region batches, bounded by the number of in-flight batches</li>
+ * </ul>
+ */
 @Slf4j
 public class LoadDataExecutor implements DmlExecutor {
+    private static final int READ_BLOCK_SIZE = 4 * 1024 * 1024;
+    private static final int LINES_PER_BLOCK = 1024;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final long PROGRESS_LOG_ROWS = 409600;
+    private static final LineBlock END = new LineBlock(new byte[0]);
+
     private final DingoParserContext context;
 
     private final String schemaName;
@@ -96,28 +118,30 @@ public class LoadDataExecutor implements DmlExecutor {
     private final int ignoreNum;
 
     private volatile boolean isDone;
+    private volatile boolean aborted;
     private volatile String errMessage;
     private final Table table;
     private final KeyValueCodec codec;
-    private NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions;
+    private volatile NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions;
     private final DingoType schema;
 
     MetaService metaService;
-    private static int exceptionRetries = 0;
+    private final AtomicInteger exceptionRetries = new AtomicInteger(0);
     private static final Long retryInterval = 6000L;
     private static final int maxRetries = 20;
-    private int dataGenNum = 0;
     private final boolean isTxn;
-    private final String statementId;
     private boolean txnRetry;
     private int txnRetryCnt;
     private long timeOut;
-    private CompletableFuture<String> loadDataRead;
+    private int concurrency;
+    private CompletableFuture<Void> loadDataRead;
     private long start;
 
     private final AtomicLong count = new AtomicLong(0);
 
-    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(10000);
+    private BlockingQueue<LineBlock> lineQueue;
+    private Semaphore inflightBatches;
+    private final Queue<CompletableFuture<Void>> writeFutures = new ConcurrentLinkedQueue<>();
 
     public LoadDataExecutor(SqlLoadData sqlLoadData, Connection connection, DingoParserContext context) {
         this.context = context;
@@ -148,6 +172,13 @@ public class LoadDataExecutor implements DmlExecutor {
             txnRetry = false;
             txnRetryCnt = 0;
         }
+        try {
+            String concurrencyStr = connection.getClientInfo("load_data_concurrency");
+            concurrency = concurrencyStr == null ? DEFAULT_CONCURRENCY : Integer.parseInt(concurrencyStr);
+        } catch (SQLException | NumberFormatException e) {
+            concurrency = DEFAULT_CONCURRENCY;
+        }
+        concurrency = Math.max(1, Math.min(concurrency, Runtime.getRuntime().availableProcessors()));
 
         this.schemaName = sqlLoadData.getSchemaName();
         this.lineStarting = sqlLoadData.getLineStarting();
@@ -165,7 +196,6 @@ public class LoadDataExecutor implements DmlExecutor {
         distributions = metaService.getRangeDistribution(table.tableId);
         schema = table.tupleType();
         this.isTxn = checkEngine();
-        this.statementId = UUID.randomUUID().toString();
     }
 
     @Override
@@ -174,80 +204,59 @@ public class LoadDataExecutor implements DmlExecutor {
             throw DingoResource.DINGO_RESOURCE.fieldSeparatorError().ex();
         }
         start = System.currentTimeMillis();
-        CompletableFuture<String> future = Executors.submit("loadDataDecoder", () -> {
-            try {
-                byte[] preBytes = null;
-                long ver = DdlService.root().getIsLatest().getSchemaMetaVersion();
-                context.getRootSchema().putRelatedTable(table.tableId.seq, ver);
-                while (true) {
-                    Object val = queue.take();
-                    if (val instanceof byte[]) {
-                        byte[] bytes = (byte[]) val;
-                        preBytes = splitLine(bytes, preBytes, fieldsTerm, linesTerm);
-                    } else {
-                        break;
-                    }
-                }
-                if (isTxn) {
-                    endWriteWithTxn();
-                }
-                return null;
-            } catch (DuplicateEntryException e1) {
-                errMessage = "Duplicate entry for key 'PRIMARY'";
-                return errMessage;
-            } catch (Exception e2) {
-                LogUtils.error(log, e2.getMessage(), e2);
-                errMessage = e2.getMessage();
-                return errMessage;
-            } finally {
-                context.getRootSchema().removeRelatedTable(table.tableId.seq);
-                isDone = true;
-            }
-        });
+        FileChannel channel;
         try {
-            FileInputStream is = new FileInputStream(filePath);
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            loadDataRead = Executors.submit("loadDataRead", () -> {
-                try {
-                    byte[] buffer = new byte[1000];
-                    int length;
-                    while ((length = is.read(buffer)) != -1) {
-                        bos.write(buffer, 0, length);
-                        queue.put(bos.toByteArray());
-                        bos.reset();
-                    }
-                    queue.put("end");
-                    bos.close();
-                    is.close();
-                    return null;
-                } catch (IOException e) {
-                    LogUtils.error(log, e.getMessage(), e);
-                    return e.getMessage();
-                }
-            });
+            channel = new FileInputStream(filePath).getChannel();
         } catch (FileNotFoundException e) {
             // Err code 2: No such file or directory
             throw DingoResource.DINGO_RESOURCE.accessError(filePath, 2, "No such file or directory").ex();
         } catch (Exception e) {
             throw DingoResource.DINGO_RESOURCE.loadDataError().ex();
         }
-        future.whenCompleteAsync((r, e) -> {
-            if (r != null) {
-                if (!loadDataRead.isDone()) {
-                    loadDataRead.cancel(true);
+        lineQueue = new ArrayBlockingQueue<>(concurrency * 2);
+        inflightBatches = new Semaphore(concurrency * 2);
+        long ver = DdlService.root().getIsLatest().getSchemaMetaVersion();
+        context.getRootSchema().putRelatedTable(table.tableId.seq, ver);
+
+        loadDataRead = Executors.submit("loadDataRead", () -> {
+            try (FileChannel fileChannel = channel) {
+                readFile(fileChannel);
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                for (int i = 0; i < concurrency; i++) {
+                    Utils.put(lineQueue, END);
                 }
             }
         });
+        List<CompletableFuture<Void>> parsers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            parsers.add(Executors.submit("loadDataParser", () -> {
+                RegionBatcher batcher = new RegionBatcher();
+                try {
+                    parse(batcher);
+                } catch (Throwable e) {
+                    fail(e);
+                    drain();
+                }
+            }));
+        }
+        Executors.submit("loadDataDecoder", () -> {
+            try {
+                CompletableFuture.allOf(parsers.toArray(new CompletableFuture[0])).join();
+                CompletableFuture.allOf(writeFutures.toArray(new CompletableFuture[0])).join();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                context.getRootSchema().removeRelatedTable(table.tableId.seq);
+                isDone = true;
+            }
+        });
         return true;
     }
 
     @Override
     public Iterator<Object[]> getIterator() {
-        loadDataRead.whenComplete((r, e) -> {
-            if (r != null) {
-                throw DingoResource.DINGO_RESOURCE.accessError("filepath", 13, "Permission denied").ex();
-            }
-        });
         while (!isDone) {
             Utils.sleep(1000L);
         }
@@ -284,278 +293,294 @@ public class LoadDataExecutor implements DmlExecutor {
         return errMessage;
     }
 
-    // simple line split
-    private byte[] splitLine(byte[] current, byte[] pre, byte[] fieldsTerm, byte[] linesTerm)
-        throws UnsupportedEncodingException {
-        byte[] bytes;
-        if (pre != null) {
-            bytes = new byte[current.length + pre.length];
-            System.arraycopy(pre, 0, bytes, 0, pre.length);
-            System.arraycopy(current, 0, bytes, pre.length, current.length);
-        } else {
-            bytes = current;
-        }
-
-        int len = bytes.length;
-        int lineBreakPos = 0;
-        int searchPos = 0;
-        boolean isContinue = true;
-        int loopCount = 0;
-        while (isContinue) {
-            searchPos = Math.max(searchPos, lineBreakPos);
-            int id1 = getByteIndexOf(bytes, linesTerm, searchPos, len);
-            if (id1 > 0) {
-                byte[] lineBytes = new byte[id1 - lineBreakPos];
-                System.arraycopy(bytes, lineBreakPos, lineBytes, 0, lineBytes.length);
-                int id2 = getByteIndexOf(lineBytes, lineStarting, 0, lineBytes.length);
-                if (id2 == 0 && bytes[id1 - 1] != escaped[0]) {
-                    Object[] tuple = splitRow(lineBytes, fieldsTerm);
-                    insertTuples(tuple);
-                    int tmp1 = id1 + linesTerm.length;
-                    if (tmp1 == len) {
-                        isContinue = false;
-                        lineBreakPos = tmp1;
-                    }
-                    if (tmp1 <= len - 1) {
-                        lineBreakPos = tmp1;
-                    }
-                } else {
-                    searchPos = id1 + 1;
-                }
+    private synchronized void fail(Throwable throwable) {
+        if (errMessage == null) {
+            if (throwable instanceof DuplicateEntryException || throwable.getCause() instanceof DuplicateEntryException) {
+                errMessage = "Duplicate entry for key 'PRIMARY'";
             } else {
-                isContinue = false;
-            }
-            loopCount ++;
-            if (loopCount >= len) {
-                isContinue = false;
+                LogUtils.error(log, throwable.getMessage(), throwable);
+                errMessage = throwable.getMessage() == null ? throwable.toString() : throwable.getMessage();
             }
         }
-        byte[] preBytes = null;
-        if (lineBreakPos <= len - 1) {
-            preBytes = new byte[len - lineBreakPos];
-            System.arraycopy(bytes, lineBreakPos, preBytes, 0, preBytes.length);
+        aborted = true;
+    }
+
+    private void readFile(FileChannel channel) throws IOException {
+        byte[] carry = new byte[0];
+        long lineNum = 0;
+        boolean eof = false;
+        while (!eof && !aborted) {
+            byte[] block = new byte[carry.length + READ_BLOCK_SIZE];
+            System.arraycopy(carry, 0, block, 0, carry.length);
+            ByteBuffer buffer = ByteBuffer.wrap(block, carry.length, READ_BLOCK_SIZE);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            int len = buffer.position();
+            DingoMetrics.meter("loadDataReadBytes").mark(len - carry.length);
+
+            LineBlock lines = new LineBlock(block);
+            int lineStart = 0;
+            int lineEnd;
+            while ((lineEnd = nextLineEnd(block, lineStart, len)) >= 0) {
+                // Only the lines starting with the line prefix are counted by IGNORE n LINES.
+                if (isLineStarting(block, lineStart, lineEnd) && lineNum++ >= ignoreNum) {
+                    lines = addLine(lines, lineStart, lineEnd);
+                }
+                lineStart = lineEnd + linesTerm.length;
+            }
+            if (eof && lineStart < len && isLineStarting(block, lineStart, len) && lineNum++ >= ignoreNum) {
+                lines = addLine(lines, lineStart, len);
+                lineStart = len;
+            }
+            if (lines.count > 0) {
+                Utils.put(lineQueue, lines);
+            }
+            carry = Arrays.copyOfRange(block, lineStart, len);
         }
-        return preBytes;
     }
 
-    private void insertTuples(Object[] tuples) {
-        dataGenNum ++;
-        // ignore rows
-        if (dataGenNum <= ignoreNum) {
-            return;
+    private boolean isLineStarting(byte[] bytes, int from, int to) {
+        return lineStarting == null || lineStarting.length == 0 || startsWith(bytes, from, to, lineStarting);
+    }
+
+    private LineBlock addLine(LineBlock lines, int lineStart, int lineEnd) {
+        lines.add(lineStart, lineEnd);
+        if (lines.count == LINES_PER_BLOCK) {
+            Utils.put(lineQueue, lines);
+            return new LineBlock(lines.data);
         }
-        tuples = enclosed(tuples);
-        tuples = processHideCol(tuples);
-        tuples = (Object[]) schema.convertFrom(tuples, new ImportFileConverter(escaped));
+        return lines;
+    }
 
-        if (isTxn) {
-            if (dataGenNum % max_pre_write_count == 0) {
-                refreshTxnId = true;
+    private int nextLineEnd(byte[] bytes, int lineStart, int len) {
+        int searchPos = lineStart;
+        while (true) {
+            int pos = getByteIndexOf(bytes, linesTerm, searchPos, len);
+            if (pos < 0 || !isEscaped(bytes, pos, lineStart)) {
+                return pos;
             }
-            insertWithTxn(tuples);
-        } else {
-            insertWithoutTxn(tuples, false);
+            searchPos = pos + 1;
         }
     }
 
-    public void insertWithoutTxn(Object[] tuples, boolean retry) {
-        try {
-            if (retry) {
-                distributions = metaService.getRangeDistribution(table.tableId);
-            }
-            CommonId partId = PartitionService.getService(
-                    Optional.ofNullable(table.getPartitionStrategy())
-                        .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
-                .calcPartId(tuples, wrap(codec::encodeKey), distributions);
-            StoreInstance store = Services.KV_STORE.getInstance(table.getTableId(), partId);
-            boolean insert = store.insertIndex(tuples);
-            if (insert) {
-                insert = store.insertWithIndex(tuples);
+    private boolean isEscaped(byte[] bytes, int pos, int from) {
+        return pos > from && escaped != null && escaped.length > 0 && bytes[pos - 1] == escaped[0];
+    }
+
+    private void parse(RegionBatcher batcher) throws Exception {
+        while (true) {
+            LineBlock lines = Utils.forceTake(lineQueue);
+            if (lines == END) {
+                break;
             }
-            if (insert) {
-                count.incrementAndGet();
+            if (aborted) {
+                continue;
             }
-            exceptionRetries = 0;
-        } catch (Exception e) {
-            LogUtils.error(log, e.getMessage(), e);
-            if (e.getMessage().contains("epoch is not match, region_epoch")
-                || e.getMessage().contains("Key out of range")
-                || e instanceof RegionSplitException) {
-                if (!continueRetry()) {
-                    throw e;
+            for (int i = 0; i < lines.count; i++) {
+                int from = lines.bounds[i << 1];
+                int to = lines.bounds[(i << 1) + 1];
+                if (lineStarting != null) {
+                    from += lineStarting.length;
                 }
-                insertWithoutTxn(tuples, true);
-            } else {
-                throw e;
+                if (from == to) {
+                    continue;
+                }
+                Object[] tuples = splitRow(lines.data, from, to, fieldsTerm);
+                tuples = enclosed(tuples);
+                tuples = processHideCol(tuples);
+                tuples = (Object[]) schema.convertFrom(tuples, new ImportFileConverter(escaped));
+                batcher.add(tuples);
             }
         }
+        batcher.flushAll();
     }
 
-    public CommonId getTxnId() {
-        if (refreshTxnId || txnId == null) {
-            txnId = new CommonId(CommonId.CommonType.TRANSACTION,
-                TransactionManager.getServerId().seq, TransactionManager.getStartTs());
+    private void drain() {
+        while (Utils.forceTake(lineQueue) != END) {
+            // Keep the reader unblocked until it hands over the end marker.
         }
-        return txnId;
     }
 
-    CommonId txnId;
-    boolean refreshTxnId = false;
-
-    public void insertWithTxn(Object[] tuples) {
-        ExecutionEnvironment env = ExecutionEnvironment.INSTANCE;
-        Map<String, KeyValue> caches = env.memCacheFor2PC.memoryCache
-            .computeIfAbsent(statementId, e -> new TreeMap<>());
-        KeyValue keyValue = codec.encode(tuples);
-
-        CommonId txnId = getTxnId();
-        recodePriTable(keyValue, txnId);
-        String cacheKey = Base64.getEncoder().encodeToString(keyValue.getKey());
-        if (!caches.containsKey(cacheKey)) {
-            caches.put(cacheKey, keyValue);
+    private static boolean startsWith(byte[] bytes, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
         }
-        List<IndexTable> indexTableList = table.getIndexes();
-        if (indexTableList != null) {
-            for (IndexTable indexTable : indexTableList) {
-                List<Integer> columnIndices = table.getColumnIndices(indexTable.columns.stream()
-                    .map(Column::getName)
-                    .collect(Collectors.toList()));
-                Object[] tuplesTmp = columnIndices.stream().map(i -> tuples[i]).toArray();
-                KeyValueCodec codec = CodecService.getDefault()
-                    .createKeyValueCodec(
-                        indexTable.getCodecVersion(), indexTable.version,
-                        indexTable.tupleType(), indexTable.keyMapping());
-
-                keyValue = wrap(codec::encode).apply(tuplesTmp);
-                PartitionService ps = PartitionService.getService(
-                    Optional.ofNullable(indexTable.getPartitionStrategy())
-                        .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
-                NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> ranges =
-                    metaService.getRangeDistribution(indexTable.tableId);
-                CommonId partId = ps.calcPartId(keyValue.getKey(), ranges);
-                CodecService.getDefault().setId(keyValue.getKey(), partId.domain);
-
-                byte[] txnIdByte = txnId.encode();
-                byte[] tableIdByte = indexTable.tableId.encode();
-                byte[] partIdByte = partId.encode();
-                keyValue.setKey(
-                    ByteUtils.encode(
-                        CommonId.CommonType.TXN_CACHE_DATA,
-                        keyValue.getKey(),
-                        Op.PUTIFABSENT.getCode(),
-                        (txnIdByte.length + tableIdByte.length + partIdByte.length),
-                        txnIdByte,
-                        tableIdByte,
-                        partIdByte)
-                );
-                cacheKey = Base64.getEncoder().encodeToString(keyValue.getKey());
-                if (!caches.containsKey(cacheKey)) {
-                    caches.put(cacheKey, keyValue);
-                }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[from + i] != prefix[i]) {
+                return false;
             }
         }
+        return true;
+    }
 
-        if (refreshTxnId) {
-            long start = System.currentTimeMillis();
-            int cacheSize;
-            Txn txn = new Txn(
-                txnId, txnRetry, txnRetryCnt, timeOut
-            );
+    private void submit(RegionBatch batch) {
+        try {
+            inflightBatches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        writeFutures.add(Executors.submit("loadDataWriter", () -> {
+            Timer.Context timeCtx = DingoMetrics.getTimeContext("loadDataBatchWrite");
             try {
-                List<TxnLocalData> tupleList = getCacheTupleList(caches, txnId);
-                int result = txn.commit(tupleList);
-                count.addAndGet(result);
-                cacheSize = caches.size();
-                caches.clear();
+                if (!aborted) {
+                    if (isTxn) {
+                        commitBatch(batch);
+                    } else {
+                        insertBatch(batch);
+                    }
+                }
+            } catch (Throwable e) {
+                fail(e);
             } finally {
-                txn.close();
-                env.memCacheFor2PC.memoryCache.remove(statementId);
-            }
-            long sub = System.currentTimeMillis() - start;
-            long totalCount = count.get();
-            if (totalCount % 409600 == 0) {
-                LogUtils.info(log, "insert txn batch size: {}, cost time: {}ms, insert count:{}",
-                    cacheSize, sub, totalCount);
+                timeCtx.stop();
+                inflightBatches.release();
             }
-            refreshTxnId = false;
-        }
+        }));
     }
 
-    private void recodePriTable(KeyValue keyValue, CommonId txnId) {
-        CommonId partId = PartitionService.getService(
-                Optional.ofNullable(table.getPartitionStrategy())
-                    .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
-            .calcPartId(keyValue.getKey(), distributions);
-        CodecService.getDefault().setId(keyValue.getKey(), partId.domain);
-        byte[] txnIdByte = txnId.encode();
-        byte[] tableIdByte = table.getTableId().encode();
-        byte[] partIdByte = partId.encode();
-
-        keyValue.setKey(ByteUtils.encode(
-            CommonId.CommonType.TXN_CACHE_DATA,
-            keyValue.getKey(),
-            Op.PUTIFABSENT.getCode(),
-            (txnIdByte.length + tableIdByte.length + partIdByte.length),
-            txnIdByte, tableIdByte, partIdByte));
+    private void commitBatch(RegionBatch batch) {
+        CommonId txnId = new CommonId(CommonId.CommonType.TRANSACTION,
+            TransactionManager.getServerId().seq, TransactionManager.getStartTs());
+        List<TxnLocalData> tupleList = new ArrayList<>(batch.writes.size());
+        for (PendingWrite write : batch.writes.values()) {
+            tupleList.add(TxnLocalData.builder()
+                .dataType(CommonId.CommonType.TXN_CACHE_DATA)
+                .txnId(txnId)
+                .tableId(write.tableId)
+                .partId(write.partId)
+                .op(Op.PUTIFABSENT)
+                .key(write.key)
+                .value(write.value)
+                .build());
+        }
+        Txn txn = new Txn(txnId, txnRetry, txnRetryCnt, timeOut);
+        try {
+            progress(txn.commit(tupleList));
+        } finally {
+            txn.close();
+        }
     }
 
-    public void endWriteWithTxn() {
-        long start = System.currentTimeMillis();
-        ExecutionEnvironment env = ExecutionEnvironment.INSTANCE;
+    private void insertBatch(RegionBatch batch) {
+        List<Object[]> records = batch.tuples;
+        boolean withIndex = table.getIndexes() != null && !table.getIndexes().isEmpty();
+        // The rows before this one have their index rows written, or are duplicates if not in records.
+        int indexed = 0;
         try {
-            CommonId txnId = getTxnId();
-            Txn txnImportDataOperation = new Txn(
-                txnId, txnRetry, txnRetryCnt, timeOut
-            );
-            Map<String, KeyValue> caches = env.memCacheFor2PC.memoryCache
-                .computeIfAbsent(statementId, e -> new TreeMap<>());
-            List<TxnLocalData> tupleList = getCacheTupleList(caches, txnId);
-            if (tupleList.isEmpty()) {
-                return;
+            StoreInstance store = Services.KV_STORE.getInstance(table.getTableId(), batch.partId);
+            if (withIndex) {
+                records = new ArrayList<>(batch.tuples.size());
+                for (Object[] tuples : batch.tuples) {
+                    if (store.insertIndex(tuples)) {
+                        records.add(tuples);
+                    }
+                    indexed++;
+                }
+            }
+            progress((int) store.insertWithIndex(records));
+            exceptionRetries.set(0);
+        } catch (Exception e) {
+            LogUtils.error(log, e.getMessage(), e);
+            String message = String.valueOf(e.getMessage());
+            if (!(e instanceof RegionSplitException || message.contains("epoch is not match, region_epoch")
+                || message.contains("Key out of range"))) {
+                throw e;
+            }
+            // The region changed, the rows are routed again one by one without writing their index rows twice.
+            distributions = metaService.getRangeDistribution(table.tableId);
+            Set<Object[]> written = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (withIndex) {
+                written.addAll(records);
+            }
+            for (int i = 0; i < batch.tuples.size(); i++) {
+                if (aborted) {
+                    return;
+                }
+                Object[] tuples = batch.tuples.get(i);
+                if (!withIndex || i >= indexed) {
+                    insertWithoutTxn(tuples, false, withIndex);
+                } else if (written.contains(tuples)) {
+                    insertWithoutTxn(tuples, false, false);
+                }
             }
-            int result = txnImportDataOperation.commit(tupleList);
-            count.addAndGet(result);
-            caches.clear();
-        } finally {
-            env.memCacheFor2PC.memoryCache.remove(statementId);
         }
-        long end = System.currentTimeMillis();
-        LogUtils.debug(log, "insert txn end batch, cost time:" + (end - start) + "ms");
     }
 
-    public static List<TxnLocalData> getCacheTupleList(Map<String, KeyValue> keyValueMap, CommonId txnId) {
-        List<TxnLocalData> tupleCacheList = new ArrayList<>();
-        for (KeyValue keyValue : keyValueMap.values()) {
-            TxnLocalData txnLocalData = getCacheTuples(keyValue);
-            if (txnLocalData != null) {
-                tupleCacheList.add(txnLocalData);
-            }
+    private void progress(int rows) {
+        DingoMetrics.meter("loadDataRows").mark(rows);
+        long total = count.addAndGet(rows);
+        if (total / PROGRESS_LOG_ROWS != (total - rows) / PROGRESS_LOG_ROWS) {
+            LogUtils.info(log, "load data progress, path:{}, cost:{}ms, insert count:{}",
+                filePath, System.currentTimeMillis() - start, total);
         }
-        return tupleCacheList;
     }
 
-    public static TxnLocalData getCacheTuples(KeyValue keyValue) {
-        Object[] caches = io.dingodb.exec.utils.ByteUtils.decode(keyValue);
-        return (TxnLocalData) caches[0];
+    public void insertWithoutTxn(Object[] tuples, boolean retry) {
+        insertWithoutTxn(tuples, retry, true);
+    }
+
+    /**
+     * Inserts the row, and its index rows if withIndex, a retry does not write the index rows again.
+     */
+    private void insertWithoutTxn(Object[] tuples, boolean retry, boolean withIndex) {
+        boolean indexed = !withIndex;
+        try {
+            if (retry) {
+                distributions = metaService.getRangeDistribution(table.tableId);
+            }
+            CommonId partId = PartitionService.getService(
+                    Optional.ofNullable(table.getPartitionStrategy())
+                        .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
+                .calcPartId(tuples, wrap(codec::encodeKey), distributions);
+            StoreInstance store = Services.KV_STORE.getInstance(table.getTableId(), partId);
+            boolean insert = indexed || store.insertIndex(tuples);
+            indexed = true;
+            if (insert) {
+                insert = store.insertWithIndex(tuples);
+            }
+            if (insert) {
+                progress(1);
+            }
+            exceptionRetries.set(0);
+        } catch (Exception e) {
+            LogUtils.error(log, e.getMessage(), e);
+            if (e.getMessage().contains("epoch is not match, region_epoch")
+                || e.getMessage().contains("Key out of range")
+                || e instanceof RegionSplitException) {
+                if (!continueRetry()) {
+                    throw e;
+                }
+                insertWithoutTxn(tuples, true, !indexed);
+            } else {
+                throw e;
+            }
+        }
     }
 
-    private static boolean continueRetry() {
-        if (exceptionRetries > maxRetries) {
+    private boolean continueRetry() {
+        if (exceptionRetries.get() > maxRetries) {
             return false;
         }
         Utils.sleep(retryInterval);
-        exceptionRetries ++;
+        exceptionRetries.incrementAndGet();
         return true;
     }
 
     public Object[] splitRow(byte[] bytes, byte[] terminated) throws UnsupportedEncodingException {
+        int from = 0;
         if (lineStarting != null) {
-            byte[] bytesTmp = new byte[bytes.length - lineStarting.length];
-            System.arraycopy(bytes, lineStarting.length, bytesTmp, 0, bytesTmp.length);
-            bytes = bytesTmp;
+            from = lineStarting.length;
         }
-        int len = bytes.length;
-        int fieldBreakPos = 0;
+        return splitRow(bytes, from, bytes.length, terminated);
+    }
+
+    private Object[] splitRow(byte[] bytes, int from, int to, byte[] terminated) throws UnsupportedEncodingException {
+        int fieldBreakPos = from;
         byte fieldsTermByte;
         boolean terminatedOnlyByte = false;
         int termLen = terminated.length;
@@ -566,19 +591,12 @@ public class LoadDataExecutor implements DmlExecutor {
             fieldsTermByte = terminated[terminated.length - 1];
         }
         List<String> tupleList = new ArrayList<>();
-        for (int i = 0; i < len; i ++) {
+        for (int i = from; i < to; i ++) {
             byte b = bytes[i];
-            if (terminatedOnlyByte && b == fieldsTermByte && i >= 1 && bytes[i - 1] != escaped[0]) {
-                byte[] fieldBytes = new byte[i - fieldBreakPos];
-                System.arraycopy(bytes, fieldBreakPos, fieldBytes, 0, fieldBytes.length);
-                String valTmp = new String(fieldBytes, charset);
-                if ("\\N".equalsIgnoreCase(valTmp)) {
-                    tupleList.add(valTmp);
-                } else {
-                    tupleList.add(StringEscapeUtils.unescapeJson(valTmp));
-                }
+            if (terminatedOnlyByte && b == fieldsTermByte && !isEscaped(bytes, i, from)) {
+                addField(tupleList, bytes, fieldBreakPos, i);
                 fieldBreakPos = i + 1;
-            } else if (!terminatedOnlyByte && b == fieldsTermByte) {
+            } else if (!terminatedOnlyByte && b == fieldsTermByte && i - termLen + 1 >= fieldBreakPos) {
                 // example fields term len == 5 and b == 24
                 // bytes[23] == term[3] and bytes[22] == term[2] and bytes[21] == term[1] and bytes[20] == term[0]
                 // bytes[19] != escaped[0]
@@ -592,57 +610,33 @@ public class LoadDataExecutor implements DmlExecutor {
                     }
                     ix ++;
                 }
-                if (res3 && bytes[i - termLen] != escaped[0]) {
-                    byte[] fieldBytes = new byte[i - termLen + 1 - fieldBreakPos];
-                    System.arraycopy(bytes, fieldBreakPos, fieldBytes, 0, fieldBytes.length);
-                    String valTmp = new String(fieldBytes, charset);
-                    if ("\\N".equalsIgnoreCase(valTmp)) {
-                        tupleList.add(valTmp);
-                    } else {
-                        tupleList.add(StringEscapeUtils.unescapeJson(valTmp));
-                    }
+                if (res3 && !isEscaped(bytes, i - termLen + 1, from)) {
+                    addField(tupleList, bytes, fieldBreakPos, i - termLen + 1);
                     fieldBreakPos = i + 1;
                 }
             }
         }
-        if (fieldBreakPos <= len - 1) {
-            byte[] fieldBytes = new byte[len - fieldBreakPos];
-            System.arraycopy(bytes, fieldBreakPos, fieldBytes, 0, fieldBytes.length);
-            String valTmp = new String(fieldBytes, charset);
-            if ("\\N".equalsIgnoreCase(valTmp)) {
-                tupleList.add(valTmp);
-            } else {
-                tupleList.add(StringEscapeUtils.unescapeJson(valTmp));
-            }
-        } else if (bytes[len - 1] == fieldsTermByte) {
-            if (terminatedOnlyByte) {
-                // 1,2,3,
-                // tuples 1, 2, 3, ""
-                tupleList.add("");
-            } else {
-                // 1--2--3--
-                // example i == 8 and termlen == 2
-                // bytes[7] == termlen[0] && bytes[6] != escaped[0]
-                int ix = 1;
-                boolean res3 = true;
-                while (ix < termLen) {
-                    boolean res = bytes[len - ix - 1] == fieldsTerm[termLen - ix - 1];
-                    if (!res) {
-                        res3 = false;
-                        break;
-                    }
-                    ix ++;
-                }
-
-                if (res3 && bytes[len - termLen - 1] != escaped[0]) {
-                    tupleList.add("");
-                }
-            }
+        if (fieldBreakPos < to) {
+            addField(tupleList, bytes, fieldBreakPos, to);
+        } else if (to > from) {
+            // The line ends with a field terminator
+            // 1,2,3,
+            // tuples 1, 2, 3, ""
+            tupleList.add("");
         }
 
         return tupleList.toArray(new String[0]);
     }
 
+    private void addField(List<String> tupleList, byte[] bytes, int from, int to) throws UnsupportedEncodingException {
+        String valTmp = new String(bytes, from, to - from, charset);
+        if ("\\N".equalsIgnoreCase(valTmp)) {
+            tupleList.add(valTmp);
+        } else {
+            tupleList.add(StringEscapeUtils.unescapeJson(valTmp));
+        }
+    }
+
     private Object[] enclosed(Object[] tuples) {
         if (StringUtils.isBlank(enclosed)) {
             return tuples;
@@ -703,4 +697,152 @@ public class LoadDataExecutor implements DmlExecutor {
         return StringUtils.isNotBlank(engine) && engine.contains("TXN");
     }
 
+    /**
+     * Lines of one read block, kept as offsets into the shared block to avoid copying each line.
+     */
+    private static final class LineBlock {
+        private final byte[] data;
+        private final int[] bounds = new int[LINES_PER_BLOCK << 1];
+        private int count;
+
+        private LineBlock(byte[] data) {
+            this.data = data;
+        }
+
+        private void add(int from, int to) {
+            bounds[count << 1] = from;
+            bounds[(count << 1) + 1] = to;
+            count++;
+        }
+    }
+
+    private static final class PendingWrite {
+        private final CommonId tableId;
+        private final CommonId partId;
+        private final byte[] key;
+        private final byte[] value;
+
+        private PendingWrite(CommonId tableId, CommonId partId, byte[] key, byte[] value) {
+            this.tableId = tableId;
+            this.partId = partId;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Rows of one region of the primary table, with their index rows for the txn engine.
+     */
+    private static final class RegionBatch {
+        // Sorted by encoded key, so the commit groups mutations of the same region together.
+        private final TreeMap<ByteArrayUtils.ComparableByteArray, PendingWrite> writes = new TreeMap<>();
+        private final List<Object[]> tuples = new ArrayList<>();
+        private CommonId partId;
+        private int rows;
+    }
+
+    private final class IndexEncoder {
+        private final IndexTable indexTable;
+        private final int[] columnIndices;
+        private final KeyValueCodec codec;
+        private final PartitionService ps;
+        private final NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> ranges;
+
+        private IndexEncoder(IndexTable indexTable) {
+            this.indexTable = indexTable;
+            this.columnIndices = table.getColumnIndices(indexTable.columns.stream()
+                .map(Column::getName)
+                .collect(Collectors.toList())).stream().mapToInt(Integer::intValue).toArray();
+            this.codec = CodecService.getDefault().createKeyValueCodec(
+                indexTable.getCodecVersion(), indexTable.version, indexTable.tupleType(), indexTable.keyMapping()
+            );
+            this.ps = PartitionService.getService(
+                Optional.ofNullable(indexTable.getPartitionStrategy())
+                    .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
+            this.ranges = metaService.getRangeDistribution(indexTable.tableId);
+        }
+    }
+
+    /**
+     * Groups the rows produced by one parser thread by the region of the primary table, and hands full
+     * batches to the writers. The rows held here are bounded by {@link #maxPendingRows}.
+     */
+    private final class RegionBatcher {
+        private final KeyValueCodec codec = CodecService.getDefault().createKeyValueCodec(
+            table.getCodecVersion(), table.version, table.tupleType(), table.keyMapping()
+        );
+        private final PartitionService ps = PartitionService.getService(
+            Optional.ofNullable(table.getPartitionStrategy())
+                .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
+        private final List<IndexEncoder> indexEncoders = new ArrayList<>();
+        private final Map<CommonId, RegionBatch> batches = new HashMap<>();
+        private final int maxPendingRows = max_pre_write_count * 4;
+        private int pendingRows;
+
+        private RegionBatcher() {
+            List<IndexTable> indexTableList = table.getIndexes();
+            if (isTxn && indexTableList != null) {
+                for (IndexTable indexTable : indexTableList) {
+                    indexEncoders.add(new IndexEncoder(indexTable));
+                }
+            }
+        }
+
+        private void add(Object[] tuples) {
+            RegionBatch batch;
+            if (isTxn) {
+                KeyValue keyValue = codec.encode(tuples);
+                CommonId partId = ps.calcPartId(keyValue.getKey(), distributions);
+                batch = batches.computeIfAbsent(partId, k -> new RegionBatch());
+                put(batch, table.tableId, partId, keyValue);
+                for (IndexEncoder encoder : indexEncoders) {
+                    Object[] tuplesTmp = new Object[encoder.columnIndices.length];
+                    for (int i = 0; i < tuplesTmp.length; i++) {
+                        tuplesTmp[i] = tuples[encoder.columnIndices[i]];
+                    }
+                    KeyValue indexKeyValue = wrap(encoder.codec::encode).apply(tuplesTmp);
+                    CommonId indexPartId = encoder.ps.calcPartId(indexKeyValue.getKey(), encoder.ranges);
+                    put(batch, encoder.indexTable.tableId, indexPartId, indexKeyValue);
+                }
+            } else {
+                CommonId partId = ps.calcPartId(tuples, wrap(codec::encodeKey), distributions);
+                batch = batches.computeIfAbsent(partId, k -> new RegionBatch());
+                batch.partId = partId;
+                batch.tuples.add(tuples);
+            }
+            batch.rows++;
+            pendingRows++;
+            if (batch.rows >= max_pre_write_count) {
+                flush(batch);
+            } else if (pendingRows >= maxPendingRows) {
+                batches.values().stream()
+                    .max((b1, b2) -> Integer.compare(b1.rows, b2.rows))
+                    .ifPresent(this::flush);
+            }
+        }
+
+        private void put(RegionBatch batch, CommonId tableId, CommonId partId, KeyValue keyValue) {
+            byte[] key = keyValue.getKey();
+            CodecService.getDefault().setId(key, partId.domain);
+            // Same as the txn cache encoding, data keys of a transaction are in the txn namespace.
+            key[0] = 't';
+            batch.writes.putIfAbsent(
+                new ByteArrayUtils.ComparableByteArray(key),
+                new PendingWrite(tableId, partId, key, keyValue.getValue())
+            );
+        }
+
+        private void flush(RegionBatch batch) {
+            batches.values().remove(batch);
+            pendingRows -= batch.rows;
+            submit(batch);
+        }
+
+        private void flushAll() {
+            for (RegionBatch batch : new ArrayList<>(batches.values())) {
+                flush(batch);
+            }
+        }
+    }
+
 }
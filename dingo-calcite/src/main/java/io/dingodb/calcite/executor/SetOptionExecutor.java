@@ -16,6 +16,8 @@
 
 package io.dingodb.calcite.executor;
 
+import io.dingodb.calcite.meta.CostCalibrator;
+import io.dingodb.calcite.meta.CostFactors;
 import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.meta.InfoSchemaService;
 import org.apache.calcite.sql.SqlIdentifier;
@@ -98,6 +100,9 @@ public class SetOptionExecutor implements DdlExecutor {
                 }
             } else if ("SYSTEM".equals(scope)) {
                 putGlobalVariable(name, value);
+                if (CostCalibrator.CALIBRATION_ROWS.equals(name) && Double.parseDouble(value) > 0) {
+                    CostCalibrator.calibrateAsync((int) Double.parseDouble(value));
+                }
             } else if ("EXECUTOR".equals(scope)) {
                 ScopeVariables.setExecutorProp(name, value);
             } else {
@@ -142,6 +147,9 @@ public class SetOptionExecutor implements DdlExecutor {
         }
         InfoSchemaService infoSchemaService = InfoSchemaService.root();
         infoSchemaService.putGlobalVariable(key, value);
+        if (key.startsWith("cost_")) {
+            CostFactors.refresh();
+        }
     }
 
 }
@@ -82,10 +82,15 @@ public final class VariableValidator {
             || name.equalsIgnoreCase("txn_retry_cnt")
             || name.equalsIgnoreCase("max_execution_time")
             || name.equalsIgnoreCase("rpc_batch_size")
+            || name.equalsIgnoreCase("load_data_concurrency")
         ) {
             if (!value.matches("\\d+")) {
                 throw DINGO_RESOURCE.incorrectArgType(name).ex();
             }
+        } else if (name.startsWith("cost_")) {
+            if (!value.matches("\\d+(\\.\\d+)?")) {
+                throw DINGO_RESOURCE.incorrectArgType(name).ex();
+            }
         }
 
         if ("SYSTEM".equals(scope)) {
@@ -111,6 +111,9 @@ public class DingoOperatorTable implements SqlOperatorTable {
         funMap.put("CURDATE", SqlStdOperatorTable.CURRENT_DATE);
         funMap.put("CURTIME", SqlStdOperatorTable.CURRENT_TIME);
 
+        // aggregation
+        funMap.put(DingoSketchAggFunction.APPROX_PERCENTILE.getName(), DingoSketchAggFunction.APPROX_PERCENTILE);
+
         // number
         registerFunction(
             NumberFormatFunFactory.NAME,
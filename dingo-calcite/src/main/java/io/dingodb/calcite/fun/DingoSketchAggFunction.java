@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.fun;
+
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.sql.SqlAggFunction;
+import org.apache.calcite.sql.SqlFunctionCategory;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.OperandTypes;
+import org.apache.calcite.sql.type.ReturnTypes;
+import org.apache.calcite.sql.type.SqlOperandTypeChecker;
+import org.apache.calcite.sql.type.SqlReturnTypeInference;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.sql.type.SqlTypeTransforms;
+import org.apache.calcite.util.Optionality;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Aggregations computed with mergeable sketches. {@code APPROX_COUNT_DISTINCT} is the approximate distinct
+ * {@code COUNT} of calcite. The state functions are only used by partial aggregations, they output the serialized
+ * sketch to be merged by the reduce.
+ */
+public class DingoSketchAggFunction extends SqlAggFunction {
+    public static final DingoSketchAggFunction APPROX_PERCENTILE = new DingoSketchAggFunction(
+        "APPROX_PERCENTILE",
+        ReturnTypes.cascade(ReturnTypes.DOUBLE, SqlTypeTransforms.FORCE_NULLABLE),
+        OperandTypes.NUMERIC_NUMERIC
+    );
+
+    public static final DingoSketchAggFunction APPROX_COUNT_DISTINCT_STATE = new DingoSketchAggFunction(
+        "$APPROX_COUNT_DISTINCT_STATE",
+        ReturnTypes.cascade(ReturnTypes.explicit(SqlTypeName.VARBINARY), SqlTypeTransforms.FORCE_NULLABLE),
+        OperandTypes.ANY
+    );
+
+    public static final DingoSketchAggFunction APPROX_PERCENTILE_STATE = new DingoSketchAggFunction(
+        "$APPROX_PERCENTILE_STATE",
+        ReturnTypes.cascade(ReturnTypes.explicit(SqlTypeName.VARBINARY), SqlTypeTransforms.FORCE_NULLABLE),
+        OperandTypes.NUMERIC_NUMERIC
+    );
+
+    private DingoSketchAggFunction(
+        String name,
+        SqlReturnTypeInference returnTypeInference,
+        SqlOperandTypeChecker operandTypeChecker
+    ) {
+        super(
+            name,
+            null,
+            SqlKind.OTHER_FUNCTION,
+            returnTypeInference,
+            null,
+            operandTypeChecker,
+            SqlFunctionCategory.NUMERIC,
+            false,
+            false,
+            Optionality.FORBIDDEN
+        );
+    }
+
+    public static boolean isApproxCountDistinct(@NonNull AggregateCall call) {
+        return call.isApproximate() && call.isDistinct() && call.getAggregation().getKind() == SqlKind.COUNT;
+    }
+
+    public static boolean isSketch(@NonNull AggregateCall call) {
+        return isApproxCountDistinct(call)
+            || call.getAggregation() instanceof DingoSketchAggFunction;
+    }
+
+    /**
+     * Returns the call of the partial aggregation, which outputs the sketch of the call.
+     */
+    public static @NonNull AggregateCall toState(@NonNull AggregateCall call, @NonNull RelDataTypeFactory factory) {
+        SqlAggFunction function;
+        if (isApproxCountDistinct(call)) {
+            function = APPROX_COUNT_DISTINCT_STATE;
+        } else if (call.getAggregation() == APPROX_PERCENTILE) {
+            function = APPROX_PERCENTILE_STATE;
+        } else {
+            return call;
+        }
+        RelDataType type = factory.createTypeWithNullability(factory.createSqlType(SqlTypeName.VARBINARY), true);
+        return AggregateCall.create(
+            function,
+            false,
+            true,
+            call.ignoreNulls(),
+            call.getArgList(),
+            call.filterArg,
+            null,
+            call.getCollation(),
+            type,
+            call.getName()
+        );
+    }
+}
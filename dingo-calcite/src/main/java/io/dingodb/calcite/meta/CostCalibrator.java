@@ -0,0 +1,295 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.meta;
+
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.session.Session;
+import io.dingodb.common.session.SessionUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the cost factors of a cluster with a fixed workload. The workload runs through a jdbc connection, so
+ * it can run against a live cluster or the local test environment. The factors are measured in nanoseconds and
+ * saved as ratios to the sequential read cost, scaled so the scan factor keeps its default, so they are in the
+ * unit of the {@link CostFactors} defaults and the executor variable request_factor.
+ * <ul>
+ *     <li>scan and net: full scans of a narrow and a wide table, solved for the per row and per byte parts</li>
+ *     <li>cpu: the extra time per row of evaluating a filter expression</li>
+ *     <li>request: the time of one point lookup</li>
+ *     <li>mem: the time of putting one row into a hash table</li>
+ *     <li>scan concurrency: the speedup of scanning the rows of the narrow table split into regions</li>
+ *     <li>lookup concurrency: the speedup of a batched lookup over single lookups</li>
+ * </ul>
+ * Setting the global variable {@value #CALIBRATION_ROWS} to a row count runs the calibration in the background.
+ */
+@Slf4j
+public class CostCalibrator {
+    public static final String CALIBRATION_ROWS = "cost_calibration_rows";
+
+    private static final String NARROW_TABLE = "cost_calibration_narrow";
+    private static final String WIDE_TABLE = "cost_calibration_wide";
+    private static final String PART_TABLE = "cost_calibration_part";
+    private static final int NARROW_SIZE = 8;
+    private static final int WIDE_SIZE = 1004;
+    private static final int INSERT_BATCH = 500;
+    private static final int LOOKUPS = 100;
+    private static final double MIN_FACTOR = 0.0001;
+    private static final int PARTITIONS = 4;
+    private static final int ROUNDS = 3;
+
+    private final Connection connection;
+    private final int rows;
+    private final int partitions;
+    private final int rounds;
+
+    public CostCalibrator(Connection connection, int rows, int partitions, int rounds) {
+        this.connection = connection;
+        this.rows = Math.max(LOOKUPS, rows);
+        this.partitions = Math.max(2, partitions);
+        this.rounds = Math.max(1, rounds);
+    }
+
+    public CostFactors calibrate() throws SQLException {
+        try {
+            prepare();
+            double narrow = median(() -> scan("select * from " + NARROW_TABLE)) / rows;
+            double wide = median(() -> scan("select * from " + WIDE_TABLE)) / rows;
+            double a1 = log2(NARROW_SIZE);
+            double a2 = log2(WIDE_SIZE);
+            double netFactor = (wide * a1 - narrow * a2) / (WIDE_SIZE * a1 - NARROW_SIZE * a2);
+            if (netFactor <= 0) {
+                netFactor = MIN_FACTOR;
+            }
+            double scanFactor = Math.max(MIN_FACTOR, (narrow - NARROW_SIZE * netFactor) / a1);
+
+            double count = median(() -> scan("select count(*) from " + NARROW_TABLE)) / rows;
+            double filter = median(() -> scan(
+                "select count(*) from " + NARROW_TABLE + " where mod(v * 7 + id * 3, 11) >= 0"
+            )) / rows;
+            double cpuFactor = Math.max(MIN_FACTOR, filter - count);
+
+            double lookup = median(this::lookups) / LOOKUPS;
+            double batchLookup = median(this::batchLookup) / LOOKUPS;
+            double lookupConcurrency = clamp(lookup / batchLookup, LOOKUPS);
+
+            double part = median(() -> scan("select * from " + PART_TABLE)) / rows;
+            double scanConcurrency = clamp(narrow / part, partitions);
+
+            double memFactor = Math.max(MIN_FACTOR, median(this::hash) / rows);
+
+            CostFactors factors = normalize(
+                scanFactor, netFactor, cpuFactor, memFactor, lookup, scanConcurrency, lookupConcurrency
+            );
+            LogUtils.info(log, "Cost calibration done, rows:{}, scan:{}ns, factors:{}", rows, scanFactor, factors);
+            return factors;
+        } finally {
+            cleanUp();
+        }
+    }
+
+    /**
+     * Runs the calibration with the rows in the background on an internal session and saves the factors.
+     */
+    public static void calibrateAsync(int rows) {
+        Executors.execute("cost-calibration", () -> {
+            Session session = SessionUtil.INSTANCE.getSession();
+            try {
+                CostCalibrator calibrator = new CostCalibrator(session.getConnection(), rows, PARTITIONS, ROUNDS);
+                calibrator.persist(calibrator.calibrate());
+            } catch (SQLException e) {
+                LogUtils.error(log, "Cost calibration failed, {}", e.getMessage(), e);
+            } finally {
+                SessionUtil.INSTANCE.closeSession(session);
+            }
+        });
+    }
+
+    /**
+     * Converts the factors measured in nanoseconds to ratios to the scan factor, in the unit of the defaults.
+     */
+    static CostFactors normalize(
+        double scanNanos,
+        double netNanos,
+        double cpuNanos,
+        double memNanos,
+        double requestNanos,
+        double scanConcurrency,
+        double lookupConcurrency
+    ) {
+        double unit = CostFactors.DEFAULT.getScanFactor() / Math.max(MIN_FACTOR, scanNanos);
+        return CostFactors.builder()
+            .scanFactor(CostFactors.DEFAULT.getScanFactor())
+            .netFactor(Math.max(MIN_FACTOR, netNanos * unit))
+            .cpuFactor(Math.max(MIN_FACTOR, cpuNanos * unit))
+            .memFactor(Math.max(MIN_FACTOR, memNanos * unit))
+            .requestFactor(Math.max(MIN_FACTOR, requestNanos * unit))
+            .scanConcurrency(scanConcurrency)
+            .lookupConcurrency(lookupConcurrency)
+            .build();
+    }
+
+    /**
+     * Saves the factors to the global variables of the cluster.
+     */
+    public void persist(CostFactors factors) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> entry : factors.toVariables().entrySet()) {
+                statement.execute("set global " + entry.getKey() + " = " + entry.getValue());
+            }
+        }
+    }
+
+    private void prepare() throws SQLException {
+        cleanUp();
+        StringBuilder values = new StringBuilder();
+        for (int i = 1; i < partitions; i++) {
+            if (i > 1) {
+                values.append(',');
+            }
+            values.append('(').append((long) rows * i / partitions + 1).append(')');
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table " + NARROW_TABLE + " (id int, v int, primary key(id))");
+            statement.execute("create table " + WIDE_TABLE + " (id int, v varchar(1000), primary key(id))");
+            statement.execute("create table " + PART_TABLE + " (id int, v int, primary key(id))"
+                + " partition by range values " + values);
+        }
+        char[] chars = new char[WIDE_SIZE - 4];
+        Arrays.fill(chars, 'x');
+        String wideValue = "'" + new String(chars) + "'";
+        insert(NARROW_TABLE, String::valueOf);
+        insert(WIDE_TABLE, id -> wideValue);
+        insert(PART_TABLE, String::valueOf);
+    }
+
+    private void insert(String table, IntFunction<String> value) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            StringBuilder sql = new StringBuilder();
+            for (int id = 1; id <= rows; id++) {
+                if (sql.length() == 0) {
+                    sql.append("insert into ").append(table).append(" values ");
+                } else {
+                    sql.append(',');
+                }
+                sql.append('(').append(id).append(',').append(value.apply(id)).append(')');
+                if (id % INSERT_BATCH == 0 || id == rows) {
+                    statement.execute(sql.toString());
+                    sql.setLength(0);
+                }
+            }
+        }
+    }
+
+    private void cleanUp() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{NARROW_TABLE, WIDE_TABLE, PART_TABLE}) {
+                statement.execute("drop table if exists " + table);
+            }
+        }
+    }
+
+    private long scan(String sql) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    resultSet.getObject(i);
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long lookups() throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement statement = connection.prepareStatement(
+            "select * from " + NARROW_TABLE + " where id = ?"
+        )) {
+            for (int i = 0; i < LOOKUPS; i++) {
+                statement.setInt(1, (int) ((long) i * rows / LOOKUPS) + 1);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getObject(2);
+                    }
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long batchLookup() throws SQLException {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            ids.append((long) i * rows / LOOKUPS + 1);
+        }
+        return scan("select * from " + NARROW_TABLE + " where id in (" + ids + ")");
+    }
+
+    private long hash() {
+        long start = System.nanoTime();
+        Map<Integer, Object[]> map = new HashMap<>();
+        for (int id = 1; id <= rows; id++) {
+            map.put(id, new Object[]{id, id});
+        }
+        long cost = System.nanoTime() - start;
+        map.clear();
+        return cost;
+    }
+
+    private double median(Measure measure) throws SQLException {
+        // warm up
+        measure.run();
+        long[] costs = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            costs[i] = measure.run();
+        }
+        Arrays.sort(costs);
+        return costs[rounds / 2];
+    }
+
+    private static double clamp(double value, double max) {
+        if (Double.isNaN(value) || value < 1) {
+            return 1;
+        }
+        return Math.min(value, max);
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    @FunctionalInterface
+    private interface Measure {
+        long run() throws SQLException;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.meta;
+
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import io.dingodb.meta.InfoSchemaService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cost factors of a cluster, kept in the global variables so that every executor of the cluster plans with the
+ * same factors. The defaults are the factors used before calibration.
+ */
+@Slf4j
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class CostFactors {
+    public static final String SCAN_FACTOR = "cost_scan_factor";
+    public static final String NET_FACTOR = "cost_net_factor";
+    public static final String CPU_FACTOR = "cost_cpu_factor";
+    public static final String MEM_FACTOR = "cost_mem_factor";
+    public static final String REQUEST_FACTOR = "cost_request_factor";
+    public static final String SCAN_CONCURRENCY = "cost_scan_concurrency";
+    public static final String LOOKUP_CONCURRENCY = "cost_lookup_concurrency";
+
+    public static final CostFactors DEFAULT = new CostFactors(40.7, 3.96, 49.9, 0.01, 0, 1, 1);
+
+    private static final long REFRESH_INTERVAL = 60000L;
+
+    private static volatile CostFactors current = DEFAULT;
+    private static volatile long lastRefresh;
+
+    private final double scanFactor;
+    private final double netFactor;
+    private final double cpuFactor;
+    private final double memFactor;
+    /**
+     * Cost of one lookup request, 0 means the executor variable request_factor is used.
+     */
+    private final double requestFactor;
+    private final double scanConcurrency;
+    private final double lookupConcurrency;
+
+    public static CostFactors current() {
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh > REFRESH_INTERVAL) {
+            synchronized (CostFactors.class) {
+                if (now - lastRefresh > REFRESH_INTERVAL) {
+                    lastRefresh = now;
+                    refresh();
+                }
+            }
+        }
+        return current;
+    }
+
+    public static void refresh() {
+        try {
+            InfoSchemaService infoSchemaService = InfoSchemaService.root();
+            if (infoSchemaService != null) {
+                current = of(infoSchemaService.getGlobalVariables());
+            }
+        } catch (Exception e) {
+            LogUtils.warn(log, "Load cost factors failed, {}", e.getMessage());
+        }
+    }
+
+    public static @NonNull CostFactors of(Map<String, String> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return DEFAULT;
+        }
+        return new CostFactors(
+            parse(variables, SCAN_FACTOR, DEFAULT.scanFactor),
+            parse(variables, NET_FACTOR, DEFAULT.netFactor),
+            parse(variables, CPU_FACTOR, DEFAULT.cpuFactor),
+            parse(variables, MEM_FACTOR, DEFAULT.memFactor),
+            parse(variables, REQUEST_FACTOR, DEFAULT.requestFactor),
+            Math.max(1, parse(variables, SCAN_CONCURRENCY, DEFAULT.scanConcurrency)),
+            Math.max(1, parse(variables, LOOKUP_CONCURRENCY, DEFAULT.lookupConcurrency))
+        );
+    }
+
+    private static double parse(Map<String, String> variables, String name, double defaultValue) {
+        String value = variables.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double factor = Double.parseDouble(value);
+            return factor >= 0 ? factor : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public double getRequestFactor() {
+        return requestFactor > 0 ? requestFactor : ScopeVariables.getRequestFactor();
+    }
+
+    public Map<String, String> toVariables() {
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put(SCAN_FACTOR, format(scanFactor));
+        variables.put(NET_FACTOR, format(netFactor));
+        variables.put(CPU_FACTOR, format(cpuFactor));
+        variables.put(MEM_FACTOR, format(memFactor));
+        variables.put(REQUEST_FACTOR, format(requestFactor));
+        variables.put(SCAN_CONCURRENCY, format(scanConcurrency));
+        variables.put(LOOKUP_CONCURRENCY, format(lookupConcurrency));
+        return variables;
+    }
+
+    private static String format(double value) {
+        return String.valueOf(Math.round(value * 10000) / 10000.0);
+    }
+}
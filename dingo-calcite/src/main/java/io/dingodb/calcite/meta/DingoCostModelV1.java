@@ -28,6 +28,7 @@ import io.dingodb.common.type.scalar.LongType;
 import io.dingodb.common.type.scalar.StringType;
 import io.dingodb.common.type.scalar.TimeType;
 import io.dingodb.common.type.scalar.TimestampType;
+import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.Table;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -39,14 +40,6 @@ import java.util.concurrent.atomic.AtomicLong;
 
 public class DingoCostModelV1 extends DingoCostModel {
 
-    public static final double scanFactor = 40.7;
-    public static final double netFactor = 3.96;
-    public static final double cpuFactor = 49.9;
-    public static final double scanConcurrency = 1;
-    public static final double lookupConcurrency = 1;
-
-    public static final double memFactor = 0.01;
-
     private static DingoCostModelV1 INSTANCE;
 
     public static synchronized DingoCostModelV1 getCostModel() {
@@ -57,6 +50,50 @@ public class DingoCostModelV1 extends DingoCostModel {
         return INSTANCE;
     }
 
+    public static double scanFactor() {
+        return CostFactors.current().getScanFactor();
+    }
+
+    public static double netFactor() {
+        return CostFactors.current().getNetFactor();
+    }
+
+    public static double cpuFactor() {
+        return CostFactors.current().getCpuFactor();
+    }
+
+    public static double memFactor() {
+        return CostFactors.current().getMemFactor();
+    }
+
+    public static double requestFactor() {
+        return CostFactors.current().getRequestFactor();
+    }
+
+    public static double scanConcurrency() {
+        return CostFactors.current().getScanConcurrency();
+    }
+
+    /**
+     * Regions of a table are scanned in parallel, so the concurrency is bounded by the region count.
+     */
+    public static double scanConcurrency(Table table) {
+        double concurrency = scanConcurrency();
+        if (concurrency <= 1 || table == null || table.getTableId() == null) {
+            return 1;
+        }
+        try {
+            int regions = MetaService.root().getRangeDistribution(table.getTableId()).size();
+            return Math.max(1, Math.min(concurrency, regions));
+        } catch (Exception e) {
+            return 1;
+        }
+    }
+
+    public static double lookupConcurrency() {
+        return CostFactors.current().getLookupConcurrency();
+    }
+
     public static double getScanAvgRowSize(LogicalDingoTableScan tableScan) {
         DingoTable dingoTable = tableScan.getTable().unwrap(DingoTable.class);
         assert dingoTable != null;
@@ -68,7 +105,7 @@ public class DingoCostModelV1 extends DingoCostModel {
     }
 
     public static double getScanCost(double rowCount, double rowSize) {
-        double cost = rowCount * (Math.log(rowSize) / Math.log(2)) * scanFactor;
+        double cost = rowCount * (Math.log(rowSize) / Math.log(2)) * scanFactor();
         if (Double.isInfinite(cost)) {
             return 0;
         } else {
@@ -77,7 +114,7 @@ public class DingoCostModelV1 extends DingoCostModel {
     }
 
     public static double getNetCost(double rowCount, double rowSize) {
-        return rowCount * rowSize * netFactor;
+        return rowCount * rowSize * netFactor();
     }
 
     @NonNull
@@ -126,14 +126,14 @@ public class DingoGetByIndex extends LogicalDingoTableScan implements DingoRel {
             dingoTable.getTable(), schemaName);
 
         double estimateRowCount = estimateRowCount(mq);
-        double indexScanCost = estimateRowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor;
-        double indexNetCost = estimateRowCount * indexRowSize * netFactor;
-        double cost = (indexNetCost + indexScanCost) / scanConcurrency;
+        double indexScanCost = estimateRowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor();
+        double indexNetCost = estimateRowCount * indexRowSize * netFactor();
+        double cost = (indexNetCost + indexScanCost) / scanConcurrency(indexTd);
         if (isLookup()) {
             double rowSize = getScanAvgRowSize(this);
             //double tableScanCost = getScanCost(estimateRowCount, rowSize);
-            double tableNetCost = estimateRowCount * rowSize * netFactor;
-            cost += tableNetCost / scanConcurrency;
+            double tableNetCost = estimateRowCount * rowSize * netFactor();
+            cost += tableNetCost / scanConcurrency(dingoTable.getTable());
         }
         return DingoCost.FACTORY.makeCost(cost * 0.7, 0, 0);
     }
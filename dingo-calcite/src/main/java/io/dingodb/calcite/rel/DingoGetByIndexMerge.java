@@ -83,7 +83,7 @@ public class DingoGetByIndexMerge extends DingoGetByIndex implements DingoRel {
     public @Nullable RelOptCost computeSelfCost(@NonNull RelOptPlanner planner, @NonNull RelMetadataQuery mq) {
         RelOptCost cost = super.computeSelfCost(planner, mq);
         double rowCount = this.estimateRowCount(mq);
-        RelOptCost memCost = DingoCost.FACTORY.makeCost(rowCount * memFactor, 0, 0);
+        RelOptCost memCost = DingoCost.FACTORY.makeCost(rowCount * memFactor(), 0, 0);
         assert cost != null;
         return cost.plus(memCost);
     }
@@ -16,6 +16,7 @@
 
 package io.dingodb.calcite.rel;
 
+import io.dingodb.calcite.DingoTable;
 import io.dingodb.calcite.visitor.DingoRelVisitor;
 import io.dingodb.common.type.TupleMapping;
 import lombok.Getter;
@@ -71,7 +72,8 @@ public final class DingoGetByKeys extends DingoGetByIndex {
     public @Nullable RelOptCost computeSelfCost(@NonNull RelOptPlanner planner, @NonNull RelMetadataQuery mq) {
         double rowCount = estimateRowCount(mq);
         double rowSize = getScanAvgRowSize(this);
-        double indexNetCost = getNetCost(rowCount, rowSize) / scanConcurrency;
+        double indexNetCost = getNetCost(rowCount, rowSize)
+            / scanConcurrency(getTable().unwrap(DingoTable.class).getTable());
 
         return DingoCost.FACTORY.makeCost(indexNetCost, 0, 0);
     }
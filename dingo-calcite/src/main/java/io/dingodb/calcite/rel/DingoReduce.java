@@ -28,6 +28,8 @@ import org.apache.calcite.rel.SingleRel;
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
 import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.util.ImmutableBitSet;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -74,6 +76,23 @@ public final class DingoReduce extends SingleRel implements DingoRel {
         );
     }
 
+    /**
+     * The input may carry sketches of partial aggregations, the output has the types of the aggregation calls.
+     */
+    @Override
+    protected RelDataType deriveRowType() {
+        RelDataTypeFactory.Builder builder = getCluster().getTypeFactory().builder();
+        List<RelDataTypeField> fields = input.getRowType().getFieldList();
+        int groupCount = groupSet.cardinality();
+        for (int i = 0; i < groupCount; i++) {
+            builder.add(fields.get(i));
+        }
+        for (int i = 0; i < aggregateCallList.size(); i++) {
+            builder.add(fields.get(groupCount + i).getName(), aggregateCallList.get(i).getType());
+        }
+        return builder.build();
+    }
+
     @Override
     public @Nullable RelOptCost computeSelfCost(@NonNull RelOptPlanner planner, RelMetadataQuery mq) {
         // Assume that all reduces are needed.
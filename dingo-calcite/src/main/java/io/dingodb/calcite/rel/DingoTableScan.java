@@ -17,6 +17,7 @@
 package io.dingodb.calcite.rel;
 
 import com.google.common.collect.ImmutableList;
+import io.dingodb.calcite.DingoTable;
 import io.dingodb.calcite.stats.StatsCache;
 import io.dingodb.calcite.utils.RelDataTypeUtils;
 import io.dingodb.calcite.visitor.DingoRelVisitor;
@@ -136,7 +137,8 @@ public class DingoTableScan extends LogicalDingoTableScan implements DingoRel {
         double rowSize = getScanAvgRowSize(this);
         double tableScanCost = getScanCost(rowCount, rowSize);
         double tableNetCost = getNetCost(rowCount, rowSize);
-        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency;
+        DingoTable dingoTable = getTable().unwrap(DingoTable.class);
+        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency(dingoTable.getTable());
         return DingoCost.FACTORY.makeCost(rangeCost, 0, 0);
     }
 }
@@ -145,7 +145,7 @@ public class DingoIndexScanWithRelOp extends LogicalIndexScanWithRelOp implement
         double rowSize = getAvgRowSize(indexTable.columns, indexTable, schemaName);
         double tableScanCost = getScanCost(rowCount, rowSize);
         double tableNetCost = getNetCost(rowCount, rowSize);
-        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency;
+        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency(indexTable);
         return DingoCost.FACTORY.makeCost(rangeCost * 0.7, 0, 0);
     }
 
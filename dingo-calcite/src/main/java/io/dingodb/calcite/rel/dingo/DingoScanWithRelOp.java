@@ -148,7 +148,7 @@ public final class DingoScanWithRelOp extends LogicalScanWithRelOp implements Di
         double rowSize = getAvgRowSize(dingoTable.getTable().columns, dingoTable.getTable(), schemaName);
         double tableScanCost = getScanCost(rowCount, rowSize);
         double tableNetCost = getNetCost(rowCount, rowSize);
-        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency;
+        double rangeCost = (tableScanCost + tableNetCost) / scanConcurrency(dingoTable.getTable());
         return DingoCost.FACTORY.makeCost(rangeCost * 0.8, 0, 0);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.calcite.rel.dingo;
+
+import io.dingodb.calcite.rel.DingoRel;
+import io.dingodb.calcite.visitor.DingoRelVisitor;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelCollations;
+import org.apache.calcite.rel.RelFieldCollation;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Window;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexLiteral;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.dingodb.common.util.Utils.sole;
+
+/**
+ * Evaluates the window groups one by one over the input, which must be sorted on the partition and order keys of
+ * the first group.
+ */
+public final class DingoWindow extends Window implements DingoRel {
+    public DingoWindow(
+        RelOptCluster cluster,
+        RelTraitSet traits,
+        RelNode input,
+        List<RexLiteral> constants,
+        RelDataType rowType,
+        List<Group> groups
+    ) {
+        super(cluster, traits, input, constants, rowType, groups);
+    }
+
+    /**
+     * Returns the collation a group needs, the partition keys followed by the order keys.
+     */
+    public static @NonNull RelCollation collation(@NonNull Group group) {
+        List<RelFieldCollation> fieldCollations = new ArrayList<>();
+        for (int key : group.keys) {
+            fieldCollations.add(new RelFieldCollation(
+                key, RelFieldCollation.Direction.ASCENDING, RelFieldCollation.NullDirection.FIRST
+            ));
+        }
+        for (RelFieldCollation fieldCollation : group.orderKeys.getFieldCollations()) {
+            if (!group.keys.get(fieldCollation.getFieldIndex())) {
+                fieldCollations.add(fieldCollation);
+            }
+        }
+        return RelCollations.of(fieldCollations);
+    }
+
+    @Override
+    public <T> T accept(@NonNull DingoRelVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public RelNode copy(RelTraitSet traitSet, List<RelNode> inputs) {
+        return new DingoWindow(getCluster(), traitSet, sole(inputs), constants, getRowType(), groups);
+    }
+
+    public Window copy(List<RexLiteral> constants) {
+        return new DingoWindow(getCluster(), traitSet, getInput(), constants, getRowType(), groups);
+    }
+}
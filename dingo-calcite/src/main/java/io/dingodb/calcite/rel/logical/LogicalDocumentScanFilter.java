@@ -96,16 +96,16 @@ public class LogicalDocumentScanFilter extends LogicalDingoTableScan {
 
         double rowCount = estimateRowCount(mq);
 
-        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor;
-        double indexNetCost = rowCount * indexRowSize * netFactor;
-        double cost = (indexNetCost + indexScanCost) / scanConcurrency;
+        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor();
+        double indexNetCost = rowCount * indexRowSize * netFactor();
+        double cost = (indexNetCost + indexScanCost) / scanConcurrency(indexTable);
 
         if (lookup) {
             double rowSize = getScanAvgRowSize(this);
             double estimateRowCount = estimateRowCount(mq);
             double tableScanCost = getScanCost(estimateRowCount, rowSize);
-            double tableNetCost = estimateRowCount * rowSize * netFactor;
-            cost += (tableScanCost + tableNetCost) / scanConcurrency;
+            double tableNetCost = estimateRowCount * rowSize * netFactor();
+            cost += (tableScanCost + tableNetCost) / scanConcurrency(dingoTable.getTable());
         }
 
         return planner.getCostFactory().makeCost(cost * 0.8, 0, 0);
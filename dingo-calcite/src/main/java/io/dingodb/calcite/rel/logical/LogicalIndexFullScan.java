@@ -102,16 +102,16 @@ public class LogicalIndexFullScan extends LogicalDingoTableScan {
 
         double rowCount = fullEstimateRowCount(mq);
 
-        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor;
-        double indexNetCost = rowCount * indexRowSize * netFactor;
-        double cost = (indexNetCost + indexScanCost) / scanConcurrency;
+        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor();
+        double indexNetCost = rowCount * indexRowSize * netFactor();
+        double cost = (indexNetCost + indexScanCost) / scanConcurrency(indexTable);
 
         if (lookup) {
             double rowSize = getScanAvgRowSize(this);
             double estimateRowCount = estimateRowCount(mq);
             double tableScanCost = getScanCost(estimateRowCount, rowSize);
-            double tableNetCost = estimateRowCount * rowSize * netFactor;
-            cost += (tableScanCost + tableNetCost) / scanConcurrency;
+            double tableNetCost = estimateRowCount * rowSize * netFactor();
+            cost += (tableScanCost + tableNetCost) / scanConcurrency(dingoTable.getTable());
         }
 
         return planner.getCostFactory().makeCost(cost * 0.8, 0, 0);
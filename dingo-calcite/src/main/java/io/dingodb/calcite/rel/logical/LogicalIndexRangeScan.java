@@ -19,7 +19,6 @@ package io.dingodb.calcite.rel.logical;
 import io.dingodb.calcite.DingoTable;
 import io.dingodb.calcite.rel.LogicalDingoTableScan;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
@@ -44,6 +43,7 @@ import static io.dingodb.calcite.meta.DingoCostModelV1.getScanAvgRowSize;
 import static io.dingodb.calcite.meta.DingoCostModelV1.getScanCost;
 import static io.dingodb.calcite.meta.DingoCostModelV1.lookupConcurrency;
 import static io.dingodb.calcite.meta.DingoCostModelV1.netFactor;
+import static io.dingodb.calcite.meta.DingoCostModelV1.requestFactor;
 import static io.dingodb.calcite.meta.DingoCostModelV1.scanConcurrency;
 import static io.dingodb.calcite.meta.DingoCostModelV1.scanFactor;
 
@@ -95,22 +95,22 @@ public class LogicalIndexRangeScan extends LogicalDingoTableScan {
 
         double rowCount = estimateRowCount(mq);
 
-        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor;
-        double indexNetCost = rowCount * indexRowSize * netFactor;
-        double cost = (indexNetCost + indexScanCost) / scanConcurrency;
+        double indexScanCost = rowCount * (Math.log(indexRowSize) / Math.log(2)) * scanFactor();
+        double indexNetCost = rowCount * indexRowSize * netFactor();
+        double cost = (indexNetCost + indexScanCost) / scanConcurrency(indexTable);
 
         if (lookup) {
             double rowSize = getScanAvgRowSize(this);
             double estimateRowCount = estimateRowCount(mq);
             double tableScanCost = getScanCost(estimateRowCount, rowSize);
-            double tableNetCost = estimateRowCount * rowSize * netFactor;
-            double tableSideCost = (tableNetCost + tableScanCost) / scanConcurrency;
+            double tableNetCost = estimateRowCount * rowSize * netFactor();
+            double tableSideCost = (tableNetCost + tableScanCost) / scanConcurrency(dingoTable.getTable());
 
-            double doubleReadRequestCost = estimateRowCount * ScopeVariables.getRequestFactor();
-            double doubleReadCpuCost = estimateRowCount * cpuFactor;
+            double doubleReadRequestCost = estimateRowCount * requestFactor();
+            double doubleReadCpuCost = estimateRowCount * cpuFactor();
             double doubleReadCost = doubleReadRequestCost + doubleReadCpuCost;
 
-            tableSideCost = (tableSideCost + doubleReadCost) / lookupConcurrency;
+            tableSideCost = (tableSideCost + doubleReadCost) / lookupConcurrency();
             cost += tableSideCost;
         }
 
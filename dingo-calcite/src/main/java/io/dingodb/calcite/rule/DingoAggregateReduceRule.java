@@ -17,6 +17,7 @@
 package io.dingodb.calcite.rule;
 
 import com.google.common.collect.ImmutableList;
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.calcite.rel.DingoAggregate;
 import io.dingodb.calcite.rel.DingoReduce;
 import io.dingodb.calcite.rel.dingo.DingoStreamingConverter;
@@ -24,9 +25,13 @@ import io.dingodb.calcite.traits.DingoRelStreaming;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.rel.core.AggregateCall;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.immutables.value.Value;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Value.Enclosing
 public class DingoAggregateReduceRule extends RelRule<RelRule.Config> {
     protected DingoAggregateReduceRule(Config config) {
@@ -38,6 +43,10 @@ public class DingoAggregateReduceRule extends RelRule<RelRule.Config> {
         DingoAggregate aggregate = call.rel(0);
         DingoStreamingConverter converter = call.rel(1);
         RelOptCluster cluster = aggregate.getCluster();
+        // The partial aggregation of a sketch outputs the sketch, which is merged by the reduce.
+        List<AggregateCall> partialCalls = aggregate.getAggCallList().stream()
+            .map(c -> DingoSketchAggFunction.toState(c, cluster.getTypeFactory()))
+            .collect(Collectors.toList());
         call.transformTo(
             new DingoReduce(
                 cluster,
@@ -46,7 +55,10 @@ public class DingoAggregateReduceRule extends RelRule<RelRule.Config> {
                     converter.getTraitSet(),
                     ImmutableList.of(aggregate.copy(
                         converter.getInput().getTraitSet(),
-                        converter.getInputs()
+                        converter.getInput(),
+                        aggregate.getGroupSet(),
+                        aggregate.getGroupSets(),
+                        partialCalls
                     ))
                 ),
                 aggregate.getGroupSet(),
@@ -16,6 +16,7 @@
 
 package io.dingodb.calcite.rule;
 
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.calcite.rel.DingoAggregate;
 import io.dingodb.calcite.traits.DingoConvention;
 import io.dingodb.calcite.traits.DingoRelStreaming;
@@ -39,6 +40,20 @@ public class DingoAggregateRule extends ConverterRule {
         )
         .withRuleFactory(DingoAggregateRule::new);
 
+    /**
+     * Sketches are not supported by rel ops, so aggregations with sketches are converted by this rule even if rel ops
+     * are used.
+     */
+    public static final Config SKETCH = Config.INSTANCE
+        .withConversion(
+            LogicalAggregate.class,
+            DingoAggregateRule::matchSketch,
+            Convention.NONE,
+            DingoConvention.INSTANCE,
+            "DingoSketchAggregateRule"
+        )
+        .withRuleFactory(DingoAggregateRule::new);
+
     protected DingoAggregateRule(Config config) {
         super(config);
     }
@@ -56,10 +71,15 @@ public class DingoAggregateRule extends ConverterRule {
             // 1. aggregate with distinct(AggregateCall List is empty)
             // 2. aggregate with count(AggregateCall List contains COUNT, SUM, AVG...)
             // So, In this case, the origin aggregate and distinct should be ignored.
-            return agg.isDistinct() && (kind == SqlKind.COUNT || kind == SqlKind.SUM);
+            // The approximate distinct count is not expanded, it is computed with a sketch.
+            return agg.isDistinct() && !agg.isApproximate() && (kind == SqlKind.COUNT || kind == SqlKind.SUM);
         });
     }
 
+    public static boolean matchSketch(@NonNull LogicalAggregate rel) {
+        return match(rel) && rel.getAggCallList().stream().anyMatch(DingoSketchAggFunction::isSketch);
+    }
+
     @Override
     public @Nullable RelNode convert(RelNode rel) {
         LogicalAggregate agg = (LogicalAggregate) rel;
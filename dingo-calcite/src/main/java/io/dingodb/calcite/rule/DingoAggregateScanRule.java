@@ -17,6 +17,7 @@
 package io.dingodb.calcite.rule;
 
 import io.dingodb.calcite.DingoTable;
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.calcite.rel.DingoAggregate;
 import io.dingodb.calcite.rel.DingoTableScan;
 import io.dingodb.calcite.type.converter.DefinitionMapper;
@@ -58,6 +59,10 @@ public class DingoAggregateScanRule extends RelRule<RelRule.Config> {
         if (!scan.isPushDown()) {
             return;
         }
+        // Sketches are not supported by the store.
+        if (aggregate.getAggCallList().stream().anyMatch(DingoSketchAggFunction::isSketch)) {
+            return;
+        }
         boolean isCountNoArgListAgg = aggregate.getAggCallList() != null && aggregate.getAggCallList().size() == 1
             && aggregate.getAggCallList().get(0).toString().equalsIgnoreCase("COUNT()")
             && selection == null;
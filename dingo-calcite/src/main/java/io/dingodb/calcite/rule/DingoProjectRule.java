@@ -45,6 +45,8 @@ public class DingoProjectRule extends ConverterRule {
     public static final Config DEFAULT = Config.INSTANCE
         .withConversion(
             LogicalProject.class,
+            // Window calls are split out to `LogicalWindow` first.
+            (LogicalProject p) -> !p.containsOver(),
             Convention.NONE,
             DingoConvention.INSTANCE,
             "DingoProjectRule"
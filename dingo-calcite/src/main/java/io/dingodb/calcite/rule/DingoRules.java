@@ -17,10 +17,15 @@
 package io.dingodb.calcite.rule;
 
 import com.google.common.collect.ImmutableList;
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.calcite.rule.dingo.DingoPhysicalRules;
 import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.core.Correlate;
+import org.apache.calcite.rel.logical.LogicalAggregate;
+import org.apache.calcite.rel.rules.AggregateExpandDistinctAggregatesRule;
 import org.apache.calcite.rel.rules.CoreRules;
+import org.checkerframework.checker.nullness.qual.NonNull;
 
 import java.util.List;
 
@@ -29,6 +34,8 @@ public final class DingoRules {
         = DingoAggregateReduceRule.Config.DEFAULT.toRule();
     public static final DingoAggregateRule DINGO_AGGREGATE_RULE
         = DingoAggregateRule.DEFAULT.toRule(DingoAggregateRule.class);
+    public static final DingoAggregateRule DINGO_SKETCH_AGGREGATE_RULE
+        = DingoAggregateRule.SKETCH.toRule(DingoAggregateRule.class);
     public static final DingoAggregateScanRule DINGO_AGGREGATE_SCAN_RULE
         = DingoAggregateScanRule.Config.DEFAULT.toRule();
     public static final DingoFilterRule DINGO_FILTER_RULE
@@ -84,6 +91,29 @@ public final class DingoRules {
     public static final DingoModifyIndexRule DINGO_MODIFY_INDEX_RULE
         = DingoModifyIndexRule.Config.DEFAULT.toRule();
 
+    /**
+     * Same as {@link CoreRules#AGGREGATE_EXPAND_DISTINCT_AGGREGATES}, but aggregations whose distinct calls are all
+     * approximate are kept, for they are computed with sketches.
+     */
+    public static final AggregateExpandDistinctAggregatesRule AGGREGATE_EXPAND_DISTINCT_AGGREGATES =
+        AggregateExpandDistinctAggregatesRule.Config.DEFAULT
+            .withOperandSupplier(b ->
+                b.operand(LogicalAggregate.class).predicate(DingoRules::isExactDistinct).anyInputs())
+            .withDescription("DingoAggregateExpandDistinctAggregatesRule")
+            .as(AggregateExpandDistinctAggregatesRule.Config.class)
+            .toRule();
+
+    /**
+     * Same as {@link CoreRules#AGGREGATE_EXPAND_DISTINCT_AGGREGATES_TO_JOIN}, but aggregations whose distinct calls
+     * are all approximate are kept.
+     */
+    public static final AggregateExpandDistinctAggregatesRule AGGREGATE_EXPAND_DISTINCT_AGGREGATES_TO_JOIN =
+        AGGREGATE_EXPAND_DISTINCT_AGGREGATES.config
+            .withUsingGroupingSets(false)
+            .withDescription("DingoAggregateExpandDistinctAggregatesRule:ToJoin")
+            .as(AggregateExpandDistinctAggregatesRule.Config.class)
+            .toRule();
+
     public static final SubQueryRemoveRule PROJECT_SUB_QUERY_TO_CORRELATE =
         SubQueryRemoveRule.Config.PROJECT.toRule();
 
@@ -192,18 +222,20 @@ public final class DingoRules {
         = DingoDocumentProjectRule.Config.DEFAULT.toRule();
 
     private static final List<RelOptRule> rules = ImmutableList.of(
-        CoreRules.AGGREGATE_EXPAND_DISTINCT_AGGREGATES,
-        CoreRules.AGGREGATE_EXPAND_DISTINCT_AGGREGATES_TO_JOIN,
+        AGGREGATE_EXPAND_DISTINCT_AGGREGATES,
+        AGGREGATE_EXPAND_DISTINCT_AGGREGATES_TO_JOIN,
         CoreRules.AGGREGATE_REDUCE_FUNCTIONS,
         CoreRules.FILTER_INTO_JOIN,
         CoreRules.JOIN_CONDITION_PUSH,
         CoreRules.JOIN_EXTRACT_FILTER,
         CoreRules.PROJECT_REMOVE,
         CoreRules.PROJECT_SUB_QUERY_TO_CORRELATE,
+        CoreRules.PROJECT_TO_LOGICAL_PROJECT_AND_WINDOW,
         DingoPhysicalRules.DINGO_HASH_JOIN_RULE,
         DingoPhysicalRules.DINGO_ROOT_RULE,
         DingoPhysicalRules.DINGO_SORT_RULE,
         DingoPhysicalRules.DINGO_TRANSPOSE_REL_OP_STREAMING_CONVERTER_RULE,
+        DingoPhysicalRules.DINGO_WINDOW_RULE,
         DINGO_GET_BY_INDEX_RULE,
         DINGO_LIKE_RULE,
         DINGO_PART_COUNT_RULE,
@@ -262,6 +294,12 @@ public final class DingoRules {
     private DingoRules() {
     }
 
+    private static boolean isExactDistinct(@NonNull LogicalAggregate aggregate) {
+        return aggregate.getAggCallList().stream()
+            .filter(AggregateCall::isDistinct)
+            .anyMatch(call -> !DingoSketchAggFunction.isApproxCountDistinct(call));
+    }
+
     public static List<RelOptRule> rules() {
         return rules;
     }
@@ -31,6 +31,8 @@ public final class DingoPhysicalRules {
         = DingoSortRule.DEFAULT.toRule(DingoSortRule.class);
     public static final DingoTransposeRelOpStreamingConverterRule DINGO_TRANSPOSE_REL_OP_STREAMING_CONVERTER_RULE
         = DingoTransposeRelOpStreamingConverterRule.Config.DEFAULT.toRule();
+    public static final DingoWindowRule DINGO_WINDOW_RULE
+        = DingoWindowRule.DEFAULT.toRule(DingoWindowRule.class);
 
     private DingoPhysicalRules() {
     }
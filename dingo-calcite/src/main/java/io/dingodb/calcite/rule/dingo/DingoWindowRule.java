@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.calcite.rule.dingo;
+
+import com.google.common.collect.ImmutableList;
+import io.dingodb.calcite.rel.dingo.DingoSort;
+import io.dingodb.calcite.rel.dingo.DingoWindow;
+import io.dingodb.calcite.traits.DingoConvention;
+import io.dingodb.calcite.traits.DingoRelStreaming;
+import org.apache.calcite.plan.Convention;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelCollations;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.convert.ConverterRule;
+import org.apache.calcite.rel.core.Window;
+import org.apache.calcite.rel.logical.LogicalWindow;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexWindowBound;
+import org.apache.calcite.sql.SqlKind;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class DingoWindowRule extends ConverterRule {
+    public static final Config DEFAULT = Config.INSTANCE
+        .withConversion(
+            LogicalWindow.class,
+            DingoWindowRule::match,
+            Convention.NONE,
+            DingoConvention.INSTANCE,
+            "DingoWindowRule"
+        )
+        .withRuleFactory(DingoWindowRule::new);
+
+    private static final Set<SqlKind> SUPPORTED_KINDS = EnumSet.of(
+        SqlKind.ROW_NUMBER,
+        SqlKind.RANK,
+        SqlKind.DENSE_RANK,
+        SqlKind.LAG,
+        SqlKind.LEAD,
+        SqlKind.FIRST_VALUE,
+        SqlKind.LAST_VALUE,
+        SqlKind.COUNT,
+        SqlKind.SUM,
+        SqlKind.SUM0,
+        SqlKind.MIN,
+        SqlKind.MAX
+    );
+
+    protected DingoWindowRule(Config config) {
+        super(config);
+    }
+
+    private static boolean isCurrentOrUnbounded(@NonNull RexWindowBound bound) {
+        return bound.isCurrentRow() || bound.isUnbounded();
+    }
+
+    public static boolean match(@NonNull LogicalWindow rel) {
+        int fieldCount = rel.getInput().getRowType().getFieldCount();
+        for (Window.Group group : rel.groups) {
+            // Only ROWS frames may have offsets.
+            if (!group.isRows && !(isCurrentOrUnbounded(group.lowerBound) && isCurrentOrUnbounded(group.upperBound))) {
+                return false;
+            }
+            for (Window.RexWinAggCall call : group.aggCalls) {
+                if (call.distinct || !SUPPORTED_KINDS.contains(call.getKind())) {
+                    return false;
+                }
+                // The 1st operand is a column, the others (of LAG and LEAD) are constants.
+                List<RexNode> operands = call.getOperands();
+                for (int i = 0; i < operands.size(); ++i) {
+                    RexNode operand = operands.get(i);
+                    if (!(operand instanceof RexInputRef)
+                        || (((RexInputRef) operand).getIndex() < fieldCount) != (i == 0)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RelNode convert(RelNode rel) {
+        LogicalWindow window = (LogicalWindow) rel;
+        RelTraitSet traits = window.getTraitSet()
+            .replace(DingoConvention.INSTANCE)
+            .replace(DingoRelStreaming.ROOT);
+        // Only the input ordering of the first group is required here, the others are sorted in the job if needed.
+        RelCollation collation = DingoWindow.collation(window.groups.get(0));
+        RelMetadataQuery mq = window.getCluster().getMetadataQuery();
+        List<RelCollation> inputCollations = mq.collations(window.getInput());
+        RelNode input;
+        if (collation.getFieldCollations().isEmpty()
+            || (inputCollations != null && inputCollations.stream().anyMatch(c -> c.satisfies(collation)))
+        ) {
+            // Already sorted, e.g. by a sorted sub-query, do not sort again.
+            input = convert(window.getInput(), traits.replace(collation));
+        } else {
+            input = new DingoSort(
+                window.getCluster(),
+                traits.replace(collation),
+                ImmutableList.of(),
+                convert(window.getInput(), traits.replace(RelCollations.EMPTY)),
+                collation,
+                null,
+                null
+            );
+        }
+        return new DingoWindow(
+            window.getCluster(),
+            traits.replace(window.groups.size() == 1 ? collation : RelCollations.EMPTY),
+            input,
+            window.constants,
+            window.getRowType(),
+            window.groups
+        );
+    }
+}
@@ -17,6 +17,7 @@
 package io.dingodb.calcite.stats;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -26,15 +27,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.util.NlsString;
 
-import java.math.BigDecimal;
-import java.sql.Date;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Equi-depth histogram. Each region keeps a reservoir sample of the column values, the samples of all regions
+ * are weighted by the rows they stand for, merged and cut into buckets holding the same number of rows.
+ * Numbers, decimals and date/time values are ordered as double, strings as string.
+ */
 @NoArgsConstructor
-@JsonPropertyOrder({"max", "min", "width", "lstWidth", "buckets", "totalCount"})
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"lowers", "uppers", "depths", "repeats", "distincts", "totalCount", "nullCount"})
 public class Histogram implements Cloneable, CalculateStatistic {
 
     @Getter
@@ -59,37 +66,37 @@ public class Histogram implements Cloneable, CalculateStatistic {
     private int index;
 
     /**
-     * max value in the histogram.
+     * lower bound of each bucket.
      */
-    @JsonProperty("max")
-    private Long max;
+    @JsonProperty("lowers")
+    private Object[] lowers;
 
     /**
-     * min value in the histogram.
+     * upper bound of each bucket.
      */
-    @JsonProperty("min")
-    private Long min;
+    @JsonProperty("uppers")
+    private Object[] uppers;
 
     /**
-     * width of each bucket, except for the last.
+     * fraction of the non-null rows up to the upper bound of each bucket.
      */
-    @JsonProperty("width")
-    private long width;
+    @JsonProperty("depths")
+    private double[] depths;
 
     /**
-     * width of the last bucket.
+     * fraction of the non-null rows equal to the upper bound of each bucket.
      */
-    @JsonProperty("lstWidth")
-    private long lstWidth;
+    @JsonProperty("repeats")
+    private double[] repeats;
 
     /**
-     * count of each bucket.
+     * distinct values of each bucket in the sample.
      */
-    @JsonProperty("buckets")
-    private long[] buckets;
+    @JsonProperty("distincts")
+    private long[] distincts;
 
     /**
-     * sum of counts of all baskets.
+     * rows seen, including nulls.
      */
     @JsonProperty("totalCount")
     @Getter
@@ -98,6 +105,18 @@ public class Histogram implements Cloneable, CalculateStatistic {
     @JsonProperty("nullCount")
     private long nullCount;
 
+    @JsonIgnore
+    private int bucketCount;
+
+    @JsonIgnore
+    private Object[] reservoir;
+
+    @JsonIgnore
+    private int sampled;
+
+    @JsonIgnore
+    private List<Sample> merged;
+
     public Histogram(String schemaName,
                         String tableName,
                         String columnName,
@@ -110,125 +129,147 @@ public class Histogram implements Cloneable, CalculateStatistic {
         this.index = index;
     }
 
-    public void setRegionMax(Object regionMax) {
-        Long val = getLongVal(regionMax);
-        if (max == null) {
-            max = val;
-        } else if (val > max) {
-            max = val;
-        }
-    }
-
-    public void setRegionMin(Object regionMin) {
-        Long val = getLongVal(regionMin);
-        if (min == null) {
-            min = val;
-        } else if (val < min) {
-            min = val;
-        }
-    }
-
-    public void init(int buckets) {
-        if (this.max == null || this.min == null) {
-            return;
-        }
-        // calculate # of buckets
-        if (this.max - this.min + 1 < buckets) {
-            this.buckets = new long[(int) (this.max - this.min + 1)];
-            width = 1;
-            lstWidth = 1;
-        } else {
-            this.buckets = new long[buckets];
-            width = (int) Math.floor((this.max - this.min + 1) / (double) buckets);
-            lstWidth = (this.max - (min + (buckets - 1) * width)) + 1;
-        }
-
-        // set everything to 0, for safety
-        Arrays.fill(this.buckets, 0);
-
-        // set totalCount to 0
-        totalCount = 0;
+    /**
+     * Prepares the collection.
+     * @param buckets bucket count
+     * @param sampleSize values kept in the reservoir
+     */
+    public void init(int buckets, int sampleSize) {
+        this.bucketCount = buckets;
+        this.reservoir = new Object[Math.max(1, sampleSize)];
+        this.sampled = 0;
+        this.merged = null;
+        this.totalCount = 0;
+        this.nullCount = 0;
     }
 
     public void addValue(Object val) {
         totalCount++;
-        if (val == null) {
-            nullCount ++;
+        Object key = sortKey(val);
+        if (key == null) {
+            nullCount++;
             return;
         }
-        Long value = getLongVal(val);
-        addLongValue(value);
-    }
-
-    private static Long getLongVal(Object val) {
-        long value = 0;
-        if (val instanceof Integer) {
-            value = ((Integer) val).longValue();
-        } else if (val instanceof BigDecimal) {
-            value = ((BigDecimal) val).longValue();
-        } else if (val instanceof Date) {
-            value = ((Date) val).getTime();
-        } else if (val instanceof Time) {
-            value = ((Time) val).getTime();
-        } else if (val instanceof Timestamp) {
-            value = ((Timestamp) val).getTime();
-        } else if (val instanceof Long) {
-            value = (long) val;
-        } else if (val instanceof Double) {
-            value = ((Double) val).longValue();
-        } else if (val instanceof Float) {
-            value = ((Float) val).longValue();
+        long seen = totalCount - nullCount;
+        if (sampled < reservoir.length) {
+            reservoir[sampled++] = key;
+        } else {
+            long pos = ThreadLocalRandom.current().nextLong(seen);
+            if (pos < reservoir.length) {
+                reservoir[(int) pos] = key;
+            }
         }
-        return value;
     }
 
     public void merge(Histogram histogram) {
+        List<Sample> samples = samples();
+        samples.addAll(histogram.samples());
+        this.merged = samples;
+        this.sampled = 0;
         this.totalCount += histogram.totalCount;
         this.nullCount += histogram.nullCount;
-        if (buckets == null) {
-            return;
-        }
-        for (int i = 0; i < buckets.length; i ++) {
-            buckets[i] += histogram.buckets[i];
-        }
     }
 
-    private void addLongValue(Long val) {
-        if (min == null || max == null) {
+    /**
+     * Cuts the collected samples into buckets and drops them.
+     */
+    public void build() {
+        List<Sample> samples = samples();
+        merged = null;
+        reservoir = null;
+        sampled = 0;
+        if (samples.isEmpty()) {
             return;
         }
-        if (val < min || val > max) {
-            return;
+        samples.sort((s1, s2) -> compare(s1.key, s2.key));
+        double total = 0;
+        for (Sample sample : samples) {
+            total += sample.weight;
         }
-
-        if ((val - min) / width < buckets.length - 1) {
-            buckets[(int) ((val - min) / width)]++;
-        } else {
-            buckets[buckets.length - 1]++;
+        int buckets = Math.max(1, Math.min(bucketCount, samples.size()));
+        double depth = total / buckets;
+        List<Object> lowerList = new ArrayList<>(buckets);
+        List<Object> upperList = new ArrayList<>(buckets);
+        List<Double> depthList = new ArrayList<>(buckets);
+        List<Double> repeatList = new ArrayList<>(buckets);
+        List<Long> distinctList = new ArrayList<>(buckets);
+        double cumulative = 0;
+        double bucketStart = 0;
+        double repeat = 0;
+        long distinct = 0;
+        Object last = null;
+        for (Sample sample : samples) {
+            boolean same = last != null && compare(last, sample.key) == 0;
+            // Equal values always stay in one bucket.
+            if (!same && last != null && cumulative - bucketStart >= depth - 1e-9) {
+                bucketStart = cumulative;
+                upperList.add(last);
+                depthList.add(cumulative / total);
+                repeatList.add(repeat / total);
+                distinctList.add(distinct);
+                distinct = 0;
+            }
+            if (lowerList.size() == upperList.size()) {
+                lowerList.add(sample.key);
+            }
+            if (same) {
+                repeat += sample.weight;
+            } else {
+                repeat = sample.weight;
+                distinct++;
+            }
+            cumulative += sample.weight;
+            last = sample.key;
         }
+        upperList.add(last);
+        depthList.add(1.0);
+        repeatList.add(repeat / total);
+        distinctList.add(distinct);
+        lowers = lowerList.toArray();
+        uppers = upperList.toArray();
+        depths = depthList.stream().mapToDouble(Double::doubleValue).toArray();
+        repeats = repeatList.stream().mapToDouble(Double::doubleValue).toArray();
+        distincts = distinctList.stream().mapToLong(Long::longValue).toArray();
+    }
 
+    private List<Sample> samples() {
+        List<Sample> samples = merged == null ? new ArrayList<>() : merged;
+        if (sampled > 0) {
+            double weight = (totalCount - nullCount) / (double) sampled;
+            for (int i = 0; i < sampled; i++) {
+                samples.add(new Sample(reservoir[i], weight));
+            }
+        }
+        return samples;
     }
 
     public double estimateSelectivity(SqlKind op, Object valObj) {
-        Long val = getLongVal(valObj);
+        if (op == SqlKind.IS_NULL) {
+            return estimateSelectivityIsNull();
+        } else if (op == SqlKind.IS_NOT_NULL) {
+            return 1 - estimateSelectivityIsNull();
+        }
+        Object val = sortKey(valObj);
+        if (uppers == null || uppers.length == 0 || val == null || !comparable(val, uppers[0])) {
+            return 0.25;
+        }
+        double nonNull = 1 - estimateSelectivityIsNull();
         switch (op) {
-            case EQUALS:
             case LIKE:
-                return estimateSelectivityEquals(val);
+                // patterns of strings are not values
+                return val instanceof String ? 0.25 : estimateSelectivityEquals(val) * nonNull;
+            case EQUALS:
+                return estimateSelectivityEquals(val) * nonNull;
             case NOT_EQUALS:
-                return 1 - estimateSelectivityEquals(val);
+                return (1 - estimateSelectivityEquals(val)) * nonNull;
             case GREATER_THAN:
-                return estimateSelectivityGreaterThan(val);
+                return (1 - estimateSelectivityLessThan(val) - estimateSelectivityEquals(val)) * nonNull;
             case LESS_THAN_OR_EQUAL:
-                return estimateSelectivityLessThan(val) + estimateSelectivityEquals(val);
+                return (estimateSelectivityLessThan(val) + estimateSelectivityEquals(val)) * nonNull;
             case LESS_THAN:
-                return estimateSelectivityLessThan(val);
+                return estimateSelectivityLessThan(val) * nonNull;
             case GREATER_THAN_OR_EQUAL:
-                return estimateSelectivityGreaterThan(val) + estimateSelectivityEquals(val);
-            case IS_NOT_NULL:
-                return 1 - estimateSelectivityIsNull();
-            case IS_NULL:
-                return estimateSelectivityIsNull();
+                return (1 - estimateSelectivityLessThan(val)) * nonNull;
             default:
                 return 0.25;
         }
@@ -236,12 +277,9 @@ public class Histogram implements Cloneable, CalculateStatistic {
 
     public Histogram copy() {
         Histogram histogram = new Histogram(schemaName, tableName, columnName, dingoType, index);
-        if (max == null || min == null || buckets == null) {
-            return histogram;
+        if (reservoir != null) {
+            histogram.init(bucketCount, reservoir.length);
         }
-        histogram.setRegionMin(min);
-        histogram.setRegionMax(max);
-        histogram.init(buckets.length);
         return histogram;
     }
 
@@ -265,68 +303,111 @@ public class Histogram implements Cloneable, CalculateStatistic {
         }
     }
 
-    private double estimateSelectivityEquals(long val) {
-        if (val < min || val > max) {
-            return 0;
+    /**
+     * Returns the first bucket whose upper bound is not less than the value.
+     */
+    private int bucket(Object val) {
+        int low = 0;
+        int high = uppers.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(uppers[mid], val) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
+    }
 
-        int b = (int) Math.min((val - min) / width, buckets.length - 1);
-
-        if (b < buckets.length - 1) {
-            return (buckets[b] / (double) width) / totalCount;
-        } else {
-            return (buckets[b] / (double) lstWidth) / totalCount;
+    private double estimateSelectivityEquals(Object val) {
+        if (compare(val, lowers[0]) < 0 || compare(val, uppers[uppers.length - 1]) > 0) {
+            return 0;
         }
+        int b = bucket(val);
+        if (compare(val, uppers[b]) == 0) {
+            return repeats[b];
+        }
+        // values between buckets are taken as values of the bucket missed by the sample
+        double rest = depths[b] - (b > 0 ? depths[b - 1] : 0) - repeats[b];
+        return rest / Math.max(1, distincts[b] - 1);
     }
 
-    private double estimateSelectivityGreaterThan(long val) {
-        if (val < min) {
-            return 1;
-        } else if (val >= max) {
+    private double estimateSelectivityLessThan(Object val) {
+        if (compare(val, lowers[0]) <= 0) {
             return 0;
+        } else if (compare(val, uppers[uppers.length - 1]) > 0) {
+            return 1;
         }
+        int b = bucket(val);
+        double before = b > 0 ? depths[b - 1] : 0;
+        double rest = depths[b] - before - repeats[b];
+        if (compare(val, uppers[b]) == 0) {
+            return before + rest;
+        }
+        return before + rest * position(val, lowers[b], uppers[b]);
+    }
 
-        int b = (int) Math.min((val - min) / width, buckets.length - 1);
-
-        double bf = buckets[b] / (double) totalCount;
-        if (b < buckets.length - 1) {
-            double rv = ((min + (b + 1) * width - 1 - val) / (double) width) * bf;
-            for (int i = b + 1; i < buckets.length; i++) {
-                rv += buckets[i] / (double) totalCount;
-            }
-            return rv;
-        } else {
-            return ((max - val) / (double) lstWidth) * bf;
+    public double estimateSelectivityIsNull() {
+        if (totalCount == 0) {
+            return 0;
         }
+        return nullCount / (double) totalCount;
     }
 
-    private double estimateSelectivityLessThan(long val) {
-        if (val <= min) {
+    /**
+     * Position of the value inside a bucket, interpolated for numbers.
+     */
+    private static double position(Object val, Object lower, Object upper) {
+        if (compare(val, lower) <= 0) {
             return 0;
-        } else if (val > max) {
-            return 1;
         }
+        if (val instanceof Number) {
+            double low = ((Number) lower).doubleValue();
+            double range = ((Number) upper).doubleValue() - low;
+            return range > 0 ? Math.min(1, (((Number) val).doubleValue() - low) / range) : 0.5;
+        }
+        return 0.5;
+    }
 
-        int b = (int) Math.min((val - min) / width, buckets.length - 1);
+    private static boolean comparable(Object val, Object bound) {
+        return val instanceof Double ? bound instanceof Number : bound instanceof String;
+    }
 
-        double bf = buckets[b] / (double) totalCount;
-        if (b < buckets.length - 1) {
-            double rv = (((min + (b + 1) * width) - val - 1) / (double) width) * bf;
-            for (int i = b - 1; i >= 0; i--) {
-                rv += buckets[i] / (double) totalCount;
-            }
-            return rv;
-        } else {
-            double rv = ((max - val) / (double) lstWidth) * bf;
-            for (int i = b - 1; i >= 0; i--) {
-                rv += buckets[i] / (double) totalCount;
-            }
-            return rv;
+    private static int compare(Object o1, Object o2) {
+        if (o1 instanceof String) {
+            return ((String) o1).compareTo((String) o2);
         }
+        return Double.compare(((Number) o1).doubleValue(), ((Number) o2).doubleValue());
     }
 
-    public double estimateSelectivityIsNull() {
-        return nullCount / (double)totalCount;
+    private static Object sortKey(Object val) {
+        if (val == null) {
+            return null;
+        } else if (val instanceof Number) {
+            return ((Number) val).doubleValue();
+        } else if (val instanceof java.util.Date) {
+            return (double) ((java.util.Date) val).getTime();
+        } else if (val instanceof Calendar) {
+            return (double) ((Calendar) val).getTimeInMillis();
+        } else if (val instanceof String) {
+            return val;
+        } else if (val instanceof NlsString) {
+            return ((NlsString) val).getValue();
+        } else if (val instanceof Character) {
+            return val.toString();
+        }
+        return null;
+    }
+
+    private static class Sample {
+        private final Object key;
+        private final double weight;
+
+        Sample(Object key, double weight) {
+            this.key = key;
+            this.weight = weight;
+        }
     }
 
 }
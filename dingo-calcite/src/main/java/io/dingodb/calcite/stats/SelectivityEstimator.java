@@ -101,7 +101,7 @@ public class SelectivityEstimator extends RexVisitorImpl<Double> {
 
     private double computeComparison(RexCall pred) {
         if (predicateMatch(pred) && childRel instanceof TableScan) {
-            CalculateStatistic statistic = extractColStats(extractCol((TableScan) childRel, pred));
+            CalculateStatistic statistic = extractColStats(extractCol((TableScan) childRel, pred), pred.getKind());
             if (statistic != null) {
                 return statistic.estimateSelectivity(pred.getKind(),
                     extractVal(pred));
@@ -115,19 +115,31 @@ public class SelectivityEstimator extends RexVisitorImpl<Double> {
         return rexLiteral.getValue();
     }
 
-    private static CalculateStatistic extractColStats(Pair<String, Column> statsIdentifier) {
+    /**
+     * Returns the stats of the column, the count-min-sketch of string columns is preferred for equality and like,
+     * the histogram for ranges.
+     */
+    private static CalculateStatistic extractColStats(Pair<String, Column> statsIdentifier, SqlKind kind) {
         if (StatsCache.statsMap.containsKey(statsIdentifier.getLeft())) {
             TableStats stats = StatsCache.statsMap.get(statsIdentifier.getLeft());
+            String columnName = statsIdentifier.getRight().getName();
+            CalculateStatistic histogram = null;
             for (int i = 0; i < stats.getHistogramList().size(); i ++) {
-                if (stats.getHistogramList().get(i).getColumnName().equals(statsIdentifier.getRight().getName())) {
-                    return stats.getHistogramList().get(i);
+                Histogram candidate = stats.getHistogramList().get(i);
+                if (candidate != null && candidate.getColumnName().equals(columnName)) {
+                    histogram = candidate;
+                    break;
                 }
             }
+            if (histogram != null && kind != EQUALS && kind != NOT_EQUALS && kind != LIKE) {
+                return histogram;
+            }
             for (int i = 0; i < stats.getCountMinSketchList().size(); i ++) {
-                if (stats.getCountMinSketchList().get(i).getColumnName().equals(statsIdentifier.getRight().getName())) {
+                if (stats.getCountMinSketchList().get(i).getColumnName().equals(columnName)) {
                     return stats.getCountMinSketchList().get(i);
                 }
             }
+            return histogram;
         }
         return null;
     }
@@ -198,7 +210,7 @@ public class SelectivityEstimator extends RexVisitorImpl<Double> {
             if (pred instanceof RexCall) {
                 RexCall rexCall = (RexCall) pred;
                 if (predicateMatch((RexCall) pred)) {
-                    CalculateStatistic statistic = extractColStats(extractCol(tableScan, rexCall));
+                    CalculateStatistic statistic = extractColStats(extractCol(tableScan, rexCall), rexCall.getKind());
                     if (statistic != null) {
                         artificialSel += statistic.estimateSelectivity(pred.getKind(),
                             extractVal(rexCall));
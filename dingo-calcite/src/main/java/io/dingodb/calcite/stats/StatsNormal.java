@@ -20,6 +20,7 @@ import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.scalar.DateType;
+import io.dingodb.common.type.scalar.DecimalType;
 import io.dingodb.common.type.scalar.DoubleType;
 import io.dingodb.common.type.scalar.FloatType;
 import io.dingodb.common.type.scalar.IntegerType;
@@ -30,6 +31,7 @@ import io.dingodb.common.type.scalar.TimestampType;
 import lombok.extern.slf4j.Slf4j;
 import net.agkn.hll.HLL;
 
+import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.sql.Date;
 import java.sql.Time;
@@ -47,6 +49,9 @@ public class StatsNormal implements Cloneable {
     private DingoType type;
     private long totalColSize = 0L;
     private long avgColSize;
+    // rows and nulls actually added, the counts above are scaled to the region when rows are sampled
+    private long sampledCount = 0L;
+    private long sampledNull = 0L;
     HashSet hashSet = null;
     HashFunction hash = null;
     HLL hll = null;
@@ -91,6 +96,10 @@ public class StatsNormal implements Cloneable {
         hll.addRaw(hash.newHasher().putChar(val).hash().asLong());
     }
 
+    public void addDecimalVal(BigDecimal val) {
+        addStringVal(val.stripTrailingZeros().toPlainString());
+    }
+
     public void addDateVal(Date val) {
         hll.addRaw(hash.newHasher().putLong(val.getTime()).hash().asLong());
     }
@@ -104,18 +113,48 @@ public class StatsNormal implements Cloneable {
     }
 
     public void setNdv() {
+        long distinct;
         if (hashSet != null) {
-            this.ndv = (long) hashSet.size();
+            distinct = hashSet.size();
         } else {
-            this.ndv = hll.cardinality();
+            distinct = hll.cardinality();
+        }
+        long nonNull = totalCount - numNull;
+        long sampledNonNull = sampledCount - sampledNull;
+        // A sample of nearly unique values means the column is unique, otherwise most values are already seen.
+        if (sampledNonNull > 0 && sampledNonNull < nonNull && distinct >= sampledNonNull * 0.9) {
+            distinct = distinct * nonNull / sampledNonNull;
+        }
+        this.ndv = Math.min(distinct, nonNull);
+    }
+
+    /**
+     * Scales the counts to the rows of the region when only a part of them is added.
+     * @param rowCount rows of the region
+     */
+    public void scale(long rowCount) {
+        sampledCount = totalCount;
+        sampledNull = numNull;
+        if (totalCount == 0 || totalCount >= rowCount) {
+            return;
         }
+        double factor = rowCount / (double) totalCount;
+        numNull = Math.round(numNull * factor);
+        totalColSize = Math.round(totalColSize * factor);
+        totalCount = rowCount;
     }
 
     public StatsNormal merge(StatsNormal statsNormal) {
         this.totalCount += statsNormal.getTotalCount();
-        this.ndv += statsNormal.getNdv();
         this.numNull += statsNormal.numNull;
         this.totalColSize += statsNormal.totalColSize;
+        this.sampledCount += statsNormal.sampledCount;
+        this.sampledNull += statsNormal.sampledNull;
+        if (hashSet != null && statsNormal.hashSet != null) {
+            hashSet.addAll(statsNormal.hashSet);
+        } else if (hll != null && statsNormal.hll != null) {
+            hll.union(statsNormal.hll);
+        }
         return this;
     }
 
@@ -148,6 +187,8 @@ public class StatsNormal implements Cloneable {
             addTimestampVal((Timestamp) val);
         } else if (type instanceof FloatType) {
             addFloatVal((Float) val);
+        } else if (type instanceof DecimalType) {
+            addDecimalVal((BigDecimal) val);
         }
     }
 
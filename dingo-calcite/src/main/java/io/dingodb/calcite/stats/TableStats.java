@@ -70,17 +70,7 @@ public class TableStats {
     }
 
     public static void mergeStats(List<TableStats> tableStatsList) {
-        tableStatsList.forEach(TableStats::setNdv);
-        // one region do not need merge
-        if (tableStatsList.size() == 1) {
-            List<StatsNormal> statsNormalList;
-            if ((statsNormalList = tableStatsList.get(0).statsNormalList) != null) {
-                statsNormalList.forEach(StatsNormal::calculateAvgColSize);
-            }
-            return;
-        }
-        // merge histogram
-        // get first col histogram
+        // merge histogram samples, the buckets are built over the samples of all regions
         if (!tableStatsList.get(0).histogramList.isEmpty()) {
             List<Histogram> firstHistogramList = tableStatsList.get(0).histogramList;
             for (int j = 0; j < firstHistogramList.size(); j ++) {
@@ -89,11 +79,12 @@ public class TableStats {
                     Histogram that = tableStatsList.get(i).getHistogramList().get(j);
                     colHistogram.merge(that);
                 }
+                colHistogram.build();
             }
         }
         // merge count-min-sketch
         // get first col cmsketch
-        if (!tableStatsList.get(0).countMinSketchList.isEmpty()) {
+        if (tableStatsList.size() > 1 && !tableStatsList.get(0).countMinSketchList.isEmpty()) {
             List<CountMinSketch> firstCmSketchList = tableStatsList.get(0).countMinSketchList;
             for (int j = 0; j < firstCmSketchList.size(); j ++) {
                 CountMinSketch countMinSketch = firstCmSketchList.get(j);
@@ -103,7 +94,7 @@ public class TableStats {
                 }
             }
         }
-        // merge stats-normal
+        // merge stats-normal, ndv is counted over the union of the region sketches
         if (!tableStatsList.get(0).statsNormalList.isEmpty()) {
             List<StatsNormal> firstStatsNormalList = tableStatsList.get(0).statsNormalList;
             for (int j = 0; j < firstStatsNormalList.size(); j ++) {
@@ -112,6 +103,7 @@ public class TableStats {
                     StatsNormal that = tableStatsList.get(i).statsNormalList.get(j);
                     statsNormal.merge(that);
                 }
+                statsNormal.setNdv();
                 statsNormal.calculateAvgColSize();
             }
         }
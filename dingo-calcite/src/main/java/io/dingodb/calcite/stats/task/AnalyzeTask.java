@@ -18,7 +18,6 @@ package io.dingodb.calcite.stats.task;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Iterators;
 import io.dingodb.calcite.stats.AnalyzeInfo;
 import io.dingodb.calcite.stats.CountMinSketch;
 import io.dingodb.calcite.stats.Histogram;
@@ -27,16 +26,11 @@ import io.dingodb.calcite.stats.StatsNormal;
 import io.dingodb.calcite.stats.StatsOperator;
 import io.dingodb.calcite.stats.StatsTaskState;
 import io.dingodb.calcite.stats.TableStats;
-import io.dingodb.codec.CodecService;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.CoprocessorV2;
 import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.partition.RangeDistribution;
-import io.dingodb.common.store.KeyValue;
-import io.dingodb.common.type.DingoType;
-import io.dingodb.common.type.DingoTypeFactory;
-import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.type.scalar.DateType;
 import io.dingodb.common.type.scalar.DecimalType;
 import io.dingodb.common.type.scalar.DoubleType;
@@ -48,36 +42,20 @@ import io.dingodb.common.type.scalar.TimeType;
 import io.dingodb.common.type.scalar.TimestampType;
 import io.dingodb.common.util.ByteArrayUtils;
 import io.dingodb.common.util.Optional;
-import io.dingodb.exec.Services;
-import io.dingodb.exec.expr.DingoCompileContext;
-import io.dingodb.exec.expr.DingoRelConfig;
-import io.dingodb.exec.utils.SchemaWrapperUtils;
-import io.dingodb.expr.coding.CodingFlag;
-import io.dingodb.expr.coding.RelOpCoder;
-import io.dingodb.expr.common.type.TupleType;
-import io.dingodb.expr.rel.RelOp;
-import io.dingodb.expr.rel.op.RelOpBuilder;
-import io.dingodb.expr.runtime.expr.Expr;
-import io.dingodb.expr.runtime.expr.Exprs;
 import io.dingodb.meta.DdlService;
 import io.dingodb.meta.MetaService;
-import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.partition.DingoPartitionServiceProvider;
 import io.dingodb.partition.PartitionService;
-import io.dingodb.store.api.StoreInstance;
 import io.dingodb.tso.TsoService;
 import lombok.Builder;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.sql.Timestamp;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Set;
@@ -86,9 +64,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static io.dingodb.common.util.NoBreakFunctions.wrap;
 
 @Builder
 @Slf4j
@@ -129,7 +104,7 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             }
             CommonId tableId = td.getTableId();
 
-            startAnalyzeTask(tableId);
+            long lastRowCount = startAnalyzeTask(tableId);
             PartitionService ps = PartitionService.getService(
                 Optional.ofNullable(td.getPartitionStrategy())
                     .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
@@ -146,24 +121,20 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             List<StatsNormal> statsNormals = new ArrayList<>();
             long end1 = System.currentTimeMillis();
 
-            // varchar -> count-min-sketch  int,float,double,date,time,timestamp -> histogram
+            // varchar -> histogram, count-min-sketch  int,float,double,decimal,date,time,timestamp -> histogram
             // ndv, nullCount -> normal
             typeMetricAdaptor(td, histogramList, cmSketchList, statsNormals, cmSketchWidth, cmSketchHeight);
-            // par scan get min, max
-            // histogram equ-width need max, min
-            try {
-                buildHistogram(histogramList, distributions, tableId, td);
-            } catch (Exception e) {
-                LogUtils.error(log, e.getMessage(), e);
-                //histogramList.clear();
-            }
+            // histogram equi-depth is built over the reservoir samples of the regions
+            int regionSamples = Math.max(bucketCount, (int) Math.min(Integer.MAX_VALUE,
+                (samples > 0 ? samples : ScopeVariables.getStatsSampleSize()) / Math.max(1, distributions.size())));
+            histogramList.forEach(histogram -> histogram.init(bucketCount, regionSamples));
 
             long end2 = System.currentTimeMillis();
             LogUtils.info(log, "init type cost:{}", (end2 - end1));
             List<TableStats> statsList = null;
             try {
                 List<CompletableFuture<TableStats>> futureList = getCompletableFutures(td, tableId, distributions,
-                    cmSketchList, statsNormals, histogramList);
+                    cmSketchList, statsNormals, histogramList, lastRowCount);
 
                 LogUtils.info(log, "get futureList...");
                 statsList = futureList.stream().map(CompletableFuture::toCompletableFuture)
@@ -218,18 +189,38 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
         Set<RangeDistribution> rangeDistributions,
         List<CountMinSketch> cmSketchList,
         List<StatsNormal> statsNormals,
-        List<Histogram> columnHistograms
+        List<Histogram> columnHistograms,
+        long lastRowCount
     ) {
         long scanTs = TsoService.getDefault().cacheTso();
+        double rate = sampleRate(lastRowCount);
 
         return rangeDistributions.stream().map(_i -> {
             Callable<TableStats> collectStatsTask = new CollectStatsTask(
-                _i, tableId, td, columnHistograms, cmSketchList, statsNormals, scanTs, timeout
+                _i, tableId, td, columnHistograms, cmSketchList, statsNormals, scanTs, timeout, rate
             );
             return Executors.submit("collect-task", collectStatsTask);
         }).collect(Collectors.toList());
     }
 
+    /**
+     * The sample rate given by analyze, or the rate that collects about stats_sample_rows rows of the table
+     * analyzed before.
+     */
+    private double sampleRate(long lastRowCount) {
+        if (sampleRate > 0 && sampleRate < 1) {
+            return sampleRate;
+        }
+        if (sampleRate >= 1) {
+            return 1;
+        }
+        long sampleRows = ScopeVariables.getStatsSampleRows();
+        if (sampleRows <= 0 || lastRowCount <= sampleRows) {
+            return 1;
+        }
+        return sampleRows / (double) lastRowCount;
+    }
+
     private void typeMetricAdaptor(Table td,
                                    List<Histogram> histogramCdList,
                                    List<CountMinSketch> cmSketchCdList,
@@ -257,6 +248,9 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
                     columnDefinition.getName(), columnDefinition.getType(), index.get() - 1));
             } else if (columnDefinition.getType() instanceof StringType) {
                 allowStats = true;
+                // histogram for ranges, count-min-sketch for equality
+                histogramCdList.add(new Histogram(schemaName, tableName,
+                    columnDefinition.getName(), columnDefinition.getType(), index.get() - 1));
                 cmSketchCdList.add(new CountMinSketch(schemaName, tableName, columnDefinition.getName(),
                     index.get() - 1,
                     cmSketchWidth, cmSketchHeight));
@@ -308,60 +302,11 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
         StatsCache.statsMap.put(tableStats.getIdentifier(), tableStats);
     }
 
-    private void buildHistogram(List<Histogram> histogramList,
-                                Set<RangeDistribution> rangeDistributions,
-                                CommonId tableId,
-                                Table td) {
-        if (histogramList.isEmpty()) {
-            return;
-        }
-        List<Iterator<Object[]>> iteratorList = rangeDistributions.stream().map(region -> {
-            DingoType outputSchema = DingoTypeFactory.tuple(
-                histogramList.stream().flatMap(histogram ->
-                    Arrays.stream(new DingoType[]{histogram.getDingoType(),
-                        histogram.getDingoType()})).toArray(DingoType[]::new));
-            CoprocessorV2 coprocessor = getCoprocessor(td, histogramList, outputSchema);
-            if (coprocessor == null) {
-                return null;
-            }
-            byte[] startKey = region.getStartKey();
-            byte[] endKey = region.getEndKey();
-            CodecService.getDefault().setId(startKey, region.getId().domain);
-            CodecService.getDefault().setId(endKey, region.getId().domain);
-            StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, region.getId());
-
-            Iterator<KeyValue> iterator = kvStore.txnScan(
-                TsoService.getDefault().cacheTso(),
-                new StoreInstance.Range(startKey, endKey,
-                   region.isWithStart(), region.isWithEnd()),
-                30000,
-                coprocessor
-            );
-            TupleMapping outputKeyMapping = TupleMapping.of(
-                IntStream.range(0, 0).boxed().collect(Collectors.toList())
-            );
-            return Iterators.transform(
-                iterator,
-                wrap(CodecService.getDefault().createKeyValueCodec(td.getCodecVersion(), td.version,
-                   outputSchema, outputKeyMapping)::decode)::apply
-            );
-        }).collect(Collectors.toList());
-        for (Iterator<Object[]> iterator : iteratorList) {
-            if (iterator == null) {
-                continue;
-            }
-            while (iterator.hasNext()) {
-                Object[] tuples = iterator.next();
-                for (int i = 0; i < histogramList.size(); i ++) {
-                    histogramList.get(i).setRegionMax(tuples[2 * i]);
-                    histogramList.get(i).setRegionMin(tuples[2 * i + 1]);
-                }
-            }
-        }
-        histogramList.forEach(histogram -> histogram.init(bucketCount));
-    }
-
-    private void startAnalyzeTask(CommonId tableId) {
+    /**
+     * Marks the task running.
+     * @return rows of the table at the last analyze
+     */
+    private long startAnalyzeTask(CommonId tableId) {
         Object[] values = get(analyzeTaskStore, analyzeTaskCodec, getAnalyzeTaskKeys(schemaName, tableName));
         if (values == null) {
             Long commitCount = 0L;
@@ -376,6 +321,7 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             }
             values = generateAnalyzeTask(schemaName, tableName, totalCount, commitCount);
         }
+        long lastRowCount = values[3] == null ? 0 : (Long) values[3];
         Timestamp current = new Timestamp(System.currentTimeMillis());
         values[2] = getAnalyzeParam();
         values[4] = current;
@@ -386,6 +332,7 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
         } catch (Exception e) {
             LogUtils.error(log, e.getMessage(), e);
         }
+        return lastRowCount;
     }
 
     private void endAnalyzeTask(String failReason, long rowCount) {
@@ -439,51 +386,4 @@ public class AnalyzeTask extends StatsOperator implements Runnable {
             return "";
         }
     }
-
-    public static CoprocessorV2 getCoprocessor(Table table, List<Histogram> histograms, DingoType outputSchema) {
-        CommonId tableId = table.tableId;
-        List<DingoType> dingoTypes = table.getColumns().stream().map(Column::getType).collect(Collectors.toList());
-        DingoType schema = DingoTypeFactory.tuple(dingoTypes.toArray(new DingoType[]{}));
-
-        DingoRelConfig config = new DingoRelConfig();
-        Expr[] exprs = histograms.stream()
-            .flatMap(histogram ->
-                Arrays.stream(new Expr[]{makeMaxAgg(histogram.getIndex()), makeMinAgg(histogram.getIndex())})
-            ).toArray(Expr[]::new);
-        RelOp relOp = RelOpBuilder.builder().agg(exprs).build();
-
-        relOp = relOp.compile(new DingoCompileContext(
-            (TupleType) schema.getType(),
-            (TupleType) DingoTypeFactory.tuple(new DingoType[0]).getType()
-        ), config);
-
-        CoprocessorV2 coprocessor;
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        if (RelOpCoder.INSTANCE.visit(relOp, os) == CodingFlag.OK) {
-            List<Integer> selection = IntStream.range(0, schema.fieldCount())
-                .boxed()
-                .collect(Collectors.toList());
-            TupleMapping outputKeyMapping = TupleMapping.of(new int[]{});
-            coprocessor = CoprocessorV2.builder()
-                .originalSchema(SchemaWrapperUtils.buildSchemaWrapper(schema, table.keyMapping(), tableId.seq))
-                .resultSchema(SchemaWrapperUtils.buildSchemaWrapper(outputSchema, outputKeyMapping, tableId.seq))
-                .selection(selection)
-                .relExpr(os.toByteArray())
-                .schemaVersion(table.getVersion())
-                .codecVersion(table.getCodecVersion())
-                .build();
-            return coprocessor;
-        }
-        return null;
-    }
-
-    private static Expr makeMaxAgg(int index) {
-        Expr var = DingoCompileContext.createTupleVar(index);
-        return Exprs.op(Exprs.MAX_AGG, var);
-    }
-
-    private static Expr makeMinAgg(int index) {
-        Expr var = DingoCompileContext.createTupleVar(index);
-        return Exprs.op(Exprs.MIN_AGG, var);
-    }
 }
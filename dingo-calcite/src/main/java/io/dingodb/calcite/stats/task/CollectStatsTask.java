@@ -16,7 +16,6 @@
 
 package io.dingodb.calcite.stats.task;
 
-import com.google.common.collect.Iterators;
 import io.dingodb.calcite.stats.CountMinSketch;
 import io.dingodb.calcite.stats.Histogram;
 import io.dingodb.calcite.stats.StatsNormal;
@@ -39,13 +38,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
-import static io.dingodb.common.util.NoBreakFunctions.wrap;
-
 /**
  * collect region statistic. If the table has multiple partitions,
- * create multiple concurrent tasks,Then merge region statistics
+ * create multiple concurrent tasks,Then merge region statistics.
+ * When a sample rate is set only the sampled rows are decoded and collected.
  */
 @Slf4j
 public class CollectStatsTask implements Callable<TableStats> {
@@ -53,13 +52,16 @@ public class CollectStatsTask implements Callable<TableStats> {
     private final RangeDistribution region;
     private final boolean isTxn;
     private final long timeout;
+    private final double sampleRate;
     StoreInstance kvStore;
     KeyValueCodec codec;
     private final long startTs;
-    Iterator<Object[]> tupleIterator;
     List<Histogram> columnHistogramList;
     List<CountMinSketch> minSketchList;
     Map<String, StatsNormal> statsNormalMap;
+    // stats normal of each column, collected by the histogram or by the count-min-sketch of the column
+    private final List<Integer> normalIndexes = new ArrayList<>();
+    private final List<StatsNormal> normals = new ArrayList<>();
 
     /**
      * collect stats task by one region.
@@ -70,6 +72,7 @@ public class CollectStatsTask implements Callable<TableStats> {
      * @param columnHistograms columnHistogram :  Unified template (All region histograms must have the same parameters)
      * @param minSketches minSketch : Unified template
      * @param statsNormals statsNormal : distinct val,null count
+     * @param sampleRate rate of the rows collected, 1 collects all rows
      */
     public CollectStatsTask(RangeDistribution region,
                             CommonId tableId,
@@ -78,12 +81,14 @@ public class CollectStatsTask implements Callable<TableStats> {
                             List<CountMinSketch> minSketches,
                             List<StatsNormal> statsNormals,
                             long scanTs,
-                            long timeout) {
+                            long timeout,
+                            double sampleRate) {
         this.tableName = td.getName();
         this.region = region;
         this.isTxn = td.getEngine().contains("TXN");
         this.startTs = scanTs;
         this.timeout = timeout;
+        this.sampleRate = sampleRate;
         this.kvStore = Services.KV_STORE.getInstance(tableId, region.id());
         this.codec = CodecService.getDefault().createKeyValueCodec(
             td.getCodecVersion(), td.getVersion(), td.tupleType(), td.keyMapping());
@@ -94,19 +99,40 @@ public class CollectStatsTask implements Callable<TableStats> {
             .collect(Collectors.toList());
         statsNormalMap = statsNormals.stream()
             .collect(Collectors.toMap(StatsNormal::getColumnName, StatsNormal::copy));
+        columnHistogramList.forEach(e -> addNormal(e.getColumnName(), e.getIndex()));
+        minSketchList.forEach(e -> addNormal(e.getColumnName(), e.getIndex()));
+    }
+
+    private void addNormal(String columnName, int index) {
+        StatsNormal statsNormal = statsNormalMap.get(columnName);
+        if (statsNormal != null && !normals.contains(statsNormal)) {
+            normals.add(statsNormal);
+            normalIndexes.add(index);
+        }
     }
 
     @Override
     public TableStats call() {
-        LogUtils.info(log, "collect region stats start, tableName:{}, regionId:{}",
-             tableName, region.getId());
+        LogUtils.info(log, "collect region stats start, tableName:{}, regionId:{}, sampleRate:{}",
+             tableName, region.getId(), sampleRate);
+        long start = System.currentTimeMillis();
+        long count = 0;
+        long sampled = 0;
         if (!isTxn) {
             Part part = new PartInKvStore(
                 kvStore,
                 codec
             );
-            tupleIterator = part.scan(region.getStartKey(), region.getEndKey(),
+            Iterator<Object[]> tupleIterator = part.scan(region.getStartKey(), region.getEndKey(),
                 region.isWithStart(), true);
+            while (tupleIterator.hasNext()) {
+                count ++;
+                Object[] tuples = tupleIterator.next();
+                if (sample()) {
+                    sampled ++;
+                    collect(tuples);
+                }
+            }
         } else {
             Iterator<KeyValue> iterator = kvStore.txnScan(
                 startTs,
@@ -115,35 +141,39 @@ public class CollectStatsTask implements Callable<TableStats> {
                 ),
                 timeout
             );
-            tupleIterator = Iterators.transform(iterator,
-                wrap(codec::decode)::apply
-            );
-        }
-        long start = System.currentTimeMillis();
-        long count = 0;
-        while (tupleIterator.hasNext()) {
-            count ++;
-            Object[] tuples = tupleIterator.next();
-            if (!columnHistogramList.isEmpty()) {
-                columnHistogramList.forEach(e -> {
-                    Object val = tuples[e.getIndex()];
-                    e.addValue(val);
-                    statsNormalMap.get(e.getColumnName()).addVal(val);
-                });
-            }
-            if (!minSketchList.isEmpty()) {
-                minSketchList.forEach(e -> {
-                    String val = (String) tuples[e.getIndex()];
-                    e.setString(val);
-                    statsNormalMap.get(e.getColumnName()).addVal(val);
-                });
+            // Rows not sampled are only counted, they are not decoded.
+            while (iterator.hasNext()) {
+                count ++;
+                KeyValue keyValue = iterator.next();
+                if (sample()) {
+                    sampled ++;
+                    collect(codec.decode(keyValue));
+                }
             }
         }
+        long rowCount = count;
+        normals.forEach(e -> e.scale(rowCount));
         long end = System.currentTimeMillis();
-        LogUtils.info(log, "collect region stats end, take time:{}, tableName:{}, regionId:{}, count:{}",
-            (end - start), tableName, region.getId(), count);
+        LogUtils.info(log, "collect region stats end, take time:{}, tableName:{}, regionId:{}, count:{}, sampled:{}",
+            (end - start), tableName, region.getId(), count, sampled);
         return new TableStats(minSketchList, columnHistogramList,
             new ArrayList<>(statsNormalMap.values()));
     }
 
+    private boolean sample() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void collect(Object[] tuples) {
+        for (Histogram histogram : columnHistogramList) {
+            histogram.addValue(tuples[histogram.getIndex()]);
+        }
+        for (CountMinSketch countMinSketch : minSketchList) {
+            countMinSketch.setString((String) tuples[countMinSketch.getIndex()]);
+        }
+        for (int i = 0; i < normals.size(); i++) {
+            normals.get(i).addVal(tuples[normalIndexes.get(i)]);
+        }
+    }
+
 }
@@ -57,6 +57,7 @@ import io.dingodb.calcite.rel.dingo.DingoRoot;
 import io.dingodb.calcite.rel.dingo.DingoScanWithRelOp;
 import io.dingodb.calcite.rel.dingo.DingoSort;
 import io.dingodb.calcite.rel.dingo.DingoStreamingConverter;
+import io.dingodb.calcite.rel.dingo.DingoWindow;
 import io.dingodb.calcite.rel.dingo.IndexFullScan;
 import io.dingodb.calcite.rel.dingo.IndexRangeScan;
 import io.dingodb.common.CommonId;
@@ -201,6 +202,12 @@ public class DingoExplainVisitor implements DingoRelVisitor<Explain> {
         return getCommonExplain(rel, "dingoSort", "", info);
     }
 
+    @Override
+    public Explain visit(@NonNull DingoWindow rel) {
+        String info = rel.groups.stream().map(Object::toString).collect(Collectors.joining(", "));
+        return getCommonExplain(rel, "dingoWindow", "", info);
+    }
+
     @Override
     public Explain visit(@NonNull DingoStreamingConverter rel) {
         Explain explain = dingo(rel.getInput()).accept(this);
@@ -55,6 +55,7 @@ import io.dingodb.calcite.rel.dingo.DingoRoot;
 import io.dingodb.calcite.rel.dingo.DingoScanWithRelOp;
 import io.dingodb.calcite.rel.dingo.DingoSort;
 import io.dingodb.calcite.rel.dingo.DingoStreamingConverter;
+import io.dingodb.calcite.rel.dingo.DingoWindow;
 import io.dingodb.calcite.rel.dingo.IndexFullScan;
 import io.dingodb.calcite.rel.dingo.IndexRangeScan;
 import io.dingodb.calcite.visitor.function.DingoAggregateVisitFun;
@@ -97,6 +98,7 @@ import io.dingodb.calcite.visitor.function.DingoUnionVisitFun;
 import io.dingodb.calcite.visitor.function.DingoValuesVisitFun;
 import io.dingodb.calcite.visitor.function.DingoVectorStreamingVisitFun;
 import io.dingodb.calcite.visitor.function.DingoVectorVisitFun;
+import io.dingodb.calcite.visitor.function.DingoWindowVisitFun;
 import io.dingodb.common.ExecuteVariables;
 import io.dingodb.common.Location;
 import io.dingodb.common.log.LogUtils;
@@ -244,6 +246,11 @@ public class DingoJobVisitor implements DingoRelVisitor<Collection<Vertex>> {
         return DingoSortVisitFun.visit(job, idGenerator, currentLocation, this, rel);
     }
 
+    @Override
+    public Collection<Vertex> visit(@NonNull DingoWindow rel) {
+        return DingoWindowVisitFun.visit(job, idGenerator, currentLocation, this, rel);
+    }
+
     @Override
     public Collection<Vertex> visit(@NonNull DingoTableScan rel) {
         // current version scan must have range
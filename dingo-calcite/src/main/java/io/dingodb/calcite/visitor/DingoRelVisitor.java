@@ -55,6 +55,7 @@ import io.dingodb.calcite.rel.dingo.DingoRoot;
 import io.dingodb.calcite.rel.dingo.DingoScanWithRelOp;
 import io.dingodb.calcite.rel.dingo.DingoSort;
 import io.dingodb.calcite.rel.dingo.DingoStreamingConverter;
+import io.dingodb.calcite.rel.dingo.DingoWindow;
 import io.dingodb.calcite.rel.dingo.IndexFullScan;
 import io.dingodb.calcite.rel.dingo.IndexRangeScan;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -80,6 +81,8 @@ public interface DingoRelVisitor<T> {
 
     T visit(@NonNull DingoSort rel);
 
+    T visit(@NonNull DingoWindow rel);
+
     T visit(@NonNull DingoStreamingConverter rel);
 
     T visit(@NonNull DocumentStreamConvertor rel);
@@ -16,9 +16,12 @@
 
 package io.dingodb.calcite.visitor.function;
 
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.aggregate.Agg;
+import io.dingodb.exec.aggregate.ApproxCountDistinctAgg;
+import io.dingodb.exec.aggregate.ApproxPercentileAgg;
 import io.dingodb.exec.aggregate.CountAgg;
 import io.dingodb.exec.aggregate.CountAllAgg;
 import io.dingodb.exec.aggregate.MaxAgg;
@@ -61,6 +64,20 @@ final class AggFactory {
         throw new UnsupportedOperationException("Unsupported aggregation function \"" + kind + "\".");
     }
 
+    static @NonNull Agg getAgg(@NonNull AggregateCall call, DingoType schema) {
+        List<Integer> args = call.getArgList();
+        if (DingoSketchAggFunction.isApproxCountDistinct(call)) {
+            return new ApproxCountDistinctAgg(sole(args), false);
+        } else if (call.getAggregation() == DingoSketchAggFunction.APPROX_COUNT_DISTINCT_STATE) {
+            return new ApproxCountDistinctAgg(sole(args), true);
+        } else if (call.getAggregation() == DingoSketchAggFunction.APPROX_PERCENTILE) {
+            return new ApproxPercentileAgg(args.get(0), args.get(1), false);
+        } else if (call.getAggregation() == DingoSketchAggFunction.APPROX_PERCENTILE_STATE) {
+            return new ApproxPercentileAgg(args.get(0), args.get(1), true);
+        }
+        return getAgg(call.getAggregation().getKind(), args, schema);
+    }
+
     static @NonNull TupleMapping getAggKeys(@NonNull ImmutableBitSet groupSet) {
         return TupleMapping.of(
             groupSet.asList().stream()
@@ -71,11 +88,7 @@ final class AggFactory {
 
     static List<Agg> getAggList(@NonNull List<AggregateCall> aggregateCallList, DingoType schema) {
         return aggregateCallList.stream()
-            .map(c -> AggFactory.getAgg(
-                c.getAggregation().getKind(),
-                c.getArgList(),
-                schema
-            ))
+            .map(c -> AggFactory.getAgg(c, schema))
             .collect(Collectors.toList());
     }
 }
@@ -21,6 +21,7 @@ import io.dingodb.calcite.rel.DingoInfoSchemaScan;
 import io.dingodb.calcite.utils.SqlExprUtils;
 import io.dingodb.calcite.visitor.DingoJobVisitor;
 import io.dingodb.common.Location;
+import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.base.IdGenerator;
 import io.dingodb.exec.base.Job;
 import io.dingodb.exec.base.Task;
@@ -28,10 +29,20 @@ import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.expr.SqlExpr;
 import io.dingodb.exec.operator.params.InfoSchemaScanParam;
 import io.dingodb.meta.entity.Table;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.SqlKind;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static io.dingodb.exec.utils.OperatorCodeUtils.INFO_SCHEMA_SCAN;
 
@@ -49,8 +60,13 @@ public final class DingoInfoSchemaScanVisitFun {
     ) {
         final Table td = rel.getTable().unwrap(DingoTable.class).getTable();
         SqlExpr filter = null;
+        List<String> schemaNames = null;
+        List<String> tableNames = null;
         if (rel.getFilter() != null) {
             filter = SqlExprUtils.toSqlExpr(rel.getFilter());
+            RexNode condition = RexUtil.expandSearch(rel.getCluster().getRexBuilder(), null, rel.getFilter());
+            schemaNames = names(condition, td, rel.getSelection(), "TABLE_SCHEMA", "SCHEMA_NAME");
+            tableNames = names(condition, td, rel.getSelection(), "TABLE_NAME");
         }
         String tableName;
         if (rel.getTable().getQualifiedName() != null && rel.getTable().getQualifiedName().size() > 2) {
@@ -63,7 +79,9 @@ public final class DingoInfoSchemaScanVisitFun {
             td.version,
             filter,
             rel.getSelection(),
-            tableName
+            tableName,
+            schemaNames,
+            tableNames
         );
 
         Task task = job.getOrCreate(currentLocation, idGenerator);
@@ -75,4 +93,72 @@ public final class DingoInfoSchemaScanVisitFun {
         outputs.add(vertex);
         return outputs;
     }
+
+    /**
+     * Gets the values the column must equal to satisfy the condition, the condition is still evaluated on the
+     * rows, so the values only need to be a superset.
+     *
+     * @return the values, or null if the condition does not restrict the column
+     */
+    static @Nullable List<String> names(
+        RexNode condition,
+        Table td,
+        TupleMapping selection,
+        String... columnNames
+    ) {
+        Set<String> result = null;
+        for (RexNode conjunction : RelOptUtil.conjunctions(condition)) {
+            Set<String> values = new LinkedHashSet<>();
+            boolean restricted = true;
+            for (RexNode disjunction : RelOptUtil.disjunctions(conjunction)) {
+                String value = equalsValue(disjunction, td, selection, columnNames);
+                if (value == null) {
+                    restricted = false;
+                    break;
+                }
+                values.add(value);
+            }
+            if (!restricted) {
+                continue;
+            }
+            if (result == null) {
+                result = values;
+            } else {
+                result.retainAll(values);
+            }
+        }
+        return result == null ? null : new ArrayList<>(result);
+    }
+
+    private static @Nullable String equalsValue(
+        RexNode node,
+        Table td,
+        TupleMapping selection,
+        String... columnNames
+    ) {
+        if (node.getKind() != SqlKind.EQUALS) {
+            return null;
+        }
+        List<RexNode> operands = ((RexCall) node).getOperands();
+        RexNode ref = operands.get(0);
+        RexNode literal = operands.get(1);
+        if (ref instanceof RexLiteral) {
+            ref = operands.get(1);
+            literal = operands.get(0);
+        }
+        if (!(ref instanceof RexInputRef) || !(literal instanceof RexLiteral)) {
+            return null;
+        }
+        int index = ((RexInputRef) ref).getIndex();
+        if (index >= selection.size()) {
+            return null;
+        }
+        String name = td.getColumns().get(selection.get(index)).getName();
+        for (String columnName : columnNames) {
+            if (columnName.equalsIgnoreCase(name)) {
+                return ((RexLiteral) literal).getValueAs(String.class);
+            }
+        }
+        return null;
+    }
 }
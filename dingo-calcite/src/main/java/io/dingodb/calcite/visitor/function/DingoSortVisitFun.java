@@ -26,6 +26,7 @@ import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.data.SortCollation;
 import io.dingodb.exec.operator.data.SortDirection;
 import io.dingodb.exec.operator.data.SortNullDirection;
+import io.dingodb.exec.operator.params.HybridRankParam;
 import io.dingodb.exec.operator.params.SortParam;
 import lombok.AllArgsConstructor;
 import org.apache.calcite.rel.RelFieldCollation;
@@ -38,6 +39,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static io.dingodb.calcite.rel.DingoRel.dingo;
+import static io.dingodb.exec.utils.OperatorCodeUtils.HYBRID_RANK;
 import static io.dingodb.exec.utils.OperatorCodeUtils.SORT;
 
 public class DingoSortVisitFun {
@@ -60,16 +62,19 @@ public class DingoSortVisitFun {
 
         @Override
         public Vertex get() {
-            SortParam param = new SortParam(
-                toSortCollation(rel.getCollation().getFieldCollations()),
-                rel.fetch == null ? -1 : RexLiteral.intValue(rel.fetch),
-                rel.offset == null ? 0 : RexLiteral.intValue(rel.offset),
-                rel.getHints().stream().anyMatch( e -> e.hintName.equalsIgnoreCase(HybridSearchTable.HINT_NAME)));
-            return new Vertex(SORT, param);
+            List<SortCollation> collations = toSortCollation(rel.getCollation().getFieldCollations());
+            int limit = rel.fetch == null ? -1 : RexLiteral.intValue(rel.fetch);
+            int offset = rel.offset == null ? 0 : RexLiteral.intValue(rel.offset);
+            boolean hybrid = rel.getHints().stream()
+                .anyMatch(e -> e.hintName.equalsIgnoreCase(HybridSearchTable.HINT_NAME));
+            if (hybrid && collations.size() == 1) {
+                return new Vertex(HYBRID_RANK, new HybridRankParam(collations.get(0), limit, offset));
+            }
+            return new Vertex(SORT, new SortParam(collations, limit, offset));
         }
     }
 
-    private static List<SortCollation> toSortCollation(List<RelFieldCollation> collations) {
+    static List<SortCollation> toSortCollation(List<RelFieldCollation> collations) {
         return collations.stream().map(DingoSortVisitFun::toSortCollation).collect(Collectors.toList());
     }
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.calcite.visitor.function;
+
+import io.dingodb.calcite.rel.dingo.DingoWindow;
+import io.dingodb.calcite.type.converter.DefinitionMapper;
+import io.dingodb.calcite.utils.RexLiteralUtils;
+import io.dingodb.calcite.visitor.DingoJobVisitor;
+import io.dingodb.common.Location;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.exec.base.IdGenerator;
+import io.dingodb.exec.base.Job;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.WindowCall;
+import io.dingodb.exec.operator.data.WindowFunction;
+import io.dingodb.exec.operator.params.SortParam;
+import io.dingodb.exec.operator.params.WindowParam;
+import lombok.AllArgsConstructor;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelFieldCollation;
+import org.apache.calcite.rel.core.Window;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexWindowBound;
+import org.apache.calcite.sql.SqlKind;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static io.dingodb.calcite.rel.DingoRel.dingo;
+import static io.dingodb.exec.utils.OperatorCodeUtils.SORT;
+import static io.dingodb.exec.utils.OperatorCodeUtils.WINDOW;
+
+public class DingoWindowVisitFun {
+    @NonNull
+    public static Collection<Vertex> visit(
+        Job job,
+        IdGenerator idGenerator,
+        Location currentLocation,
+        DingoJobVisitor dingoJobVisitor,
+        @NonNull DingoWindow rel
+    ) {
+        Collection<Vertex> outputs = dingo(rel.getInput()).accept(dingoJobVisitor);
+        // The input is sorted for the first group by the planner.
+        RelCollation collation = null;
+        for (Window.Group group : rel.groups) {
+            RelCollation required = DingoWindow.collation(group);
+            if (collation != null && !collation.satisfies(required)) {
+                outputs = DingoBridge.bridge(idGenerator, outputs, () -> new Vertex(
+                    SORT,
+                    new SortParam(DingoSortVisitFun.toSortCollation(required.getFieldCollations()), -1, 0)
+                ));
+            }
+            collation = required;
+            outputs = DingoBridge.bridge(idGenerator, outputs, new OperatorSupplier(rel, group));
+        }
+        return outputs;
+    }
+
+    @AllArgsConstructor
+    static class OperatorSupplier implements Supplier<Vertex> {
+
+        final DingoWindow rel;
+        final Window.Group group;
+
+        @Override
+        public Vertex get() {
+            DingoType schema = DefinitionMapper.mapToDingoType(rel.getInput().getRowType());
+            WindowParam param = new WindowParam(
+                group.keys.toArray(),
+                group.orderKeys.getFieldCollations().stream().mapToInt(RelFieldCollation::getFieldIndex).toArray(),
+                group.isRows,
+                toOffset(group.lowerBound),
+                toOffset(group.upperBound),
+                group.aggCalls.stream().map(c -> toWindowCall(c, schema)).collect(Collectors.toList())
+            );
+            return new Vertex(WINDOW, param);
+        }
+
+        /**
+         * Constants of a window are referenced as the fields following the input fields.
+         */
+        private RexLiteral constant(RexNode node) {
+            if (node instanceof RexLiteral) {
+                return (RexLiteral) node;
+            }
+            int index = ((RexInputRef) node).getIndex() - rel.getInput().getRowType().getFieldCount();
+            return rel.constants.get(index);
+        }
+
+        private @Nullable Long toOffset(@NonNull RexWindowBound bound) {
+            if (bound.isUnbounded()) {
+                return null;
+            }
+            if (bound.isCurrentRow()) {
+                return 0L;
+            }
+            long offset = RexLiteral.intValue(constant(Objects.requireNonNull(bound.getOffset())));
+            return bound.isPreceding() ? -offset : offset;
+        }
+
+        private WindowCall toWindowCall(Window.@NonNull RexWinAggCall call, DingoType schema) {
+            List<RexNode> operands = call.getOperands();
+            int index = operands.isEmpty() ? -1 : ((RexInputRef) operands.get(0)).getIndex();
+            switch (call.getKind()) {
+                case ROW_NUMBER:
+                    return WindowCall.of(WindowFunction.ROW_NUMBER, index);
+                case RANK:
+                    return WindowCall.of(WindowFunction.RANK, index);
+                case DENSE_RANK:
+                    return WindowCall.of(WindowFunction.DENSE_RANK, index);
+                case FIRST_VALUE:
+                    return WindowCall.of(WindowFunction.FIRST_VALUE, index);
+                case LAST_VALUE:
+                    return WindowCall.of(WindowFunction.LAST_VALUE, index);
+                case LAG:
+                case LEAD:
+                    int offset = operands.size() > 1 ? RexLiteral.intValue(constant(operands.get(1))) : 1;
+                    Object defaultValue = operands.size() > 2 ? RexLiteralUtils.convertFromRexLiteral(
+                        constant(operands.get(2)), DefinitionMapper.mapToDingoType(call.getType())
+                    ) : null;
+                    return new WindowCall(
+                        call.getKind() == SqlKind.LAG ? WindowFunction.LAG : WindowFunction.LEAD,
+                        index,
+                        offset,
+                        defaultValue,
+                        null
+                    );
+                default:
+                    List<Integer> args = index < 0 ? Collections.emptyList() : Collections.singletonList(index);
+                    return WindowCall.aggregate(AggFactory.getAgg(call.getKind(), args, schema));
+            }
+        }
+    }
+}
@@ -16,7 +16,10 @@
 
 package io.dingodb.calcite;
 
+import io.dingodb.calcite.fun.DingoSketchAggFunction;
 import io.dingodb.calcite.mock.MockMetaServiceProvider;
+import io.dingodb.calcite.rel.DingoAggregate;
+import io.dingodb.calcite.rel.DingoReduce;
 import io.dingodb.calcite.rel.dingo.DingoHashJoin;
 import io.dingodb.calcite.rel.dingo.DingoRoot;
 import io.dingodb.calcite.rel.dingo.DingoStreamingConverter;
@@ -38,6 +41,7 @@ import org.apache.calcite.sql.SqlAggFunction;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.parser.SqlParseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -69,6 +73,19 @@ public class TestAggregate {
         parser = new DingoParser(context);
     }
 
+    private static <T extends RelNode> @Nullable T find(RelNode rel, Class<T> clazz) {
+        if (clazz.isInstance(rel)) {
+            return clazz.cast(rel);
+        }
+        for (RelNode input : rel.getInputs()) {
+            T found = find(input, clazz);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
         "select count(*) from test",
@@ -308,4 +325,41 @@ public class TestAggregate {
             .soleInput().isA(DingoRelOp.class)
             .soleInput().isA(DingoHashJoin.class).inputNum(2);
     }
+
+    @Test
+    public void testApproxCountDistinct() throws SqlParseException {
+        String sql = "select approx_count_distinct(name) from test";
+        SqlNode sqlNode = parser.parse(sql);
+        RelRoot relRoot = parser.convert(sqlNode);
+        RelNode optimized = parser.optimize(relRoot.rel);
+        // Not expanded to a distinct aggregation.
+        assertThat(find(optimized, DingoReduceAggregate.class)).isNull();
+        DingoReduce reduce = find(optimized, DingoReduce.class);
+        assertThat(reduce).isNotNull();
+        assertThat(reduce.getAggregateCallList()).singleElement()
+            .matches(DingoSketchAggFunction::isApproxCountDistinct);
+        DingoAggregate partial = find(reduce.getInput(), DingoAggregate.class);
+        assertThat(partial).isNotNull();
+        assertThat(partial.getAggCallList()).singleElement()
+            .extracting(AggregateCall::getAggregation)
+            .isSameAs(DingoSketchAggFunction.APPROX_COUNT_DISTINCT_STATE);
+    }
+
+    @Test
+    public void testApproxPercentile() throws SqlParseException {
+        String sql = "select approx_percentile(amount, 0.5) from test";
+        SqlNode sqlNode = parser.parse(sql);
+        RelRoot relRoot = parser.convert(sqlNode);
+        RelNode optimized = parser.optimize(relRoot.rel);
+        DingoReduce reduce = find(optimized, DingoReduce.class);
+        assertThat(reduce).isNotNull();
+        assertThat(reduce.getAggregateCallList()).singleElement()
+            .extracting(AggregateCall::getAggregation)
+            .isSameAs(DingoSketchAggFunction.APPROX_PERCENTILE);
+        DingoAggregate partial = find(reduce.getInput(), DingoAggregate.class);
+        assertThat(partial).isNotNull();
+        assertThat(partial.getAggCallList()).singleElement()
+            .extracting(AggregateCall::getAggregation)
+            .isSameAs(DingoSketchAggFunction.APPROX_PERCENTILE_STATE);
+    }
 }
@@ -46,11 +46,10 @@ public class TestSelectivity {
         long lessThan = 0;
         long equals = 0;
         Histogram histogram = new Histogram("dingo", "demo", "id", null, 0);
+        histogram.init(254, 10000);
         while (iterator.hasNext()) {
             int val = iterator.next();
             data.add(val);
-            histogram.setRegionMax(val);
-            histogram.setRegionMin(val);
             if (val < 10000) {
                 lessThan++;
             } else if (val == 10000) {
@@ -58,10 +57,10 @@ public class TestSelectivity {
             }
         }
 
-        histogram.init(254);
         for (Integer val : data) {
             histogram.addValue(val);
         }
+        histogram.build();
         double ltSelectivity = histogram.estimateSelectivity(SqlKind.LESS_THAN, 10000);
         BigDecimal filter = new BigDecimal(lessThan);
 
@@ -79,6 +78,31 @@ public class TestSelectivity {
         assertTrue(() -> Math.abs(eqSelectivity - realEqSelectivity.doubleValue()) < 0.10);
     }
 
+    @Test
+    public void testSkewedStringHistogram() {
+        Histogram first = new Histogram("dingo", "demo", "name", null, 0);
+        Histogram second = new Histogram("dingo", "demo", "name", null, 0);
+        first.init(64, 1000);
+        second.init(64, 1000);
+        for (int i = 0; i < 50000; i++) {
+            // half of the rows are 'hot', the others are spread over 'k0000'..'k9999'
+            first.addValue(i % 2 == 0 ? "hot" : String.format("k%04d", i % 10000));
+        }
+        for (int i = 0; i < 50000; i++) {
+            second.addValue(i % 10 == 0 ? null : String.format("k%04d", i % 10000));
+        }
+        first.merge(second);
+        first.build();
+        Histogram histogram = Histogram.deserialize(first.serialize());
+        assertTrue(histogram != null);
+        double nullSelectivity = histogram.estimateSelectivity(SqlKind.IS_NULL, null);
+        assertTrue(() -> Math.abs(nullSelectivity - 0.05) < 0.01);
+        double hotSelectivity = histogram.estimateSelectivity(SqlKind.EQUALS, "hot");
+        assertTrue(() -> Math.abs(hotSelectivity - 0.25) < 0.05);
+        double ltSelectivity = histogram.estimateSelectivity(SqlKind.LESS_THAN, "k5000");
+        assertTrue(() -> Math.abs(ltSelectivity - 0.6) < 0.05);
+    }
+
     @Test
     public void testCmSketch() {
         CountMinSketch countMinSketch = new CountMinSketch("dingo", "demo", "id", 0, 3, 5);
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.calcite;
+
+import io.dingodb.calcite.mock.MockMetaServiceProvider;
+import io.dingodb.calcite.rel.dingo.DingoSort;
+import io.dingodb.calcite.rel.dingo.DingoWindow;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelRoot;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TestWindow {
+    private static DingoParserContext context;
+    private DingoParser parser;
+
+    @BeforeAll
+    public static void setupAll() {
+        MockMetaServiceProvider.init();
+        Properties properties = new Properties();
+        Properties sessionVariables = new Properties();
+        context = new DingoParserContext(MockMetaServiceProvider.SCHEMA_NAME, properties, sessionVariables);
+    }
+
+    @BeforeEach
+    public void setup() {
+        parser = new DingoParser(context);
+    }
+
+    private static @Nullable DingoWindow findWindow(RelNode rel) {
+        if (rel instanceof DingoWindow) {
+            return (DingoWindow) rel;
+        }
+        for (RelNode input : rel.getInputs()) {
+            DingoWindow window = findWindow(input);
+            if (window != null) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testWindow() throws SqlParseException {
+        String sql = "select name, row_number() over (partition by name order by amount) from test";
+        SqlNode sqlNode = parser.parse(sql);
+        RelRoot relRoot = parser.convert(sqlNode);
+        RelNode optimized = parser.optimize(relRoot.rel);
+        DingoWindow window = findWindow(optimized);
+        assertThat(window).isNotNull();
+        // Sorted on the partition key and the order key.
+        assertThat(window.getInput()).isInstanceOf(DingoSort.class);
+        assertThat(((DingoSort) window.getInput()).getCollation().getFieldCollations()).hasSize(2);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.calcite.meta;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class TestCostCalibrator {
+    @Test
+    public void testNormalizeToScanFactor() {
+        CostFactors factors = CostCalibrator.normalize(10, 1, 12.5, 0.5, 2000, 3, 8);
+        double scan = CostFactors.DEFAULT.getScanFactor();
+        assertThat(factors.getScanFactor()).isEqualTo(scan);
+        assertThat(factors.getNetFactor()).isCloseTo(scan * 0.1, within(1e-9));
+        assertThat(factors.getCpuFactor()).isCloseTo(scan * 1.25, within(1e-9));
+        assertThat(factors.getMemFactor()).isCloseTo(scan * 0.05, within(1e-9));
+        assertThat(factors.getRequestFactor()).isCloseTo(scan * 200, within(1e-9));
+        assertThat(factors.getScanConcurrency()).isEqualTo(3);
+        assertThat(factors.getLookupConcurrency()).isEqualTo(8);
+    }
+
+    @Test
+    public void testNormalizeIgnoresClusterSpeed() {
+        CostFactors slow = CostCalibrator.normalize(80, 6, 100, 0.02, 30000, 1, 1);
+        CostFactors fast = CostCalibrator.normalize(20, 1.5, 25, 0.005, 7500, 1, 1);
+        assertThat(fast.getNetFactor()).isCloseTo(slow.getNetFactor(), within(1e-9));
+        assertThat(fast.getCpuFactor()).isCloseTo(slow.getCpuFactor(), within(1e-9));
+        assertThat(fast.getMemFactor()).isCloseTo(slow.getMemFactor(), within(1e-9));
+        assertThat(fast.getRequestFactor()).isCloseTo(slow.getRequestFactor(), within(1e-9));
+    }
+
+    @Test
+    public void testVariablesRoundTrip() {
+        CostFactors factors = CostCalibrator.normalize(10, 1, 12.5, 0.5, 2000, 3, 8);
+        CostFactors parsed = CostFactors.of(factors.toVariables());
+        assertThat(parsed.getScanFactor()).isCloseTo(factors.getScanFactor(), within(1e-4));
+        assertThat(parsed.getNetFactor()).isCloseTo(factors.getNetFactor(), within(1e-4));
+        assertThat(parsed.getRequestFactor()).isCloseTo(factors.getRequestFactor(), within(1e-4));
+        assertThat(parsed.getScanConcurrency()).isEqualTo(3);
+    }
+}
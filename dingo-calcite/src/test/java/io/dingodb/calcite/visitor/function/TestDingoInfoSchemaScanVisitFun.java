@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.calcite.visitor.function;
+
+import com.google.common.collect.ImmutableList;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.meta.entity.Column;
+import io.dingodb.meta.entity.Table;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeSystem;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDingoInfoSchemaScanVisitFun {
+    private static final RexBuilder rexBuilder = new RexBuilder(new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT));
+    private static final RelDataType varchar = rexBuilder.getTypeFactory().createSqlType(SqlTypeName.VARCHAR);
+    // Columns are selected in reversed order to check the mapping.
+    private static final TupleMapping selection = TupleMapping.of(new int[]{2, 1, 0});
+    private static final Table td = Table.builder()
+        .name("TABLES")
+        .columns(Arrays.asList(
+            Column.builder().name("TABLE_SCHEMA").build(),
+            Column.builder().name("TABLE_NAME").build(),
+            Column.builder().name("ENGINE").build()
+        ))
+        .build();
+
+    private static RexNode schema() {
+        return rexBuilder.makeInputRef(varchar, 2);
+    }
+
+    private static RexNode table() {
+        return rexBuilder.makeInputRef(varchar, 1);
+    }
+
+    private static RexNode eq(RexNode left, RexNode right) {
+        return rexBuilder.makeCall(SqlStdOperatorTable.EQUALS, left, right);
+    }
+
+    private static RexNode literal(String value) {
+        return rexBuilder.makeLiteral(value);
+    }
+
+    @Test
+    public void testEquals() {
+        RexNode condition = eq(schema(), literal("db"));
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_SCHEMA", "SCHEMA_NAME"))
+            .containsExactly("db");
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME")).isNull();
+    }
+
+    @Test
+    public void testLiteralFirst() {
+        RexNode condition = eq(literal("t1"), table());
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME"))
+            .containsExactly("t1");
+    }
+
+    @Test
+    public void testOr() {
+        RexNode condition = rexBuilder.makeCall(
+            SqlStdOperatorTable.OR,
+            eq(table(), literal("t1")),
+            eq(table(), literal("t2"))
+        );
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME"))
+            .containsExactlyInAnyOrder("t1", "t2");
+    }
+
+    @Test
+    public void testOrOfColumns() {
+        RexNode condition = rexBuilder.makeCall(
+            SqlStdOperatorTable.OR,
+            eq(schema(), literal("db")),
+            eq(table(), literal("t1"))
+        );
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_SCHEMA")).isNull();
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME")).isNull();
+    }
+
+    @Test
+    public void testAnd() {
+        RexNode condition = rexBuilder.makeCall(
+            SqlStdOperatorTable.AND,
+            eq(schema(), literal("db")),
+            rexBuilder.makeCall(
+                SqlStdOperatorTable.OR,
+                eq(table(), literal("t1")),
+                eq(table(), literal("t2"))
+            ),
+            eq(table(), literal("t2"))
+        );
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_SCHEMA"))
+            .containsExactly("db");
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME"))
+            .containsExactly("t2");
+    }
+
+    @Test
+    public void testIn() {
+        RexNode search = rexBuilder.makeIn(table(), ImmutableList.of(literal("t1"), literal("t2"), literal("t3")));
+        RexNode condition = RexUtil.expandSearch(rexBuilder, null, search);
+        assertThat(DingoInfoSchemaScanVisitFun.names(condition, td, selection, "TABLE_NAME"))
+            .containsExactlyInAnyOrder("t1", "t2", "t3");
+    }
+}
@@ -245,4 +245,8 @@ public final class Executors {
         return LOCK_FUTURE_POOL.getActiveCount();
     }
 
+    public static Integer getGlobalSchedulerQueueSize() {
+        return GLOBAL_SCHEDULE_POOL.getQueue().size();
+    }
+
 }
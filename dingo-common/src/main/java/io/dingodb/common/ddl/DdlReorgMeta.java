@@ -16,14 +16,25 @@
 
 package io.dingodb.common.ddl;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 public class DdlReorgMeta {
     private long endHandle;
     private long warning;
     private ReorgType reorgType;
+    // backfill checkpoint: start ts of the backfill txn, last progress time, the key ranges already filled
+    // and whether the primary key is committed
+    private long checkpointTs;
+    private long checkpointTime;
+    private List<DoneRange> doneRanges = new ArrayList<>();
+    private boolean checkpointCommitted;
 
     @Builder
     public DdlReorgMeta(long endHandle, long warning, ReorgType reorgType) {
@@ -34,4 +45,12 @@ public class DdlReorgMeta {
 
     public DdlReorgMeta() {
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DoneRange {
+        private byte[] start;
+        private byte[] end;
+    }
 }
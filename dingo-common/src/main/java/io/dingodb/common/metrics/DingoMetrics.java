@@ -18,6 +18,7 @@ package io.dingodb.common.metrics;
 
 import com.codahale.metrics.CachedGauge;
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -28,8 +29,6 @@ import io.dingodb.common.ddl.RunningJobs;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ForkJoinPool;
@@ -44,41 +43,26 @@ public final class DingoMetrics {
     private static final LoggerReporter slf4jReporter = LoggerReporter.forRegistry(metricRegistry).build();
     public static JmxReporter jmxReporter = JmxReporter.forRegistry(metricRegistry).build();
 
-    public static Map<String, List<Long>> sqlCallLatencyMap = new ConcurrentHashMap<>();
+    public static final String STATEMENT_LATENCY = "statement_latency";
+    public static final String RPC_LATENCY = "store_rpc_latency";
+    public static final String OPERATOR_LATENCY = "operator_latency";
+
+    // name -> label value -> histogram
+    private static final Map<String, Map<String, LatencyHistogram>> latencyHistograms = new ConcurrentHashMap<>();
 
     static {
         jmxReporter.start();
         slf4jReporter.start(60000, TimeUnit.MILLISECONDS);
-        metricRegistry.register("forkCommonPool", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Integer loadValue() {
-                return ForkJoinPool.commonPool().getActiveThreadCount();
-            }
-        });
+        metricRegistry.register("forkCommonPool", (Gauge<Integer>) () -> ForkJoinPool.commonPool().getActiveThreadCount());
         metricRegistry.register("job_task_count", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
             @Override
             protected Integer loadValue() {
                 return activeTaskCount.intValue();
             }
         });
-        metricRegistry.register("globalSchedulerPool", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Integer loadValue() {
-                return Executors.getGlobalSchedulerPoolSize();
-            }
-        });
-        metricRegistry.register("globalPool", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Integer loadValue() {
-                return Executors.getGlobalPoolSize();
-            }
-        });
-        metricRegistry.register("lockPool", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Integer loadValue() {
-                return Executors.getLockPoolSize();
-            }
-        });
+        metricRegistry.register("globalSchedulerPool", (Gauge<Integer>) Executors::getGlobalSchedulerPoolSize);
+        metricRegistry.register("globalPool", (Gauge<Integer>) Executors::getGlobalPoolSize);
+        metricRegistry.register("lockPool", (Gauge<Integer>) Executors::getLockPoolSize);
         metricRegistry.register("threadCount", new CachedGauge<Integer>(5, TimeUnit.MINUTES) {
             @Override
             protected Integer loadValue() {
@@ -107,55 +91,11 @@ public final class DingoMetrics {
                 return RunningJobs.runningJobs.size();
             }
         });
-        metricRegistry.register("select-latency", new CachedGauge<Double>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Double loadValue() {
-                List<Long> durationList = sqlCallLatencyMap.get("select");
-                if (durationList == null) {
-                    return 0D;
-                }
-                double avg = durationList.stream().mapToInt(Long::intValue).average().orElse(0);
-                sqlCallLatencyMap.remove("select");
-                return avg;
-            }
-        });
-        metricRegistry.register("delete-latency", new CachedGauge<Double>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Double loadValue() {
-                List<Long> durationList = sqlCallLatencyMap.get("delete");
-                if (durationList == null) {
-                    return 0D;
-                }
-                double avg = durationList.stream().mapToInt(Long::intValue).average().orElse(0);
-                sqlCallLatencyMap.remove("delete");
-                return avg;
-            }
-        });
-        metricRegistry.register("update-latency", new CachedGauge<Double>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Double loadValue() {
-                List<Long> durationList = sqlCallLatencyMap.get("update");
-                if (durationList == null) {
-                    return 0D;
-                }
-                double avg = durationList.stream().mapToInt(Long::intValue).average().orElse(0);
-                sqlCallLatencyMap.remove("update");
-                return avg;
-            }
-        });
-        metricRegistry.register("insert-latency", new CachedGauge<Double>(5, TimeUnit.MINUTES) {
-            @Override
-            protected Double loadValue() {
-                List<Long> durationList = sqlCallLatencyMap.get("insert");
-                if (durationList == null) {
-                    return 0D;
-                }
-                double avg = durationList.stream().mapToInt(Long::intValue).average().orElse(0);
-                sqlCallLatencyMap.remove("insert");
-                return avg;
-            }
-        });
-
+        registerLatencyGauge("select");
+        registerLatencyGauge("delete");
+        registerLatencyGauge("update");
+        registerLatencyGauge("insert");
+        metricRegistry.register("globalScheduleQueue", (Gauge<Integer>) Executors::getGlobalSchedulerQueueSize);
     }
 
     private DingoMetrics() {
@@ -178,18 +118,64 @@ public final class DingoMetrics {
     }
 
     public static void latency(final @NonNull String name, final long durationMs) {
-        sqlCallLatencyMap.computeIfAbsent(name, key -> {
-            List<Long> durationList = new ArrayList<>();
-            durationList.add(durationMs);
-            return durationList;
-        });
-        sqlCallLatencyMap.computeIfPresent(name, (k, v) -> {
-            v.add(durationMs);
-            return v;
-        });
+        latencyHistogram(STATEMENT_LATENCY, "type", name).recordMillis(durationMs);
         metricRegistry.timer(name).update(durationMs, TimeUnit.MILLISECONDS);
     }
 
+    public static LatencyHistogram latencyHistogram(final @NonNull String name) {
+        return latencyHistogram(name, null, "");
+    }
+
+    /**
+     * Returns the histogram of the label value, hot paths should keep the returned histogram or pass constant
+     * label values, the lookup does not allocate once the histogram exists.
+     */
+    public static LatencyHistogram latencyHistogram(
+        final @NonNull String name,
+        final String labelName,
+        final @NonNull String labelValue
+    ) {
+        Map<String, LatencyHistogram> family = latencyHistograms.get(name);
+        if (family == null) {
+            family = latencyHistograms.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        }
+        LatencyHistogram histogram = family.get(labelValue);
+        if (histogram == null) {
+            histogram = family.computeIfAbsent(labelValue, k -> new LatencyHistogram(name, labelName, labelValue));
+        }
+        return histogram;
+    }
+
+    public static LatencyHistogram rpcLatency(final @NonNull String type) {
+        return latencyHistogram(RPC_LATENCY, "type", type);
+    }
+
+    public static LatencyHistogram operatorLatency(final @NonNull String type) {
+        return latencyHistogram(OPERATOR_LATENCY, "type", type);
+    }
+
+    public static Map<String, Map<String, LatencyHistogram>> latencyHistograms() {
+        return latencyHistograms;
+    }
+
+    private static void registerLatencyGauge(String type) {
+        metricRegistry.register(type + "-latency", new CachedGauge<Double>(5, TimeUnit.MINUTES) {
+            private long lastCount;
+            private long lastSum;
+
+            @Override
+            protected Double loadValue() {
+                LatencyHistogram histogram = latencyHistogram(STATEMENT_LATENCY, "type", type);
+                long count = histogram.getCount();
+                long sum = histogram.getSumMicros();
+                double avg = count > lastCount ? (double) (sum - lastSum) / (count - lastCount) / 1000 : 0D;
+                lastCount = count;
+                lastSum = sum;
+                return avg;
+            }
+        });
+    }
+
     public static void histogram(final @NonNull String name, final long size) {
         metricRegistry.histogram(name).update(size);
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.common.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of {@link DingoMetrics} in the OpenMetrics text format. Latency histograms are exported in
+ * seconds with bucket bounds at 1 and 1.5 times the powers of two microseconds, timers and histograms of the
+ * metric registry are exported as summaries.
+ */
+public final class OpenMetricsExporter {
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final String PREFIX = "dingo_";
+    // Bucket bounds above about 134s are not exported, those values are counted by +Inf.
+    private static final long MAX_BOUND_MICROS = 1L << 27;
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+
+    private OpenMetricsExporter() {
+    }
+
+    public static String scrape() {
+        StringBuilder builder = new StringBuilder(16 * 1024);
+        writeLatencyHistograms(builder);
+        writeRegistry(builder, DingoMetrics.metricRegistry);
+        builder.append("# EOF\n");
+        return builder.toString();
+    }
+
+    private static void writeLatencyHistograms(StringBuilder builder) {
+        Map<String, Map<String, LatencyHistogram>> families = new TreeMap<>(DingoMetrics.latencyHistograms());
+        for (Map.Entry<String, Map<String, LatencyHistogram>> entry : families.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            String name = name(entry.getKey()) + "_seconds";
+            builder.append("# TYPE ").append(name).append(" histogram\n");
+            builder.append("# UNIT ").append(name).append(" seconds\n");
+            for (LatencyHistogram histogram : new TreeMap<>(entry.getValue()).values()) {
+                writeLatencyHistogram(builder, name, histogram);
+            }
+        }
+    }
+
+    private static void writeLatencyHistogram(StringBuilder builder, String name, LatencyHistogram histogram) {
+        String label = histogram.getLabelName() == null
+            ? null : histogram.getLabelName() + "=\"" + escape(histogram.getLabelValue()) + "\"";
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            cumulative += histogram.getBucket(i);
+            long bound = LatencyHistogram.upperBound(i) + 1;
+            // 1 and 1.5 times of powers of two
+            if (i >= 8 && (i % 8 == 3 || i % 8 == 7) && bound <= MAX_BOUND_MICROS) {
+                writeBucket(builder, name, label, seconds(bound), cumulative);
+            }
+        }
+        writeBucket(builder, name, label, "+Inf", cumulative);
+        builder.append(name).append("_count");
+        writeLabel(builder, label);
+        builder.append(' ').append(cumulative).append('\n');
+        builder.append(name).append("_sum");
+        writeLabel(builder, label);
+        builder.append(' ').append(histogram.getSumMicros() / 1e6).append('\n');
+    }
+
+    private static void writeBucket(StringBuilder builder, String name, String label, String le, long count) {
+        builder.append(name).append("_bucket{");
+        if (label != null) {
+            builder.append(label).append(',');
+        }
+        builder.append("le=\"").append(le).append("\"} ").append(count).append('\n');
+    }
+
+    private static void writeLabel(StringBuilder builder, String label) {
+        if (label != null) {
+            builder.append('{').append(label).append('}');
+        }
+    }
+
+    private static void writeRegistry(StringBuilder builder, MetricRegistry registry) {
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            Object value;
+            try {
+                value = entry.getValue().getValue();
+            } catch (Exception e) {
+                continue;
+            }
+            if (value instanceof Boolean) {
+                value = (Boolean) value ? 1 : 0;
+            }
+            if (!(value instanceof Number)) {
+                continue;
+            }
+            String name = name(entry.getKey());
+            builder.append("# TYPE ").append(name).append(" gauge\n");
+            builder.append(name).append(' ').append(((Number) value).doubleValue()).append('\n');
+        }
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            writeCounter(builder, name(entry.getKey()), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            writeCounter(builder, name(entry.getKey()), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            Timer timer = entry.getValue();
+            writeSummary(builder, name(entry.getKey()) + "_seconds", timer.getCount(), timer.getSnapshot(),
+                1.0 / TimeUnit.SECONDS.toNanos(1));
+        }
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            writeSummary(builder, name(entry.getKey()), histogram.getCount(), histogram.getSnapshot(), 1.0);
+        }
+    }
+
+    private static void writeCounter(StringBuilder builder, String name, long count) {
+        builder.append("# TYPE ").append(name).append(" counter\n");
+        builder.append(name).append("_total ").append(count).append('\n');
+    }
+
+    /**
+     * The quantiles come from the reservoir of the metric, the sum is estimated by the mean of the reservoir.
+     */
+    private static void writeSummary(StringBuilder builder, String name, long count, Snapshot snapshot, double scale) {
+        builder.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : QUANTILES) {
+            builder.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                .append(snapshot.getValue(quantile) * scale).append('\n');
+        }
+        builder.append(name).append("_count ").append(count).append('\n');
+        builder.append(name).append("_sum ").append(snapshot.getMean() * scale * count).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1e6);
+    }
+
+    static String name(String name) {
+        StringBuilder builder = new StringBuilder(PREFIX.length() + name.length()).append(PREFIX);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+                builder.append(c);
+            } else {
+                builder.append('_');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
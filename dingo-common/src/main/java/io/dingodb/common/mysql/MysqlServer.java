@@ -25,6 +25,7 @@ public class MysqlServer {
         flag |= CapabilityFlags.CLIENT_FOUND_ROWS.getCode();
         flag |= CapabilityFlags.CLIENT_LONG_FLAG.getCode();
         flag |= CapabilityFlags.CLIENT_CONNECT_WITH_DB.getCode();
+        flag |= CapabilityFlags.CLIENT_COMPRESS.getCode();
         //flag |= CapabilityFlags.CLIENT_ODBC.getCode();
         flag |= CapabilityFlags.CLIENT_IGNORE_SPACE.getCode();
         flag |= CapabilityFlags.CLIENT_PROTOCOL_41.getCode();
@@ -23,6 +23,7 @@ public enum ErrorCode {
     ER_YES(1003, "HY000", "YES"),
     ER_CANT_CREATE_FILE(1004, "HY000", " Can't create file '%s' (errno: %d - %s)"),
     ER_CANT_CREATE_DB(1006, "HY000", "Can't create table '%s' (errno: %d)"),
+    ER_CON_COUNT_ERROR(1040, "08004", "Too many connections"),
     ER_ACCESS_DB_DENIED_ERROR(1044, "42000", "Access denied for user '%s'@'%s' to database '%s'"),
     ER_ACCESS_DENIED_ERROR(1045, "28000", "Access denied for user '%s'@'%s' (using password: %s)"),
     ER_NO_DATABASE_ERROR(1046, "3D000", "No database selected"),
@@ -38,7 +39,9 @@ public enum ErrorCode {
     ER_IMMUTABLE_VARIABLES(1238, "HY000", "Variable '%s' is a read-only variable"),
     ER_PASSWORD_EXPIRE(1820, "HY000", "You must reset your password using ALTER USER statement before executing this statement."),
 
-    ER_LOCK_ACCOUNT(3118, "HY000", "Access denied for user '%s'@'%s'. Account is locked.");
+    ER_LOCK_ACCOUNT(3118, "HY000", "Access denied for user '%s'@'%s'. Account is locked."),
+
+    ER_SERVER_BUSY(9003, "HY000", "Server is busy, too many statements are waiting to execute");
 
     public int code;
     public String sqlState;
@@ -163,6 +163,184 @@ public final class ScopeVariables {
         }
     }
 
+    public static int getDdlReorgConcurrency() {
+        try {
+            String concurrency = executorProp.getOrDefault("ddl_reorg_concurrency", "8").toString();
+            return Integer.parseInt(concurrency);
+        } catch (Exception e) {
+            return 8;
+        }
+    }
+
+    /**
+     * Rows per second a backfill job may write, 0 means unlimited.
+     * @return rows per second
+     */
+    public static long getDdlReorgRowsPerSecond() {
+        try {
+            String rowsPerSecond = executorProp.getOrDefault("ddl_reorg_rows_per_second", "0").toString();
+            return Long.parseLong(rowsPerSecond);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Pre-write latency in milliseconds that the backfill batch size is adapted to.
+     * @return target latency
+     */
+    public static long getDdlReorgTargetLatency() {
+        try {
+            String targetLatency = executorProp.getOrDefault("ddl_reorg_target_latency", "500").toString();
+            return Long.parseLong(targetLatency);
+        } catch (Exception e) {
+            return 500;
+        }
+    }
+
+    /**
+     * Bytes a transaction may buffer in memory before its local cache spills to the local store.
+     * @return spill size
+     */
+    public static long getTxnBufferSpillSize() {
+        try {
+            String spillSize = executorProp.getOrDefault("txn_buffer_spill_size", "33554432").toString();
+            return Long.parseLong(spillSize);
+        } catch (Exception e) {
+            return 33554432L;
+        }
+    }
+
+    /**
+     * Primary keys looked up together by a non-covering index scan.
+     * @return lookup batch size
+     */
+    public static int getTxnLookupBatchSize() {
+        try {
+            String batchSize = executorProp.getOrDefault("txn_lookup_batch_size", "1024").toString();
+            return Math.max(1, Integer.parseInt(batchSize));
+        } catch (Exception e) {
+            return 1024;
+        }
+    }
+
+    /**
+     * Rows of a pessimistic DML locked together by one lock request per region, 1 locks row by row.
+     * @return pessimistic lock batch size
+     */
+    public static int getTxnPessimisticLockBatchSize() {
+        try {
+            String batchSize = executorProp.getOrDefault("txn_pessimistic_lock_batch_size", "256").toString();
+            return Math.max(1, Integer.parseInt(batchSize));
+        } catch (Exception e) {
+            return 256;
+        }
+    }
+
+    /**
+     * Inserted keys checked for existence together when txn_inert_check is on.
+     * @return insert check batch size
+     */
+    public static int getTxnInsertCheckBatchSize() {
+        try {
+            String batchSize = executorProp.getOrDefault("txn_insert_check_batch_size", "1024").toString();
+            return Math.max(1, Integer.parseInt(batchSize));
+        } catch (Exception e) {
+            return 1024;
+        }
+    }
+
+    /**
+     * Bytes the buffering operators of a query may hold on an executor, 0 means no quota.
+     * @return query memory quota
+     */
+    public static long getQueryMemQuota() {
+        try {
+            String quota = executorProp.getOrDefault("query_mem_quota", "0").toString();
+            return Math.max(0, Long.parseLong(quota));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Bytes the buffering operators of all queries may hold on an executor, 0 means no quota.
+     * @return executor memory quota
+     */
+    public static long getExecutorMemQuota() {
+        try {
+            String quota = executorProp.getOrDefault("executor_mem_quota", "0").toString();
+            return Math.max(0, Long.parseLong(quota));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Regions queried in parallel when collecting region metrics.
+     * @return region metrics concurrency
+     */
+    public static int getRegionMetricsConcurrency() {
+        try {
+            String concurrency = executorProp.getOrDefault("region_metrics_concurrency", "16").toString();
+            return Math.max(1, Integer.parseInt(concurrency));
+        } catch (Exception e) {
+            return 16;
+        }
+    }
+
+    /**
+     * Milliseconds the collected region metrics are served before they are refreshed in background.
+     * @return region metrics ttl
+     */
+    public static long getRegionMetricsTtl() {
+        try {
+            String ttl = executorProp.getOrDefault("region_metrics_ttl", "30000").toString();
+            return Math.max(0, Long.parseLong(ttl));
+        } catch (Exception e) {
+            return 30000;
+        }
+    }
+
+    /**
+     * Values sampled from a table to build the histograms of analyze.
+     * @return stats sample size
+     */
+    public static long getStatsSampleSize() {
+        try {
+            String size = executorProp.getOrDefault("stats_sample_size", "100000").toString();
+            return Math.max(1, Long.parseLong(size));
+        } catch (Exception e) {
+            return 100000;
+        }
+    }
+
+    /**
+     * Rows collected by an analyze without sample rate, larger tables are sampled. 0 collects all rows.
+     * @return stats sample rows
+     */
+    public static long getStatsSampleRows() {
+        try {
+            String rows = executorProp.getOrDefault("stats_sample_rows", "1000000").toString();
+            return Math.max(0, Long.parseLong(rows));
+        } catch (Exception e) {
+            return 1000000;
+        }
+    }
+
+    /**
+     * Rate of the rows modified since the last analyze that triggers an automatic analyze.
+     * @return auto analyze ratio
+     */
+    public static double getAutoAnalyzeRatio() {
+        try {
+            String ratio = executorProp.getOrDefault("auto_analyze_ratio", "0.3").toString();
+            return Math.max(0, Double.parseDouble(ratio));
+        } catch (Exception e) {
+            return 0.3;
+        }
+    }
+
     public static synchronized void setExecutorProp(String key, String val) {
         if ("rpc_batch_size".equalsIgnoreCase(key)) {
             int rpcBatchSize = Integer.parseInt(val);
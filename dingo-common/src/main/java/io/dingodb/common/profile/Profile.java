@@ -54,6 +54,8 @@ public class Profile {
     long autoIncId;
     @JsonProperty("hasAutoInc")
     boolean hasAutoInc;
+    @JsonProperty("peakMemory")
+    long peakMemory;
 
     @JsonProperty("location")
     String location = "";
@@ -116,6 +118,9 @@ public class Profile {
                         + ",taskType:" + sourceProfile.getTaskType();
                 }
             }
+            if (profile.peakMemory > 0) {
+                val[0] = val[0] + ", peakMemory:" + profile.peakMemory;
+            }
             val[1] = DateTimeUtils.timeFormat(new Time(profile.start));
             val[2] = String.valueOf(profile.getDuration());
             val[3] = Long.valueOf(this.getCount());
@@ -149,6 +154,7 @@ public class Profile {
                 .append(",count:").append(profile.count)
                 .append(",start:").append(profile.start)
                 .append(",end:").append(profile.end)
+                .append(profile.peakMemory > 0 ? ",peakMemory:" + profile.peakMemory : "")
                 .append("\r\n");
                 //.append("  ").append(profile.location).append("\r\n");
         }
@@ -189,6 +195,7 @@ public class Profile {
         this.avg = 0;
         this.hasAutoInc = false;
         this.autoIncId = 0;
+        this.peakMemory = 0;
         this.location = "";
     }
 
@@ -23,6 +23,7 @@ import com.google.common.cache.LoadingCache;
 import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.metrics.LatencyHistogram;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -35,6 +36,8 @@ import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public final class StmtSummaryMap {
+    private static final LatencyHistogram EXECUTE_LATENCY = DingoMetrics.latencyHistogram("sql_execute");
+
     public static BlockingQueue<SqlProfile> profileQueue;
     private static final LoadingCache<String, StmtSummary> stmtSummaryMap;
     private static final BlockingQueue<AnalyzeEvent> analyzeQueue;
@@ -105,6 +108,9 @@ public final class StmtSummaryMap {
     }
 
     public static void addProfileQueue(SqlProfile sqlProfile, Connection connection) {
+        if (sqlProfile.getExecProfile() != null) {
+            EXECUTE_LATENCY.recordMillis(sqlProfile.getExecProfile().getDuration());
+        }
         boolean slowQueryEnabled = false;
         long slowQueryThreshold = 5000;
         boolean ddlInnerProfile = false;
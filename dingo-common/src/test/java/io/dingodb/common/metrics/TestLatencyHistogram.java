@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789L, 1L << 40}) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.upperBound(index - 1)).isLessThan(value);
+            }
+        }
+        assertThat(LatencyHistogram.index(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    public void testQuantile() {
+        LatencyHistogram histogram = new LatencyHistogram("test", null, "");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordMicros(i);
+        }
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getSumMicros()).isEqualTo(500500);
+        assertThat(histogram.valueAtQuantile(0.99)).isBetween(990L, 990L * 9 / 8);
+    }
+
+    @Test
+    public void testScrape() {
+        DingoMetrics.rpcLatency("test").recordMillis(3);
+        String text = OpenMetricsExporter.scrape();
+        assertThat(text).contains("# TYPE dingo_store_rpc_latency_seconds histogram");
+        assertThat(text).contains("dingo_store_rpc_latency_seconds_bucket{type=\"test\",le=\"0.004096\"} 1");
+        assertThat(text).contains("dingo_store_rpc_latency_seconds_count{type=\"test\"} 1");
+        assertThat(text).endsWith("# EOF\n");
+    }
+}
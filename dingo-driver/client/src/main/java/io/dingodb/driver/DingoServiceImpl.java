@@ -35,16 +35,28 @@ public class DingoServiceImpl implements Service {
     private final Service proxy;
 
     private final DriverProxyApi driverProxyApi;
+    private final FramePrefetcher prefetcher;
+
     public DingoServiceImpl(Supplier<Location> locationSupplier, int timeout) {
+        this(locationSupplier, timeout, 1);
+    }
+
+    /**
+     * Creates the service.
+     * @param prefetchFrames the count of result frames fetched ahead of the consumed one, 0 to disable prefetch
+     */
+    public DingoServiceImpl(Supplier<Location> locationSupplier, int timeout, int prefetchFrames) {
         proxy = (Service) Proxy.newProxyInstance(
             this.getClass().getClassLoader(),
             new Class[]{Service.class},
             new ServiceInvocationHandler(locationSupplier, timeout)
         );
         driverProxyApi = ApiRegistry.getDefault().proxy(DriverProxyApi.class, locationSupplier, timeout);
+        prefetcher = new FramePrefetcher(proxy::apply, prefetchFrames);
     }
 
     public ExecuteResponse apply(ExecuteRequest request) {
+        prefetcher.discard(request.statementHandle.connectionId, request.statementHandle.id);
         try {
             return this.proxy.apply(request);
         } catch (Exception e) {
@@ -62,6 +74,7 @@ public class DingoServiceImpl implements Service {
     }
 
     public ExecuteResponse apply(PrepareAndExecuteRequest request) {
+        prefetcher.discard(request.connectionId, request.statementId);
         try {
             return this.proxy.apply(request);
         } catch (Exception e) {
@@ -75,6 +88,7 @@ public class DingoServiceImpl implements Service {
     }
 
     public SyncResultsResponse apply(SyncResultsRequest request) {
+        prefetcher.discard(request.connectionId, request.statementId);
         try {
             return this.proxy.apply(request);
         } catch (Exception e) {
@@ -89,7 +103,7 @@ public class DingoServiceImpl implements Service {
 
     public FetchResponse apply(FetchRequest request) {
         try {
-            return this.proxy.apply(request);
+            return prefetcher.fetch(request);
         } catch (Exception e) {
             LogUtils.error(log, e.getMessage(), e);
             Throwable throwable = Utils.extractThrowable(e);
@@ -101,6 +115,7 @@ public class DingoServiceImpl implements Service {
     }
 
     public ExecuteBatchResponse apply(PrepareAndExecuteBatchRequest request) {
+        prefetcher.discard(request.connectionId, request.statementId);
         try {
             return this.proxy.apply(request);
         } catch (Exception e) {
@@ -114,6 +129,7 @@ public class DingoServiceImpl implements Service {
     }
 
     public ExecuteBatchResponse apply(ExecuteBatchRequest request) {
+        prefetcher.discard(request.connectionId, request.statementId);
         try {
             return this.proxy.apply(request);
         } catch (Exception e) {
@@ -126,4 +142,74 @@ public class DingoServiceImpl implements Service {
         }
     }
 
+    public CloseStatementResponse apply(CloseStatementRequest request) {
+        prefetcher.discard(request.connectionId, request.statementId);
+        return this.proxy.apply(request);
+    }
+
+    public CloseConnectionResponse apply(CloseConnectionRequest request) {
+        prefetcher.discard(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(CatalogsRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(SchemasRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(TablesRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(TableTypesRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(TypeInfoRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ResultSetResponse apply(ColumnsRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public PrepareResponse apply(PrepareRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public CreateStatementResponse apply(CreateStatementRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public ConnectionSyncResponse apply(ConnectionSyncRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public DatabasePropertyResponse apply(DatabasePropertyRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public CommitResponse apply(CommitRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
+    public RollbackResponse apply(RollbackRequest request) {
+        prefetcher.await(request.connectionId);
+        return this.proxy.apply(request);
+    }
+
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.driver;
+
+import io.dingodb.common.concurrent.Executors;
+import org.apache.calcite.avatica.Meta;
+import org.apache.calcite.avatica.remote.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fetches the next frames of a result set while the current one is consumed. The server ignores the offset of a
+ * fetch and returns the next rows of the result set, so a fetched row is never fetched again: prefetched frames
+ * are never dropped while the result set is read, they are split or joined to serve the requested fetch size.
+ * The requests of a connection are sent one at a time, a prefetch waits for the requests sent before it and
+ * {@link #await(String)} waits for the prefetches in flight.
+ */
+class FramePrefetcher {
+    private final Function<Service.FetchRequest, Service.FetchResponse> fetcher;
+    private final int window;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    FramePrefetcher(Function<Service.FetchRequest, Service.FetchResponse> fetcher, int window) {
+        this.fetcher = fetcher;
+        this.window = window;
+    }
+
+    Service.FetchResponse fetch(Service.FetchRequest request) {
+        if (window <= 0) {
+            return fetcher.apply(request);
+        }
+        Connection connection = connections.computeIfAbsent(request.connectionId, Connection::new);
+        synchronized (connection) {
+            Prefetch prefetch = connection.statements.get(request.statementId);
+            if (prefetch != null) {
+                return prefetch.serve(request);
+            }
+            connection.await();
+            Service.FetchResponse response = fetcher.apply(request);
+            if (hasNext(response)) {
+                prefetch = new Prefetch(
+                    connection, request.statementId, request.offset + count(response.frame.rows),
+                    request.fetchMaxRowCount
+                );
+                connection.statements.put(request.statementId, prefetch);
+                prefetch.fill();
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Drops the prefetched frames of a statement, called before the statement is executed again or closed.
+     */
+    void discard(String connectionId, int statementId) {
+        if (window > 0) {
+            Connection connection = connections.get(connectionId);
+            if (connection != null) {
+                synchronized (connection) {
+                    connection.statements.remove(statementId);
+                    connection.await();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the prefetched frames of all the statements of a connection.
+     */
+    void discard(String connectionId) {
+        if (window > 0) {
+            Connection connection = connections.remove(connectionId);
+            if (connection != null) {
+                synchronized (connection) {
+                    connection.statements.clear();
+                    connection.await();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the prefetches in flight of a connection, the prefetched frames are kept.
+     */
+    void await(String connectionId) {
+        if (window > 0) {
+            Connection connection = connections.get(connectionId);
+            if (connection != null) {
+                synchronized (connection) {
+                    connection.await();
+                }
+            }
+        }
+    }
+
+    private static boolean hasNext(Service.FetchResponse response) {
+        return response != null && !response.missingStatement && !response.missingResults
+            && response.frame != null && !response.frame.done;
+    }
+
+    private static long count(Iterable<Object> rows) {
+        long count = 0;
+        for (Object ignored : rows) {
+            ++count;
+        }
+        return count;
+    }
+
+    private static final class Connection {
+        private final String id;
+        private final Map<Integer, Prefetch> statements = new HashMap<>();
+        // The last request sent on the connection by the prefetcher.
+        private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+        private Connection(String id) {
+            this.id = id;
+        }
+
+        private void await() {
+            try {
+                tail.join();
+            } catch (CompletionException ignored) {
+                // The error is thrown to the reader of the frame.
+            }
+        }
+    }
+
+    private class Prefetch {
+        private final Connection connection;
+        private final int statementId;
+        private final Deque<CompletableFuture<Service.FetchResponse>> frames = new ArrayDeque<>();
+        // The rows of a polled frame not returned yet.
+        private final Deque<Object> rows = new ArrayDeque<>();
+        // The offset of the next row returned.
+        private long offset;
+        private long requestOffset;
+        private int fetchSize;
+        private boolean exhausted;
+        // A missing statement or results response to return once the rows are returned.
+        private Service.FetchResponse terminal;
+        // The error of a prefetch, thrown once the rows fetched before it are returned.
+        private RuntimeException error;
+        private CompletableFuture<Service.FetchResponse> last;
+
+        Prefetch(Connection connection, int statementId, long offset, int fetchSize) {
+            this.connection = connection;
+            this.statementId = statementId;
+            this.offset = offset;
+            this.requestOffset = offset;
+            this.fetchSize = fetchSize;
+        }
+
+        /**
+         * Returns the next rows of the prefetched frames, a fetch size other than the prefetch one is served by
+         * splitting or joining the frames and is used by the next prefetches.
+         */
+        Service.FetchResponse serve(Service.FetchRequest request) {
+            int max = request.fetchMaxRowCount;
+            if (max > 0) {
+                fetchSize = max;
+            }
+            List<Object> result = new ArrayList<>();
+            Service.FetchResponse polled = null;
+            while (true) {
+                while (!rows.isEmpty() && (max <= 0 || result.size() < max)) {
+                    result.add(rows.poll());
+                }
+                if ((max > 0 && result.size() >= max) || (max <= 0 && !result.isEmpty())
+                    || exhausted || terminal != null || error != null) {
+                    break;
+                }
+                if (frames.isEmpty()) {
+                    fill();
+                }
+                try {
+                    polled = frames.poll().join();
+                } catch (CompletionException e) {
+                    error = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                    continue;
+                }
+                if (polled == null) {
+                    exhausted = true;
+                } else if (polled.missingStatement || polled.missingResults || polled.frame == null) {
+                    terminal = polled;
+                } else {
+                    polled.frame.rows.forEach(rows::add);
+                    exhausted = polled.frame.done;
+                }
+            }
+            if (result.isEmpty() && error != null) {
+                connection.statements.remove(statementId);
+                throw error;
+            }
+            if (result.isEmpty() && terminal != null) {
+                connection.statements.remove(statementId);
+                return terminal;
+            }
+            boolean done = exhausted && rows.isEmpty();
+            Meta.Frame frame = new Meta.Frame(offset, done, result);
+            offset += result.size();
+            if (done) {
+                connection.statements.remove(statementId);
+            } else if (terminal == null && error == null) {
+                fill();
+            }
+            return new Service.FetchResponse(frame, false, false, polled == null ? null : polled.rpcMetadata);
+        }
+
+        void fill() {
+            while (!exhausted && frames.size() < window) {
+                Service.FetchRequest request = new Service.FetchRequest(
+                    connection.id, statementId, requestOffset, fetchSize
+                );
+                CompletableFuture<Service.FetchResponse> previous = last;
+                // The previous frame of the statement is sent before the tail, so it is completed after it.
+                CompletableFuture<Service.FetchResponse> future = connection.tail
+                    .handle((r, e) -> null)
+                    .thenCompose(ignored -> {
+                        if (previous != null
+                            && (previous.isCompletedExceptionally() || !hasNext(previous.join()))) {
+                            return CompletableFuture.<Service.FetchResponse>completedFuture(null);
+                        }
+                        return Executors.submit("jdbc-prefetch", () -> fetcher.apply(request));
+                    });
+                frames.add(future);
+                last = future;
+                connection.tail = future;
+                requestOffset += fetchSize;
+            }
+        }
+    }
+}
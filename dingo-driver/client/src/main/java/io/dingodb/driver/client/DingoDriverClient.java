@@ -213,12 +213,16 @@ public class DingoDriverClient extends Driver {
         if (props.containsKey("timeout")) {
             timeout = Integer.parseInt(props.getProperty("timeout"));
         }
+        int prefetchFrames = 1;
+        if (props.containsKey("prefetchFrames")) {
+            prefetchFrames = Integer.parseInt(props.getProperty("prefetchFrames"));
+        }
 
         Location location = new Location(host, port);
         Supplier<Location> locationSupplier = () -> location;
 
         NetConfiguration.resetAllTimeout(timeout);
-        final DingoServiceImpl service = new DingoServiceImpl(locationSupplier, timeout);
+        final DingoServiceImpl service = new DingoServiceImpl(locationSupplier, timeout, prefetchFrames);
         NetService.getDefault().newChannel(location).setCloseListener(NoBreakFunctions.wrap(ch -> {
             log.warn("Connection channel closed, close connection.");
             connection.close();
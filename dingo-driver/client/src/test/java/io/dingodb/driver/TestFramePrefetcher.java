@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.driver;
+
+import org.apache.calcite.avatica.Meta;
+import org.apache.calcite.avatica.remote.Service;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestFramePrefetcher {
+    private static final String CONNECTION = "c1";
+    private static final int STATEMENT = 1;
+
+    /**
+     * Returns the next rows of a result set and ignores the offset, like the server does.
+     */
+    private static class Server {
+        private final int count;
+        private final long delayMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private int next;
+
+        Server(int count, long delayMillis) {
+            this.count = count;
+            this.delayMillis = delayMillis;
+        }
+
+        Service.FetchResponse fetch(Service.FetchRequest request) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                List<Object> rows = new ArrayList<>();
+                synchronized (this) {
+                    while (next < count && rows.size() < request.fetchMaxRowCount) {
+                        rows.add(next++);
+                    }
+                    return new Service.FetchResponse(
+                        new Meta.Frame(request.offset, next >= count, rows), false, false, null
+                    );
+                }
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static List<Object> readAll(FramePrefetcher prefetcher, int... fetchSizes) {
+        List<Object> rows = new ArrayList<>();
+        int i = 0;
+        while (true) {
+            int fetchSize = fetchSizes[Math.min(i++, fetchSizes.length - 1)];
+            Service.FetchResponse response = prefetcher.fetch(
+                new Service.FetchRequest(CONNECTION, STATEMENT, rows.size(), fetchSize)
+            );
+            assertThat(response.frame.offset).isEqualTo(rows.size());
+            response.frame.rows.forEach(rows::add);
+            if (response.frame.done) {
+                return rows;
+            }
+        }
+    }
+
+    private static List<Object> expected(int count) {
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(i);
+        }
+        return rows;
+    }
+
+    @Test
+    public void testWindows() {
+        for (int window : new int[]{0, 1, 4}) {
+            Server server = new Server(100, 0);
+            FramePrefetcher prefetcher = new FramePrefetcher(server::fetch, window);
+            assertThat(readAll(prefetcher, 7)).isEqualTo(expected(100));
+            assertThat(server.maxInFlight.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testFetchSizeChange() {
+        Server server = new Server(100, 1);
+        FramePrefetcher prefetcher = new FramePrefetcher(server::fetch, 2);
+        assertThat(readAll(prefetcher, 10, 3, 25, 1, 40)).isEqualTo(expected(100));
+        assertThat(server.maxInFlight.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCloseMidPrefetch() throws InterruptedException {
+        Server server = new Server(1000, 50);
+        FramePrefetcher prefetcher = new FramePrefetcher(server::fetch, 3);
+        Service.FetchResponse response = prefetcher.fetch(new Service.FetchRequest(CONNECTION, STATEMENT, 0, 10));
+        assertThat(response.frame.rows).hasSize(10);
+        prefetcher.discard(CONNECTION, STATEMENT);
+        assertThat(server.inFlight.get()).isZero();
+        int calls = server.calls.get();
+        Thread.sleep(200);
+        assertThat(server.calls.get()).isEqualTo(calls);
+        // The statement is read from the server again after it is discarded.
+        response = prefetcher.fetch(new Service.FetchRequest(CONNECTION, STATEMENT, 10, 10));
+        assertThat(response.frame.rows).hasSize(10);
+        prefetcher.discard(CONNECTION);
+        assertThat(server.inFlight.get()).isZero();
+    }
+
+    @Test
+    public void testAwaitBeforeOtherRequest() {
+        Server server = new Server(1000, 20);
+        FramePrefetcher prefetcher = new FramePrefetcher(server::fetch, 3);
+        prefetcher.fetch(new Service.FetchRequest(CONNECTION, STATEMENT, 0, 10));
+        prefetcher.await(CONNECTION);
+        assertThat(server.inFlight.get()).isZero();
+        // A fetch of another statement waits for the prefetches of the first one.
+        prefetcher.fetch(new Service.FetchRequest(CONNECTION, STATEMENT + 1, 0, 10));
+        assertThat(server.maxInFlight.get()).isEqualTo(1);
+        prefetcher.discard(CONNECTION);
+    }
+}
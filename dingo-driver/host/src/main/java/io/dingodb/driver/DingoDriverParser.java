@@ -56,6 +56,7 @@ import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.environment.ExecutionEnvironment;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.metrics.LatencyHistogram;
 import io.dingodb.common.mysql.util.DataTimeUtils;
 import io.dingodb.common.profile.CommitProfile;
 import io.dingodb.common.profile.ExecProfile;
@@ -129,6 +130,9 @@ import static io.dingodb.exec.transaction.base.TransactionType.NONE;
 
 @Slf4j
 public final class DingoDriverParser extends DingoParser {
+    private static final LatencyHistogram PARSE_LATENCY = DingoMetrics.latencyHistogram("sql_parse");
+    private static final LatencyHistogram OPTIMIZE_LATENCY = DingoMetrics.latencyHistogram("sql_optimize");
+
     private final DingoConnection connection;
     @Getter
     private boolean inTransaction;
@@ -270,10 +274,11 @@ public final class DingoDriverParser extends DingoParser {
     ) {
         SqlNode sqlNode;
         try {
-            long start = System.currentTimeMillis();
+            long start = System.nanoTime();
             sqlNode = parse(sql);
-            long sub = System.currentTimeMillis() - start;
-            DingoMetrics.timer("sql-parse").update(sub, TimeUnit.MILLISECONDS);
+            long sub = System.nanoTime() - start;
+            DingoMetrics.timer("sql-parse").update(sub, TimeUnit.NANOSECONDS);
+            PARSE_LATENCY.record(sub);
             if (sqlNode instanceof DingoSqlCreateTable) {
                 ((DingoSqlCreateTable) sqlNode).setOriginalCreateSql(sql);
             }
@@ -471,11 +476,12 @@ public final class DingoDriverParser extends DingoParser {
             enableColumnMetas = columns;
         }
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         final RelRoot relRoot = convert(sqlNode, false);
         RelNode relNode = optimize(relRoot.rel);
-        long sub = System.currentTimeMillis() - start;
-        DingoMetrics.timer("relOptimize").update(sub, TimeUnit.MILLISECONDS);
+        long sub = System.nanoTime() - start;
+        DingoMetrics.timer("relOptimize").update(sub, TimeUnit.NANOSECONDS);
+        OPTIMIZE_LATENCY.record(sub);
         planProfile.endOptimize();
         markAutoIncForDml(relNode);
 
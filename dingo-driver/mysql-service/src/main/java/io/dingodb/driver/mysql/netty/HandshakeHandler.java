@@ -19,6 +19,7 @@ package io.dingodb.driver.mysql.netty;
 import io.dingodb.calcite.schema.RootSnapshotSchema;
 import io.dingodb.common.environment.ExecutionEnvironment;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.CapabilityFlags;
 import io.dingodb.common.mysql.MysqlMessage;
 import io.dingodb.common.mysql.MysqlServer;
 import io.dingodb.common.mysql.Versions;
@@ -195,6 +196,10 @@ public class HandshakeHandler extends SimpleChannelInboundHandler<ByteBuf> {
                         okPacket.message = "connect success".getBytes();
                         okPacket.write(buffer);
                         ctx.writeAndFlush(buffer);
+                        if ((authPacket.clientFlags & CapabilityFlags.CLIENT_COMPRESS.getCode()) != 0) {
+                            // Everything after the auth ok packet is compressed.
+                            ctx.channel().pipeline().addBefore("decoder", "compress", new MysqlCompressCodec());
+                        }
                         mysqlConnection.authed = true;
                         mysqlConnection.authPacket = authPacket;
                         DingoConnection dingoConnection = (DingoConnection) getLocalConnection(user,
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.driver.mysql.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageCodec;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * MySQL compressed protocol, used after CLIENT_COMPRESS is negotiated. Every compressed packet has a 7 bytes
+ * header: payload length, compressed sequence id and uncompressed length, which is 0 when the payload is sent as is.
+ * The compressed sequence id restarts with every command of the client.
+ */
+public class MysqlCompressCodec extends ByteToMessageCodec<ByteBuf> {
+    private static final int HEADER_LENGTH = 7;
+    private static final int MAX_PAYLOAD_LENGTH = 0xFFFFFF;
+    private static final int MIN_COMPRESS_LENGTH = 50;
+
+    private final Deflater deflater = new Deflater();
+    private final Inflater inflater = new Inflater();
+    private int sequence;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (in.readableBytes() < HEADER_LENGTH) {
+            return;
+        }
+        int length = in.getUnsignedMediumLE(in.readerIndex());
+        if (in.readableBytes() < HEADER_LENGTH + length) {
+            return;
+        }
+        sequence = in.getUnsignedByte(in.readerIndex() + 3) + 1;
+        int uncompressedLength = in.getUnsignedMediumLE(in.readerIndex() + 4);
+        in.skipBytes(HEADER_LENGTH);
+        if (uncompressedLength == 0) {
+            out.add(in.readRetainedSlice(length));
+            return;
+        }
+        byte[] input = new byte[length];
+        in.readBytes(input);
+        byte[] output = new byte[uncompressedLength];
+        inflater.reset();
+        inflater.setInput(input);
+        int inflated = 0;
+        while (inflated < uncompressedLength) {
+            int count = inflater.inflate(output, inflated, uncompressedLength - inflated);
+            if (count == 0) {
+                break;
+            }
+            inflated += count;
+        }
+        if (inflated != uncompressedLength) {
+            throw new CorruptedFrameException(
+                "Compressed packet inflated to " + inflated + " bytes, expected " + uncompressedLength
+            );
+        }
+        out.add(Unpooled.wrappedBuffer(output));
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        while (msg.isReadable()) {
+            int length = Math.min(msg.readableBytes(), MAX_PAYLOAD_LENGTH);
+            ByteBuf payload = msg.readSlice(length);
+            if (length >= MIN_COMPRESS_LENGTH) {
+                byte[] input = new byte[length];
+                payload.getBytes(payload.readerIndex(), input);
+                deflater.reset();
+                deflater.setInput(input);
+                deflater.finish();
+                byte[] compressed = new byte[length];
+                int compressedLength = 0;
+                while (!deflater.finished() && compressedLength < length) {
+                    compressedLength += deflater.deflate(compressed, compressedLength, length - compressedLength);
+                }
+                if (deflater.finished()) {
+                    out.writeMediumLE(compressedLength).writeByte(sequence++).writeMediumLE(length)
+                        .writeBytes(compressed, 0, compressedLength);
+                    continue;
+                }
+            }
+            // Too short or not compressible.
+            out.writeMediumLE(length).writeByte(sequence++).writeMediumLE(0).writeBytes(payload);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        try {
+            super.channelInactive(ctx);
+        } finally {
+            deflater.end();
+            inflater.end();
+        }
+    }
+}
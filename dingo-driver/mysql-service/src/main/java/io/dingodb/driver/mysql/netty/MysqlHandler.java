@@ -17,19 +17,36 @@
 package io.dingodb.driver.mysql.netty;
 
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.constant.ErrorCode;
 import io.dingodb.driver.mysql.MysqlConnection;
+import io.dingodb.driver.mysql.command.MysqlResponseHandler;
 import io.dingodb.driver.mysql.process.MessageProcess;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the commands of a connection on the statement executor one after another, reading from the socket is paused
+ * while commands are waiting. A command rejected by the saturated executor is answered with a busy error.
+ */
 @Slf4j
 public class MysqlHandler extends SimpleChannelInboundHandler<ByteBuf> {
     public MysqlConnection mysqlConnection;
 
-    public MysqlHandler(MysqlConnection mysqlConnection) {
+    private final Executor executor;
+    private final Deque<ByteBuf> pending = new ArrayDeque<>();
+    private boolean running;
+
+    public MysqlHandler(MysqlConnection mysqlConnection, Executor executor) {
         this.mysqlConnection = mysqlConnection;
+        this.executor = executor;
     }
 
     @Override
@@ -39,8 +56,62 @@ public class MysqlHandler extends SimpleChannelInboundHandler<ByteBuf> {
             + ", channel:" + ctx.channel()
             + ", mysql conn count:" + MysqlNettyServer.connections.size()
         );
-        MessageProcess.process(msg, mysqlConnection);
+        ByteBuf packet = msg.retain();
+        synchronized (this) {
+            if (running) {
+                pending.add(packet);
+                ctx.channel().config().setAutoRead(false);
+                return;
+            }
+            running = true;
+        }
+        submit(ctx, packet);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        synchronized (this) {
+            pending.forEach(ByteBuf::release);
+            pending.clear();
+        }
+        super.channelInactive(ctx);
     }
 
+    private void submit(ChannelHandlerContext ctx, ByteBuf packet) {
+        try {
+            executor.execute(() -> process(ctx, packet));
+        } catch (RejectedExecutionException e) {
+            LogUtils.warn(log, "Statement executor is saturated, reject command of connection {}.",
+                mysqlConnection.getId());
+            AtomicLong packetId = new AtomicLong(packet.getByte(packet.readerIndex()) + 1);
+            packet.release();
+            MysqlResponseHandler.responseError(packetId, mysqlConnection.channel, ErrorCode.ER_SERVER_BUSY, null);
+            next(ctx);
+        }
+    }
+
+    private void process(ChannelHandlerContext ctx, ByteBuf packet) {
+        try {
+            MessageProcess.process(packet, mysqlConnection);
+        } catch (Throwable e) {
+            ctx.fireExceptionCaught(e);
+        } finally {
+            packet.release();
+        }
+        next(ctx);
+    }
+
+    private void next(ChannelHandlerContext ctx) {
+        ByteBuf packet;
+        synchronized (this) {
+            packet = pending.poll();
+            if (packet == null) {
+                running = false;
+                ctx.channel().config().setAutoRead(true);
+                return;
+            }
+        }
+        submit(ctx, packet);
+    }
 
 }
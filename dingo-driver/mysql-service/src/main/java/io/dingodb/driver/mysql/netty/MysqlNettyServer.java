@@ -34,6 +34,8 @@ import lombok.extern.slf4j.Slf4j;
 import java.net.StandardSocketOptions;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Slf4j
 @Getter
@@ -43,13 +45,33 @@ public class MysqlNettyServer {
     public final int port;
     public static final Map<String, MysqlConnection> connections = new ConcurrentHashMap<>();
 
+    /**
+     * Threads executing statements, statements of one connection run one after another.
+     */
+    @Builder.Default
+    private final int executorThreads = 151;
+    /**
+     * Statements waiting for an executor thread, statements beyond are rejected with a busy error.
+     */
+    @Builder.Default
+    private final int executorQueueSize = 1024;
+
     private EventLoopGroup eventLoopGroup;
+    private ThreadPoolExecutor executor;
     private ServerBootstrap server;
 
     public void start() throws Exception {
         server = new ServerBootstrap();
-        eventLoopGroup = new NioEventLoopGroup(151,
-            new ThreadPoolBuilder().name("mysql server " + port).coreThreads(151).maximumThreads(151).build());
+        int ioThreads = ThreadPoolBuilder.AVAILABLE_PROCESSORS * 2;
+        eventLoopGroup = new NioEventLoopGroup(ioThreads,
+            new ThreadPoolBuilder().name("mysql server " + port).coreThreads(ioThreads).maximumThreads(ioThreads)
+                .build());
+        executor = new ThreadPoolBuilder()
+            .name("mysql executor " + port)
+            .coreThreads(executorThreads)
+            .maximumThreads(executorThreads)
+            .workQueue(new LinkedBlockingQueue<>(executorQueueSize))
+            .build();
         server
             .channel(NioServerSocketChannel.class)
             .group(eventLoopGroup)
@@ -87,7 +109,7 @@ public class MysqlNettyServer {
                 mysqlConnection.mysqlIdleStateHandler = mysqlIdleStateHandler;
                 ch.pipeline().addLast("idleStateHandler", mysqlIdleStateHandler);
                 ch.pipeline()
-                    .addLast("mysqlHandler", new MysqlHandler(mysqlConnection));
+                    .addLast("mysqlHandler", new MysqlHandler(mysqlConnection, executor));
                 ch.pipeline().addLast("exception", new NettyHandlers.ExceptionHandler());
             }
         };
@@ -95,5 +117,6 @@ public class MysqlNettyServer {
 
     public void close() {
         eventLoopGroup.shutdownGracefully();
+        executor.shutdown();
     }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.driver.mysql.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestMysqlCompressCodec {
+    private static final int HEADER_LENGTH = 7;
+
+    private static ByteBuf encode(EmbeddedChannel channel, byte[] payload) {
+        assertThat(channel.writeOutbound(Unpooled.wrappedBuffer(payload))).isTrue();
+        ByteBuf frames = Unpooled.buffer();
+        ByteBuf frame;
+        while ((frame = channel.readOutbound()) != null) {
+            frames.writeBytes(frame);
+            frame.release();
+        }
+        return frames;
+    }
+
+    private static byte[] decode(EmbeddedChannel channel, ByteBuf frames, int chunk) {
+        while (frames.isReadable()) {
+            channel.writeInbound(frames.readRetainedSlice(Math.min(chunk, frames.readableBytes())));
+        }
+        frames.release();
+        ByteBuf payload = Unpooled.buffer();
+        ByteBuf packet;
+        while ((packet = channel.readInbound()) != null) {
+            payload.writeBytes(packet);
+            packet.release();
+        }
+        byte[] bytes = new byte[payload.readableBytes()];
+        payload.readBytes(bytes);
+        return bytes;
+    }
+
+    private static List<int[]> headers(ByteBuf frames) {
+        List<int[]> headers = new ArrayList<>();
+        int index = frames.readerIndex();
+        while (index < frames.writerIndex()) {
+            int length = frames.getUnsignedMediumLE(index);
+            headers.add(new int[]{length, frames.getUnsignedByte(index + 3), frames.getUnsignedMediumLE(index + 4)});
+            index += HEADER_LENGTH + length;
+        }
+        assertThat(index).isEqualTo(frames.writerIndex());
+        return headers;
+    }
+
+    private static byte[] roundTrip(byte[] payload, int chunk, List<int[]> headers) {
+        EmbeddedChannel server = new EmbeddedChannel(new MysqlCompressCodec());
+        EmbeddedChannel client = new EmbeddedChannel(new MysqlCompressCodec());
+        ByteBuf frames = encode(server, payload);
+        headers.addAll(headers(frames));
+        byte[] result = decode(client, frames, chunk);
+        server.finishAndReleaseAll();
+        client.finishAndReleaseAll();
+        return result;
+    }
+
+    @Test
+    public void testCompressed() {
+        byte[] payload = new byte[4096];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 16);
+        }
+        List<int[]> headers = new ArrayList<>();
+        assertThat(roundTrip(payload, Integer.MAX_VALUE, headers)).isEqualTo(payload);
+        assertThat(headers).hasSize(1);
+        assertThat(headers.get(0)[0]).isLessThan(payload.length);
+        assertThat(headers.get(0)[2]).isEqualTo(payload.length);
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        byte[] payload = "select 1".getBytes();
+        List<int[]> headers = new ArrayList<>();
+        assertThat(roundTrip(payload, 3, headers)).isEqualTo(payload);
+        assertThat(headers).hasSize(1);
+        assertThat(headers.get(0)[0]).isEqualTo(payload.length);
+        assertThat(headers.get(0)[2]).isZero();
+    }
+
+    @Test
+    public void testIncompressible() {
+        byte[] payload = new byte[1024];
+        new Random(7).nextBytes(payload);
+        List<int[]> headers = new ArrayList<>();
+        assertThat(roundTrip(payload, 100, headers)).isEqualTo(payload);
+        assertThat(headers.get(0)[2]).isZero();
+    }
+
+    @Test
+    public void testMultiPacket() {
+        byte[] payload = new byte[0xFFFFFF + 1000];
+        for (int i = 0; i < payload.length; i += 97) {
+            payload[i] = (byte) i;
+        }
+        List<int[]> headers = new ArrayList<>();
+        assertThat(roundTrip(payload, 1 << 16, headers)).isEqualTo(payload);
+        assertThat(headers).hasSize(2);
+        assertThat(headers.get(0)[2]).isEqualTo(0xFFFFFF);
+        assertThat(headers.get(1)[2]).isEqualTo(1000);
+        assertThat(headers.get(0)[1]).isEqualTo(0);
+        assertThat(headers.get(1)[1]).isEqualTo(1);
+    }
+
+    @Test
+    public void testPacketsInOneRead() {
+        EmbeddedChannel server = new EmbeddedChannel(new MysqlCompressCodec());
+        EmbeddedChannel client = new EmbeddedChannel(new MysqlCompressCodec());
+        byte[] first = new byte[200];
+        byte[] second = "ok".getBytes();
+        ByteBuf frames = Unpooled.buffer();
+        ByteBuf encoded = encode(server, first);
+        frames.writeBytes(encoded);
+        encoded.release();
+        encoded = encode(server, second);
+        frames.writeBytes(encoded);
+        encoded.release();
+        assertThat(headers(frames)).hasSize(2);
+        byte[] result = decode(client, frames, Integer.MAX_VALUE);
+        assertThat(result).hasSize(first.length + second.length);
+        assertThat(result[first.length]).isEqualTo((byte) 'o');
+        server.finishAndReleaseAll();
+        client.finishAndReleaseAll();
+    }
+}
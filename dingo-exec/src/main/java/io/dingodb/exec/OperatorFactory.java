@@ -35,6 +35,7 @@ import io.dingodb.exec.operator.GetByKeysOperator;
 import io.dingodb.exec.operator.GetDistributionOperator;
 import io.dingodb.exec.operator.HashJoinOperator;
 import io.dingodb.exec.operator.HashOperator;
+import io.dingodb.exec.operator.HybridRankOperator;
 import io.dingodb.exec.operator.IndexMergeOperator;
 import io.dingodb.exec.operator.InfoSchemaScanOperator;
 import io.dingodb.exec.operator.LikeScanOperator;
@@ -88,6 +89,7 @@ import io.dingodb.exec.operator.TxnScanWithPipeOpOperator;
 import io.dingodb.exec.operator.ValuesOperator;
 import io.dingodb.exec.operator.VectorPartitionOperator;
 import io.dingodb.exec.operator.VectorPointDistanceOperator;
+import io.dingodb.exec.operator.WindowOperator;
 import io.dingodb.exec.transaction.operator.CleanCacheOperator;
 import io.dingodb.exec.transaction.operator.CleanExtraDataCacheOperator;
 import io.dingodb.exec.transaction.operator.CommitOperator;
@@ -120,6 +122,7 @@ import static io.dingodb.exec.utils.OperatorCodeUtils.GET_BY_KEYS;
 import static io.dingodb.exec.utils.OperatorCodeUtils.GET_DISTRIBUTION;
 import static io.dingodb.exec.utils.OperatorCodeUtils.HASH;
 import static io.dingodb.exec.utils.OperatorCodeUtils.HASH_JOIN;
+import static io.dingodb.exec.utils.OperatorCodeUtils.HYBRID_RANK;
 import static io.dingodb.exec.utils.OperatorCodeUtils.INDEX_MERGE;
 import static io.dingodb.exec.utils.OperatorCodeUtils.INFO_SCHEMA_SCAN;
 import static io.dingodb.exec.utils.OperatorCodeUtils.LIKE_SCAN;
@@ -179,6 +182,7 @@ import static io.dingodb.exec.utils.OperatorCodeUtils.TXN_SCAN_WITH_PIPE_OP;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VALUES;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_PARTITION;
 import static io.dingodb.exec.utils.OperatorCodeUtils.VECTOR_POINT_DISTANCE;
+import static io.dingodb.exec.utils.OperatorCodeUtils.WINDOW;
 import static io.dingodb.exec.utils.OperatorCodeUtils.DOCUMENT_PRE_FILTER;
 
 public final class OperatorFactory {
@@ -220,6 +224,8 @@ public final class OperatorFactory {
         OPERATORS.put(SCAN_WITH_CACHE_OP, ScanWithCacheOpOperator.INSTANCE);
         OPERATORS.put(SEND, SendOperator.INSTANCE);
         OPERATORS.put(SORT, SortOperator.INSTANCE);
+        OPERATORS.put(HYBRID_RANK, HybridRankOperator.INSTANCE);
+        OPERATORS.put(WINDOW, WindowOperator.INSTANCE);
         OPERATORS.put(SUM_UP, SumUpOperator.INSTANCE);
         OPERATORS.put(VALUES, ValuesOperator.INSTANCE);
         OPERATORS.put(VECTOR_PARTITION, VectorPartitionOperator.INSTANCE);
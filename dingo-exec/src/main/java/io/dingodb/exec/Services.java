@@ -21,6 +21,7 @@ import io.dingodb.common.error.DingoException;
 import io.dingodb.common.util.Optional;
 import io.dingodb.exec.channel.EndpointManager;
 import io.dingodb.exec.impl.JobManagerImpl;
+import io.dingodb.exec.transaction.impl.TxnBufferedStore;
 import io.dingodb.net.Channel;
 import io.dingodb.net.NetError;
 import io.dingodb.net.NetService;
@@ -35,7 +36,7 @@ public final class Services {
     public static final StoreService KV_STORE = Optional.ofNullable(ServiceProviders.KV_STORE_PROVIDER.provider())
         .map(StoreServiceProvider::get).orNull();
     public static final StoreService LOCAL_STORE = Optional.mapOrNull(
-        StoreServiceProvider.get("local"), StoreServiceProvider::get
+        StoreServiceProvider.get("local"), provider -> new TxnBufferedStore(provider.get())
     );
     public static final NetService NET = Objects.requireNonNull(
         ServiceProviders.NET_PROVIDER.provider(),
@@ -24,6 +24,8 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
     property = "fun"
 )
 @JsonSubTypes({
+    @JsonSubTypes.Type(ApproxCountDistinctAgg.class),
+    @JsonSubTypes.Type(ApproxPercentileAgg.class),
     @JsonSubTypes.Type(CountAgg.class),
     @JsonSubTypes.Type(CountAllAgg.class),
     @JsonSubTypes.Type(MaxAgg.class),
@@ -20,6 +20,7 @@ import com.google.common.collect.Iterators;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.common.util.ArrayUtils;
 import io.dingodb.exec.tuple.TupleKey;
+import io.dingodb.exec.utils.MemoryTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -35,15 +36,28 @@ public class AggCache implements Iterable<Object[]> {
     private final TupleMapping keyMapping;
     private final List<Agg> aggList;
     private final Map<TupleKey, Object[]> cache;
+    private final MemoryTracker memoryTracker;
 
     public AggCache(TupleMapping keyMapping, @NonNull List<Agg> aggList) {
+        this(keyMapping, aggList, MemoryTracker.detached("agg"));
+    }
+
+    public AggCache(TupleMapping keyMapping, @NonNull List<Agg> aggList, MemoryTracker memoryTracker) {
         this.keyMapping = keyMapping;
         this.aggList = aggList;
         this.cache = new ConcurrentHashMap<>();
+        this.memoryTracker = memoryTracker;
     }
 
     private Object @NonNull [] getVars(TupleKey key) {
-        return cache.computeIfAbsent(key, k -> new Object[aggList.size()]);
+        return cache.computeIfAbsent(key, k -> {
+            Object[] vars = new Object[aggList.size()];
+            // The key, the vars and roughly one boxed value per var.
+            memoryTracker.consume(
+                MemoryTracker.estimate(k.getTuple()) + MemoryTracker.estimate(vars) + 16L * vars.length
+            );
+            return vars;
+        });
     }
 
     public void addTuple(Object[] tuple) {
@@ -90,5 +104,6 @@ public class AggCache implements Iterable<Object[]> {
 
     public void clear() {
         cache.clear();
+        memoryTracker.releaseAll();
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.dingodb.common.AggregationOperator;
+import net.agkn.hll.HLL;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Counts distinct values with a HyperLogLog sketch. A partial aggregation outputs the serialized sketch, which is
+ * merged by the reduce, so only a few kilobytes per task are exchanged whatever the count of distinct values.
+ */
+@JsonTypeName("approxCountDistinct")
+public class ApproxCountDistinctAgg extends UnityAgg {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final int LOG2M = 14;
+    private static final int REGWIDTH = 5;
+
+    @JsonProperty("partial")
+    private final boolean partial;
+
+    @JsonCreator
+    public ApproxCountDistinctAgg(
+        @JsonProperty("index") int index,
+        @JsonProperty("partial") boolean partial
+    ) {
+        super(index);
+        this.partial = partial;
+    }
+
+    static long hash(@NonNull Object value) {
+        Hasher hasher = HASH.newHasher();
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hasher.putLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            hasher.putDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            hasher.putString(((BigDecimal) value).stripTrailingZeros().toPlainString(), StandardCharsets.UTF_8);
+        } else if (value instanceof byte[]) {
+            hasher.putBytes((byte[]) value);
+        } else if (value instanceof Date) {
+            hasher.putLong(((Date) value).getTime());
+        } else if (value instanceof Boolean) {
+            hasher.putBoolean((Boolean) value);
+        } else {
+            hasher.putString(value.toString(), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static HLL sketch(Object var) {
+        return var instanceof byte[] ? HLL.fromBytes((byte[]) var) : (HLL) var;
+    }
+
+    @Override
+    public Object first(Object @NonNull [] tuple) {
+        return add(new HLL(LOG2M, REGWIDTH), tuple);
+    }
+
+    @Override
+    public Object add(@NonNull Object var, Object @NonNull [] tuple) {
+        Object value = tuple[index];
+        if (value != null) {
+            ((HLL) var).addRaw(hash(value));
+        }
+        return var;
+    }
+
+    @Override
+    public Object merge(@Nullable Object var1, @Nullable Object var2) {
+        if (var1 != null) {
+            if (var2 != null) {
+                HLL hll = sketch(var1);
+                hll.union(sketch(var2));
+                return hll;
+            }
+            return sketch(var1);
+        }
+        return var2 != null ? sketch(var2) : null;
+    }
+
+    @Override
+    public Object getValue(@Nullable Object var) {
+        if (partial) {
+            return var != null ? sketch(var).toBytes() : null;
+        }
+        return var != null ? sketch(var).cardinality() : 0L;
+    }
+
+    @Override
+    public AggregationOperator.AggregationType getAggregationType() {
+        return AggregationOperator.AggregationType.AGGREGATION_NONE;
+    }
+}
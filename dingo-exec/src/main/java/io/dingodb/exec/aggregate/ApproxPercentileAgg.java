@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.common.AggregationOperator;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Approximate percentile of a numeric column with a {@link QuantileSketch}. The fraction is the second argument,
+ * it is kept in the sketch because the reduce only sees the sketches. A partial aggregation outputs the
+ * serialized sketch.
+ */
+@JsonTypeName("approxPercentile")
+public class ApproxPercentileAgg extends UnityAgg {
+    @JsonProperty("fractionIndex")
+    @Getter
+    private final int fractionIndex;
+
+    @JsonProperty("partial")
+    private final boolean partial;
+
+    @JsonCreator
+    public ApproxPercentileAgg(
+        @JsonProperty("index") int index,
+        @JsonProperty("fractionIndex") int fractionIndex,
+        @JsonProperty("partial") boolean partial
+    ) {
+        super(index);
+        this.fractionIndex = fractionIndex;
+        this.partial = partial;
+    }
+
+    private static QuantileSketch sketch(Object var) {
+        return var instanceof byte[] ? QuantileSketch.fromBytes((byte[]) var) : (QuantileSketch) var;
+    }
+
+    @Override
+    public Object first(Object @NonNull [] tuple) {
+        Object fraction = tuple[fractionIndex];
+        if (!(fraction instanceof Number)
+            || ((Number) fraction).doubleValue() < 0 || ((Number) fraction).doubleValue() > 1) {
+            throw new IllegalArgumentException("The percentile of APPROX_PERCENTILE must be between 0 and 1.");
+        }
+        return add(new QuantileSketch(((Number) fraction).doubleValue()), tuple);
+    }
+
+    @Override
+    public Object add(@NonNull Object var, Object @NonNull [] tuple) {
+        Object value = tuple[index];
+        if (value != null) {
+            ((QuantileSketch) var).add(((Number) value).doubleValue());
+        }
+        return var;
+    }
+
+    @Override
+    public Object merge(@Nullable Object var1, @Nullable Object var2) {
+        if (var1 != null) {
+            if (var2 != null) {
+                return sketch(var1).merge(sketch(var2));
+            }
+            return sketch(var1);
+        }
+        return var2 != null ? sketch(var2) : null;
+    }
+
+    @Override
+    public Object getValue(@Nullable Object var) {
+        if (var == null) {
+            return null;
+        }
+        return partial ? sketch(var).toBytes() : sketch(var).quantile();
+    }
+
+    @Override
+    public AggregationOperator.AggregationType getAggregationType() {
+        return AggregationOperator.AggregationType.AGGREGATION_NONE;
+    }
+}
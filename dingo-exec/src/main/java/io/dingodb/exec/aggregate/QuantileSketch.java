@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mergeable quantile sketch after KLL. Level {@code i} keeps items of weight {@code 2^i}, a full level is sorted
+ * and every other item is promoted to the next level, so the memory is bounded whatever the count of values.
+ */
+final class QuantileSketch {
+    private static final int K = 200;
+    private static final int MIN_WIDTH = 8;
+
+    private final double fraction;
+    private final List<Level> levels = new ArrayList<>();
+
+    QuantileSketch(double fraction) {
+        this.fraction = fraction;
+        levels.add(new Level());
+    }
+
+    double getFraction() {
+        return fraction;
+    }
+
+    void add(double value) {
+        levels.get(0).add(value);
+        compress();
+    }
+
+    QuantileSketch merge(QuantileSketch other) {
+        for (int i = 0; i < other.levels.size(); i++) {
+            if (i == levels.size()) {
+                levels.add(new Level());
+            }
+            Level level = other.levels.get(i);
+            for (int j = 0; j < level.size; j++) {
+                levels.get(i).add(level.items[j]);
+            }
+        }
+        compress();
+        return this;
+    }
+
+    /**
+     * Returns the value at the fraction of the sketch, null if no value was added.
+     */
+    Double quantile() {
+        int count = 0;
+        for (Level level : levels) {
+            count += level.size;
+        }
+        if (count == 0) {
+            return null;
+        }
+        double[] values = new double[count];
+        long[] weights = new long[count];
+        Integer[] order = new Integer[count];
+        long total = 0;
+        int n = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            Level level = levels.get(i);
+            for (int j = 0; j < level.size; j++) {
+                values[n] = level.items[j];
+                weights[n] = 1L << i;
+                order[n] = n;
+                total += weights[n];
+                n++;
+            }
+        }
+        Arrays.sort(order, (o1, o2) -> Double.compare(values[o1], values[o2]));
+        double rank = fraction * total;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= rank) {
+                return values[i];
+            }
+        }
+        return values[order[count - 1]];
+    }
+
+    byte[] toBytes() {
+        int size = Double.BYTES + Integer.BYTES;
+        for (Level level : levels) {
+            size += Integer.BYTES + level.size * Double.BYTES;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putDouble(fraction);
+        buf.putInt(levels.size());
+        for (Level level : levels) {
+            buf.putInt(level.size);
+            for (int j = 0; j < level.size; j++) {
+                buf.putDouble(level.items[j]);
+            }
+        }
+        return buf.array();
+    }
+
+    static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buf.getDouble());
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            if (i == sketch.levels.size()) {
+                sketch.levels.add(new Level());
+            }
+            int size = buf.getInt();
+            for (int j = 0; j < size; j++) {
+                sketch.levels.get(i).add(buf.getDouble());
+            }
+        }
+        return sketch;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(MIN_WIDTH, (int) Math.ceil(K * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private void compress() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int i = 0; i < levels.size(); i++) {
+                if (levels.get(i).size >= capacity(i)) {
+                    compact(i);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int index) {
+        if (index == levels.size() - 1) {
+            levels.add(new Level());
+        }
+        Level level = levels.get(index);
+        Level next = levels.get(index + 1);
+        Arrays.sort(level.items, 0, level.size);
+        // An odd item stays, the others are halved keeping the odd or the even positions.
+        int keep = level.size % 2;
+        int offset = ThreadLocalRandom.current().nextInt(2);
+        for (int j = keep + offset; j < level.size; j += 2) {
+            next.add(level.items[j]);
+        }
+        level.size = keep;
+    }
+
+    private static final class Level {
+        private double[] items = new double[MIN_WIDTH];
+        private int size;
+
+        void add(double value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.aggregate;
+
+import io.dingodb.common.util.ArrayUtils;
+import io.dingodb.exec.operator.data.WindowCall;
+import io.dingodb.exec.operator.data.WindowFunction;
+import io.dingodb.exec.utils.MemoryTracker;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the calls of one window group over input sorted on the partition and order keys. Rows are emitted as
+ * soon as their frame is complete and only the rows still needed by a frame, a LAG or a LEAD are kept, so frames
+ * not reaching UNBOUNDED FOLLOWING need constant memory per partition. Frames starting at UNBOUNDED PRECEDING are
+ * aggregated incrementally.
+ */
+public class WindowCache {
+    private final int[] partitionKeys;
+    private final int[] orderKeys;
+    private final boolean rowsFrame;
+    // Offsets of the frame bounds to the current row, null for UNBOUNDED.
+    private final @Nullable Long lower;
+    private final @Nullable Long upper;
+    private final List<WindowCall> calls;
+    private final MemoryTracker memoryTracker;
+    private final boolean framed;
+    private final long lookBehind;
+    private final long lookAhead;
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private Object @Nullable [] partition;
+    // Position in partition of the first kept row.
+    private long base;
+    private long count;
+    private long next;
+    private Object @Nullable [] first;
+    private Object @Nullable [] previous;
+    private long rank;
+    private long denseRank;
+    private long peerStart;
+    private long peerScan;
+    private final Object[] runVars;
+    private long runEnd;
+
+    public WindowCache(
+        int[] partitionKeys,
+        int[] orderKeys,
+        boolean rowsFrame,
+        @Nullable Long lower,
+        @Nullable Long upper,
+        @NonNull List<WindowCall> calls,
+        MemoryTracker memoryTracker
+    ) {
+        this.partitionKeys = partitionKeys;
+        this.orderKeys = orderKeys;
+        this.rowsFrame = rowsFrame;
+        this.lower = lower;
+        this.upper = upper;
+        this.calls = calls;
+        this.memoryTracker = memoryTracker;
+        boolean framed = false;
+        long lookBehind = 0;
+        long lookAhead = 0;
+        for (WindowCall call : calls) {
+            switch (call.getFunction()) {
+                case LAG:
+                    lookBehind = Math.max(lookBehind, call.getOffset());
+                    break;
+                case LEAD:
+                    lookAhead = Math.max(lookAhead, call.getOffset());
+                    break;
+                case FIRST_VALUE:
+                case LAST_VALUE:
+                case AGGREGATE:
+                    framed = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (framed && rowsFrame) {
+            if (lower != null && lower < 0) {
+                lookBehind = Math.max(lookBehind, -lower);
+            }
+            if (upper != null && upper < 0) {
+                lookBehind = Math.max(lookBehind, -upper);
+            }
+        }
+        this.framed = framed;
+        this.lookBehind = lookBehind;
+        this.lookAhead = lookAhead;
+        this.runVars = new Object[calls.size()];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean equal(@Nullable Object value0, @Nullable Object value1) {
+        if (value0 == null || value1 == null) {
+            return value0 == value1;
+        }
+        if (value0 instanceof Comparable && value0.getClass() == value1.getClass()) {
+            return ((Comparable<Object>) value0).compareTo(value1) == 0;
+        }
+        return Objects.deepEquals(value0, value1);
+    }
+
+    private static boolean equal(int @NonNull [] keys, Object @NonNull [] tuple0, Object @NonNull [] tuple1) {
+        for (int key : keys) {
+            if (!equal(tuple0[key], tuple1[key])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object accumulate(@NonNull Agg agg, @Nullable Object var, Object @NonNull [] tuple) {
+        return var == null ? agg.first(tuple) : agg.add(var, tuple);
+    }
+
+    /**
+     * Adds a row, the rows completed by it are passed to {@code output}.
+     *
+     * @return false if {@code output} wants no more rows
+     */
+    public boolean add(Object @NonNull [] tuple, @NonNull Predicate<Object[]> output) {
+        if (partition != null && !equal(partitionKeys, partition, tuple)) {
+            if (!emit(true, output)) {
+                return false;
+            }
+            clear();
+        }
+        if (partition == null) {
+            partition = tuple;
+            first = tuple;
+        }
+        rows.add(tuple);
+        memoryTracker.consume(MemoryTracker.estimate(tuple));
+        ++count;
+        return emit(false, output);
+    }
+
+    /**
+     * Emits the rows of the last partition.
+     *
+     * @return false if {@code output} wants no more rows
+     */
+    public boolean finish(@NonNull Predicate<Object[]> output) {
+        boolean more = partition == null || emit(true, output);
+        clear();
+        return more;
+    }
+
+    public void clear() {
+        rows.clear();
+        memoryTracker.releaseAll();
+        partition = null;
+        base = 0;
+        count = 0;
+        next = 0;
+        first = null;
+        previous = null;
+        rank = 0;
+        denseRank = 0;
+        peerStart = 0;
+        peerScan = 0;
+        Arrays.fill(runVars, null);
+        runEnd = 0;
+    }
+
+    private Object[] get(long position) {
+        return rows.get((int) (position - base));
+    }
+
+    /**
+     * Returns the end (exclusive) of the peers of the next row, or -1 if more rows may be peers.
+     */
+    private long peerEnd(boolean end) {
+        if (peerScan <= next) {
+            peerScan = next + 1;
+        }
+        Object[] tuple = get(next);
+        while (peerScan < count && equal(orderKeys, tuple, get(peerScan))) {
+            ++peerScan;
+        }
+        return (peerScan < count || end) ? peerScan : -1;
+    }
+
+    private boolean emit(boolean end, Predicate<Object[]> output) {
+        while (next < count) {
+            if (!end && next + lookAhead >= count) {
+                return true;
+            }
+            long lo = 0;
+            long hi = count - 1;
+            if (framed) {
+                if (upper == null) {
+                    if (!end) {
+                        return true;
+                    }
+                } else if (rowsFrame) {
+                    if (!end && next + upper >= count) {
+                        return true;
+                    }
+                    hi = Math.min(hi, next + upper);
+                } else {
+                    long peerEnd = peerEnd(end);
+                    if (peerEnd < 0) {
+                        return true;
+                    }
+                    hi = peerEnd - 1;
+                }
+            }
+            Object[] tuple = get(next);
+            if (previous == null || !equal(orderKeys, previous, tuple)) {
+                peerStart = next;
+                rank = next + 1;
+                ++denseRank;
+            }
+            if (lower != null) {
+                lo = rowsFrame ? Math.max(0, next + lower) : peerStart;
+            } else if (framed) {
+                advance(hi);
+            }
+            Object[] values = new Object[calls.size()];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = evaluate(i, tuple, lo, hi);
+            }
+            previous = tuple;
+            ++next;
+            evict();
+            if (!output.test(ArrayUtils.concat(tuple, values))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object evaluate(int i, Object[] tuple, long lo, long hi) {
+        WindowCall call = calls.get(i);
+        long position;
+        switch (call.getFunction()) {
+            case ROW_NUMBER:
+                return next + 1;
+            case RANK:
+                return rank;
+            case DENSE_RANK:
+                return denseRank;
+            case LAG:
+                position = next - call.getOffset();
+                return position >= 0 ? get(position)[call.getIndex()] : call.getDefaultValue();
+            case LEAD:
+                position = next + call.getOffset();
+                return position < count ? get(position)[call.getIndex()] : call.getDefaultValue();
+            case FIRST_VALUE:
+                if (lo > hi) {
+                    return null;
+                }
+                return lo == 0 ? first[call.getIndex()] : get(lo)[call.getIndex()];
+            case LAST_VALUE:
+                return lo <= hi ? get(hi)[call.getIndex()] : null;
+            case AGGREGATE:
+                Agg agg = Objects.requireNonNull(call.getAgg());
+                if (lower == null) {
+                    return agg.getValue(runVars[i]);
+                }
+                Object var = null;
+                for (long p = lo; p <= hi; ++p) {
+                    var = accumulate(agg, var, get(p));
+                }
+                return agg.getValue(var);
+            default:
+                throw new IllegalStateException("Unsupported window function \"" + call.getFunction() + "\".");
+        }
+    }
+
+    private void advance(long hi) {
+        for (; runEnd <= hi; ++runEnd) {
+            Object[] tuple = get(runEnd);
+            for (int i = 0; i < runVars.length; ++i) {
+                Agg agg = calls.get(i).getAgg();
+                if (agg != null) {
+                    runVars[i] = accumulate(agg, runVars[i], tuple);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        long keep = next - lookBehind;
+        if (framed) {
+            if (lower == null) {
+                keep = Math.min(keep, runEnd);
+            } else if (!rowsFrame) {
+                keep = Math.min(keep, peerStart);
+            }
+        }
+        int size = (int) (keep - base);
+        if (size > 0 && size >= Math.max(16, rows.size() / 2)) {
+            List<Object[]> evicted = rows.subList(0, size);
+            long bytes = 0;
+            for (Object[] tuple : evicted) {
+                bytes += MemoryTracker.estimate(tuple);
+            }
+            evicted.clear();
+            memoryTracker.release(bytes);
+            base = keep;
+        }
+    }
+}
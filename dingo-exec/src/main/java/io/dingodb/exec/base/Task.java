@@ -23,6 +23,7 @@ import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.exec.transaction.base.TxnPartData;
+import io.dingodb.exec.utils.MemoryTracker;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -98,4 +99,9 @@ public interface Task {
     void setContext(Context context);
 
     Map<TxnPartData, Boolean> getPartData();
+
+    /**
+     * Returns the memory tracker of the task, the trackers of its operators are its children.
+     */
+    MemoryTracker getMemoryTracker();
 }
@@ -98,6 +98,9 @@ public class Vertex {
     }
 
     public void init() {
+        if (getTask() != null && getTask().getMemoryTracker() != null) {
+            data.setMemoryTracker(getTask().getMemoryTracker().child("operator " + id));
+        }
         data.init(this);
     }
 
@@ -19,6 +19,7 @@ package io.dingodb.exec.fin;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.metrics.DingoMetrics;
 import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.common.profile.Profile;
 import io.dingodb.exec.dag.Vertex;
@@ -122,7 +123,11 @@ public class FinWithProfiles implements Fin {
 
     public synchronized void addProfile(Vertex vertex) {
         AbstractParams param = vertex.getParam();
-        addProfile(param.getProfile());
+        Profile profile = param.getProfile();
+        addProfile(profile);
+        if (profile != null && profile.getType() != null) {
+            DingoMetrics.operatorLatency(profile.getType()).recordMillis(profile.getDuration());
+        }
     }
 
     public void setProfile(Profile profile) {
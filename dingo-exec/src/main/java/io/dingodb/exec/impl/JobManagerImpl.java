@@ -32,6 +32,7 @@ import io.dingodb.exec.base.Status;
 import io.dingodb.exec.base.Task;
 import io.dingodb.exec.base.TaskManager;
 import io.dingodb.exec.impl.message.CancelTaskMessage;
+import io.dingodb.exec.impl.message.CreateRunTaskMessage;
 import io.dingodb.exec.impl.message.CreateTaskMessage;
 import io.dingodb.exec.impl.message.DestroyTaskMessage;
 import io.dingodb.exec.impl.message.RunTaskMessage;
@@ -120,9 +121,10 @@ public final class JobManagerImpl implements JobManager {
             return Collections.emptyIterator();
         }
         if (job.getStatus() == Status.BORN) {
-            distributeTasks(job);
+            distributeAndRun(job, paras);
+        } else {
+            run(job, paras);
         }
-        run(job, paras);
         Task root = job.getRoot();
         return new JobIteratorImpl(job, root.getRoot());
     }
@@ -171,7 +173,10 @@ public final class JobManagerImpl implements JobManager {
         }
     }
 
-    private void distributeTasks(@NonNull Job job) {
+    /**
+     * Distributes the tasks of a new job, a remote task is created and run by one message.
+     */
+    private void distributeAndRun(@NonNull Job job, Object @Nullable [] paras) {
         for (Task task : job.getTasks().values()) {
             if (task.getRoot() != null) {
                 assert task.getLocation().equals(MetaService.root().currentLocation())
@@ -182,12 +187,19 @@ public final class JobManagerImpl implements JobManager {
             // Currently only root task is run at localhost, if a task is at localhost but not root task,
             // it is just ignored. Just distribute all the tasks to avoid this.
             try {
-                sendTaskMessage(task, new Message(TASK_TAG, new CreateTaskMessage(task).toBytes()));
+                sendTaskMessage(task, new Message(
+                    TASK_TAG, new CreateRunTaskMessage(task, job.getParasType(), paras).toBytes()
+                ));
             } catch (Exception e) {
                 LogUtils.error(log, "jobId:{}, Error to distribute tasks.", job.getJobId(), e);
                 throw new RuntimeException("jobId:" + job.getJobId() + "taskId:" + task.getId() + ", Error to distribute tasks.", e);
             }
         }
+        for (Task task : job.getTasks().values()) {
+            if (task.getRoot() != null) {
+                task.run(paras);
+            }
+        }
     }
 
     private void run(@NonNull Job job, Object @Nullable [] paras) {
@@ -226,6 +238,8 @@ public final class JobManagerImpl implements JobManager {
         timeCtx.stop();
         if (taskMessage instanceof CreateTaskMessage) {
             processCommand((CreateTaskMessage) taskMessage);
+        } else if (taskMessage instanceof CreateRunTaskMessage) {
+            processCommand((CreateRunTaskMessage) taskMessage);
         } else if (taskMessage instanceof RunTaskMessage) {
             processCommand((RunTaskMessage) taskMessage);
         } else if (taskMessage instanceof CancelTaskMessage) {
@@ -236,9 +250,18 @@ public final class JobManagerImpl implements JobManager {
     }
 
     private void processCommand(@NonNull CreateTaskMessage cmd) {
+        addTask(cmd.getTask());
+    }
+
+    private void processCommand(@NonNull CreateRunTaskMessage cmd) {
+        Task task = cmd.getTask();
+        addTask(task);
+        task.run(cmd.getParas());
+    }
+
+    private void addTask(@NonNull Task task) {
         final long startTime = System.currentTimeMillis();
         try {
-            Task task = cmd.getTask();
             // 1、cross node need add transaction
             // 2、check whether the current node can execute transactions
             ITransaction transaction = TransactionManager.getTransaction(task.getTxnId() == null ? CommonId.EMPTY_TRANSACTION : task.getTxnId());
@@ -251,7 +274,7 @@ public final class JobManagerImpl implements JobManager {
         } finally {
             final long cost = System.currentTimeMillis() - startTime;
             LogUtils.debug(log, "jobTime cost: {}ms.", cost);
-            DingoMetrics.latency("on_task_message", cost);
+            DingoMetrics.timer("on_task_message").update(cost, TimeUnit.MILLISECONDS);
         }
     }
 
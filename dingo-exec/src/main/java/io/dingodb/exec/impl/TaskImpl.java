@@ -42,6 +42,7 @@ import io.dingodb.exec.operator.SourceOperator;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.exec.transaction.base.TxnPartData;
+import io.dingodb.exec.utils.MemoryTracker;
 import io.dingodb.store.api.transaction.data.IsolationLevel;
 import io.dingodb.store.api.transaction.exception.DuplicateEntryException;
 import io.dingodb.store.api.transaction.exception.LockWaitException;
@@ -125,6 +126,8 @@ public final class TaskImpl implements Task {
     private transient CountDownLatch activeThreads = null;
     @Getter
     private transient TaskStatus taskInitStatus;
+    @Getter
+    private transient MemoryTracker memoryTracker;
     @Setter
     private transient Context context;
 
@@ -191,6 +194,9 @@ public final class TaskImpl implements Task {
     @Override
     public void init() {
         status = new AtomicInteger(Status.BORN);
+        if (memoryTracker == null) {
+            memoryTracker = MemoryTracker.acquireQuery(jobId).child("task " + id);
+        }
         boolean isStatusOK = true;
         String statusErrMsg = "";
         this.getVertexes().forEach((id, v) -> {
@@ -310,6 +316,16 @@ public final class TaskImpl implements Task {
         return true;
     }
 
+    @Override
+    public synchronized void destroy() {
+        Task.super.destroy();
+        if (memoryTracker != null) {
+            memoryTracker.releaseAll();
+            MemoryTracker.releaseQuery(jobId);
+            memoryTracker = null;
+        }
+    }
+
     @Override
     public boolean getBachTask() {
         return bachTask;
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.impl.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.exec.base.Task;
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Creates a task and runs it at once, sent for the first run of a job instead of a create and a run message.
+ */
+@JsonTypeName("create_run")
+public class CreateRunTaskMessage extends TaskMessage {
+    @JsonProperty("task")
+    @Getter
+    private final Task task;
+    @JsonProperty("parasType")
+    @Getter
+    private final @NonNull DingoType parasType;
+    @Getter
+    private final Object @Nullable [] paras;
+
+    public CreateRunTaskMessage(@NonNull Task task, @NonNull DingoType parasType, Object @Nullable [] paras) {
+        this.task = task;
+        this.parasType = parasType;
+        this.paras = paras;
+    }
+}
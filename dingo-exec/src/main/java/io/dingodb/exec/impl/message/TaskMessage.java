@@ -32,6 +32,7 @@ import java.nio.charset.StandardCharsets;
 @JsonSubTypes({
     @JsonSubTypes.Type(CreateTaskMessage.class),
     @JsonSubTypes.Type(RunTaskMessage.class),
+    @JsonSubTypes.Type(CreateRunTaskMessage.class),
     @JsonSubTypes.Type(DestroyTaskMessage.class),
 })
 @Slf4j
@@ -16,9 +16,11 @@
 
 package io.dingodb.exec.operator;
 
+import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithProfiles;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.AggregateParams;
 import lombok.extern.slf4j.Slf4j;
@@ -41,12 +43,18 @@ public final class AggregateOperator extends SoleOutOperator {
     @Override
     public  void fin(int pin, Fin fin, Vertex vertex) {
         AggregateParams params = vertex.getParam();
+        OperatorProfile profile = params.getProfile("aggregate");
         Edge edge = vertex.getSoleEdge();
         for (Object[] t : params.getCache()) {
             if (!edge.transformToNext(t)) {
                 break;
             }
         }
+        profile.end();
+        profile.setPeakMemory(params.getMemoryTracker().getPeak());
+        if (fin instanceof FinWithProfiles) {
+            ((FinWithProfiles) fin).addProfile(profile);
+        }
         edge.fin(fin);
         // Reset
         params.clear();
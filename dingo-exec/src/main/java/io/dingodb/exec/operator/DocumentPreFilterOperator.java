@@ -16,9 +16,19 @@
 
 package io.dingodb.exec.operator;
 
+import io.dingodb.codec.CodecService;
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.profile.OperatorProfile;
+import io.dingodb.common.type.DingoType;
+import io.dingodb.common.type.DingoTypeFactory;
 import io.dingodb.common.type.TupleMapping;
-import io.dingodb.common.util.Pair;
+import io.dingodb.common.type.TupleType;
+import io.dingodb.common.type.scalar.LongType;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.common.util.Optional;
 import io.dingodb.exec.Services;
 import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
@@ -26,6 +36,10 @@ import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.DocumentPreFilterParam;
+import io.dingodb.exec.utils.MemoryTracker;
+import io.dingodb.meta.entity.IndexTable;
+import io.dingodb.partition.DingoPartitionServiceProvider;
+import io.dingodb.partition.PartitionService;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.transaction.data.DocumentSearchParameter;
 import io.dingodb.store.api.transaction.data.DocumentWithScore;
@@ -33,7 +47,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 
@@ -48,6 +69,7 @@ public class DocumentPreFilterOperator extends SoleOutOperator {
     public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
         DocumentPreFilterParam param = vertex.getParam();
         param.setContext(context);
+        param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
         param.getCache().add(tuple);
         return true;
     }
@@ -70,47 +92,105 @@ public class DocumentPreFilterOperator extends SoleOutOperator {
         ).collect(Collectors.toList());
 
         if (rightList.isEmpty()) {
+            profile.setPeakMemory(param.getMemoryTracker().getPeak());
             edge.fin(fin);
             return;
         }
 
-        String queStr = param.getQueryString();
-        Integer topK = param.getTopK();
-        StoreInstance instance = Services.KV_STORE.getInstance(param.getTable().getTableId(),
-            param.getDistributions().firstEntry().getValue().getId());
-        DocumentSearchParameter documentSearchParameter = DocumentSearchParameter.builder()
-            .topN(topK)
-            .documentIds(rightList)
-            .queryString(queStr)
-            .useIdFilter(true)
-            .build();
-        List<DocumentWithScore> documentWithScores = instance.documentSearch(
-            param.getScanTs(),
-            param.getIndexTableId(),
-            documentSearchParameter);
-        List<Pair<Long, Float>> docs = new ArrayList<>();
-        for (DocumentWithScore document : documentWithScores) {
-            if (document.getDocumentWithId().getDocument().getDocumentData() != null) {
-                float score = document.getScore();
-                Pair<Long, Float> p = new Pair<>(document.getDocumentWithId().getId(), score);
-                docs.add(p);
-            }
+        Map<Long, Float> scores = new HashMap<>();
+        for (DocumentWithScore document : search(param, rightList)) {
+            scores.put(document.getDocumentWithId().getId(), document.getScore());
         }
-
-        Object[] resTuple = new Object[param.getTable().columns.size() + 1];
+        int columnSize = param.getTable().columns.size();
         for (Object[] cacheElement : cache) {
-            for (Pair<Long, Float> doc : docs) {
-                if (cacheElement[docIdIndex] != null && doc.getKey() != null
-                    && cacheElement[docIdIndex].equals(doc.getKey())) {
-                    System.arraycopy(cacheElement, 0, resTuple, 0, cacheElement.length);
-                    resTuple[resTuple.length - 1] = doc.getValue();
-                    edge.transformToNext(param.getContext(), selection.revMap(resTuple));
-                    break;
-                }
+            Float score = cacheElement[docIdIndex] == null ? null : scores.get(cacheElement[docIdIndex]);
+            if (score != null) {
+                Object[] resTuple = new Object[columnSize + 1];
+                System.arraycopy(cacheElement, 0, resTuple, 0, cacheElement.length);
+                resTuple[columnSize] = score;
+                edge.transformToNext(param.getContext(), selection.revMap(resTuple));
             }
         }
+        profile.setPeakMemory(param.getMemoryTracker().getPeak());
         param.clear();
         profile.time(start);
         edge.fin(fin);
     }
+
+    /**
+     * Searches the document ids in their regions, the regions are searched in parallel and the hits are merged
+     * by score into the global top k.
+     */
+    private static List<DocumentWithScore> search(DocumentPreFilterParam param, List<Long> documentIds) {
+        Map<CommonId, List<Long>> regions = splitByRegion(param, documentIds);
+        List<DocumentWithScore> documents;
+        if (regions.size() == 1) {
+            Map.Entry<CommonId, List<Long>> entry = regions.entrySet().iterator().next();
+            documents = search(param, entry.getKey(), entry.getValue());
+        } else {
+            List<CompletableFuture<List<DocumentWithScore>>> futures = new ArrayList<>(regions.size());
+            regions.forEach((regionId, ids) -> futures.add(
+                Executors.submit("document-pre-filter-" + regionId, () -> search(param, regionId, ids))
+            ));
+            documents = new ArrayList<>();
+            try {
+                for (CompletableFuture<List<DocumentWithScore>> future : futures) {
+                    documents.addAll(future.join());
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            documents.sort(Comparator.comparing(DocumentWithScore::getScore).reversed());
+            Integer topK = param.getTopK();
+            if (topK != null && topK > 0 && documents.size() > topK) {
+                documents = documents.subList(0, topK);
+            }
+        }
+        return documents;
+    }
+
+    private static List<DocumentWithScore> search(DocumentPreFilterParam param, CommonId regionId, List<Long> ids) {
+        StoreInstance instance = Services.KV_STORE.getInstance(param.getTable().getTableId(), regionId);
+        DocumentSearchParameter documentSearchParameter = DocumentSearchParameter.builder()
+            .topN(param.getTopK())
+            .documentIds(ids)
+            .queryString(param.getQueryString())
+            .useIdFilter(true)
+            .build();
+        return instance.documentSearch(param.getScanTs(), param.getIndexTableId(), documentSearchParameter).stream()
+            .filter(document -> document.getDocumentWithId().getDocument().getDocumentData() != null)
+            .collect(Collectors.toList());
+    }
+
+    private static Map<CommonId, List<Long>> splitByRegion(DocumentPreFilterParam param, List<Long> documentIds) {
+        NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> distributions = param.getDistributions();
+        Map<CommonId, List<Long>> regions = new LinkedHashMap<>();
+        IndexTable indexTable = param.getTable().getIndexes().stream()
+            .filter(index -> index.getTableId().equals(param.getIndexTableId()))
+            .findFirst()
+            .orElse(null);
+        if (indexTable == null || distributions.size() == 1) {
+            regions.put(distributions.firstEntry().getValue().getId(), documentIds);
+            return regions;
+        }
+        TupleType tupleType = DingoTypeFactory.tuple(new DingoType[]{new LongType(false)});
+        KeyValueCodec codec = CodecService.getDefault().createKeyValueCodec(
+            indexTable.getCodecVersion(), param.getIndexTableId(), tupleType, TupleMapping.of(new int[]{0})
+        );
+        PartitionService ps = PartitionService.getService(
+            Optional.ofNullable(indexTable.getPartitionStrategy())
+                .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
+        for (Long documentId : documentIds) {
+            if (documentId == null) {
+                continue;
+            }
+            byte[] key = codec.encodeKey(new Object[]{documentId});
+            CodecService.getDefault().setId(key, CommonId.EMPTY_TABLE);
+            regions.computeIfAbsent(ps.calcPartId(key, distributions), k -> new ArrayList<>()).add(documentId);
+        }
+        return regions;
+    }
 }
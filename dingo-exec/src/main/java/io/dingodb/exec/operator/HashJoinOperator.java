@@ -28,6 +28,7 @@ import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.data.TupleWithJoinFlag;
 import io.dingodb.exec.operator.params.HashJoinParam;
 import io.dingodb.exec.tuple.TupleKey;
+import io.dingodb.exec.utils.MemoryTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -77,6 +78,7 @@ public class HashJoinOperator extends SoleOutOperator {
                 return edge.transformToNext(context, newTuple);
             }
         } else if (pin == 1) { //right
+            param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
             TupleKey rightKey = new TupleKey(rightMapping.revMap(tuple));
             List<TupleWithJoinFlag> list = param.getHashMap()
                 .computeIfAbsent(rightKey, k -> Collections.synchronizedList(new LinkedList<>()));
@@ -128,6 +130,7 @@ public class HashJoinOperator extends SoleOutOperator {
                 //}
                 profile.getChildren().add(param.profileRight);
                 profile.end();
+                profile.setPeakMemory(param.getMemoryTracker().getPeak());
                 finWithProfiles.setProfile(profile);
             }
             edge.fin(fin);
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.profile.OperatorProfile;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithProfiles;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.HybridRankParam;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Ranks the candidates of the vector side of a hybrid search, the scores are normalized to [0, 1] by the min
+ * and max of all the candidates, only the top ones are kept.
+ */
+public class HybridRankOperator extends SoleOutOperator {
+    public static final HybridRankOperator INSTANCE = new HybridRankOperator();
+
+    private HybridRankOperator() {
+    }
+
+    @Override
+    public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
+        synchronized (vertex) {
+            HybridRankParam param = vertex.getParam();
+            param.setContext(context);
+            if (param.getLimit() == 0) {
+                return false;
+            }
+            param.add(tuple);
+            return true;
+        }
+    }
+
+    @Override
+    public void fin(int pin, @Nullable Fin fin, Vertex vertex) {
+        synchronized (vertex) {
+            HybridRankParam param = vertex.getParam();
+            OperatorProfile profile = param.getProfile("hybridRank");
+            profile.start();
+            profile.setCount(param.getSize());
+            Object[][] ranked = param.ranked();
+            profile.end();
+            Edge edge = vertex.getSoleEdge();
+            for (int i = param.getOffset(); i < ranked.length; i++) {
+                if (!edge.transformToNext(param.getContext(), ranked[i])) {
+                    break;
+                }
+            }
+            if (fin instanceof FinWithProfiles) {
+                ((FinWithProfiles) fin).addProfile(profile);
+            }
+            edge.fin(fin);
+            // Reset
+            param.clear();
+        }
+    }
+}
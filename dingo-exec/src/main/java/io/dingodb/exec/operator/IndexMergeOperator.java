@@ -16,16 +16,15 @@
 
 package io.dingodb.exec.operator;
 
-import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.IndexMergeParam;
-import io.dingodb.exec.tuple.TupleKey;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.concurrent.ConcurrentHashMap;
-
+/**
+ * Merges the rows of several index lookups, a row is emitted the first time its primary key is seen.
+ */
 public class IndexMergeOperator extends SoleOutOperator {
     public static final IndexMergeOperator INSTANCE = new IndexMergeOperator();
 
@@ -34,21 +33,20 @@ public class IndexMergeOperator extends SoleOutOperator {
 
     @Override
     public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
-        IndexMergeParam params = vertex.getParam();
-        params.setContext(context);
-        Object[] keyTuple = params.getKeyMapping().revMap(tuple);
-        params.getHashMap().put(new TupleKey(keyTuple), params.getSelection().revMap(tuple));
-        return true;
+        synchronized (vertex) {
+            IndexMergeParam params = vertex.getParam();
+            if (params.markSeen(tuple)) {
+                return vertex.getSoleEdge().transformToNext(context, params.getSelection().revMap(tuple));
+            }
+            return true;
+        }
     }
 
     @Override
     public void fin(int pin, @Nullable Fin fin, Vertex vertex) {
-        Edge edge = vertex.getSoleEdge();
-        IndexMergeParam param = vertex.getParam();
-        ConcurrentHashMap<TupleKey, Object[]> hashMap = param.getHashMap();
-        hashMap.values().forEach(v -> edge.transformToNext(param.getContext(), v));
-        edge.fin(fin);
+        vertex.getSoleEdge().fin(fin);
         // Reset
+        IndexMergeParam param = vertex.getParam();
         param.clear();
     }
 
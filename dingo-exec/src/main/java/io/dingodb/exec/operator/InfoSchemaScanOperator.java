@@ -21,6 +21,7 @@ import io.dingodb.common.annotation.ApiDeclaration;
 import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.profile.StmtSummaryMap;
+import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.params.InfoSchemaScanParam;
 import io.dingodb.meta.DdlService;
@@ -29,11 +30,13 @@ import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Column;
 import io.dingodb.meta.entity.InfoSchema;
 import io.dingodb.meta.entity.Partition;
+import io.dingodb.meta.entity.SchemaTables;
 import io.dingodb.meta.entity.Table;
 import io.dingodb.net.api.ApiRegistry;
 import io.dingodb.transaction.api.TransactionService;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -43,6 +46,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -50,6 +55,8 @@ import java.util.stream.Stream;
 public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
     public static final InfoSchemaScanOperator INSTANCE = new InfoSchemaScanOperator();
 
+    private static final int TABLES_AUTO_INCREMENT_INDEX = 13;
+
     private InfoSchemaScanOperator() {
     }
 
@@ -57,19 +64,21 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
     protected @NonNull Iterator<Object[]> createSourceIterator(Vertex vertex) {
         InfoSchemaScanParam param = vertex.getParam();
         String target = param.getTarget();
+        Set<String> schemaNames = nameSet(param.getSchemaNames());
+        Set<String> tableNames = nameSet(param.getTableNames());
         switch (target.toUpperCase()) {
             case "GLOBAL_VARIABLES":
                 return getGlobalVariables();
             case "TABLES":
-                return getInformationTables();
+                return getInformationTables(schemaNames, tableNames, selectsAutoIncrement(param.getSelection()));
             case "SCHEMATA":
-                return getInformationSchemata();
+                return getInformationSchemata(schemaNames);
             case "COLUMNS":
-                return getInformationColumns();
+                return getInformationColumns(schemaNames, tableNames);
             case "PARTITIONS":
-                return getInformationPartitions();
+                return getInformationPartitions(schemaNames, tableNames);
             case "STATISTICS":
-                return getInformationStatistics();
+                return getInformationStatistics(schemaNames);
             case "EVENTS":
             case "TRIGGERS":
             case "ROUTINES":
@@ -79,13 +88,14 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
             case "USER_PRIVILEGES":
             case "SCHEMA_PRIVILEGES":
             case "TABLE_PRIVILEGES":
+                return getView(null, null);
             case "VIEWS":
-                return getView();
+                return getView(schemaNames, tableNames);
             case "COLUMN_PRIVILEGES":
             case "COLLATIONS":
                 return getEmpty();
             case "TABLE_CONSTRAINTS":
-                return getInformationTableConstraints();
+                return getInformationTableConstraints(schemaNames, tableNames);
             case "STATEMENTS_SUMMARY":
                 return StmtSummaryMap.iterator();
             case "DINGO_MDL_VIEW":
@@ -97,6 +107,10 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
         }
     }
 
+    static boolean selectsAutoIncrement(@Nullable TupleMapping selection) {
+        return selection == null || selection.contains(TABLES_AUTO_INCREMENT_INDEX);
+    }
+
     private static Iterator<Object[]> getEmpty() {
         return new Iterator<Object[]>() {
             @Override
@@ -111,14 +125,42 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
         };
     }
 
-    private static Iterator<Object[]> getInformationColumns() {
+    private static @Nullable Set<String> nameSet(@Nullable List<String> names) {
+        if (names == null) {
+            return null;
+        }
+        Set<String> nameSet = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        nameSet.addAll(names);
+        return nameSet;
+    }
+
+    /**
+     * Gets the schemas whose name is in the names pushed down from the filter, names are matched ignoring case
+     * because the filter is evaluated on the rows anyway.
+     */
+    private static Stream<SchemaTables> schemas(InfoSchema is, @Nullable Set<String> names) {
+        Stream<SchemaTables> schemas = is.getSchemaMap().values().stream();
+        if (names == null) {
+            return schemas;
+        }
+        return schemas.filter(schemaTables -> names.contains(schemaTables.getSchemaInfo().getName()));
+    }
+
+    private static Stream<Table> tables(SchemaTables schemaTables, @Nullable Set<String> names) {
+        Stream<Table> tables = schemaTables.getTables().values().stream();
+        if (names == null) {
+            return tables;
+        }
+        return tables.filter(table -> names.contains(table.getName()));
+    }
+
+    private static Iterator<Object[]> getInformationColumns(
+        @Nullable Set<String> schemaNames,
+        @Nullable Set<String> tableNames
+    ) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap()
-            .values()
-            .stream()
-            .flatMap(schemaTables -> schemaTables.getTables()
-                .values()
-                .stream()
+        return schemas(is, schemaNames)
+            .flatMap(schemaTables -> tables(schemaTables, tableNames)
                 .flatMap(td -> {
                     List<Object[]> colRes = new ArrayList<>();
                     for (int i = 0; i < td.getColumns().size(); i++) {
@@ -157,14 +199,13 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
                 })).iterator();
     }
 
-    private static Iterator<Object[]> getInformationPartitions() {
+    private static Iterator<Object[]> getInformationPartitions(
+        @Nullable Set<String> schemaNames,
+        @Nullable Set<String> tableNames
+    ) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap()
-            .values()
-            .stream()
-            .flatMap(schemaTables -> schemaTables.getTables()
-                .values()
-                .stream()
+        return schemas(is, schemaNames)
+            .flatMap(schemaTables -> tables(schemaTables, tableNames)
                 .flatMap(table -> {
                     if (table.partitions == null || table.getPartitions().isEmpty()) {
                         LogUtils.warn(log, "The table {} not have partition, please check meta.", table.name);
@@ -246,62 +287,30 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
         return resList.iterator();
     }
 
-    private static Iterator<Object[]> getInformationSchemata() {
+    private static Iterator<Object[]> getInformationSchemata(@Nullable Set<String> schemaNames) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap()
-            .keySet()
-            .stream()
+        Stream<String> names = is.getSchemaMap().keySet().stream();
+        if (schemaNames != null) {
+            names = names.filter(schemaNames::contains);
+        }
+        return names
             .map(service -> new Object[]{"def", service, "utf8", "utf8_bin", null})
             .iterator();
     }
 
-    private static Iterator<Object[]> getInformationTables() {
+    private static Iterator<Object[]> getInformationTables(
+        @Nullable Set<String> schemaNames,
+        @Nullable Set<String> tableNames,
+        boolean withAutoIncrement
+    ) {
         MetaService metaService = MetaService.root();
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap().values()
-            .stream()
+        return schemas(is, schemaNames)
             .flatMap(e -> {
-                Collection<Table> tables = e.getTables().values();
-                return tables.stream()
+                return tables(e, tableNames)
                     .map(td -> {
-                        Timestamp updateTime = null;
-                        if (td.getUpdateTime() > 0) {
-                            updateTime = new Timestamp(td.getUpdateTime());
-                        }
-                        String createOptions = "";
-                        if (!td.getProperties().isEmpty()) {
-                            createOptions = td.getProperties().toString();
-                        }
-                        boolean hasInc = td.getColumns().stream().anyMatch(Column::isAutoIncrement);
                         try {
-                            return new Object[]{"def",
-                                e.getSchemaInfo().getName(),
-                                td.getName(),
-                                td.tableType,
-                                td.getEngine(),
-                                td.getVersion(),
-                                td.getRowFormat(),
-                                // table rows
-                                null,
-                                // avg row length
-                                0L,
-                                // data length
-                                0L,
-                                // max data length
-                                0L,
-                                // index length
-                                0L,
-                                // data free
-                                null,
-                                hasInc ? metaService.getLastId(td.tableId) : null,
-                                new Timestamp(td.getCreateTime()),
-                                updateTime,
-                                null,
-                                td.getCollate(),
-                                null,
-                                createOptions,
-                                td.getComment()
-                            };
+                            return tablesRow(metaService, e.getSchemaInfo().getName(), td, withAutoIncrement);
                         } catch (Exception e1) {
                             LogUtils.error(log, e1.getMessage(), e1);
                             return null;
@@ -312,14 +321,55 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
             .iterator();
     }
 
-    private static Iterator<Object[]> getInformationTableConstraints() {
+    static Object[] tablesRow(MetaService metaService, String schemaName, Table td, boolean withAutoIncrement) {
+        Timestamp updateTime = null;
+        if (td.getUpdateTime() > 0) {
+            updateTime = new Timestamp(td.getUpdateTime());
+        }
+        String createOptions = "";
+        if (!td.getProperties().isEmpty()) {
+            createOptions = td.getProperties().toString();
+        }
+        // The last id is a remote call, only get it if the column is used.
+        boolean hasInc = withAutoIncrement && td.getColumns().stream().anyMatch(Column::isAutoIncrement);
+        return new Object[]{"def",
+            schemaName,
+            td.getName(),
+            td.tableType,
+            td.getEngine(),
+            td.getVersion(),
+            td.getRowFormat(),
+            // table rows
+            null,
+            // avg row length
+            0L,
+            // data length
+            0L,
+            // max data length
+            0L,
+            // index length
+            0L,
+            // data free
+            null,
+            hasInc ? metaService.getLastId(td.tableId) : null,
+            new Timestamp(td.getCreateTime()),
+            updateTime,
+            null,
+            td.getCollate(),
+            null,
+            createOptions,
+            td.getComment()
+        };
+    }
+
+    private static Iterator<Object[]> getInformationTableConstraints(
+        @Nullable Set<String> schemaNames,
+        @Nullable Set<String> tableNames
+    ) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap()
-            .values()
-            .stream()
+        return schemas(is, schemaNames)
             .flatMap(e -> {
-                Collection<Table> tables = e.getTables().values();
-                return tables.stream()
+                return tables(e, tableNames)
                     .map(td -> new Object[]{"def",
                         e.getSchemaInfo().getName(),
                         "PRIMARY",
@@ -331,11 +381,10 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
             }).iterator();
     }
 
-    private static Iterator<Object[]> getInformationStatistics() {
+    // Index rows have the index name in TABLE_NAME, so only the schema is pruned.
+    private static Iterator<Object[]> getInformationStatistics(@Nullable Set<String> schemaNames) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap()
-            .values()
-            .stream()
+        return schemas(is, schemaNames)
             .flatMap(e -> {
                 Collection<Table> tables = e.getTables().values();
                 List<Object[]> priKeyList = tables.stream()
@@ -389,15 +438,13 @@ public class InfoSchemaScanOperator extends FilterProjectSourceOperator {
         return TransactionService.getDefault().getMdlInfo();
     }
 
-    public static Iterator<Object[]> getView() {
+    public static Iterator<Object[]> getView(@Nullable Set<String> schemaNames, @Nullable Set<String> tableNames) {
         InfoSchema is = DdlService.root().getIsLatest();
-        return is.getSchemaMap().values()
-            .stream()
+        return schemas(is, schemaNames)
             .filter(schemaTables ->
                 !schemaTables.getSchemaInfo().getName().equalsIgnoreCase("INFORMATION_SCHEMA"))
             .flatMap(e -> {
-                Collection<Table> tables = e.getTables().values();
-                return tables.stream()
+                return tables(e, tableNames)
                     .filter(td -> td.getTableType().equalsIgnoreCase("VIEW"))
                     .map(td -> {
                         String checkOpt = td.getProperties()
@@ -30,9 +30,11 @@ import io.dingodb.exec.converter.ValueConverter;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.exception.TaskCancelException;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.PessimisticLockDeleteParam;
 import io.dingodb.exec.transaction.impl.TransactionManager;
+import io.dingodb.exec.transaction.util.PessimisticLockBatch;
 import io.dingodb.exec.transaction.util.TransactionUtil;
 import io.dingodb.exec.utils.ByteUtils;
 import io.dingodb.exec.utils.OpStateUtils;
@@ -145,6 +147,10 @@ public class PessimisticLockDeleteOperator extends SoleOutOperator {
                 tableIdByte,
                 partIdByte
             );
+            PessimisticLockBatch lockBatch = param.getLockBatch();
+            if (lockBatch.contains(lockKeyBytes) && !lockBatch.flush(vertex, param, param.isScan())) {
+                return false;
+            }
             KeyValue oldKeyValue = localStore.get(lockKeyBytes);
             if (oldKeyValue == null) {
                 // for check deadLock
@@ -157,6 +163,12 @@ public class PessimisticLockDeleteOperator extends SoleOutOperator {
                     tableIdByte,
                     partIdByte
                 );
+                if (lockBatch.isEnabled() && context.getIndexId() == null) {
+                    if (lockBatch.add(context, tuple, key, lockKeyBytes, deadLockKeyBytes)) {
+                        return lockBatch.flush(vertex, param, param.isScan());
+                    }
+                    return true;
+                }
                 KeyValue deadLockKeyValue = new KeyValue(deadLockKeyBytes, null);
                 localStore.put(deadLockKeyValue);
                 byte[] primaryLockKeyBytes = decodePessimisticKey(primaryLockKey);
@@ -298,6 +310,11 @@ public class PessimisticLockDeleteOperator extends SoleOutOperator {
     @Override
     public synchronized void fin(int pin, Fin fin, Vertex vertex) {
         PessimisticLockDeleteParam param = vertex.getParam();
+        if (!(fin instanceof FinWithException)) {
+            synchronized (vertex) {
+                param.getLockBatch().flush(vertex, param, param.isScan());
+            }
+        }
         vertex.getSoleEdge().fin(fin);
         // Reset
         param.reset();
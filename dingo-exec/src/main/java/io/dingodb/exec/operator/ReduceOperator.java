@@ -16,9 +16,11 @@
 
 package io.dingodb.exec.operator;
 
+import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.exec.dag.Edge;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithProfiles;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.ReduceParam;
 import lombok.extern.slf4j.Slf4j;
@@ -43,12 +45,18 @@ public final class ReduceOperator extends SoleOutOperator {
     public void fin(int pin, Fin fin, Vertex vertex) {
         synchronized (vertex) {
             ReduceParam param = vertex.getParam();
+            OperatorProfile profile = param.getProfile("reduce");
             Edge edge = vertex.getSoleEdge();
             for (Object[] t : param.getCache()) {
                 if (!edge.transformToNext(t)) {
                     break;
                 }
             }
+            profile.end();
+            profile.setPeakMemory(param.getMemoryTracker().getPeak());
+            if (fin instanceof FinWithProfiles) {
+                ((FinWithProfiles) fin).addProfile(profile);
+            }
             edge.fin(fin);
         }
     }
@@ -24,13 +24,11 @@ import io.dingodb.exec.fin.FinWithProfiles;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.data.SortCollation;
 import io.dingodb.exec.operator.params.SortParam;
+import io.dingodb.exec.utils.MemoryTracker;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SortOperator extends SoleOutOperator {
     public static final SortOperator INSTANCE = new SortOperator();
@@ -49,6 +47,7 @@ public class SortOperator extends SoleOutOperator {
             if (limit == 0) {
                 return false;
             }
+            param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
             param.getCache().add(tuple);
             return !collations.isEmpty() || limit < 0 || param.getCache().size() < offset + limit;
         }
@@ -69,29 +68,12 @@ public class SortOperator extends SoleOutOperator {
             if (comparator != null) {
                 cache.sort(comparator);
             }
-            List<Object[]> normalCache = cache;
-            if (param.isVectorHybrid()) {
-                // similarity score normalization
-                normalCache = new ArrayList<>(size);
-                List<Float> similarityScores = new ArrayList<>(size);
-                for (int i = 0; i < size; i++) {
-                    Object[] objects = cache.get(i);
-                    similarityScores.add((Float) objects[1]);
-
-                }
-                List<Float> floats = normalizeScores(similarityScores);
-                for (int i = 0; i < size; i++) {
-                    Object[] objects = new Object[2];
-                    objects[0] = cache.get(i)[0];
-                    objects[1] = floats.get(i);
-                    normalCache.add(objects);
-                }
-            }
             profile.end();
+            profile.setPeakMemory(param.getMemoryTracker().getPeak());
             int o = 0;
             int c = 0;
             Edge edge = vertex.getSoleEdge();
-            for (Object[] tuple : normalCache) {
+            for (Object[] tuple : cache) {
                 if (o < offset) {
                     ++o;
                     continue;
@@ -114,43 +96,4 @@ public class SortOperator extends SoleOutOperator {
         }
     }
 
-    public static List<Float> normalizeScoresOld(List<Float> scores) {
-        List<Float> validScores = scores.stream()
-            .filter(score -> score != null && score >= 0)
-            .collect(Collectors.toList());
-
-        if (validScores.isEmpty()) {
-            return  Collections.emptyList();
-        }
-
-        Float min = validScores.stream().min(Float::compare).orElse(0.0F);
-        Float max = validScores.stream().max(Float::compare).orElse(1.0F);
-
-        return validScores.stream()
-            .map(score -> (max == min) ? 0.0F : 1 - ((score - min) / (max - min)))
-            .collect(Collectors.toList());
-    }
-
-    public static List<Float> normalizeScores(List<Float> scores) {
-        if (scores == null || scores.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Find the minimum and maximum values
-        Float min = scores.stream().min(Float::compare).orElse(0.0F);
-        Float max = scores.stream().max(Float::compare).orElse(0.0F);
-
-        // If the minimum and maximum values are the same, return a list of all zeros
-        if (min.equals(max)) {
-            return scores.stream()
-                .map(score -> 0.0F)
-                .collect(Collectors.toList());
-        }
-
-        // Shift and normalize the scores
-        return scores.stream()
-            .map(score -> (score - min) / (max - min))
-            .collect(Collectors.toList());
-    }
-
 }
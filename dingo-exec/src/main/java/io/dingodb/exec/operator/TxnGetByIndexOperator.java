@@ -20,24 +20,19 @@ import com.google.common.collect.Iterators;
 import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
-import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.type.TupleMapping;
-import io.dingodb.common.util.ByteArrayUtils;
-import io.dingodb.common.util.Optional;
 import io.dingodb.exec.Services;
-import io.dingodb.exec.base.Task;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.TxnGetByIndexParam;
 import io.dingodb.exec.transaction.base.TransactionType;
 import io.dingodb.exec.utils.ByteUtils;
+import io.dingodb.exec.utils.TxnLookupIterator;
 import io.dingodb.exec.utils.TxnMergedIterator;
-import io.dingodb.meta.MetaService;
 import io.dingodb.meta.entity.Table;
-import io.dingodb.partition.DingoPartitionServiceProvider;
-import io.dingodb.partition.PartitionService;
 import io.dingodb.store.api.StoreInstance;
 import io.dingodb.store.api.transaction.data.Op;
 import lombok.extern.slf4j.Slf4j;
@@ -48,7 +43,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static io.dingodb.common.util.NoBreakFunctions.wrap;
 import static io.dingodb.common.util.Utils.calculatePrefixCount;
@@ -77,52 +71,24 @@ public class TxnGetByIndexOperator extends FilterProjectOperator {
             new StoreInstance.Range(keys, keys, true, true),
             param.getTimeout());
         Iterator<Object[]> iterator = createMergedIterator(localIterator, storeIterator, param.getCodec());
-        iterator = Iterators.transform(iterator, tuples -> revMap(tuples, vertex));
-
-        profile.time(start);
-        return iterator;
-    }
-
-    public static Object[] revMap(Object[] tuple, Vertex vertex) {
-        TxnGetByIndexParam param = vertex.getParam();
         if (param.isLookup()) {
-            return lookUp(tuple, param, vertex.getTask());
+            iterator = new TxnLookupIterator(
+                iterator,
+                vertex.getTask(),
+                param.getTable(),
+                param.getTableId(),
+                param.getKeyMapping(),
+                param.getLookupCodec(),
+                param.getScanTs(),
+                param.getTimeout(),
+                ScopeVariables.getTxnLookupBatchSize()
+            );
         } else {
-            return transformTuple(tuple, param);
-        }
-    }
-
-    public static Object[] lookUp(Object[] tuples, TxnGetByIndexParam param, Task task) {
-        CommonId txnId = task.getTxnId();
-        TransactionType transactionType = task.getTransactionType();
-        TupleMapping indices = param.getKeyMapping();
-        Table tableDefinition = param.getTable();
-        NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> ranges =
-            MetaService.root().getRangeDistribution(tableDefinition.tableId);
-        Object[] keyTuples = new Object[tableDefinition.getColumns().size()];
-        for (int i = 0; i < indices.getMappings().length; i ++) {
-            keyTuples[indices.get(i)] = tuples[i];
+            iterator = Iterators.transform(iterator, tuples -> transformTuple(tuples, param));
         }
-        byte[] keys = param.getLookupCodec().encodeKey(keyTuples);
-        CommonId regionId = PartitionService.getService(
-                Optional.ofNullable(tableDefinition.getPartitionStrategy())
-                    .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME))
-            .calcPartId(keys, ranges);
 
-        keys = CodecService.getDefault().setId(keys, regionId.domain);
-        Object[] local = createGetLocal(
-            keys,
-            txnId,
-            regionId,
-            param.getTableId(),
-            param.getLookupCodec(),
-            transactionType);
-        if (local != null) {
-            return local;
-        }
-
-        StoreInstance store = Services.KV_STORE.getInstance(param.getTableId(), regionId);
-        return param.getLookupCodec().decode(store.txnGet(param.getScanTs(), keys, param.getTimeout()));
+        profile.time(start);
+        return iterator;
     }
 
     private static Object[] transformTuple(Object[] tuple, TxnGetByIndexParam param) {
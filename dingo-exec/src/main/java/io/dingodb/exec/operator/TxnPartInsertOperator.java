@@ -376,15 +376,19 @@ public class TxnPartInsertOperator extends PartModifyOperator {
                     } else {
                         originalKey = key;
                     }
-                    StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, partId);
-                    KeyValue kvKeyValue = kvStore.txnGet(
-                        txnId.seq,
-                        originalKey,
-                        param.getLockTimeOut()
-                    );
-                    if (kvKeyValue != null && kvKeyValue.getValue() != null) {
-                        throw new DuplicateEntryException("Duplicate entry " +
-                            TransactionUtil.duplicateEntryKey(tableId, key, txnId) + " for key 'PRIMARY'");
+                    if (isVector || isDocument) {
+                        StoreInstance kvStore = Services.KV_STORE.getInstance(tableId, partId);
+                        KeyValue kvKeyValue = kvStore.txnGet(
+                            txnId.seq,
+                            originalKey,
+                            param.getLockTimeOut()
+                        );
+                        if (kvKeyValue != null && kvKeyValue.getValue() != null) {
+                            throw new DuplicateEntryException("Duplicate entry " +
+                                TransactionUtil.duplicateEntryKey(tableId, key, txnId) + " for key 'PRIMARY'");
+                        }
+                    } else if (param.getInsertChecker().add(tableId, partId, originalKey, key)) {
+                        param.getInsertChecker().check(txnId, param.getLockTimeOut());
                     }
                 }
                 if (context.isDuplicateKey()) {
@@ -479,6 +483,7 @@ public class TxnPartInsertOperator extends PartModifyOperator {
             TxnPartInsertParam param = vertex.getParam();
             Edge edge = vertex.getSoleEdge();
             if (!(fin instanceof FinWithException)) {
+                param.getInsertChecker().check(vertex.getTask().getTxnId(), param.getLockTimeOut());
                 edge.transformToNext(new Object[]{param.getCount()});
             }
             if (fin instanceof FinWithProfiles) {
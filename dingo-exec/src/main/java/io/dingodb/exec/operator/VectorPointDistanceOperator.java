@@ -27,6 +27,7 @@ import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.operator.params.VectorPointDistanceParam;
+import io.dingodb.exec.utils.MemoryTracker;
 import io.dingodb.tool.api.ToolService;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -50,6 +51,7 @@ public class VectorPointDistanceOperator extends SoleOutOperator {
     public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
         VectorPointDistanceParam param = vertex.getParam();
         param.setContext(context);
+        param.getMemoryTracker().consume(MemoryTracker.estimate(tuple));
         param.getCache().add(tuple);
         return true;
     }
@@ -71,6 +73,7 @@ public class VectorPointDistanceOperator extends SoleOutOperator {
         ).collect(Collectors.toList());
         int topn = param.getTopk();
         if (rightList.isEmpty()) {
+            profile.setPeakMemory(param.getMemoryTracker().getPeak());
             edge.fin(fin);
             return;
         }
@@ -108,6 +111,7 @@ public class VectorPointDistanceOperator extends SoleOutOperator {
             count++;
         }
 
+        profile.setPeakMemory(param.getMemoryTracker().getPeak());
         param.clear();
         profile.time(start);
         edge.fin(fin);
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.profile.OperatorProfile;
+import io.dingodb.exec.dag.Edge;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.fin.Fin;
+import io.dingodb.exec.fin.FinWithProfiles;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.WindowParam;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Evaluates window functions over input sorted by a {@link SortOperator}, rows are passed on as soon as their
+ * frame is complete.
+ */
+public final class WindowOperator extends SoleOutOperator {
+    public static final WindowOperator INSTANCE = new WindowOperator();
+
+    private WindowOperator() {
+    }
+
+    @Override
+    public boolean push(Context context, @Nullable Object[] tuple, Vertex vertex) {
+        synchronized (vertex) {
+            WindowParam param = vertex.getParam();
+            param.setContext(context);
+            OperatorProfile profile = param.getProfile("window");
+            long start = System.currentTimeMillis();
+            Edge edge = vertex.getSoleEdge();
+            boolean result = param.getCache().add(tuple, t -> edge.transformToNext(context, t));
+            profile.time(start);
+            return result;
+        }
+    }
+
+    @Override
+    public void fin(int pin, Fin fin, Vertex vertex) {
+        synchronized (vertex) {
+            WindowParam param = vertex.getParam();
+            Edge edge = vertex.getSoleEdge();
+            param.getCache().finish(t -> edge.transformToNext(param.getContext(), t));
+            OperatorProfile profile = param.getProfile("window");
+            profile.end();
+            profile.setPeakMemory(param.getMemoryTracker().getPeak());
+            if (fin instanceof FinWithProfiles) {
+                ((FinWithProfiles) fin).addProfile(profile);
+            }
+            edge.fin(fin);
+            param.clear();
+        }
+    }
+}
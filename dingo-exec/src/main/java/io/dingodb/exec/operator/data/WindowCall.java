@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.operator.data;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.dingodb.exec.aggregate.AbstractAgg;
+import io.dingodb.exec.aggregate.Agg;
+import lombok.Data;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A call of a window function, {@code agg} is set only for {@link WindowFunction#AGGREGATE}, {@code offset} and
+ * {@code defaultValue} are used only by {@link WindowFunction#LAG} and {@link WindowFunction#LEAD}.
+ */
+@Data
+public class WindowCall {
+    @JsonProperty("function")
+    private final WindowFunction function;
+    @JsonProperty("index")
+    private final int index;
+    @JsonProperty("offset")
+    private final int offset;
+    @JsonProperty("defaultValue")
+    private final @Nullable Object defaultValue;
+    @JsonProperty("agg")
+    @JsonSerialize(as = AbstractAgg.class)
+    @JsonDeserialize(as = AbstractAgg.class)
+    private final @Nullable Agg agg;
+
+    public static WindowCall of(WindowFunction function, int index) {
+        return new WindowCall(function, index, 0, null, null);
+    }
+
+    public static WindowCall aggregate(Agg agg) {
+        return new WindowCall(WindowFunction.AGGREGATE, agg.getIndex(), 0, null, agg);
+    }
+}
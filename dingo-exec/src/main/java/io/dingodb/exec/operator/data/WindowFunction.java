@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.operator.data;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum WindowFunction {
+    @JsonProperty("rowNumber")
+    ROW_NUMBER,
+    @JsonProperty("rank")
+    RANK,
+    @JsonProperty("denseRank")
+    DENSE_RANK,
+    @JsonProperty("lag")
+    LAG,
+    @JsonProperty("lead")
+    LEAD,
+    @JsonProperty("firstValue")
+    FIRST_VALUE,
+    @JsonProperty("lastValue")
+    LAST_VALUE,
+    @JsonProperty("aggregate")
+    AGGREGATE,
+}
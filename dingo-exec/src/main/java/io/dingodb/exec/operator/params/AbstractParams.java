@@ -43,6 +43,7 @@ import io.dingodb.exec.transaction.params.ScanCacheParam;
 import io.dingodb.exec.transaction.params.ScanCacheResidualLockParam;
 import io.dingodb.exec.transaction.params.ScanCleanCacheParam;
 import io.dingodb.exec.transaction.params.ScanCleanExtraDataCacheParam;
+import io.dingodb.exec.utils.MemoryTracker;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -79,6 +80,8 @@ import lombok.Setter;
     @JsonSubTypes.Type(ScanWithRelOpParam.class),
     @JsonSubTypes.Type(SendParam.class),
     @JsonSubTypes.Type(SortParam.class),
+    @JsonSubTypes.Type(HybridRankParam.class),
+    @JsonSubTypes.Type(WindowParam.class),
     @JsonSubTypes.Type(SumUpParam.class),
     @JsonSubTypes.Type(ValuesParam.class),
     @JsonSubTypes.Type(RemovePartParam.class),
@@ -141,6 +144,9 @@ public abstract class AbstractParams {
 
     protected transient Profile profile;
 
+    @Setter
+    protected transient MemoryTracker memoryTracker;
+
     public AbstractParams() {
     }
 
@@ -164,6 +170,17 @@ public abstract class AbstractParams {
 
     }
 
+    /**
+     * Returns the tracker of the heap held by the operator, it is detached from the task if the operator was not
+     * initialized by a task.
+     */
+    public synchronized MemoryTracker getMemoryTracker() {
+        if (memoryTracker == null) {
+            memoryTracker = MemoryTracker.detached("operator");
+        }
+        return memoryTracker;
+    }
+
     public synchronized OperatorProfile getProfile(String type) {
         if (profile == null) {
             profile = new OperatorProfile(type);
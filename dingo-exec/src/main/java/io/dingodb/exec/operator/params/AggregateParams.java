@@ -52,7 +52,7 @@ public class AggregateParams extends AbstractParams {
 
 
     public void init(Vertex vertex) {
-        cache = new AggCache(keyMapping, aggList);
+        cache = new AggCache(keyMapping, aggList, getMemoryTracker());
     }
 
     public synchronized void addTuple(Object[] tuple) {
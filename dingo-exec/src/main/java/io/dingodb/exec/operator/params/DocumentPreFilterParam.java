@@ -84,6 +84,7 @@ public class DocumentPreFilterParam extends AbstractParams {
 
     public void clear() {
         cache.clear();
+        getMemoryTracker().releaseAll();
     }
 
 }
@@ -88,5 +88,6 @@ public class HashJoinParam extends AbstractParams {
 
     public void clear() {
         hashMap.clear();
+        getMemoryTracker().releaseAll();
     }
 }
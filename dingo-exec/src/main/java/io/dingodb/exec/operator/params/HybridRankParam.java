@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator.params;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.SortCollation;
+import io.dingodb.exec.operator.data.SortDirection;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the best {@code offset + limit} candidates of a hybrid search by score and the min/max of all the scores,
+ * so that the scores can be normalized without keeping all the candidates.
+ */
+@Getter
+@JsonTypeName("hybridRank")
+@JsonPropertyOrder({"collation", "limit", "offset"})
+public class HybridRankParam extends AbstractParams {
+    private static final int INITIAL_CAPACITY = 64;
+
+    @JsonProperty("collation")
+    private final SortCollation collation;
+    @JsonProperty("limit")
+    private final int limit;
+    @JsonProperty("offset")
+    private final int offset;
+
+    // A heap with the worst kept candidate at the root, a null score is stored as NaN.
+    private transient float[] scores;
+    private transient Object[][] rows;
+    private transient int size;
+    private transient float min;
+    private transient float max;
+
+    @JsonCreator
+    public HybridRankParam(
+        @JsonProperty("collation") SortCollation collation,
+        @JsonProperty("limit") int limit,
+        @JsonProperty("offset") int offset
+    ) {
+        this.collation = collation;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    @Override
+    public void init(Vertex vertex) {
+        super.init(vertex);
+        clear();
+    }
+
+    public void add(Object[] tuple) {
+        Float value = (Float) tuple[collation.getIndex()];
+        float score = value == null ? Float.NaN : value;
+        if (value != null) {
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        if (limit < 0 || size < offset + limit) {
+            if (size == scores.length) {
+                scores = Arrays.copyOf(scores, size << 1);
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            scores[size] = score;
+            rows[size] = tuple;
+            siftUp(size++);
+        } else if (size > 0 && better(score, scores[0])) {
+            scores[0] = score;
+            rows[0] = tuple;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Returns the kept candidates from the best to the worst, with normalized scores. The heap is consumed.
+     */
+    public Object[][] ranked() {
+        int count = size;
+        Object[][] result = new Object[count][];
+        float range = max - min;
+        for (int i = count - 1; i >= 0; i--) {
+            Object[] row = Arrays.copyOf(rows[0], rows[0].length);
+            float score = scores[0];
+            if (!Float.isNaN(score)) {
+                row[collation.getIndex()] = range > 0 ? (score - min) / range : 0.0F;
+            }
+            result[i] = row;
+            swap(0, i);
+            siftDown(0, i);
+        }
+        size = 0;
+        return result;
+    }
+
+    public void clear() {
+        int capacity = limit >= 0 ? Math.min(offset + limit, INITIAL_CAPACITY) : INITIAL_CAPACITY;
+        scores = new float[Math.max(capacity, 1)];
+        rows = new Object[scores.length][];
+        size = 0;
+        min = Float.POSITIVE_INFINITY;
+        max = Float.NEGATIVE_INFINITY;
+    }
+
+    private boolean better(float score, float other) {
+        if (Float.isNaN(score)) {
+            return false;
+        }
+        if (Float.isNaN(other)) {
+            return true;
+        }
+        return collation.getDirection() == SortDirection.DESCENDING ? score > other : score < other;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(scores[parent], scores[index])) {
+                break;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        while (true) {
+            int worst = index;
+            int left = (index << 1) + 1;
+            int right = left + 1;
+            if (left < end && better(scores[worst], scores[left])) {
+                worst = left;
+            }
+            if (right < end && better(scores[worst], scores[right])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        Object[] row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+    }
+}
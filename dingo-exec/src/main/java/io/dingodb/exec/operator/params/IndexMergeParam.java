@@ -22,11 +22,13 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.tuple.TupleKey;
+import io.dingodb.exec.utils.LongHashSet;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 @Getter
 @JsonTypeName("merge")
@@ -37,7 +39,9 @@ public class IndexMergeParam extends AbstractParams {
     private final TupleMapping keyMapping;
     @JsonProperty("selection")
     private final TupleMapping selection;
-    private transient ConcurrentHashMap<TupleKey, Object[]> hashMap;
+    // Primary keys of the rows already emitted, single integral keys are kept unboxed.
+    private transient LongHashSet seenLongKeys;
+    private transient Set<TupleKey> seenKeys;
 
     public IndexMergeParam(TupleMapping keyMapping, TupleMapping selection) {
         this.keyMapping = keyMapping;
@@ -45,7 +49,22 @@ public class IndexMergeParam extends AbstractParams {
     }
 
     public void init(Vertex vertex) {
-        hashMap = new ConcurrentHashMap<>();
+        seenLongKeys = new LongHashSet();
+        seenKeys = new HashSet<>();
+    }
+
+    /**
+     * Records the primary key of a row.
+     * @return true if the key was not seen before
+     */
+    public boolean markSeen(Object[] tuple) {
+        if (keyMapping.size() == 1) {
+            Object key = tuple[keyMapping.get(0)];
+            if (key instanceof Long || key instanceof Integer) {
+                return seenLongKeys.add(((Number) key).longValue());
+            }
+        }
+        return seenKeys.add(new TupleKey(keyMapping.revMap(tuple)));
     }
 
     private TupleMapping transformSelection(TupleMapping selection) {
@@ -58,6 +77,7 @@ public class IndexMergeParam extends AbstractParams {
     }
 
     public void clear() {
-        hashMap.clear();
+        seenLongKeys.clear();
+        seenKeys.clear();
     }
 }
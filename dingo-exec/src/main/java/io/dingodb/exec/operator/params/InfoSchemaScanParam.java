@@ -23,10 +23,13 @@ import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.expr.SqlExpr;
 import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
 
 @Getter
 @JsonTypeName("infoSchemaScan")
-@JsonPropertyOrder({"schema", "filter", "selection", "target"})
+@JsonPropertyOrder({"schema", "filter", "selection", "target", "schemaNames", "tableNames"})
 public class InfoSchemaScanParam extends FilterProjectSourceParam {
     @JsonProperty("schema")
     private final DingoType schema;
@@ -40,15 +43,31 @@ public class InfoSchemaScanParam extends FilterProjectSourceParam {
     @JsonProperty("target")
     private final String target;
 
+    /**
+     * Schema names the filter can match, null for any schema.
+     */
+    @JsonProperty("schemaNames")
+    private final @Nullable List<String> schemaNames;
+
+    /**
+     * Table names the filter can match, null for any table.
+     */
+    @JsonProperty("tableNames")
+    private final @Nullable List<String> tableNames;
+
     public InfoSchemaScanParam(DingoType schema,
                                int schemaVersion,
                                SqlExpr filter,
                                TupleMapping selection,
-                               String target) {
+                               String target,
+                               @Nullable List<String> schemaNames,
+                               @Nullable List<String> tableNames) {
         super(null, null, schema, schemaVersion, filter, selection, null, 2);
         this.schema = schema;
         this.filter = filter;
         this.selection = selection;
         this.target = target;
+        this.schemaNames = schemaNames;
+        this.tableNames = tableNames;
     }
 }
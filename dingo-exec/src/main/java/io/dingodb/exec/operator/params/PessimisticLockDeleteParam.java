@@ -20,8 +20,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.transaction.util.PessimisticLockBatch;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
 
@@ -33,6 +36,7 @@ public class PessimisticLockDeleteParam extends TxnPartModifyParam {
 
     @JsonProperty("isScan")
     private final boolean isScan;
+    private transient PessimisticLockBatch lockBatch;
     public PessimisticLockDeleteParam(
         @JsonProperty("table") CommonId tableId,
         @JsonProperty("schema") DingoType schema,
@@ -50,6 +54,21 @@ public class PessimisticLockDeleteParam extends TxnPartModifyParam {
             isolationLevel, primaryLockKey, startTs, forUpdateTs, lockTimeOut);
         this.isScan = isScan;
     }
+
+    @Override
+    public void init(Vertex vertex) {
+        super.init(vertex);
+        lockBatch = new PessimisticLockBatch(ScopeVariables.getTxnPessimisticLockBatchSize());
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (lockBatch != null) {
+            lockBatch.clear();
+        }
+    }
+
     public void inc() {
         count++;
     }
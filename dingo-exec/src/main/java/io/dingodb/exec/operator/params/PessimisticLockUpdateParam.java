@@ -20,10 +20,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.expr.SqlExpr;
+import io.dingodb.exec.transaction.util.PessimisticLockBatch;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
 
@@ -41,6 +43,7 @@ public class PessimisticLockUpdateParam extends TxnPartModifyParam {
     private final List<SqlExpr> updates;
     @JsonProperty("isScan")
     private final boolean isScan;
+    private transient PessimisticLockBatch lockBatch;
     public PessimisticLockUpdateParam(
         @JsonProperty("table") CommonId tableId,
         @JsonProperty("schema") DingoType schema,
@@ -65,9 +68,18 @@ public class PessimisticLockUpdateParam extends TxnPartModifyParam {
     @Override
     public void init(Vertex vertex) {
         super.init(vertex);
+        lockBatch = new PessimisticLockBatch(ScopeVariables.getTxnPessimisticLockBatchSize());
         updates.forEach(expr -> expr.compileIn(schema, vertex.getParasType()));
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        if (lockBatch != null) {
+            lockBatch.clear();
+        }
+    }
+
     public void inc() {
         count++;
     }
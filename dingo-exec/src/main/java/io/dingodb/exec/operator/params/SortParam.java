@@ -32,7 +32,7 @@ import java.util.List;
 
 @Getter
 @JsonTypeName("sort")
-@JsonPropertyOrder({"collations", "limit", "offset", "vectorHybrid"})
+@JsonPropertyOrder({"collations", "limit", "offset"})
 public class SortParam extends AbstractParams {
 
     @JsonProperty("collations")
@@ -41,8 +41,6 @@ public class SortParam extends AbstractParams {
     private final int limit;
     @JsonProperty("offset")
     private final int offset;
-    @JsonProperty("vectorHybrid")
-    private final boolean vectorHybrid;
     private final List<Object[]> cache;
     private transient Comparator<Object[]> comparator;
 
@@ -50,13 +48,11 @@ public class SortParam extends AbstractParams {
     public SortParam(
         @JsonProperty("collations") @NonNull List<SortCollation> collations,
         @JsonProperty("limit") int limit,
-        @JsonProperty("offset") int offset,
-        @JsonProperty("vectorHybrid") boolean vectorHybrid
+        @JsonProperty("offset") int offset
     ) {
         this.collations = collations;
         this.limit = limit;
         this.offset = offset;
-        this.vectorHybrid = vectorHybrid;
         this.cache = new LinkedList<>();
         if (!collations.isEmpty()) {
             Comparator<Object[]> c = collations.get(0).makeComparator();
@@ -85,6 +81,7 @@ public class SortParam extends AbstractParams {
 
     public void clear() {
         cache.clear();
+        getMemoryTracker().releaseAll();
     }
 
     public OperatorProfile getProfile() {
@@ -20,10 +20,12 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.type.DingoType;
 import io.dingodb.common.type.TupleMapping;
 import io.dingodb.exec.dag.Vertex;
 import io.dingodb.exec.expr.SqlExpr;
+import io.dingodb.exec.utils.TxnInsertChecker;
 import io.dingodb.meta.entity.Table;
 import lombok.Getter;
 
@@ -48,6 +50,7 @@ public class TxnPartInsertParam extends TxnPartModifyParam {
     private List<Long> autoIncList = new ArrayList<>();
     private TupleMapping updateMapping;
     private List<SqlExpr> updates;
+    private transient TxnInsertChecker insertChecker;
 
     public TxnPartInsertParam(
         @JsonProperty("table") CommonId tableId,
@@ -78,11 +81,20 @@ public class TxnPartInsertParam extends TxnPartModifyParam {
     @Override
     public void init(Vertex vertex) {
         super.init(vertex);
+        insertChecker = new TxnInsertChecker(ScopeVariables.getTxnInsertCheckBatchSize());
         if (updates != null) {
             updates.forEach(expr -> expr.compileIn(schema, vertex.getParasType()));
         }
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        if (insertChecker != null) {
+            insertChecker.clear();
+        }
+    }
+
     public void inc() {
         count++;
     }
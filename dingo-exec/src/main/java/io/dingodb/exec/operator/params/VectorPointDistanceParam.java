@@ -77,6 +77,7 @@ public class VectorPointDistanceParam extends AbstractParams {
 
     public void clear() {
         cache.clear();
+        getMemoryTracker().releaseAll();
     }
 
 }
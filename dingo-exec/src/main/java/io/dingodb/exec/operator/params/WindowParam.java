@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.operator.params;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import io.dingodb.exec.aggregate.WindowCache;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.operator.data.WindowCall;
+import lombok.Getter;
+import lombok.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+/**
+ * The input must be sorted on the partition keys and the order keys. The frame bounds are offsets to the current
+ * row, null for UNBOUNDED, RANGE frames support only CURRENT ROW and UNBOUNDED bounds.
+ */
+@Getter
+@JsonTypeName("window")
+@JsonPropertyOrder({"partitionKeys", "orderKeys", "rows", "lower", "upper", "calls"})
+public class WindowParam extends AbstractParams {
+
+    @JsonProperty("partitionKeys")
+    private final int[] partitionKeys;
+    @JsonProperty("orderKeys")
+    private final int[] orderKeys;
+    @JsonProperty("rows")
+    private final boolean rows;
+    @JsonProperty("lower")
+    private final @Nullable Long lower;
+    @JsonProperty("upper")
+    private final @Nullable Long upper;
+    @JsonProperty("calls")
+    private final List<WindowCall> calls;
+    private transient WindowCache cache;
+
+    @JsonCreator
+    public WindowParam(
+        @JsonProperty("partitionKeys") int @NonNull [] partitionKeys,
+        @JsonProperty("orderKeys") int @NonNull [] orderKeys,
+        @JsonProperty("rows") boolean rows,
+        @JsonProperty("lower") @Nullable Long lower,
+        @JsonProperty("upper") @Nullable Long upper,
+        @JsonProperty("calls") @NonNull List<WindowCall> calls
+    ) {
+        this.partitionKeys = partitionKeys;
+        this.orderKeys = orderKeys;
+        this.rows = rows;
+        this.lower = lower;
+        this.upper = upper;
+        this.calls = calls;
+    }
+
+    @Override
+    public void init(Vertex vertex) {
+        super.init(vertex);
+        cache = new WindowCache(partitionKeys, orderKeys, rows, lower, upper, calls, getMemoryTracker());
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -21,6 +21,8 @@ import io.dingodb.common.Location;
 import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.log.MdcUtils;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.metrics.LatencyHistogram;
 import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.profile.CommitProfile;
 import io.dingodb.common.util.ByteArrayUtils;
@@ -32,6 +34,7 @@ import io.dingodb.exec.exception.TaskFinException;
 import io.dingodb.exec.fin.ErrorType;
 import io.dingodb.exec.transaction.impl.TransactionCache;
 import io.dingodb.exec.transaction.impl.TransactionManager;
+import io.dingodb.exec.transaction.impl.TxnBufferedStore;
 import io.dingodb.exec.transaction.util.TransactionUtil;
 import io.dingodb.exec.transaction.util.TwoPhaseCommitUtils;
 import io.dingodb.exec.transaction.visitor.DingoTransactionRenderJob;
@@ -77,6 +80,7 @@ import java.util.concurrent.atomic.AtomicReference;
 @Setter
 @AllArgsConstructor
 public abstract class BaseTransaction implements ITransaction {
+    private static final LatencyHistogram COMMIT_LATENCY = DingoMetrics.latencyHistogram("txn_commit");
 
     protected int isolationLevel;
     protected long startTs;
@@ -173,15 +177,19 @@ public abstract class BaseTransaction implements ITransaction {
         finishedFuture.join();
         //LogUtils.info(log, "CleanUp finishedFuture the current {} end", transactionOf());
         if (getType() == TransactionType.NONE) {
+            TxnBufferedStore.release(startTs);
             return;
         }
         if (getSqlList().isEmpty()) {
             //LogUtils.warn(log, "The current {} has no data to cleanUp", transactionOf());
+            TxnBufferedStore.release(startTs);
             return;
         }
         Location currentLocation = MetaService.root().currentLocation();
+        CompletableFuture<Void> cleanFuture = CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> cleanExtraFuture = CompletableFuture.completedFuture(null);
         if (cache.checkCleanContinue(isPessimistic())) {
-            CompletableFuture.runAsync(() ->
+            cleanFuture = CompletableFuture.runAsync(() ->
                 cleanUpJobRun(jobManager, currentLocation), Executors.executor(txnId.toString() + "-exec-txnCleanUp")
             ).exceptionally(
                 ex -> {
@@ -191,7 +199,7 @@ public abstract class BaseTransaction implements ITransaction {
             );
         }
         if (cache.checkCleanExtraDataContinue()) {
-            CompletableFuture.runAsync(() ->
+            cleanExtraFuture = CompletableFuture.runAsync(() ->
                 cleanUpExtraDataJobRun(jobManager, currentLocation),
                 Executors.executor(txnId.toString() + "-exec-cleanUpExtraData")
             ).exceptionally(
@@ -201,6 +209,7 @@ public abstract class BaseTransaction implements ITransaction {
                 }
             );
         }
+        CompletableFuture.allOf(cleanFuture, cleanExtraFuture).whenComplete((r, e) -> TxnBufferedStore.release(startTs));
     }
 
     public abstract void resolveWriteConflict(
@@ -334,6 +343,15 @@ public abstract class BaseTransaction implements ITransaction {
 
     @Override
     public synchronized void commit(JobManager jobManager) {
+        long start = System.nanoTime();
+        try {
+            commitTxn(jobManager);
+        } finally {
+            COMMIT_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    private void commitTxn(JobManager jobManager) {
         MdcUtils.setTxnId(txnId.toString());
         // begin
         // nothing
@@ -294,9 +294,8 @@ public class TransactionCache {
             LogUtils.info(log, "txnId:{} tableId:{} partId:{} Op:{} Key:{} ", txnLocalData.getTxnId(), txnLocalData.getTableId(),
                 txnLocalData.getPartId(), txnLocalData.getOp(), txnLocalData.getKey());
         }
-        while (iterator.hasNext()) {
-            cache.delete(iterator.next().getKey());
-            LogUtils.info(log, "key is {}", iterator.next().getKey());
-        }
+        // One range delete instead of a delete per key.
+        long count = cache.delete(new StoreInstance.Range(null, null, true, true));
+        LogUtils.info(log, "clean cache, deleted keys:{}", count);
     }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.transaction.impl;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.codec.PrimitiveCodec;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.StoreService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local store of transaction cache data. Keys of the txn cache types are kept in a {@link TxnWriteBuffer} of
+ * their transaction, other keys and the spilled data are kept in the local store. A buffer lives until its
+ * transaction is released, the keys of a transaction without buffer, e.g. spilled keys not cleaned yet, are read
+ * from the local store.
+ */
+@Slf4j
+public class TxnBufferedStore implements StoreService {
+    private static final int TXN_TS_IDX = CommonId.TYPE_LEN + CommonId.SEQ_IDX;
+    private static final int JOB_TS_IDX = CommonId.TYPE_LEN + CommonId.DOMAIN_IDX;
+
+    // startTs -> buffer
+    private static final Map<Long, TxnWriteBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final StoreService store;
+
+    public TxnBufferedStore(StoreService store) {
+        this.store = store;
+    }
+
+    @Override
+    public StoreInstance getInstance(CommonId tableId, CommonId regionId) {
+        return new Instance(store.getInstance(tableId, regionId));
+    }
+
+    @Override
+    public void deleteInstance(CommonId id) {
+        store.deleteInstance(id);
+    }
+
+    /**
+     * Drops the buffer of the transaction, called on each node after the transaction cache has been committed,
+     * rolled back or cleaned there.
+     */
+    public static void release(long startTs) {
+        TxnWriteBuffer buffer = buffers.remove(startTs);
+        if (buffer != null && buffer.size() > 0) {
+            LogUtils.debug(log, "release txn buffer with data, startTs:{}, size:{}", startTs, buffer.size());
+        }
+    }
+
+    /**
+     * Returns the start ts of the transaction the key belongs to, or 0 if the key is not txn cache data.
+     * TXN_CACHE_EXTRA_DATA keys start with a job id whose domain is the start ts, the other types start
+     * with the txn id whose seq is the start ts.
+     */
+    static long startTsOf(byte[] key) {
+        if (key == null || key.length == 0) {
+            return 0;
+        }
+        int code = key[0];
+        if (code == CommonId.CommonType.TXN_CACHE_EXTRA_DATA.code) {
+            return key.length >= JOB_TS_IDX + CommonId.DOMAIN_LEN ? PrimitiveCodec.decodeLong(key, JOB_TS_IDX) : 0;
+        }
+        if (code == CommonId.CommonType.TXN_CACHE_DATA.code
+            || code == CommonId.CommonType.TXN_CACHE_LOCK.code
+            || code == CommonId.CommonType.TXN_CACHE_BLOCK_LOCK.code
+            || code == CommonId.CommonType.TXN_CACHE_RESIDUAL_LOCK.code
+            || code == CommonId.CommonType.TXN_CACHE_CHECK_DATA.code
+        ) {
+            return key.length >= TXN_TS_IDX + CommonId.SEQ_LEN ? PrimitiveCodec.decodeLong(key, TXN_TS_IDX) : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the start ts of the transaction the range is limited to, or 0 if it is not limited to one.
+     */
+    private static long startTsOf(StoreInstance.Range range) {
+        if (range.start == null || range.end == null || range.start.length == 0 || range.end.length == 0
+            || range.start[0] != range.end[0]) {
+            return 0;
+        }
+        long startTs = startTsOf(range.start);
+        return startTs == startTsOf(range.end) ? startTs : 0;
+    }
+
+    private static class Instance implements StoreInstance {
+        private final StoreInstance store;
+
+        Instance(StoreInstance store) {
+            this.store = store;
+        }
+
+        private TxnWriteBuffer buffer(long startTs) {
+            return buffers.computeIfAbsent(
+                startTs, ts -> new TxnWriteBuffer(ts, ScopeVariables.getTxnBufferSpillSize(), store)
+            );
+        }
+
+        private TxnWriteBuffer find(long startTs) {
+            return buffers.get(startTs);
+        }
+
+        @Override
+        public CommonId id() {
+            return store.id();
+        }
+
+        @Override
+        public boolean put(KeyValue row) {
+            long startTs = startTsOf(row.getKey());
+            if (startTs == 0) {
+                return store.put(row);
+            }
+            return buffer(startTs).put(row);
+        }
+
+        /**
+         * Writes the keys of each transaction to its buffer and the other keys to the store, each part is
+         * written atomically.
+         */
+        @Override
+        public void write(List<KeyValue> puts, List<byte[]> deletes) {
+            Map<Long, List<KeyValue>> putsByTs = new LinkedHashMap<>();
+            Map<Long, List<byte[]>> deletesByTs = new LinkedHashMap<>();
+            for (KeyValue row : puts) {
+                putsByTs.computeIfAbsent(startTsOf(row.getKey()), k -> new ArrayList<>()).add(row);
+            }
+            for (byte[] key : deletes) {
+                long startTs = startTsOf(key);
+                if (startTs == 0 || putsByTs.containsKey(startTs) || buffers.containsKey(startTs)) {
+                    deletesByTs.computeIfAbsent(startTs, k -> new ArrayList<>()).add(key);
+                } else {
+                    // Without buffer the key may only be in the store.
+                    deletesByTs.computeIfAbsent(0L, k -> new ArrayList<>()).add(key);
+                }
+            }
+            Set<Long> startTsSet = new LinkedHashSet<>(putsByTs.keySet());
+            startTsSet.addAll(deletesByTs.keySet());
+            for (long startTs : startTsSet) {
+                List<KeyValue> tsPuts = putsByTs.getOrDefault(startTs, Collections.emptyList());
+                List<byte[]> tsDeletes = deletesByTs.getOrDefault(startTs, Collections.emptyList());
+                if (startTs == 0) {
+                    store.write(tsPuts, tsDeletes);
+                } else {
+                    buffer(startTs).write(tsPuts, tsDeletes);
+                }
+            }
+        }
+
+        @Override
+        public boolean delete(byte[] key) {
+            long startTs = startTsOf(key);
+            if (startTs == 0) {
+                return store.delete(key);
+            }
+            TxnWriteBuffer buffer = find(startTs);
+            if (buffer == null) {
+                return store.delete(key);
+            }
+            return buffer.delete(key);
+        }
+
+        @Override
+        public void deletePrefix(byte[] prefix) {
+            long startTs = startTsOf(prefix);
+            TxnWriteBuffer buffer = startTs == 0 ? null : find(startTs);
+            if (buffer == null) {
+                store.deletePrefix(prefix);
+                if (startTs == 0) {
+                    buffers.values().forEach(b -> b.deletePrefix(prefix));
+                }
+                return;
+            }
+            buffer.deletePrefix(prefix);
+        }
+
+        @Override
+        public long delete(long requestTs, Range range) {
+            long startTs = startTsOf(range);
+            if (startTs != 0) {
+                TxnWriteBuffer buffer = find(startTs);
+                return buffer == null ? store.delete(requestTs, range) : buffer.delete(range);
+            }
+            // The range is not limited to one transaction, the spilled keys are deleted from the store.
+            long count = store.delete(requestTs, range);
+            for (TxnWriteBuffer buffer : buffers.values()) {
+                count += buffer.bufferDelete(range);
+            }
+            return count;
+        }
+
+        @Override
+        public KeyValue get(byte[] key) {
+            long startTs = startTsOf(key);
+            if (startTs == 0) {
+                return store.get(key);
+            }
+            TxnWriteBuffer buffer = find(startTs);
+            return buffer == null ? store.get(key) : buffer.get(key);
+        }
+
+        @Override
+        public List<KeyValue> get(List<byte[]> keys) {
+            List<KeyValue> result = new ArrayList<>(keys.size());
+            List<byte[]> storeKeys = null;
+            for (byte[] key : keys) {
+                long startTs = startTsOf(key);
+                TxnWriteBuffer buffer = startTs == 0 ? null : find(startTs);
+                if (buffer == null || buffer.isSpilled()) {
+                    if (storeKeys == null) {
+                        storeKeys = new ArrayList<>();
+                    }
+                    storeKeys.add(key);
+                } else {
+                    KeyValue keyValue = buffer.get(key);
+                    if (keyValue != null) {
+                        result.add(keyValue);
+                    }
+                }
+            }
+            if (storeKeys != null) {
+                result.addAll(store.get(storeKeys));
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<KeyValue> scan(Range range) {
+            return scan(System.identityHashCode(range), range);
+        }
+
+        @Override
+        public Iterator<KeyValue> scan(long requestTs, Range range) {
+            long startTs = startTsOf(range);
+            if (startTs != 0) {
+                TxnWriteBuffer buffer = find(startTs);
+                return buffer == null ? store.scan(requestTs, range) : buffer.scan(range);
+            }
+            // The range is not limited to one transaction, e.g. show locks.
+            List<Iterator<KeyValue>> iterators = new ArrayList<>();
+            iterators.add(store.scan(requestTs, range));
+            buffers.values().forEach(buffer -> iterators.add(buffer.bufferScan(range)));
+            return TxnWriteBuffer.merge(iterators);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.transaction.impl;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.store.api.StoreInstance;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.dingodb.common.util.ByteArrayUtils.compareWithoutLen;
+
+/**
+ * Sorted in-memory cache data of one transaction, with the same semantics as the local store: put does not
+ * overwrite, and ranges are resolved like the local store iterator. When the buffered bytes exceed the spill
+ * size, all data is moved to the local store and later operations go to the local store directly.
+ */
+@Slf4j
+public class TxnWriteBuffer {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int SPILL_BATCH_SIZE = 1024;
+    private static final Comparator<KeyValue> KEY_COMPARATOR = (kv1, kv2) ->
+        ByteArrayUtils.compare(kv1.getKey(), kv2.getKey());
+
+    private final long startTs;
+    private final long spillSize;
+    private final StoreInstance spillStore;
+    private final ConcurrentSkipListMap<byte[], byte[]> buffer = new ConcurrentSkipListMap<>(ByteArrayUtils::compare);
+    private final AtomicLong size = new AtomicLong();
+    private volatile boolean spilled;
+
+    public TxnWriteBuffer(long startTs, long spillSize, StoreInstance spillStore) {
+        this.startTs = startTs;
+        this.spillSize = spillSize;
+        this.spillStore = spillStore;
+    }
+
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public synchronized boolean put(@NonNull KeyValue row) {
+        if (spilled) {
+            return spillStore.put(row);
+        }
+        byte[] key = Arrays.copyOf(row.getKey(), row.getKey().length);
+        byte[] value = row.getValue() == null
+            ? ByteArrayUtils.EMPTY_BYTES : Arrays.copyOf(row.getValue(), row.getValue().length);
+        if (buffer.putIfAbsent(key, value) != null) {
+            return false;
+        }
+        if (size.addAndGet(sizeOf(key, value)) > spillSize) {
+            spill();
+        }
+        return true;
+    }
+
+    /**
+     * Puts the rows overwriting existing values and deletes the keys, see {@link StoreInstance#write}.
+     */
+    public synchronized void write(@NonNull List<KeyValue> puts, @NonNull List<byte[]> deletes) {
+        if (spilled) {
+            spillStore.write(puts, deletes);
+            return;
+        }
+        for (KeyValue row : puts) {
+            byte[] key = Arrays.copyOf(row.getKey(), row.getKey().length);
+            byte[] value = row.getValue() == null
+                ? ByteArrayUtils.EMPTY_BYTES : Arrays.copyOf(row.getValue(), row.getValue().length);
+            byte[] old = buffer.put(key, value);
+            size.addAndGet(sizeOf(key, value) - (old == null ? 0 : sizeOf(key, old)));
+        }
+        for (byte[] key : deletes) {
+            byte[] value = buffer.remove(key);
+            if (value != null) {
+                size.addAndGet(-sizeOf(key, value));
+            }
+        }
+        if (size.get() > spillSize) {
+            spill();
+        }
+    }
+
+    public synchronized boolean delete(byte[] key) {
+        byte[] value = buffer.remove(key);
+        if (value != null) {
+            size.addAndGet(-sizeOf(key, value));
+        }
+        if (spilled) {
+            spillStore.delete(key);
+        }
+        return true;
+    }
+
+    public synchronized void deletePrefix(byte[] prefix) {
+        byte[] end = nextKey(prefix);
+        Iterator<Map.Entry<byte[], byte[]>> iterator = range(prefix, true).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<byte[], byte[]> entry = iterator.next();
+            if (end != null && compareWithoutLen(entry.getKey(), end) >= 0) {
+                break;
+            }
+            size.addAndGet(-sizeOf(entry.getKey(), entry.getValue()));
+            iterator.remove();
+        }
+        if (spilled) {
+            spillStore.deletePrefix(prefix);
+        }
+    }
+
+    /**
+     * Deletes the keys in the range, returns the number of deleted keys.
+     */
+    public synchronized long delete(StoreInstance.Range range) {
+        long count = bufferDelete(range);
+        if (spilled) {
+            count += spillStore.delete(range);
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the buffered keys in the range only, returns the number of deleted keys.
+     */
+    public synchronized long bufferDelete(StoreInstance.Range range) {
+        byte[] end = endOf(range);
+        long count = 0;
+        Iterator<Map.Entry<byte[], byte[]>> iterator = range(range.start, range.withStart).entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<byte[], byte[]> entry = iterator.next();
+            if (end != null && compareWithoutLen(entry.getKey(), end) >= 0) {
+                break;
+            }
+            size.addAndGet(-sizeOf(entry.getKey(), entry.getValue()));
+            iterator.remove();
+            count++;
+        }
+        return count;
+    }
+
+    public KeyValue get(byte[] key) {
+        byte[] value = buffer.get(key);
+        if (value != null) {
+            return new KeyValue(Arrays.copyOf(key, key.length), Arrays.copyOf(value, value.length));
+        }
+        return spilled ? spillStore.get(key) : null;
+    }
+
+    public Iterator<KeyValue> scan(StoreInstance.Range range) {
+        Iterator<KeyValue> iterator = bufferScan(range);
+        if (spilled) {
+            return merge(Arrays.asList(iterator, spillStore.scan(range)));
+        }
+        return iterator;
+    }
+
+    /**
+     * Scans the buffered data only, the keys and values are copied because callers may modify them.
+     */
+    public Iterator<KeyValue> bufferScan(StoreInstance.Range range) {
+        byte[] end = endOf(range);
+        Iterator<Map.Entry<byte[], byte[]>> iterator = range(range.start, range.withStart).entrySet().iterator();
+        return new AbstractIterator<KeyValue>() {
+            @Override
+            protected KeyValue computeNext() {
+                if (!iterator.hasNext()) {
+                    return endOfData();
+                }
+                Map.Entry<byte[], byte[]> entry = iterator.next();
+                if (end != null && compareWithoutLen(entry.getKey(), end) >= 0) {
+                    return endOfData();
+                }
+                byte[] key = entry.getKey();
+                byte[] value = entry.getValue();
+                return new KeyValue(Arrays.copyOf(key, key.length), Arrays.copyOf(value, value.length));
+            }
+        };
+    }
+
+    /**
+     * Returns the exclusive end of the range, or null if the range is unbounded.
+     */
+    private static byte[] endOf(StoreInstance.Range range) {
+        if (range.end == null) {
+            return null;
+        }
+        return range.withEnd ? nextKey(range.end) : range.end;
+    }
+
+    private NavigableMap<byte[], byte[]> range(byte[] start, boolean withStart) {
+        if (start == null) {
+            return buffer;
+        }
+        if (withStart) {
+            return buffer.tailMap(start, true);
+        }
+        byte[] next = nextKey(start);
+        return next == null ? Collections.emptyNavigableMap() : buffer.tailMap(next, true);
+    }
+
+    private void spill() {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        // The keys are not in the store before the spill, so they are written blindly in batches.
+        List<KeyValue> batch = new ArrayList<>(SPILL_BATCH_SIZE);
+        for (Map.Entry<byte[], byte[]> entry : buffer.entrySet()) {
+            batch.add(new KeyValue(entry.getKey(), entry.getValue()));
+            if (batch.size() == SPILL_BATCH_SIZE) {
+                spillStore.write(batch, Collections.emptyList());
+                batch.clear();
+            }
+            count++;
+        }
+        if (!batch.isEmpty()) {
+            spillStore.write(batch, Collections.emptyList());
+        }
+        spilled = true;
+        buffer.clear();
+        size.set(0);
+        DingoMetrics.meter("txnBufferSpill").mark();
+        LogUtils.info(log, "txn buffer spilled, startTs:{}, count:{}, cost:{}ms",
+            startTs, count, System.currentTimeMillis() - start);
+    }
+
+    private static long sizeOf(byte[] key, byte[] value) {
+        return key.length + value.length + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Merges sorted iterators, a key found in more than one iterator is returned once.
+     */
+    public static Iterator<KeyValue> merge(List<Iterator<KeyValue>> iterators) {
+        PeekingIterator<KeyValue> merged = Iterators.peekingIterator(Iterators.mergeSorted(iterators, KEY_COMPARATOR));
+        return new AbstractIterator<KeyValue>() {
+            @Override
+            protected KeyValue computeNext() {
+                if (!merged.hasNext()) {
+                    return endOfData();
+                }
+                KeyValue keyValue = merged.next();
+                while (merged.hasNext() && ByteArrayUtils.compare(merged.peek().getKey(), keyValue.getKey()) == 0) {
+                    merged.next();
+                }
+                return keyValue;
+            }
+        };
+    }
+
+    /**
+     * Returns the smallest key after all the keys starting with the given key, or null if there is none, i.e. the
+     * key is all 0xFF.
+     */
+    static byte[] nextKey(byte[] key) {
+        byte[] next = new byte[key.length];
+        int n = key.length;
+        while (--n >= 0) {
+            if (key[n] != (byte) 0xFF) {
+                next[n] = (byte) (key[n] + 1);
+                break;
+            }
+        }
+        if (n < 0) {
+            return null;
+        }
+        System.arraycopy(key, 0, next, 0, n);
+        return next;
+    }
+}
@@ -24,6 +24,7 @@ import io.dingodb.exec.fin.Fin;
 import io.dingodb.exec.fin.FinWithException;
 import io.dingodb.exec.operator.data.Context;
 import io.dingodb.exec.transaction.base.TransactionType;
+import io.dingodb.exec.transaction.impl.TxnBufferedStore;
 import io.dingodb.exec.transaction.params.CleanCacheParam;
 import io.dingodb.exec.utils.ByteUtils;
 import io.dingodb.store.api.StoreInstance;
@@ -31,7 +32,10 @@ import io.dingodb.store.api.transaction.data.Op;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static io.dingodb.store.api.transaction.data.Op.DELETE;
 
@@ -48,24 +52,24 @@ public class CleanCacheOperator extends TransactionOperator {
             CleanCacheParam param = vertex.getParam();
             StoreInstance store = Services.LOCAL_STORE.getInstance(null, null);
             KeyValue keyValue = (KeyValue) tuple[0];
+            // The keys of a row are deleted in one batch instead of one write per key.
             if (param.getTransactionType() == TransactionType.OPTIMISTIC) {
                 byte[] key = keyValue.getKey();
-                store.delete(key);
-                store.delete(ByteUtils.getKeyByOp(CommonId.CommonType.TXN_CACHE_CHECK_DATA, Op.CheckNotExists, key));
+                store.write(Collections.emptyList(), Arrays.asList(
+                    key,
+                    ByteUtils.getKeyByOp(CommonId.CommonType.TXN_CACHE_CHECK_DATA, Op.CheckNotExists, key)
+                ));
             } else {
                 byte[] lockKey = keyValue.getKey();
 //                long forUpdateTs = ByteUtils.decodePessimisticLockValue(keyValue);
+                List<byte[]> keys = new ArrayList<>(5);
                 byte[] dataKey = Arrays.copyOf(lockKey, lockKey.length);
                 dataKey[0] = (byte) CommonId.CommonType.TXN_CACHE_DATA.getCode();
-                dataKey[dataKey.length - 2] = (byte) DELETE.getCode();
                 // delete dataKey
-                store.delete(dataKey);
-                dataKey[dataKey.length - 2] = (byte) Op.PUT.getCode();
-                // delete dataKey
-                store.delete(dataKey);
-                dataKey[dataKey.length - 2] = (byte) Op.PUTIFABSENT.getCode();
-                // delete dataKey
-                store.delete(dataKey);
+                for (Op op : new Op[]{DELETE, Op.PUT, Op.PUTIFABSENT}) {
+                    dataKey[dataKey.length - 2] = (byte) op.getCode();
+                    keys.add(Arrays.copyOf(dataKey, dataKey.length));
+                }
 //                byte[] jobIdBytes = new CommonId(CommonId.CommonType.JOB, param.getStartTs(), forUpdateTs).encode();
 //                byte[] txnIdBytes = vertex.getTask().getTxnId().encode();
 //                // delete extraData
@@ -74,10 +78,12 @@ public class CleanCacheOperator extends TransactionOperator {
 //                System.arraycopy(txnIdBytes, 0, extraData, CommonId.TYPE_LEN, jobIdBytes.length);
 //                store.delete(extraData);
                 // delete lockData
-                store.delete(lockKey);
+                keys.add(lockKey);
                 // delete blockLock
-                lockKey[0] = (byte) CommonId.CommonType.TXN_CACHE_BLOCK_LOCK.getCode();
-                store.delete(lockKey);
+                byte[] blockLockKey = Arrays.copyOf(lockKey, lockKey.length);
+                blockLockKey[0] = (byte) CommonId.CommonType.TXN_CACHE_BLOCK_LOCK.getCode();
+                keys.add(blockLockKey);
+                store.write(Collections.emptyList(), keys);
             }
             return true;
         }
@@ -87,6 +93,8 @@ public class CleanCacheOperator extends TransactionOperator {
     public void fin(int pin, @Nullable Fin fin, Vertex vertex) {
         synchronized (vertex) {
             if (!(fin instanceof FinWithException)) {
+                CleanCacheParam param = vertex.getParam();
+                TxnBufferedStore.release(param.getStartTs());
                 vertex.getSoleEdge().transformToNext(new Object[]{true});
             }
             vertex.getSoleEdge().fin(fin);
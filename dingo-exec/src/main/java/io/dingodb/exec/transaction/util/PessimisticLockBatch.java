@@ -0,0 +1,343 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.transaction.util;
+
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.codec.PrimitiveCodec;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Status;
+import io.dingodb.exec.dag.Vertex;
+import io.dingodb.exec.exception.TaskCancelException;
+import io.dingodb.exec.operator.data.Context;
+import io.dingodb.exec.operator.params.TxnPartModifyParam;
+import io.dingodb.exec.utils.ByteUtils;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.data.Mutation;
+import io.dingodb.store.api.transaction.data.Op;
+import io.dingodb.store.api.transaction.data.pessimisticlock.TxnPessimisticLock;
+import io.dingodb.store.api.transaction.exception.RegionSplitException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static io.dingodb.exec.utils.ByteUtils.decodePessimisticKey;
+import static io.dingodb.exec.utils.ByteUtils.getKeyByOp;
+
+/**
+ * Rows of a pessimistic DML waiting for their locks. The keys of a region are locked by one pessimistic lock
+ * request, the lock conflicts of the keys are resolved by the store instance like for a single key. After
+ * locking, the txn cache of the batch is written and the rows are pushed to the next operator.
+ */
+@Slf4j
+public class PessimisticLockBatch {
+    private final int batchSize;
+    private final Map<CommonId, List<Entry>> regions = new LinkedHashMap<>();
+    private final Set<byte[]> lockKeys = new TreeSet<>(ByteArrayUtils::compare);
+
+    public PessimisticLockBatch(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return batchSize > 1;
+    }
+
+    public boolean contains(byte[] lockKey) {
+        return lockKeys.contains(lockKey);
+    }
+
+    /**
+     * Adds a row, the key must have the region id set and must not be locked in the txn cache.
+     * @return true if the batch is full
+     */
+    public boolean add(Context context, Object[] tuple, byte[] key, byte[] lockKey, byte[] deadLockKey) {
+        CommonId partId = context.getDistribution().getId();
+        regions.computeIfAbsent(partId, k -> new ArrayList<>())
+            .add(new Entry(context, context.getDistribution(), tuple, key, deadLockKey));
+        lockKeys.add(lockKey);
+        return lockKeys.size() >= batchSize;
+    }
+
+    public void clear() {
+        regions.clear();
+        lockKeys.clear();
+    }
+
+    /**
+     * Locks the rows of the batch and pushes them to the next operator.
+     * @return false if the task is stopped
+     */
+    public boolean flush(Vertex vertex, TxnPartModifyParam param, boolean ignoreLockWait) {
+        if (lockKeys.isEmpty()) {
+            return true;
+        }
+        Map<CommonId, List<Entry>> batch = new LinkedHashMap<>(regions);
+        clear();
+        for (Map.Entry<CommonId, List<Entry>> region : batch.entrySet()) {
+            if (!lock(vertex, param, region.getKey(), region.getValue(), ignoreLockWait)) {
+                return false;
+            }
+        }
+        KeyValueCodec codec = param.getCodec();
+        for (List<Entry> entries : batch.values()) {
+            for (Entry entry : entries) {
+                entry.context.setDistribution(entry.distribution);
+                Object[] result;
+                if (entry.keyValue == null || entry.keyValue.getValue() == null) {
+                    result = entry.tuple;
+                } else {
+                    result = codec.decode(entry.keyValue);
+                }
+                vertex.getOutList().forEach(o -> o.transformToNext(entry.context, result));
+            }
+        }
+        return true;
+    }
+
+    private boolean lock(
+        Vertex vertex,
+        TxnPartModifyParam param,
+        CommonId partId,
+        List<Entry> entries,
+        boolean ignoreLockWait
+    ) {
+        CommonId txnId = vertex.getTask().getTxnId();
+        CommonId tableId = param.getTableId();
+        StoreInstance localStore = Services.LOCAL_STORE.getInstance(tableId, partId);
+        // for check deadLock
+        entries.forEach(entry -> localStore.put(new KeyValue(entry.deadLockKey, null)));
+        List<byte[]> deadLockKeys = entries.stream().map(entry -> entry.deadLockKey).collect(Collectors.toList());
+        if (vertex.getTask().getStatus() == Status.STOPPED) {
+            LogUtils.warn(log, "Task status is stop...");
+            deadLockKeys.forEach(localStore::delete);
+            return false;
+        } else if (vertex.getTask().getStatus() == Status.CANCEL) {
+            LogUtils.warn(log, "Task status is cancel...");
+            deadLockKeys.forEach(localStore::delete);
+            throw new TaskCancelException("task is cancel");
+        }
+        byte[] primaryLockKeyBytes = decodePessimisticKey(param.getPrimaryLockKey());
+        long forUpdateTs = vertex.getTask().getJobId().seq;
+        List<byte[]> keys = entries.stream().map(entry -> entry.key).collect(Collectors.toList());
+        TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
+            txnId,
+            tableId,
+            partId,
+            primaryLockKeyBytes,
+            keys,
+            param.getStartTs(),
+            forUpdateTs,
+            param.getIsolationLevel(),
+            true
+        );
+        LogUtils.debug(log, "{}, forUpdateTs:{} txnPessimisticLock keys size:{}", txnId, forUpdateTs, keys.size());
+        List<KeyValue> kvRet = new ArrayList<>();
+        try {
+            StoreInstance store = Services.KV_STORE.getInstance(tableId, partId);
+            if (!store.txnPessimisticLock(txnPessimisticLock, param.getLockTimeOut(), ignoreLockWait, kvRet)) {
+                throw new RuntimeException(txnId + " " + partId + ",txnPessimisticLock false, keys size: "
+                    + keys.size());
+            }
+        } catch (RegionSplitException e) {
+            LogUtils.error(log, e.getMessage(), e);
+            // The keys may belong to several regions now, lock them one by one.
+            for (Entry entry : entries) {
+                if (!lockSingle(vertex, param, partId, entry, forUpdateTs, ignoreLockWait)) {
+                    return false;
+                }
+            }
+            writeCache(vertex, param, partId, entries);
+            return true;
+        } catch (Throwable throwable) {
+            LogUtils.error(log, throwable.getMessage(), throwable);
+            TransactionUtil.resolvePessimisticLocks(
+                param.getIsolationLevel(),
+                txnId,
+                tableId,
+                partId,
+                deadLockKeys,
+                keys,
+                param.getStartTs(),
+                txnPessimisticLock.getForUpdateTs(),
+                true,
+                throwable
+            );
+        }
+        if (vertex.getTask().getStatus() == Status.STOPPED) {
+            TransactionUtil.resolvePessimisticLocks(
+                param.getIsolationLevel(),
+                txnId,
+                tableId,
+                partId,
+                deadLockKeys,
+                keys,
+                param.getStartTs(),
+                txnPessimisticLock.getForUpdateTs(),
+                false,
+                null
+            );
+            return false;
+        } else if (vertex.getTask().getStatus() == Status.CANCEL) {
+            throw new TaskCancelException("task is cancel");
+        }
+        // The mutation keys are encoded in place by the store, so they are the same as the keys of the result.
+        TreeMap<byte[], KeyValue> found = new TreeMap<>(ByteArrayUtils::compare);
+        for (KeyValue keyValue : kvRet) {
+            if (keyValue != null && keyValue.getKey() != null && keyValue.getValue() != null) {
+                found.put(keyValue.getKey(), keyValue);
+            }
+        }
+        List<Mutation> mutations = txnPessimisticLock.getMutations();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            entry.keyValue = found.get(mutations.get(i).getKey());
+            entry.forUpdateTs = txnPessimisticLock.getForUpdateTs();
+        }
+        writeCache(vertex, param, partId, entries);
+        return true;
+    }
+
+    private static boolean lockSingle(
+        Vertex vertex,
+        TxnPartModifyParam param,
+        CommonId partId,
+        Entry entry,
+        long forUpdateTs,
+        boolean ignoreLockWait
+    ) {
+        CommonId txnId = vertex.getTask().getTxnId();
+        CommonId tableId = param.getTableId();
+        TxnPessimisticLock txnPessimisticLock = TransactionUtil.getTxnPessimisticLock(
+            txnId,
+            tableId,
+            partId,
+            decodePessimisticKey(param.getPrimaryLockKey()),
+            entry.key,
+            param.getStartTs(),
+            forUpdateTs,
+            param.getIsolationLevel(),
+            true
+        );
+        try {
+            entry.keyValue = TransactionUtil.pessimisticLock(
+                txnPessimisticLock,
+                param.getLockTimeOut(),
+                txnId,
+                tableId,
+                partId,
+                entry.key,
+                ignoreLockWait
+            );
+            entry.forUpdateTs = txnPessimisticLock.getForUpdateTs();
+            if (vertex.getTask().getStatus() == Status.STOPPED) {
+                TransactionUtil.resolvePessimisticLock(
+                    param.getIsolationLevel(),
+                    txnId,
+                    tableId,
+                    partId,
+                    entry.deadLockKey,
+                    entry.key,
+                    param.getStartTs(),
+                    txnPessimisticLock.getForUpdateTs(),
+                    false,
+                    null
+                );
+                return false;
+            } else if (vertex.getTask().getStatus() == Status.CANCEL) {
+                throw new TaskCancelException("task is cancel");
+            }
+        } catch (Throwable throwable) {
+            LogUtils.error(log, throwable.getMessage(), throwable);
+            TransactionUtil.resolvePessimisticLock(
+                param.getIsolationLevel(),
+                txnId,
+                tableId,
+                partId,
+                entry.deadLockKey,
+                entry.key,
+                param.getStartTs(),
+                txnPessimisticLock.getForUpdateTs(),
+                true,
+                throwable
+            );
+        }
+        return true;
+    }
+
+    private static void writeCache(Vertex vertex, TxnPartModifyParam param, CommonId partId, List<Entry> entries) {
+        StoreInstance localStore = Services.LOCAL_STORE.getInstance(param.getTableId(), partId);
+        byte[] tableIdByte = param.getTableId().encode();
+        byte[] partIdByte = partId.encode();
+        byte[] jobIdByte = vertex.getTask().getJobId().encode();
+        int len = vertex.getTask().getTxnId().encode().length + tableIdByte.length + partIdByte.length;
+        for (Entry entry : entries) {
+            // get lock success, delete deadLockKey
+            localStore.delete(entry.deadLockKey);
+            byte[] lockKey = getKeyByOp(CommonId.CommonType.TXN_CACHE_LOCK, Op.LOCK, entry.deadLockKey);
+            localStore.put(new KeyValue(lockKey, PrimitiveCodec.encodeLong(entry.forUpdateTs)));
+            byte[] value = entry.keyValue == null ? null : entry.keyValue.getValue();
+            // extraKeyValue
+            localStore.put(new KeyValue(
+                ByteUtils.encode(
+                    CommonId.CommonType.TXN_CACHE_EXTRA_DATA,
+                    entry.key,
+                    Op.NONE.getCode(),
+                    len,
+                    jobIdByte,
+                    tableIdByte,
+                    partIdByte),
+                value
+            ));
+            if (value == null) {
+                byte[] rollBackKey = getKeyByOp(
+                    CommonId.CommonType.TXN_CACHE_RESIDUAL_LOCK, Op.DELETE, entry.deadLockKey
+                );
+                localStore.put(new KeyValue(rollBackKey, null));
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Context context;
+        private final RangeDistribution distribution;
+        private final Object[] tuple;
+        private final byte[] key;
+        private final byte[] deadLockKey;
+        private KeyValue keyValue;
+        private long forUpdateTs;
+
+        Entry(Context context, RangeDistribution distribution, Object[] tuple, byte[] key, byte[] deadLockKey) {
+            this.context = context;
+            this.distribution = distribution;
+            this.tuple = tuple;
+            this.key = key;
+            this.deadLockKey = deadLockKey;
+        }
+    }
+}
@@ -264,6 +264,29 @@ public final class TransactionUtil {
             .build();
     }
 
+    public static TxnPessimisticLock getTxnPessimisticLock(CommonId txnId,
+                                                           CommonId tableId,
+                                                           CommonId partId,
+                                                           byte[] primaryLockKey,
+                                                           List<byte[]> keys,
+                                                           long startTs,
+                                                           long forUpdateTs,
+                                                           int isolationLevel,
+                                                           boolean returnValues) {
+        byte[] extraData = toLockExtraData(tableId, partId, txnId, TransactionType.PESSIMISTIC.getCode());
+        return TxnPessimisticLock.builder()
+            .isolationLevel(IsolationLevel.of(isolationLevel))
+            .primaryLock(primaryLockKey)
+            .mutations(keys.stream()
+                .map(key -> TransactionCacheToMutation.cacheToPessimisticLockMutation(key, extraData, forUpdateTs))
+                .collect(Collectors.toList()))
+            .lockTtl(TransactionManager.lockTtlTm())
+            .startTs(startTs)
+            .forUpdateTs(forUpdateTs)
+            .returnValues(returnValues)
+            .build();
+    }
+
     public static boolean pessimisticPrimaryLockRollBack(CommonId txnId, CommonId tableId,
                                                          CommonId partId, int isolationLevel,
                                                          long startTs, long forUpdateTs, byte[] primaryKey) {
@@ -353,6 +376,40 @@ public final class TransactionUtil {
         }
     }
 
+    /**
+     * Rolls back the pessimistic locks of keys locked by one request, like {@link #resolvePessimisticLock}.
+     */
+    public static void resolvePessimisticLocks(int isolationLevel, CommonId txnId, CommonId tableId,
+                                               CommonId partId, List<byte[]> deadLockKeys, List<byte[]> keys,
+                                               long startTs, long forUpdateTs,
+                                               boolean hasException, Throwable ex) {
+        TxnPessimisticRollBack pessimisticRollBack = TxnPessimisticRollBack.builder()
+            .isolationLevel(IsolationLevel.of(isolationLevel))
+            .startTs(startTs)
+            .forUpdateTs(forUpdateTs)
+            .keys(keys)
+            .build();
+        try {
+            LogUtils.info(log, "pessimisticLocksRollBack keys size is {}, forUpdateTs:{}", keys.size(), forUpdateTs);
+            StoreInstance store = Services.KV_STORE.getInstance(tableId, partId);
+            if (!store.txnPessimisticLockRollback(pessimisticRollBack)) {
+                LogUtils.warn(log, "pessimisticLocksRollBack fail keys size is {}, forUpdateTs:{}",
+                    keys.size(), forUpdateTs);
+            }
+        } catch (Throwable throwable) {
+            LogUtils.error(log, throwable.getMessage(), throwable);
+            StoreInstance store = Services.LOCAL_STORE.getInstance(tableId, partId);
+            // delete deadLockKey
+            deadLockKeys.forEach(store::delete);
+        }
+        if (hasException) {
+            if (ex instanceof LockWaitException) {
+                throw (LockWaitException) ex;
+            }
+            throw new RuntimeException(ex.getMessage());
+        }
+    }
+
     public static boolean rollBackPrimaryKey(CommonId txnId, CommonId tableId, CommonId newPartId,
                                    int isolationLevel, long startTs, byte[] key) {
         // 1、Async call sdk TxnRollBack
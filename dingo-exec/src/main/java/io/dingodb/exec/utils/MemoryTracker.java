@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the approximate heap held by operators. Trackers form a hierarchy of executor, query, task and operator,
+ * the bytes consumed by a tracker are consumed by all its ancestors and checked against their quotas.
+ */
+public final class MemoryTracker {
+    public static final int OUT_OF_MEMORY_CODE = 1041;
+    public static final String OUT_OF_MEMORY_STATE = "HY000";
+
+    private static final MemoryTracker EXECUTOR = new MemoryTracker("executor", null, 0);
+    private static final Map<CommonId, MemoryTracker> QUERIES = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String name;
+    private final MemoryTracker parent;
+    private final long quota;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+    private final AtomicInteger refs = new AtomicInteger();
+
+    private MemoryTracker(String name, MemoryTracker parent, long quota) {
+        this.name = name;
+        this.parent = parent;
+        this.quota = quota;
+    }
+
+    /**
+     * Returns the tracker of a query on this executor, it is shared by the tasks of the query until they all
+     * release it.
+     */
+    public static MemoryTracker acquireQuery(CommonId jobId) {
+        return QUERIES.compute(jobId, (k, v) -> {
+            if (v == null) {
+                v = new MemoryTracker("query " + jobId, EXECUTOR, ScopeVariables.getQueryMemQuota());
+            }
+            v.refs.incrementAndGet();
+            return v;
+        });
+    }
+
+    public static void releaseQuery(CommonId jobId) {
+        QUERIES.computeIfPresent(jobId, (k, v) -> {
+            if (v.refs.decrementAndGet() > 0) {
+                return v;
+            }
+            v.releaseAll();
+            return null;
+        });
+    }
+
+    public static MemoryTracker detached(String name) {
+        return new MemoryTracker(name, null, 0);
+    }
+
+    public MemoryTracker child(String name) {
+        return new MemoryTracker(name, this, 0);
+    }
+
+    public long getUsed() {
+        return used.get();
+    }
+
+    public long getPeak() {
+        return peak.get();
+    }
+
+    /**
+     * Consumes bytes, for operators that cannot spill.
+     * @throws DingoSqlException if a quota is exceeded, nothing is consumed then
+     */
+    public void consume(long bytes) {
+        MemoryTracker exceeded = add(bytes);
+        if (exceeded != null) {
+            throw new DingoSqlException(
+                "Out of memory quota, " + exceeded.name + " uses more than " + exceeded.quota() + " bytes",
+                OUT_OF_MEMORY_CODE,
+                OUT_OF_MEMORY_STATE
+            );
+        }
+    }
+
+    /**
+     * Consumes bytes if no quota is exceeded, operators that can spill should spill when it fails.
+     * @return true if the bytes are consumed
+     */
+    public boolean tryConsume(long bytes) {
+        return add(bytes) == null;
+    }
+
+    public void release(long bytes) {
+        for (MemoryTracker tracker = this; tracker != null; tracker = tracker.parent) {
+            tracker.used.addAndGet(-bytes);
+        }
+    }
+
+    public void releaseAll() {
+        long bytes = used.get();
+        if (bytes != 0) {
+            release(bytes);
+        }
+    }
+
+    private MemoryTracker add(long bytes) {
+        for (MemoryTracker tracker = this; tracker != null; tracker = tracker.parent) {
+            long value = tracker.used.addAndGet(bytes);
+            long quota = tracker.quota();
+            if (quota > 0 && value > quota) {
+                // Roll back the trackers already updated.
+                for (MemoryTracker t = this; t != tracker.parent; t = t.parent) {
+                    t.used.addAndGet(-bytes);
+                }
+                return tracker;
+            }
+            tracker.peak.accumulateAndGet(value, Math::max);
+        }
+        return null;
+    }
+
+    private long quota() {
+        return this == EXECUTOR ? ScopeVariables.getExecutorMemQuota() : quota;
+    }
+
+    /**
+     * Estimates the heap size of a row.
+     */
+    public static long estimate(Object[] tuple) {
+        if (tuple == null) {
+            return 0;
+        }
+        long size = 16 + 4L * tuple.length;
+        for (Object value : tuple) {
+            size += estimate(value);
+        }
+        return size;
+    }
+
+    private static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof BigDecimal) {
+            return 64;
+        }
+        if (value instanceof Object[]) {
+            return estimate((Object[]) value);
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            long size = 40 + 4L * list.size();
+            for (Object element : list) {
+                size += estimate(element);
+            }
+            return size;
+        }
+        return 16;
+    }
+}
@@ -86,6 +86,8 @@ public final class OperatorCodeUtils {
     public static final CommonId TXN_CLEAN_CACHE = new CommonId(CommonId.CommonType.OP, OP, 55);
     public static final CommonId COPY = new CommonId(CommonId.CommonType.OP, OP, 56);
     public static final CommonId TXN_CLEAN_EXTRA_DATA_CACHE = new CommonId(CommonId.CommonType.OP, OP, 57);
+    public static final CommonId HYBRID_RANK = new CommonId(CommonId.CommonType.OP, OP, 58);
+    public static final CommonId WINDOW = new CommonId(CommonId.CommonType.OP, OP, 59);
 
     public static final CommonId PIPE_OP = new CommonId(CommonId.CommonType.OP, OP, 60);
     public static final CommonId CACHE_OP = new CommonId(CommonId.CommonType.OP, OP, 61);
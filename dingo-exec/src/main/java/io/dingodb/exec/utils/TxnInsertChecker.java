@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.transaction.util.TransactionUtil;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.transaction.exception.DuplicateEntryException;
+import io.dingodb.store.api.transaction.exception.RegionSplitException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Checks that inserted keys do not exist in the store. Keys are collected per region and checked with one
+ * batched txnGet per region, the regions are checked in parallel.
+ */
+@Slf4j
+public class TxnInsertChecker {
+    private final int batchSize;
+    private final Map<Region, List<byte[][]>> regions = new LinkedHashMap<>();
+    private int size;
+
+    public TxnInsertChecker(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds a key to check, the key for the error message is kept apart because the checked key is encoded in
+     * place by txnGet.
+     * @return true if the batch is full
+     */
+    public boolean add(CommonId tableId, CommonId regionId, byte[] key, byte[] errorKey) {
+        regions.computeIfAbsent(new Region(tableId, regionId), k -> new ArrayList<>())
+            .add(new byte[][]{Arrays.copyOf(key, key.length), Arrays.copyOf(errorKey, errorKey.length)});
+        return ++size >= batchSize;
+    }
+
+    public void clear() {
+        regions.clear();
+        size = 0;
+    }
+
+    /**
+     * Checks the collected keys.
+     * @throws DuplicateEntryException if a key exists
+     */
+    public void check(CommonId txnId, long timeout) {
+        if (size == 0) {
+            return;
+        }
+        Map<Region, List<byte[][]>> batch = new LinkedHashMap<>(regions);
+        clear();
+        if (batch.size() == 1) {
+            Map.Entry<Region, List<byte[][]>> entry = batch.entrySet().iterator().next();
+            check(txnId, entry.getKey(), entry.getValue(), timeout);
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+        batch.forEach((region, keys) -> futures.add(
+            Executors.submit("txn-insert-check-" + region.regionId, () -> check(txnId, region, keys, timeout))
+        ));
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void check(CommonId txnId, Region region, List<byte[][]> keys, long timeout) {
+        List<byte[]> checkKeys = new ArrayList<>(keys.size());
+        for (byte[][] key : keys) {
+            checkKeys.add(key[0]);
+        }
+        List<KeyValue> keyValues;
+        try {
+            StoreInstance store = Services.KV_STORE.getInstance(region.tableId, region.regionId);
+            keyValues = store.txnGet(txnId.seq, checkKeys, timeout);
+        } catch (RegionSplitException e) {
+            LogUtils.error(log, e.getMessage(), e);
+            // The keys may belong to several regions now, check them one by one.
+            for (byte[][] key : keys) {
+                CommonId regionId = TransactionUtil.singleKeySplitRegionId(region.tableId, txnId, key[0]);
+                KeyValue keyValue = Services.KV_STORE.getInstance(region.tableId, regionId)
+                    .txnGet(txnId.seq, key[0], timeout);
+                if (keyValue != null && keyValue.getValue() != null) {
+                    throw duplicate(txnId, region.tableId, key[1]);
+                }
+            }
+            return;
+        }
+        // The keys are encoded in place by txnGet, so they are the same as the keys of the result.
+        TreeSet<byte[]> found = new TreeSet<>(ByteArrayUtils::compare);
+        for (KeyValue keyValue : keyValues) {
+            if (keyValue != null && keyValue.getValue() != null) {
+                found.add(keyValue.getKey());
+            }
+        }
+        for (byte[][] key : keys) {
+            if (found.contains(key[0])) {
+                throw duplicate(txnId, region.tableId, key[1]);
+            }
+        }
+    }
+
+    private static DuplicateEntryException duplicate(CommonId txnId, CommonId tableId, byte[] key) {
+        return new DuplicateEntryException("Duplicate entry "
+            + TransactionUtil.duplicateEntryKey(tableId, key, txnId) + " for key 'PRIMARY'");
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Region {
+        private final CommonId tableId;
+        private final CommonId regionId;
+    }
+}
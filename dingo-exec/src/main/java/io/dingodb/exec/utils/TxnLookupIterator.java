@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import com.google.common.collect.AbstractIterator;
+import io.dingodb.codec.CodecService;
+import io.dingodb.codec.KeyValueCodec;
+import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.common.util.Optional;
+import io.dingodb.exec.Services;
+import io.dingodb.exec.base.Task;
+import io.dingodb.exec.transaction.base.TransactionType;
+import io.dingodb.meta.MetaService;
+import io.dingodb.meta.entity.Table;
+import io.dingodb.partition.DingoPartitionServiceProvider;
+import io.dingodb.partition.PartitionService;
+import io.dingodb.store.api.StoreInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static io.dingodb.exec.operator.TxnGetByIndexOperator.createGetLocal;
+
+/**
+ * Looks up the table rows of the primary keys read from an index. Keys are taken in batches and probed in the
+ * local txn cache first, the others are read with one batched txnGet per region, the regions of a batch are read
+ * in parallel. Rows are returned in the order of the index rows, keys without row are skipped.
+ */
+public class TxnLookupIterator extends AbstractIterator<Object[]> {
+    private final Iterator<Object[]> source;
+    private final CommonId txnId;
+    private final TransactionType transactionType;
+    private final Table table;
+    private final CommonId tableId;
+    private final TupleMapping keyMapping;
+    private final KeyValueCodec codec;
+    private final long scanTs;
+    private final long timeout;
+    private final int batchSize;
+    private final PartitionService partitionService;
+
+    private Iterator<Object[]> current = Collections.emptyIterator();
+
+    public TxnLookupIterator(
+        Iterator<Object[]> source,
+        Task task,
+        Table table,
+        CommonId tableId,
+        TupleMapping keyMapping,
+        KeyValueCodec codec,
+        long scanTs,
+        long timeout,
+        int batchSize
+    ) {
+        this.source = source;
+        this.txnId = task.getTxnId();
+        this.transactionType = task.getTransactionType();
+        this.table = table;
+        this.tableId = tableId;
+        this.keyMapping = keyMapping;
+        this.codec = codec;
+        this.scanTs = scanTs;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+        this.partitionService = PartitionService.getService(
+            Optional.ofNullable(table.getPartitionStrategy())
+                .orElse(DingoPartitionServiceProvider.RANGE_FUNC_NAME));
+    }
+
+    @Override
+    protected Object[] computeNext() {
+        while (!current.hasNext()) {
+            if (!source.hasNext()) {
+                return endOfData();
+            }
+            current = nextBatch();
+        }
+        return current.next();
+    }
+
+    private Iterator<Object[]> nextBatch() {
+        NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> ranges =
+            MetaService.root().getRangeDistribution(table.tableId);
+        Object[][] rows = new Object[batchSize][];
+        byte[][] keys = new byte[batchSize][];
+        KeyValue[] values = new KeyValue[batchSize];
+        Map<CommonId, List<Integer>> regions = new LinkedHashMap<>();
+        int count = 0;
+        while (count < batchSize && source.hasNext()) {
+            Object[] tuple = source.next();
+            Object[] keyTuple = new Object[table.getColumns().size()];
+            for (int i = 0; i < keyMapping.size(); i++) {
+                keyTuple[keyMapping.get(i)] = tuple[i];
+            }
+            byte[] key = codec.encodeKey(keyTuple);
+            CommonId regionId = partitionService.calcPartId(key, ranges);
+            key = CodecService.getDefault().setId(key, regionId.domain);
+            Object[] local = createGetLocal(key, txnId, regionId, tableId, codec, transactionType);
+            if (local != null) {
+                rows[count] = local;
+            } else {
+                keys[count] = key;
+                regions.computeIfAbsent(regionId, k -> new ArrayList<>()).add(count);
+            }
+            count++;
+        }
+        if (regions.size() == 1) {
+            Map.Entry<CommonId, List<Integer>> entry = regions.entrySet().iterator().next();
+            get(entry.getKey(), entry.getValue(), keys, values);
+        } else if (regions.size() > 1) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(regions.size());
+            regions.forEach((regionId, positions) -> futures.add(
+                Executors.submit("txn-lookup-" + regionId, () -> get(regionId, positions, keys, values))
+            ));
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        List<Object[]> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (rows[i] != null) {
+                result.add(rows[i]);
+            } else if (values[i] != null) {
+                result.add(codec.decode(values[i]));
+            }
+        }
+        return result.iterator();
+    }
+
+    private void get(CommonId regionId, List<Integer> positions, byte[][] keys, KeyValue[] values) {
+        List<byte[]> regionKeys = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            regionKeys.add(keys[position]);
+        }
+        StoreInstance store = Services.KV_STORE.getInstance(tableId, regionId);
+        List<KeyValue> keyValues = store.txnGet(scanTs, regionKeys, timeout);
+        // The keys are encoded in place by txnGet, so they are the same as the keys of the result.
+        TreeMap<byte[], KeyValue> found = new TreeMap<>(ByteArrayUtils::compare);
+        for (KeyValue keyValue : keyValues) {
+            if (keyValue != null && keyValue.getValue() != null) {
+                found.put(keyValue.getKey(), keyValue);
+            }
+        }
+        for (int position : positions) {
+            values[position] = found.get(keys[position]);
+        }
+    }
+}
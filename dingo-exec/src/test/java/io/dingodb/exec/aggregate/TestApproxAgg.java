@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestApproxAgg {
+    private static Object reduce(Agg partial, Agg agg, int tasks, int rows) {
+        Object var = null;
+        for (int task = 0; task < tasks; task++) {
+            Object state = null;
+            for (int i = 0; i < rows; i++) {
+                // Every task sees half of the values of the previous one.
+                Object[] tuple = new Object[]{(long) (task * rows / 2 + i), 0.9};
+                state = state == null ? partial.first(tuple) : partial.add(state, tuple);
+            }
+            var = agg.merge(var, partial.getValue(state));
+        }
+        return agg.getValue(var);
+    }
+
+    @Test
+    public void testApproxCountDistinct() {
+        Object value = reduce(new ApproxCountDistinctAgg(0, true), new ApproxCountDistinctAgg(0, false), 4, 100000);
+        // 250000 distinct values
+        assertThat((long) value).isBetween(242500L, 257500L);
+        assertThat(new ApproxCountDistinctAgg(0, false).getValue(null)).isEqualTo(0L);
+    }
+
+    @Test
+    public void testApproxPercentile() {
+        Object value = reduce(new ApproxPercentileAgg(0, 1, true), new ApproxPercentileAgg(0, 1, false), 4, 100000);
+        // values 0..249999, 50000..199999 are seen twice
+        assertThat((double) value).isBetween(205000.0, 215000.0);
+        assertThat(new ApproxPercentileAgg(0, 1, false).getValue(null)).isNull();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.exec.aggregate;
+
+import io.dingodb.exec.operator.data.WindowCall;
+import io.dingodb.exec.operator.data.WindowFunction;
+import io.dingodb.exec.utils.MemoryTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestWindowCache {
+    private static final int[] PARTITION = new int[]{0};
+    private static final int[] ORDER = new int[]{1};
+
+    // (partition, order, value), sorted on partition and order.
+    private static final Object[][] ROWS = new Object[][]{
+        {"a", 1, 10L},
+        {"a", 2, 20L},
+        {"a", 2, 30L},
+        {"a", 3, null},
+        {"b", 1, 50L},
+    };
+
+    private static List<Object[]> run(WindowCache cache) {
+        List<Object[]> output = new ArrayList<>();
+        for (Object[] row : ROWS) {
+            cache.add(row, output::add);
+        }
+        cache.finish(output::add);
+        return output;
+    }
+
+    private static List<Object> column(List<Object[]> output, int index) {
+        return output.stream().map(t -> t[index]).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRank() {
+        WindowCache cache = new WindowCache(PARTITION, ORDER, false, null, 0L, Arrays.asList(
+            WindowCall.of(WindowFunction.ROW_NUMBER, -1),
+            WindowCall.of(WindowFunction.RANK, -1),
+            WindowCall.of(WindowFunction.DENSE_RANK, -1)
+        ), MemoryTracker.detached("test"));
+        List<Object[]> output = run(cache);
+        assertThat(column(output, 3)).containsExactly(1L, 2L, 3L, 4L, 1L);
+        assertThat(column(output, 4)).containsExactly(1L, 2L, 2L, 4L, 1L);
+        assertThat(column(output, 5)).containsExactly(1L, 2L, 2L, 3L, 1L);
+    }
+
+    @Test
+    public void testFrames() {
+        List<WindowCall> calls = Arrays.asList(WindowCall.aggregate(new CountAgg(2)));
+        // RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW, peers get the same value.
+        List<Object[]> output = run(new WindowCache(
+            PARTITION, ORDER, false, null, 0L, calls, MemoryTracker.detached("test")
+        ));
+        assertThat(column(output, 3)).containsExactly(1L, 3L, 3L, 3L, 1L);
+        // ROWS BETWEEN 1 PRECEDING AND CURRENT ROW
+        output = run(new WindowCache(PARTITION, ORDER, true, -1L, 0L, calls, MemoryTracker.detached("test")));
+        assertThat(column(output, 3)).containsExactly(1L, 2L, 2L, 1L, 1L);
+        // ROWS BETWEEN CURRENT ROW AND UNBOUNDED FOLLOWING
+        output = run(new WindowCache(PARTITION, ORDER, true, 0L, null, calls, MemoryTracker.detached("test")));
+        assertThat(column(output, 3)).containsExactly(3L, 2L, 1L, 0L, 1L);
+    }
+
+    @Test
+    public void testLagLead() {
+        WindowCache cache = new WindowCache(PARTITION, ORDER, true, null, null, Arrays.asList(
+            new WindowCall(WindowFunction.LAG, 2, 1, -1L, null),
+            new WindowCall(WindowFunction.LEAD, 2, 2, null, null)
+        ), MemoryTracker.detached("test"));
+        List<Object[]> output = run(cache);
+        assertThat(column(output, 3)).containsExactly(-1L, 10L, 20L, 30L, -1L);
+        assertThat(column(output, 4)).containsExactly(30L, null, null, null, null);
+    }
+
+    @Test
+    public void testStreaming() {
+        MemoryTracker memoryTracker = MemoryTracker.detached("test");
+        WindowCache cache = new WindowCache(
+            new int[0], ORDER, true, -2L, 0L,
+            Arrays.asList(WindowCall.aggregate(new CountAgg(0))),
+            memoryTracker
+        );
+        List<Object[]> output = new ArrayList<>();
+        long peak = 0;
+        for (int i = 0; i < 10000; ++i) {
+            cache.add(new Object[]{i, i}, output::add);
+            // Every row is emitted once it arrives.
+            assertThat(output).hasSize(i + 1);
+            peak = Math.max(peak, memoryTracker.getUsed());
+        }
+        cache.finish(output::add);
+        assertThat(output.get(9999)[2]).isEqualTo(3L);
+        assertThat(peak).isLessThan(MemoryTracker.estimate(new Object[]{0, 0}) * 64);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.type.TupleMapping;
+import io.dingodb.meta.MetaService;
+import io.dingodb.meta.entity.Column;
+import io.dingodb.meta.entity.Table;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestInfoSchemaScanOperator {
+    private static final CommonId TABLE_ID = new CommonId(CommonId.CommonType.TABLE, 2, 3);
+
+    private static Table table() {
+        return Table.builder()
+            .tableId(TABLE_ID)
+            .name("T1")
+            .columns(Arrays.asList(
+                Column.builder().name("ID").primaryKeyIndex(0).autoIncrement(true).build(),
+                Column.builder().name("NAME").primaryKeyIndex(-1).build()
+            ))
+            .properties(new Properties())
+            .build();
+    }
+
+    @Test
+    public void testTablesWithoutAutoIncrement() {
+        MetaService metaService = mock(MetaService.class);
+        boolean withAutoIncrement = InfoSchemaScanOperator.selectsAutoIncrement(TupleMapping.of(new int[]{1, 2}));
+        assertThat(withAutoIncrement).isFalse();
+        Object[] row = InfoSchemaScanOperator.tablesRow(metaService, "S1", table(), withAutoIncrement);
+        assertThat(row[1]).isEqualTo("S1");
+        assertThat(row[2]).isEqualTo("T1");
+        assertThat(row[13]).isNull();
+        verify(metaService, never()).getLastId(any());
+    }
+
+    @Test
+    public void testTablesWithAutoIncrement() {
+        MetaService metaService = mock(MetaService.class);
+        when(metaService.getLastId(TABLE_ID)).thenReturn(100L);
+        boolean withAutoIncrement = InfoSchemaScanOperator.selectsAutoIncrement(TupleMapping.of(new int[]{2, 13}));
+        assertThat(withAutoIncrement).isTrue();
+        assertThat(InfoSchemaScanOperator.selectsAutoIncrement(null)).isTrue();
+        Object[] row = InfoSchemaScanOperator.tablesRow(metaService, "S1", table(), withAutoIncrement);
+        assertThat(row[13]).isEqualTo(100L);
+        verify(metaService, times(1)).getLastId(TABLE_ID);
+    }
+}
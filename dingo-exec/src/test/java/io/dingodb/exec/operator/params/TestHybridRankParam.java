@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.operator.params;
+
+import io.dingodb.exec.operator.data.SortCollation;
+import io.dingodb.exec.operator.data.SortDirection;
+import io.dingodb.exec.operator.data.SortNullDirection;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestHybridRankParam {
+
+    @Test
+    public void testTopKNormalized() {
+        HybridRankParam param = new HybridRankParam(
+            new SortCollation(1, SortDirection.ASCENDING, SortNullDirection.UNSPECIFIED), 3, 0
+        );
+        param.clear();
+        float[] scores = {5.0F, 1.0F, 9.0F, 3.0F, 2.0F};
+        for (int i = 0; i < scores.length; i++) {
+            param.add(new Object[]{(long) i, scores[i]});
+        }
+        Object[][] ranked = param.ranked();
+        assertThat(ranked).hasNumberOfRows(3);
+        assertThat(ranked[0]).containsExactly(1L, 0.0F);
+        assertThat(ranked[1]).containsExactly(4L, 0.125F);
+        assertThat(ranked[2]).containsExactly(3L, 0.25F);
+    }
+
+    @Test
+    public void testSameScores() {
+        HybridRankParam param = new HybridRankParam(
+            new SortCollation(1, SortDirection.DESCENDING, SortNullDirection.UNSPECIFIED), -1, 1
+        );
+        param.clear();
+        for (int i = 0; i < 100; i++) {
+            param.add(new Object[]{(long) i, 0.5F});
+        }
+        Object[][] ranked = param.ranked();
+        assertThat(ranked).hasNumberOfRows(100);
+        assertThat(ranked[99][1]).isEqualTo(0.0F);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.transaction.impl;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.store.api.StoreInstance;
+import io.dingodb.store.api.StoreService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestTxnWriteBuffer {
+
+    private static class MemoryStore implements StoreInstance {
+        private final NavigableMap<byte[], byte[]> data = new TreeMap<>(ByteArrayUtils::compare);
+
+        @Override
+        public boolean put(KeyValue row) {
+            return data.putIfAbsent(row.getKey(), row.getValue()) == null;
+        }
+
+        @Override
+        public void write(List<KeyValue> puts, List<byte[]> deletes) {
+            puts.forEach(row -> data.put(row.getKey(), row.getValue()));
+            deletes.forEach(data::remove);
+        }
+
+        @Override
+        public boolean delete(byte[] key) {
+            data.remove(key);
+            return true;
+        }
+
+        @Override
+        public KeyValue get(byte[] key) {
+            byte[] value = data.get(key);
+            return value == null ? null : new KeyValue(key, value);
+        }
+
+        @Override
+        public long delete(long requestTs, Range range) {
+            List<KeyValue> rows = new ArrayList<>();
+            scan(requestTs, range).forEachRemaining(rows::add);
+            rows.forEach(row -> data.remove(row.getKey()));
+            return rows.size();
+        }
+
+        @Override
+        public Iterator<KeyValue> scan(long requestTs, Range range) {
+            byte[] end = range.end == null ? null : range.withEnd ? TxnWriteBuffer.nextKey(range.end) : range.end;
+            List<KeyValue> result = new ArrayList<>();
+            (range.start == null ? data : data.tailMap(range.start, range.withStart)).forEach((k, v) -> {
+                if (end == null || ByteArrayUtils.compareWithoutLen(k, end) < 0) {
+                    result.add(new KeyValue(k, v));
+                }
+            });
+            return result.iterator();
+        }
+    }
+
+    private static List<byte[]> keys(Iterator<KeyValue> iterator) {
+        List<byte[]> keys = new ArrayList<>();
+        iterator.forEachRemaining(kv -> keys.add(kv.getKey()));
+        return keys;
+    }
+
+    @Test
+    public void testPutNotOverwrite() {
+        TxnWriteBuffer buffer = new TxnWriteBuffer(1L, Long.MAX_VALUE, new MemoryStore());
+        assertThat(buffer.put(new KeyValue(new byte[]{1, 2}, new byte[]{1}))).isTrue();
+        assertThat(buffer.put(new KeyValue(new byte[]{1, 2}, new byte[]{2}))).isFalse();
+        assertThat(buffer.get(new byte[]{1, 2}).getValue()).isEqualTo(new byte[]{1});
+        buffer.delete(new byte[]{1, 2});
+        assertThat(buffer.get(new byte[]{1, 2})).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testPrefixScan() {
+        TxnWriteBuffer buffer = new TxnWriteBuffer(1L, Long.MAX_VALUE, new MemoryStore());
+        buffer.put(new KeyValue(new byte[]{1, 3}, null));
+        buffer.put(new KeyValue(new byte[]{1, 1}, null));
+        buffer.put(new KeyValue(new byte[]{2, 1}, null));
+        byte[] prefix = new byte[]{1};
+        List<byte[]> keys = keys(buffer.scan(new StoreInstance.Range(prefix, prefix, true, true)));
+        assertThat(keys).containsExactly(new byte[]{1, 1}, new byte[]{1, 3});
+        buffer.deletePrefix(prefix);
+        assertThat(keys(buffer.scan(new StoreInstance.Range(null, null, true, true))))
+            .containsExactly(new byte[]{2, 1});
+    }
+
+    @Test
+    public void testSpill() {
+        MemoryStore store = new MemoryStore();
+        TxnWriteBuffer buffer = new TxnWriteBuffer(1L, 200, store);
+        buffer.put(new KeyValue(new byte[]{1, 1}, new byte[]{1}));
+        buffer.put(new KeyValue(new byte[]{1, 2}, new byte[]{2}));
+        assertThat(buffer.isSpilled()).isFalse();
+        buffer.put(new KeyValue(new byte[]{1, 3}, new byte[]{3}));
+        buffer.put(new KeyValue(new byte[]{1, 4}, new byte[]{4}));
+        assertThat(buffer.isSpilled()).isTrue();
+        assertThat(store.data).hasSize(4);
+        assertThat(buffer.put(new KeyValue(new byte[]{1, 1}, new byte[]{5}))).isFalse();
+        assertThat(buffer.get(new byte[]{1, 2}).getValue()).isEqualTo(new byte[]{2});
+        buffer.delete(new byte[]{1, 3});
+        byte[] prefix = new byte[]{1};
+        assertThat(keys(buffer.scan(new StoreInstance.Range(prefix, prefix, true, true))))
+            .containsExactly(new byte[]{1, 1}, new byte[]{1, 2}, new byte[]{1, 4});
+    }
+
+    @Test
+    public void testWrite() {
+        MemoryStore store = new MemoryStore();
+        TxnWriteBuffer buffer = new TxnWriteBuffer(1L, 150, store);
+        buffer.put(new KeyValue(new byte[]{1, 1}, new byte[]{1}));
+        buffer.write(
+            Arrays.asList(new KeyValue(new byte[]{1, 1}, new byte[]{2}), new KeyValue(new byte[]{1, 2}, null)),
+            Collections.singletonList(new byte[]{1, 2})
+        );
+        assertThat(buffer.get(new byte[]{1, 1}).getValue()).isEqualTo(new byte[]{2});
+        assertThat(buffer.get(new byte[]{1, 2})).isNull();
+        buffer.write(
+            Arrays.asList(new KeyValue(new byte[]{1, 3}, new byte[]{3}), new KeyValue(new byte[]{1, 4}, new byte[]{4})),
+            Collections.emptyList()
+        );
+        assertThat(buffer.isSpilled()).isTrue();
+        assertThat(store.data).hasSize(3);
+        buffer.write(Collections.singletonList(new KeyValue(new byte[]{1, 1}, new byte[]{5})), Collections.emptyList());
+        assertThat(buffer.get(new byte[]{1, 1}).getValue()).isEqualTo(new byte[]{5});
+    }
+
+    private static byte[] txnKey(long startTs, int seq) {
+        byte[] key = new byte[CommonId.TYPE_LEN + CommonId.LEN + 1];
+        key[0] = (byte) CommonId.CommonType.TXN_CACHE_DATA.code;
+        new CommonId(CommonId.CommonType.TRANSACTION, 1, startTs).encode(key, CommonId.TYPE_LEN);
+        key[key.length - 1] = (byte) seq;
+        return key;
+    }
+
+    @Test
+    public void testRelease() {
+        MemoryStore memoryStore = new MemoryStore();
+        StoreInstance store = new TxnBufferedStore(new StoreService() {
+            @Override
+            public StoreInstance getInstance(CommonId tableId, CommonId regionId) {
+                return memoryStore;
+            }
+        }).getInstance(null, null);
+        store.put(new KeyValue(txnKey(100, 1), new byte[]{1}));
+        store.put(new KeyValue(txnKey(200, 1), new byte[]{2}));
+        assertThat(memoryStore.data).isEmpty();
+        TxnBufferedStore.release(100);
+        assertThat(store.get(txnKey(100, 1))).isNull();
+        assertThat(store.get(txnKey(200, 1))).isNotNull();
+
+        // The spilled keys of a released transaction are still reached through the store.
+        memoryStore.put(new KeyValue(txnKey(300, 1), new byte[]{3}));
+        assertThat(store.get(txnKey(300, 1)).getValue()).isEqualTo(new byte[]{3});
+        assertThat(store.scan(new StoreInstance.Range(txnKey(300, 0), txnKey(300, 9), true, true)))
+            .toIterable().hasSize(1);
+        store.delete(txnKey(300, 1));
+        assertThat(memoryStore.data).isEmpty();
+        TxnBufferedStore.release(200);
+        assertThat(store.get(txnKey(200, 1))).isNull();
+    }
+
+    @Test
+    public void testNextKey() {
+        assertThat(TxnWriteBuffer.nextKey(new byte[]{1, (byte) 0xFF})).isEqualTo(new byte[]{2, 0});
+        assertThat(TxnWriteBuffer.nextKey(new byte[]{(byte) 0xFF, (byte) 0xFF})).isNull();
+        TxnWriteBuffer buffer = new TxnWriteBuffer(1, Long.MAX_VALUE, new MemoryStore());
+        byte[] max = {(byte) 0xFF, (byte) 0xFF};
+        buffer.put(new KeyValue(max, new byte[]{1}));
+        assertThat(buffer.scan(new StoreInstance.Range(max, max, false, true))).isExhausted();
+        assertThat(buffer.scan(new StoreInstance.Range(max, max, true, true))).toIterable().hasSize(1);
+        buffer.deletePrefix(max);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testDeleteRange() {
+        MemoryStore memoryStore = new MemoryStore();
+        StoreInstance store = new TxnBufferedStore(new StoreService() {
+            @Override
+            public StoreInstance getInstance(CommonId tableId, CommonId regionId) {
+                return memoryStore;
+            }
+        }).getInstance(null, null);
+        for (int i = 1; i <= 4; i++) {
+            store.put(new KeyValue(txnKey(400, i), new byte[]{1}));
+            store.put(new KeyValue(txnKey(500, i), new byte[]{1}));
+        }
+        memoryStore.put(new KeyValue(new byte[]{1}, new byte[]{1}));
+
+        // A range of one transaction only deletes from its buffer.
+        assertThat(store.delete(new StoreInstance.Range(txnKey(400, 2), txnKey(400, 3), true, true))).isEqualTo(2);
+        assertThat(keys(store.scan(new StoreInstance.Range(txnKey(400, 0), txnKey(400, 9), true, true))))
+            .containsExactly(txnKey(400, 1), txnKey(400, 4));
+        assertThat(store.get(txnKey(500, 2))).isNotNull();
+
+        // A range of no transaction deletes from the store and every buffer.
+        assertThat(store.delete(new StoreInstance.Range(null, null, true, true))).isEqualTo(7);
+        assertThat(memoryStore.data).isEmpty();
+        assertThat(store.get(txnKey(400, 1))).isNull();
+        assertThat(store.get(txnKey(500, 1))).isNull();
+        TxnBufferedStore.release(400);
+        TxnBufferedStore.release(500);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestLongHashSet {
+
+    @Test
+    public void testAdd() {
+        LongHashSet set = new LongHashSet();
+        for (long i = -1000; i < 1000; i++) {
+            assertThat(set.add(i * 31)).isTrue();
+        }
+        for (long i = -1000; i < 1000; i++) {
+            assertThat(set.add(i * 31)).isFalse();
+            assertThat(set.contains(i * 31)).isTrue();
+        }
+        assertThat(set.size()).isEqualTo(2000);
+        assertThat(set.contains(1)).isFalse();
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.contains(Long.MIN_VALUE)).isTrue();
+    }
+
+    @Test
+    public void testClear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0);
+        set.add(42);
+        set.clear();
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.add(42)).isTrue();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.exec.utils;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.exception.DingoSqlException;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestMemoryTracker {
+
+    @Test
+    public void testQueryQuota() {
+        CommonId jobId = new CommonId(CommonId.CommonType.JOB, 1, 2);
+        ScopeVariables.setExecutorProp("query_mem_quota", "1000");
+        try {
+            MemoryTracker query = MemoryTracker.acquireQuery(jobId);
+            MemoryTracker operator = query.child("task").child("operator");
+            operator.consume(600);
+            assertThatThrownBy(() -> operator.consume(600))
+                .isInstanceOf(DingoSqlException.class)
+                .hasMessageContaining("1000");
+            assertThat(operator.tryConsume(600)).isFalse();
+            assertThat(operator.getUsed()).isEqualTo(600);
+            assertThat(query.getUsed()).isEqualTo(600);
+            operator.releaseAll();
+            assertThat(query.getUsed()).isZero();
+            assertThat(operator.getPeak()).isEqualTo(600);
+            MemoryTracker.releaseQuery(jobId);
+        } finally {
+            ScopeVariables.setExecutorProp("query_mem_quota", "0");
+        }
+    }
+
+    @Test
+    public void testEstimate() {
+        assertThat(MemoryTracker.estimate(new Object[]{1L, "abc", null}))
+            .isEqualTo(16 + 4 * 3 + 16 + 40 + 2 * 3);
+    }
+}
@@ -47,6 +47,9 @@ public class Configuration {
 
     private Integer mysqlPort = 3307;
 
+    // 0 means the metrics http server is disabled.
+    private Integer metricsPort = 0;
+
     private Long autoAnalyzeCommitSize = 0L;
 
     public static String coordinators() {
@@ -69,6 +72,10 @@ public class Configuration {
         return INSTANCE.mysqlPort;
     }
 
+    public static Integer metricsPort() {
+        return INSTANCE.metricsPort;
+    }
+
     public static Long autoAnalyzeCommitSize() {
         return INSTANCE.autoAnalyzeCommitSize;
     }
@@ -24,6 +24,7 @@ import io.dingodb.common.auth.DingoRole;
 import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.environment.ExecutionEnvironment;
 import io.dingodb.common.meta.Tenant;
+import io.dingodb.common.metrics.MetricsHttpServer;
 import io.dingodb.common.mysql.client.SessionVariableWatched;
 import io.dingodb.common.tenant.TenantConstant;
 import io.dingodb.common.util.Optional;
@@ -117,6 +118,10 @@ public class Starter {
         MysqlNetService mysqlNetService = ServiceLoader.load(MysqlNetServiceProvider.class).iterator().next().get();
         mysqlNetService.listenPort(Configuration.mysqlPort());
 
+        if (Configuration.metricsPort() != null && Configuration.metricsPort() > 0) {
+            MetricsHttpServer.start(Configuration.metricsPort());
+        }
+
         SessionVariableWatched.getInstance().addObserver(new SessionVariableChangeWatcher());
 
         // Initialize auto increment
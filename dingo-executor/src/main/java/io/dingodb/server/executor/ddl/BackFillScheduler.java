@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.server.executor.ddl;
+
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.ddl.ReorgBackFillTask;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.metrics.DingoMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs the region tasks of a backfill on a bounded number of workers, instead of one thread per region.
+ * A failed task stops the workers from taking new tasks, and the first failure completes the result.
+ */
+@Slf4j
+public class BackFillScheduler {
+    private final int concurrency;
+    private final @Nullable ReorgCheckpoint checkpoint;
+
+    public BackFillScheduler(int concurrency, @Nullable ReorgCheckpoint checkpoint) {
+        this.concurrency = Math.max(1, concurrency);
+        this.checkpoint = checkpoint;
+    }
+
+    public CompletableFuture<Void> submit(
+        List<ReorgBackFillTask> tasks,
+        Function<ReorgBackFillTask, BackFillResult> fill
+    ) {
+        Queue<ReorgBackFillTask> pending = new ConcurrentLinkedQueue<>(tasks);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int workers = Math.min(concurrency, tasks.size());
+        CompletableFuture<?>[] futures = new CompletableFuture[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = Executors.submit("reorg", () -> {
+                ReorgBackFillTask task;
+                while (failure.get() == null && (task = pending.poll()) != null) {
+                    long start = System.currentTimeMillis();
+                    try {
+                        BackFillResult result = fill.apply(task);
+                        long cost = System.currentTimeMillis() - start;
+                        DingoMetrics.timer("reorgBackFillRegion").update(cost, TimeUnit.MILLISECONDS);
+                        LogUtils.debug(log, "[ddl] backfill region done, regionId:{}, scanCount:{}, cost:{}ms",
+                            task.getRegionId(), result.getScanCount(), cost);
+                        if (checkpoint != null) {
+                            checkpoint.regionDone(task);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+                    }
+                }
+            });
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures).whenComplete((r, e) -> {
+            Throwable throwable = failure.get() != null ? failure.get() : e;
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(null);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.server.executor.ddl;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import lombok.extern.slf4j.Slf4j;
+
+import static io.dingodb.exec.transaction.util.TransactionUtil.max_pre_write_count;
+
+/**
+ * Rate limit and batch size of one backfill job.
+ * The rate limit is shared by the regions of the job: the leader store of a region is not known here, so the
+ * job-wide budget also bounds the rows written to each store node.
+ * The batch size is additively increased while pre-write is faster than the target latency, and halved
+ * when it is slower.
+ */
+@Slf4j
+public class BackFillThrottle {
+    private static final int MIN_BATCH_SIZE = 128;
+    private static final int BATCH_SIZE_STEP = 256;
+
+    private final long targetLatency;
+    private final RateLimiter rateLimiter;
+    private volatile int batchSize;
+
+    public BackFillThrottle(long rowsPerSecond, long targetLatency) {
+        this.targetLatency = targetLatency;
+        this.rateLimiter = rowsPerSecond > 0 ? RateLimiter.create(rowsPerSecond) : null;
+        this.batchSize = max_pre_write_count;
+    }
+
+    public static BackFillThrottle fromVariables() {
+        return new BackFillThrottle(ScopeVariables.getDdlReorgRowsPerSecond(), ScopeVariables.getDdlReorgTargetLatency());
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void acquire(int rows) {
+        if (rateLimiter != null && rows > 0) {
+            rateLimiter.acquire(rows);
+        }
+    }
+
+    public synchronized void feedback(int rows, long cost) {
+        DingoMetrics.meter("reorgBackFillRows").mark(rows);
+        DingoMetrics.histogram("reorgBackFillBatchSize", rows);
+        if (targetLatency <= 0 || rows < batchSize) {
+            return;
+        }
+        int newSize;
+        if (cost > targetLatency) {
+            newSize = Math.max(MIN_BATCH_SIZE, batchSize >> 1);
+        } else if (cost < targetLatency >> 1) {
+            newSize = Math.min(max_pre_write_count, batchSize + BATCH_SIZE_STEP);
+        } else {
+            return;
+        }
+        if (newSize != batchSize) {
+            LogUtils.debug(log, "[ddl] backfill batch size {} -> {}, cost:{}ms", batchSize, newSize, cost);
+            batchSize = newSize;
+        }
+    }
+}
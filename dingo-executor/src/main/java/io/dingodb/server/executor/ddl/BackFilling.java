@@ -17,11 +17,11 @@
 package io.dingodb.server.executor.ddl;
 
 import io.dingodb.common.CommonId;
-import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.ddl.DdlJob;
 import io.dingodb.common.ddl.ReorgBackFillTask;
 import io.dingodb.common.ddl.ReorgInfo;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.util.ByteArrayUtils;
 import io.dingodb.common.util.Optional;
@@ -39,7 +39,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
@@ -98,6 +97,17 @@ public final class BackFilling {
         } else {
             throw new RuntimeException("do not support bf work type");
         }
+        if (job.getReorgMeta() == null) {
+            IndexUtil.pickBackFillType(job);
+        }
+        ReorgCheckpoint checkpoint = new ReorgCheckpoint(job);
+        if (checkpoint.isCommitted(job.getSnapshotVer())) {
+            // a previous owner committed the primary key, the secondary keys are resolved by their readers
+            LogUtils.info(log, "[ddl] backfill primary key already committed, jobId:{}", job.getId());
+            checkpoint.clear();
+            return null;
+        }
+        filler.setThrottle(BackFillThrottle.fromVariables());
 
         List<ReorgBackFillTask> taskList = distributions
             .stream()
@@ -131,13 +141,16 @@ public final class BackFilling {
                 destTaskList.add(task);
             }
         }
-        LogUtils.info(log, "[ddl] pre write primary key done, bf type:{}, jobId:{}", bfWorkerType, job.getId());
+        checkpoint.start(reorgInfo.getDdlJob().getSnapshotVer());
+        // the ranges filled by a previous owner with the same start ts are not filled again
+        int total = destTaskList.size();
+        destTaskList.removeIf(checkpoint::isDone);
+        LogUtils.info(log, "[ddl] pre write primary key done, bf type:{}, jobId:{}, tasks:{}, skipped:{}",
+            bfWorkerType, job.getId(), destTaskList.size(), total - destTaskList.size());
         long start = System.currentTimeMillis();
 
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(destTaskList.stream().map(task -> {
-            Callable<BackFillResult> callable = () -> fill(filler, task, false);
-            return Executors.submit("reorg", callable);
-        }).toArray(CompletableFuture[]::new));
+        BackFillScheduler scheduler = new BackFillScheduler(ScopeVariables.getDdlReorgConcurrency(), checkpoint);
+        CompletableFuture<Void> allFutures = scheduler.submit(destTaskList, task -> fill(filler, task, false));
         try {
             allFutures.get();
             long end = System.currentTimeMillis();
@@ -147,7 +160,11 @@ public final class BackFilling {
                 filler.getAddCount(), filler.getConflictCount(), (end - start));
             start = System.currentTimeMillis();
             boolean commitPriRes = filler.commitPrimary();
+            if (commitPriRes) {
+                checkpoint.committed();
+            }
             boolean commitSecondRes = filler.commitSecond();
+            checkpoint.clear();
             end = System.currentTimeMillis();
             long sub = (end - start);
             LogUtils.info(log, "[ddl] commit done, primary:{}, second:{}, bf type:{}, "
@@ -156,7 +173,7 @@ public final class BackFilling {
         } catch (InterruptedException | ExecutionException e) {
             LogUtils.error(log, "pre write second error", e);
             if (e.getMessage().contains("RegionSplit") || e.getMessage().contains("InvalidRouteTableException")) {
-                return backFillRegionSplit(bfWorkerType, reorgInfo, ps, job, filler);
+                return backFillRegionSplit(bfWorkerType, reorgInfo, ps, job, filler, checkpoint);
             }
             return e.getMessage();
         } finally {
@@ -177,7 +194,8 @@ public final class BackFilling {
         ReorgInfo reorgInfo,
         PartitionService ps,
         DdlJob job,
-        BackFiller filler
+        BackFiller filler,
+        ReorgCheckpoint checkpoint
     ) {
         NavigableMap<ByteArrayUtils.ComparableByteArray, RangeDistribution> regionMap
             = MetaService.root().getRangeDistribution(reorgInfo.getTableId());
@@ -198,14 +216,13 @@ public final class BackFilling {
                 .regionId(region.getId())
                 .build()
             )
+            .filter(task -> !checkpoint.isDone(task))
             .collect(Collectors.toList());
 
         long start = System.currentTimeMillis();
 
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(taskList.stream().map(task -> {
-            Callable<BackFillResult> callable = () -> fillWithCheck(filler, task, true);
-            return Executors.submit("reorg", callable);
-        }).toArray(CompletableFuture[]::new));
+        BackFillScheduler scheduler = new BackFillScheduler(ScopeVariables.getDdlReorgConcurrency(), checkpoint);
+        CompletableFuture<Void> allFutures = scheduler.submit(taskList, task -> fillWithCheck(filler, task, true));
         try {
             allFutures.get();
             long end = System.currentTimeMillis();
@@ -215,7 +232,11 @@ public final class BackFilling {
                 filler.getAddCount(), filler.getConflictCount(), (end - start));
             start = System.currentTimeMillis();
             boolean commitPriRes = filler.commitPrimary();
+            if (commitPriRes) {
+                checkpoint.committed();
+            }
             boolean commitSecondRes = filler.commitSecond();
+            checkpoint.clear();
             end = System.currentTimeMillis();
             long sub = (end - start);
             LogUtils.info(log, "[ddl] region split commit done, primary:{}, second:{}, bf type:{}, "
@@ -224,7 +245,7 @@ public final class BackFilling {
         } catch (InterruptedException | ExecutionException e) {
             LogUtils.error(log, "region split pre write second error", e);
             if (e.getMessage().contains("RegionSplit") || e.getMessage().contains("InvalidRouteTableException")) {
-                return backFillRegionSplit(bfWorkerType, reorgInfo, ps, job, filler);
+                return backFillRegionSplit(bfWorkerType, reorgInfo, ps, job, filler, checkpoint);
             }
             return e.getMessage();
         }
@@ -21,9 +21,11 @@ import com.google.common.collect.Iterators;
 import io.dingodb.codec.CodecService;
 import io.dingodb.codec.KeyValueCodec;
 import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
 import io.dingodb.common.ddl.ReorgBackFillTask;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.common.type.DingoType;
@@ -71,7 +73,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -103,7 +107,8 @@ public class IndexAddFiller implements BackFiller {
     int isolationLevel = IsolationLevel.ReadCommitted.getCode();
     long commitTs;
     byte[] txnIdKey;
-    List<CommonId> doneRegionIdList = new ArrayList<>();
+    List<CommonId> doneRegionIdList = Collections.synchronizedList(new ArrayList<>());
+    BackFillThrottle throttle = new BackFillThrottle(0, 0);
 
     AtomicLong conflict = new AtomicLong(0);
     AtomicLong addCount = new AtomicLong(0);
@@ -211,10 +216,9 @@ public class IndexAddFiller implements BackFiller {
             } else if (indexTable.unique) {
                 duplicateKey(tuplesTmp);
             }
-            if (caches.size() % max_pre_write_count == 0) {
+            if (caches.size() >= throttle.getBatchSize()) {
                 try {
-                    List<TxnLocalData> txnLocalDataList = new ArrayList<>(caches.values());
-                    preWriteSecondSkipConflict(txnLocalDataList);
+                    preWriteBatch(new ArrayList<>(caches.values()));
                 } finally {
                     caches.clear();
                 }
@@ -227,8 +231,7 @@ public class IndexAddFiller implements BackFiller {
         if (tupleList.isEmpty()) {
             return backFillResult;
         }
-        List<TxnLocalData> txnLocalDataList = new ArrayList<>(tupleList);
-        preWriteSecondSkipConflict(txnLocalDataList);
+        preWriteBatch(new ArrayList<>(tupleList));
         backFillResult.addCount(tupleList.size());
         LogUtils.info(log, "pre write second, regionId:{}, iterator cost:{}ms, scanCount:{}",
             task.getRegionId(), (System.currentTimeMillis() - start), scanCount);
@@ -265,10 +268,9 @@ public class IndexAddFiller implements BackFiller {
             } else if (indexTable.unique) {
                 duplicateKey(tuplesTmp);
             }
-            if (caches.size() % max_pre_write_count == 0) {
+            if (caches.size() >= throttle.getBatchSize()) {
                 try {
-                    List<TxnLocalData> txnLocalDataList = new ArrayList<>(caches.values());
-                    preWriteSecondSkipConflict(txnLocalDataList);
+                    preWriteBatch(new ArrayList<>(caches.values()));
                 } finally {
                     caches.clear();
                 }
@@ -281,8 +283,7 @@ public class IndexAddFiller implements BackFiller {
         if (tupleList.isEmpty()) {
             return backFillResult;
         }
-        List<TxnLocalData> txnLocalDataList = new ArrayList<>(tupleList);
-        preWriteSecondSkipConflict(txnLocalDataList);
+        preWriteBatch(new ArrayList<>(tupleList));
         backFillResult.addCount(tupleList.size());
         LogUtils.info(log, "pre write second with check, iterator cost:{}ms, scanCount:{}, regionId:{}",
             (System.currentTimeMillis() - start), scanCount, task.getRegionId());
@@ -312,9 +313,10 @@ public class IndexAddFiller implements BackFiller {
         }
         Iterator<KeyValue> iterator = getLocalIterator();
 
-        CommitParam param = new CommitParam(dingoType, isolationLevel, txnId.seq,
-            commitTs, primaryKey, TransactionType.OPTIMISTIC);
-        param.init(null);
+        // Region batches are committed concurrently, bounded by the reorg concurrency.
+        Semaphore inflight = new Semaphore(ScopeVariables.getDdlReorgConcurrency());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        CommitParam param = newCommitParam();
         while (iterator.hasNext()) {
             commitCnt.incrementAndGet();
             if (commitCnt.get() % 409600 == 0) {
@@ -336,56 +338,58 @@ public class IndexAddFiller implements BackFiller {
             }
             CommonId partId = param.getPartId();
             if (partId == null) {
-                partId = newPartId;
-                param.setPartId(partId);
+                param.setPartId(newPartId);
                 param.setTableId(tableId);
                 param.addKey(key);
             } else if (partId.equals(newPartId)) {
                 param.addKey(key);
                 if (param.getKeys().size() == max_pre_write_count) {
-                    boolean result = txnCommit(param, txnId, tableId, partId);
-                    if (!result) {
-                        throw new RuntimeException(txnId + " " + partId + ",txnCommit false,PrimaryKey:"
-                            + Arrays.toString(param.getPrimaryKey()));
-                    }
-                    param.getKeys().clear();
-                    param.setPartId(null);
+                    futures.add(commitSecondAsync(param, inflight));
+                    param = newCommitParam();
                 }
             } else {
-                boolean result = txnCommit(param, txnId, param.getTableId(), partId);
-                if (!result) {
-                    throw new RuntimeException(txnId + " " + partId + ",txnCommit false,PrimaryKey:"
-                        + Arrays.toString(param.getPrimaryKey()));
-                }
-                param.getKeys().clear();
+                futures.add(commitSecondAsync(param, inflight));
+                param = newCommitParam();
                 param.addKey(key);
                 param.setPartId(newPartId);
                 param.setTableId(tableId);
             }
-            //String key = Base64.getEncoder().encodeToString(keyValue.getKey());
-            //if (!caches.containsKey(key)) {
-            //    caches.put(key, keyValue);
-            //}
-            //if (caches.size() % max_pre_write_count == 0) {
-            //    try {
-            //        commitSecondData(caches.values());
-            //    } finally {
-            //        caches.clear();
-            //    }
-            //}
         }
         if (!param.getKeys().isEmpty()) {
-            boolean result = txnCommit(param, txnId, param.getTableId(), param.getPartId());
-            if (!result) {
-                throw new RuntimeException(txnId + " " + param.getPartId() + ",txnCommit false,PrimaryKey:"
-                    + Arrays.toString(param.getPrimaryKey()));
-            }
-            //commitSecondData(caches.values());
+            futures.add(commitSecondAsync(param, inflight));
         }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         LogUtils.info(log, "[ddl] index reorg conflict cnt:{}", conflict);
         return true;
     }
 
+    private CommitParam newCommitParam() {
+        CommitParam param = new CommitParam(dingoType, isolationLevel, txnId.seq,
+            commitTs, primaryKey, TransactionType.OPTIMISTIC);
+        param.init(null);
+        return param;
+    }
+
+    private CompletableFuture<Void> commitSecondAsync(CommitParam param, Semaphore inflight) {
+        try {
+            inflight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        return Executors.submit("reorg-commit", () -> {
+            try {
+                boolean result = txnCommit(param, txnId, param.getTableId(), param.getPartId());
+                if (!result) {
+                    throw new RuntimeException(txnId + " " + param.getPartId() + ",txnCommit false,PrimaryKey:"
+                        + Arrays.toString(param.getPrimaryKey()));
+                }
+            } finally {
+                inflight.release();
+            }
+        });
+    }
+
     @Override
     public long getScanCount() {
         return this.scanCount.get();
@@ -591,6 +595,18 @@ public class IndexAddFiller implements BackFiller {
             .build();
     }
 
+    @Override
+    public void setThrottle(BackFillThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    private void preWriteBatch(List<TxnLocalData> secondList) {
+        throttle.acquire(secondList.size());
+        long start = System.currentTimeMillis();
+        preWriteSecondSkipConflict(secondList);
+        throttle.feedback(secondList.size(), System.currentTimeMillis() - start);
+    }
+
     protected void preWriteSecondSkipConflict(List<TxnLocalData> secondList) {
         try {
             Timer.Context timeCtx = DingoMetrics.getTimeContext("ReorgPreSecond");
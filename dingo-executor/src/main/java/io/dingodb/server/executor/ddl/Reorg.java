@@ -52,15 +52,20 @@ public class Reorg {
         MetaElement[] elements,
         TableDefinitionWithId index
     ) {
+        // continue the backfill txn of a previous owner while its primary lock is still alive
+        long startTs = ReorgCheckpoint.resumeTs(job);
+        boolean first = startTs == 0;
         ReorgInfo info = ReorgInfo.builder()
             .schemaInfo(schemaInfo)
             .tableId(tableId)
             .ddlJob(job)
-            .first(true)
+            .first(first)
             .elements(elements)
             .indexId(Mapper.MAPPER.idFrom(index.getTableId()))
             .build();
-        long startTs = TsoService.getDefault().tso();
+        if (first) {
+            startTs = TsoService.getDefault().tso();
+        }
         job.setSnapshotVer(startTs);
         return Pair.of(info, null);
     }
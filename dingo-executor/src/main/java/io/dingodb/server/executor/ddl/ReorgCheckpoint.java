@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.server.executor.ddl;
+
+import io.dingodb.common.ddl.DdlJob;
+import io.dingodb.common.ddl.DdlReorgMeta;
+import io.dingodb.common.ddl.ReorgBackFillTask;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.session.Session;
+import io.dingodb.common.session.SessionUtil;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.exec.transaction.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Progress of a backfill, persisted with the ddl job.
+ * The backfill is one transaction whose primary lock is kept alive by the owner. A new owner can only
+ * continue that transaction while the primary lock has not expired, otherwise the backfill restarts.
+ * A new owner skips the key ranges filled by the previous owners: their secondary keys are pre-written
+ * with the same start ts but only kept in the local cache of the owner that filled them, so they are not
+ * committed by the new owner but resolved by their readers once the primary key is committed, like the
+ * secondary keys left when an owner fails after the primary commit. The filled ranges are persisted as key
+ * ranges instead of region ids, so a region that grew by a merge is filled again.
+ */
+@Slf4j
+public class ReorgCheckpoint {
+    private static final long PERSIST_INTERVAL = 10000L;
+
+    private final DdlJob job;
+    // start -> end of the filled key ranges
+    private final TreeMap<byte[], byte[]> doneRanges = new TreeMap<>(ByteArrayUtils::compare);
+    private long lastPersist;
+
+    public ReorgCheckpoint(DdlJob job) {
+        this.job = job;
+    }
+
+    /**
+     * Returns the start ts of the backfill txn to continue, or 0 if the backfill must restart.
+     */
+    public static long resumeTs(DdlJob job) {
+        DdlReorgMeta reorgMeta = job.getReorgMeta();
+        if (reorgMeta == null || reorgMeta.getCheckpointTs() == 0) {
+            return 0;
+        }
+        if (reorgMeta.isCheckpointCommitted()) {
+            LogUtils.info(log, "[ddl] backfill already committed, jobId:{}, startTs:{}",
+                job.getId(), reorgMeta.getCheckpointTs());
+            return reorgMeta.getCheckpointTs();
+        }
+        long idle = System.currentTimeMillis() - reorgMeta.getCheckpointTime();
+        if (idle < TransactionUtil.lock_ttl / 2) {
+            LogUtils.info(log, "[ddl] resume backfill, jobId:{}, startTs:{}, filled regions:{}",
+                job.getId(), reorgMeta.getCheckpointTs(), reorgMeta.getDoneRanges().size());
+            return reorgMeta.getCheckpointTs();
+        }
+        LogUtils.info(log, "[ddl] backfill checkpoint expired, jobId:{}, idle:{}ms", job.getId(), idle);
+        reset(reorgMeta);
+        return 0;
+    }
+
+    /**
+     * Returns true if the primary key of the backfill txn with the start ts is committed.
+     */
+    public synchronized boolean isCommitted(long startTs) {
+        DdlReorgMeta reorgMeta = job.getReorgMeta();
+        return reorgMeta.isCheckpointCommitted() && reorgMeta.getCheckpointTs() == startTs;
+    }
+
+    /**
+     * Returns true if the whole range of the task has been filled with the current start ts.
+     */
+    public synchronized boolean isDone(ReorgBackFillTask task) {
+        if (task.getStart() == null || task.getEnd() == null) {
+            return false;
+        }
+        byte[] next = task.getStart();
+        while (true) {
+            Map.Entry<byte[], byte[]> range = doneRanges.floorEntry(next);
+            if (range == null || ByteArrayUtils.compare(range.getValue(), next) <= 0) {
+                return false;
+            }
+            int cmp = ByteArrayUtils.compare(range.getValue(), task.getEnd());
+            if (cmp >= 0) {
+                return cmp > 0 || !task.isWithEnd();
+            }
+            next = range.getValue();
+        }
+    }
+
+    /**
+     * Starts the checkpoint of the backfill txn, the ranges filled with the same start ts are kept.
+     */
+    public synchronized void start(long startTs) {
+        DdlReorgMeta reorgMeta = job.getReorgMeta();
+        doneRanges.clear();
+        if (reorgMeta.getCheckpointTs() != startTs) {
+            reset(reorgMeta);
+        } else {
+            reorgMeta.getDoneRanges().forEach(range -> add(range.getStart(), range.getEnd()));
+        }
+        reorgMeta.setCheckpointTs(startTs);
+        persist();
+    }
+
+    public synchronized void regionDone(ReorgBackFillTask task) {
+        if (task.getStart() == null || task.getEnd() == null) {
+            return;
+        }
+        add(task.getStart(), task.getEnd());
+        if (System.currentTimeMillis() - lastPersist >= PERSIST_INTERVAL) {
+            persist();
+        }
+    }
+
+    private void add(byte[] start, byte[] end) {
+        doneRanges.merge(start, end, (a, b) -> ByteArrayUtils.compare(a, b) >= 0 ? a : b);
+    }
+
+    /**
+     * Marks the primary key committed, called once the primary key commit succeeded.
+     */
+    public synchronized void committed() {
+        job.getReorgMeta().setCheckpointCommitted(true);
+        persist();
+    }
+
+    /**
+     * Drops the checkpoint, called once the backfill txn is committed.
+     */
+    public synchronized void clear() {
+        doneRanges.clear();
+        if (job.getReorgMeta().getCheckpointTs() != 0) {
+            reset(job.getReorgMeta());
+            persist();
+        }
+    }
+
+    private static void reset(DdlReorgMeta reorgMeta) {
+        reorgMeta.setCheckpointTs(0);
+        reorgMeta.setCheckpointTime(0);
+        reorgMeta.setCheckpointCommitted(false);
+        reorgMeta.getDoneRanges().clear();
+    }
+
+    private void persist() {
+        DdlReorgMeta reorgMeta = job.getReorgMeta();
+        reorgMeta.getDoneRanges().clear();
+        doneRanges.forEach((start, end) -> reorgMeta.getDoneRanges().add(new DdlReorgMeta.DoneRange(start, end)));
+        reorgMeta.setCheckpointTime(System.currentTimeMillis());
+        lastPersist = reorgMeta.getCheckpointTime();
+        Session session = null;
+        try {
+            session = SessionUtil.INSTANCE.getSession();
+            String error = JobTableUtil.updateDDLJob2Table(session, job, true);
+            if (error != null) {
+                LogUtils.warn(log, "[ddl] persist backfill checkpoint failed, jobId:{}, error:{}", job.getId(), error);
+            }
+        } catch (Exception e) {
+            LogUtils.warn(log, "[ddl] persist backfill checkpoint failed, jobId:{}", job.getId(), e);
+        } finally {
+            SessionUtil.INSTANCE.closeSession(session);
+        }
+    }
+}
@@ -294,6 +294,15 @@ public final class PrepareMeta {
         values.add(new Object[]{"enable_async_commit_sleep", "off"});
         values.add(new Object[]{"async_commit_sleep_time", String.valueOf(5000)});
         values.add(new Object[]{"enable_document_scan_filter", "on"});
+        values.add(new Object[]{"load_data_concurrency", "4"});
+        values.add(new Object[]{"cost_scan_factor", "40.7"});
+        values.add(new Object[]{"cost_net_factor", "3.96"});
+        values.add(new Object[]{"cost_cpu_factor", "49.9"});
+        values.add(new Object[]{"cost_mem_factor", "0.01"});
+        values.add(new Object[]{"cost_request_factor", "0"});
+        values.add(new Object[]{"cost_scan_concurrency", "1"});
+        values.add(new Object[]{"cost_lookup_concurrency", "1"});
+        values.add(new Object[]{"cost_calibration_rows", "0"});
         return values;
     }
 
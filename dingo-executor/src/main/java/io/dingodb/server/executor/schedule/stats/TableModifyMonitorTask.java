@@ -20,6 +20,7 @@ import io.dingodb.calcite.stats.StatsOperator;
 import io.dingodb.calcite.stats.StatsTaskState;
 import io.dingodb.common.CommonId;
 import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.store.KeyValue;
 import io.dingodb.meta.DdlService;
 import io.dingodb.meta.MetaService;
@@ -37,8 +38,6 @@ import java.util.Map;
 @Slf4j
 public class TableModifyMonitorTask extends StatsOperator implements Runnable {
 
-    private static final BigDecimal MODIFY_COMMIT_RATE = new BigDecimal(0.3);
-
     @Override
     public void run() {
         // lookup schema -> table commits
@@ -118,7 +117,7 @@ public class TableModifyMonitorTask extends StatsOperator implements Runnable {
             BigDecimal modify = new BigDecimal(commitCount);
             BigDecimal count = new BigDecimal(processRows);
             BigDecimal rate = modify.divide(count, 2, RoundingMode.HALF_UP);
-            res = rate.compareTo(MODIFY_COMMIT_RATE) > 0;
+            res = rate.compareTo(BigDecimal.valueOf(ScopeVariables.getAutoAnalyzeRatio())) > 0;
         }
         if (!res && oldValues != null) {
             Object[] row = generateAnalyzeTask(schemaName, tableName, 0, commitCount);
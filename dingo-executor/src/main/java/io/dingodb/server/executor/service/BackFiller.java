@@ -21,6 +21,7 @@ import io.dingodb.common.ddl.ReorgBackFillTask;
 import io.dingodb.common.partition.RangeDistribution;
 import io.dingodb.common.util.ByteArrayUtils;
 import io.dingodb.server.executor.ddl.BackFillResult;
+import io.dingodb.server.executor.ddl.BackFillThrottle;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +42,10 @@ public interface BackFiller {
 
     }
 
+    default void setThrottle(BackFillThrottle throttle) {
+
+    }
+
     default long getScanCount() {
         return 0;
     }
@@ -25,6 +25,16 @@ public interface FileTransferService {
 
     void transfer(Location location, Path source, Path target);
 
+    /**
+     * Transfers the source from the offset, the target is truncated to the offset and the rest is appended.
+     */
+    default void transfer(Location location, Path source, Path target, long offset) {
+        if (offset != 0) {
+            throw new UnsupportedOperationException("Resume transfer not supported.");
+        }
+        transfer(location, source, target);
+    }
+
     static FileTransferService getDefault() {
         return ServiceLoader.load(FileTransferService.class).iterator().next();
     }
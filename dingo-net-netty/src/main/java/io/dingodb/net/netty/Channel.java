@@ -112,7 +112,7 @@ public class Channel implements io.dingodb.net.Channel {
         if (log.isTraceEnabled()) {
             log.trace("Send message to [{}] on [{}].", remoteLocation().url(), channelId);
         }
-        ByteBuf header = Unpooled.buffer(4 + 8 + 1); // size of int + long + byte
+        ByteBuf header = connection.alloc().buffer(4 + 8 + 1); // size of int + long + byte
         header.writeInt(message.length() + 8 + 1)
             .writeLong(channelId)
             .writeByte(USER_DEFINE_T);
@@ -16,6 +16,7 @@
 
 package io.dingodb.net.netty;
 
+import io.dingodb.common.concurrent.ThreadPoolBuilder;
 import io.dingodb.common.config.DingoConfiguration;
 import lombok.Getter;
 
@@ -49,6 +50,11 @@ public class NetConfiguration {
     private Integer heartbeat;
     private String host;
     private Integer apiTimeout;
+    // Use epoll when it is available, otherwise nio.
+    private Boolean nativeTransport;
+    private Integer serverThreads;
+    // Flush after this many consolidated flushes, 0 to flush every write.
+    private Integer flushConsolidation;
 
     public static Integer heartbeat() {
         return INSTANCE.heartbeat;
@@ -62,6 +68,19 @@ public class NetConfiguration {
         return INSTANCE.apiTimeout == null ? 600 : INSTANCE.apiTimeout;
     }
 
+    public static boolean nativeTransport() {
+        return INSTANCE.nativeTransport == null || INSTANCE.nativeTransport;
+    }
+
+    public static int serverThreads() {
+        return INSTANCE.serverThreads == null
+            ? Math.max(2, ThreadPoolBuilder.AVAILABLE_PROCESSORS / 2) : INSTANCE.serverThreads;
+    }
+
+    public static int flushConsolidation() {
+        return INSTANCE.flushConsolidation == null ? 256 : INSTANCE.flushConsolidation;
+    }
+
 
     public static void resetAllTimeout(int timeout) {
         INSTANCE.apiTimeout = timeout;
@@ -27,9 +27,8 @@ import io.dingodb.net.service.FileTransferService;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import lombok.Getter;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
@@ -140,12 +139,14 @@ public class NetService implements io.dingodb.net.NetService {
     private Connection connect(Location location) {
         return connections.computeIfAbsent(location, k -> {
             Optional<Connection> connection = Optional.empty();
-            NioEventLoopGroup executor = new NioEventLoopGroup(0, executor(location.url() + "/connection"));
+            // A client channel is bound to one event loop, so one thread is enough.
+            EventLoopGroup executor = Transport.eventLoopGroup(1, executor(location.url() + "/connection"));
             try {
                 Bootstrap bootstrap = new Bootstrap();
                 bootstrap
-                    .channel(NioSocketChannel.class)
+                    .channel(Transport.socketChannel())
                     .group(executor)
+                    .option(ChannelOption.ALLOCATOR, Transport.ALLOCATOR)
                     .option(ChannelOption.TCP_NODELAY, true)
                     .remoteAddress(location.toSocketAddress())
                     .handler(new ChannelInitializer<SocketChannel>() {
@@ -41,6 +41,7 @@ public final class NettyHandlers {
     }
 
     public static void initChannelPipeline(SocketChannel ch, Connection connection) {
+        Transport.initPipeline(ch.pipeline());
         ch.pipeline()
             .addLast(new Decoder())
             .addLast(new MessageHandler(connection))
@@ -48,6 +49,7 @@ public final class NettyHandlers {
     }
 
     public static void initChannelPipelineWithHandshake(SocketChannel ch, Connection connection) {
+        Transport.initPipeline(ch.pipeline());
         ch.pipeline()
             .addLast(new Decoder())
             .addLast(new HandshakeHandler(connection))
@@ -22,9 +22,7 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -50,10 +48,17 @@ public class NettyServer {
 
     public void start() throws Exception {
         server = new ServerBootstrap();
-        eventLoopGroup = new NioEventLoopGroup(2, new ThreadPoolBuilder().name("Netty server " + port).build());
+        int threads = NetConfiguration.serverThreads();
+        eventLoopGroup = Transport.eventLoopGroup(threads, new ThreadPoolBuilder()
+            .name("Netty server " + port)
+            .coreThreads(threads)
+            .maximumThreads(threads)
+            .build());
         server
-            .channel(NioServerSocketChannel.class)
+            .channel(Transport.serverChannel())
             .group(eventLoopGroup)
+            .option(ChannelOption.ALLOCATOR, Transport.ALLOCATOR)
+            .childOption(ChannelOption.ALLOCATOR, Transport.ALLOCATOR)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childHandler(channelInitializer());
         if (host != null) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.net.netty;
+
+import io.dingodb.common.log.LogUtils;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Selects the netty transport, epoll on linux if the native library can be loaded, otherwise nio.
+ */
+@Slf4j
+public final class Transport {
+
+    public static final boolean EPOLL = NetConfiguration.nativeTransport() && Epoll.isAvailable();
+    public static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    static {
+        if (EPOLL) {
+            LogUtils.info(log, "Net transport: epoll.");
+        } else if (!NetConfiguration.nativeTransport()) {
+            LogUtils.info(log, "Net transport: nio.");
+        } else {
+            LogUtils.info(log, "Net transport: nio, epoll unavailable cause: {}.", Epoll.unavailabilityCause());
+        }
+    }
+
+    private Transport() {
+    }
+
+    public static EventLoopGroup eventLoopGroup(int threads, Executor executor) {
+        return EPOLL ? new EpollEventLoopGroup(threads, executor) : new NioEventLoopGroup(threads, executor);
+    }
+
+    public static Class<? extends ServerChannel> serverChannel() {
+        return EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends SocketChannel> socketChannel() {
+        return EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * Adds the flush consolidation, the flushes of the messages written while the event loop is busy are merged
+     * into one write syscall.
+     */
+    public static void initPipeline(ChannelPipeline pipeline) {
+        int flushes = NetConfiguration.flushConsolidation();
+        if (flushes > 0) {
+            pipeline.addLast(new FlushConsolidationHandler(flushes, true));
+        }
+    }
+}
@@ -37,10 +37,12 @@ public class FileReceiver implements Consumer<ByteBuffer> {
 
     public static void onReceive(Message msg, io.dingodb.net.Channel ch) {
         try {
-            ((Channel) ch).directListener(
-                new FileReceiver(Paths.get(PrimitiveCodec.readString(msg.content())), (Channel) ch)
-            );
+            ByteBuffer content = ByteBuffer.wrap(msg.content());
+            Path path = Paths.get(PrimitiveCodec.readString(content));
+            long offset = content.remaining() >= Long.BYTES ? content.getLong() : 0;
+            ((Channel) ch).directListener(new FileReceiver(path, offset, (Channel) ch));
         } catch (Exception e) {
+            ((Channel) ch).close();
             throw new RuntimeException(e);
         }
     }
@@ -49,11 +51,20 @@ public class FileReceiver implements Consumer<ByteBuffer> {
     private final Channel channel;
 
     public FileReceiver(Path path, Channel channel) throws Exception {
-        log.info(String.format("FileReceiver::FileReceiver Path=[%s] Parent=[%s]",
-            path.toString(), path.getParent().toString()));
-        Files.deleteIfExists(path);
+        this(path, 0, channel);
+    }
+
+    public FileReceiver(Path path, long offset, Channel channel) throws Exception {
+        log.info(String.format("FileReceiver::FileReceiver Path=[%s] Parent=[%s] Offset=[%s]",
+            path.toString(), path.getParent().toString(), offset));
+        if (offset == 0) {
+            Files.deleteIfExists(path);
+        } else if (!Files.exists(path) || Files.size(path) < offset) {
+            throw new IllegalStateException("Can not resume " + path + " from " + offset);
+        }
         Files.createDirectories(path.getParent());
         this.fileChannel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        this.fileChannel.truncate(offset).position(offset);
         this.channel = channel;
         channel.setCloseListener(wrap(ch -> {
             fileChannel.close();
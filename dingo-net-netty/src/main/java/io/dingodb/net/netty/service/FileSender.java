@@ -20,40 +20,69 @@ import com.google.auto.service.AutoService;
 import io.dingodb.common.Location;
 import io.dingodb.common.codec.PrimitiveCodec;
 import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.metrics.DingoMetrics;
 import io.dingodb.net.Message;
 import io.dingodb.net.netty.Channel;
 import io.dingodb.net.netty.NetService;
 import io.dingodb.net.netty.NetServiceProvider;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 
 import static io.dingodb.net.netty.Constant.FILE_TRANSFER;
 import static io.dingodb.net.netty.Constant.USER_DEFINE_T;
 
+/**
+ * Sends files as frames of {@link #block} bytes. The frame body is written with a {@link DefaultFileRegion} so the
+ * file is sent without copy, when the pipeline can not take file regions (ssl) it is read with a
+ * {@link ChunkedNioFile} into pooled buffers. At most {@link #window} frames are in flight and no frame is written
+ * while the socket is not writable.
+ */
 @Slf4j
 @AutoService(io.dingodb.net.service.FileTransferService.class)
 public class FileSender implements io.dingodb.net.service.FileTransferService {
 
     private static final NetService netService = NetServiceProvider.NET_SERVICE_INSTANCE;
 
-    private static final int block = 1024 * 1024 * 4;
+    private final int block;
+    private final int window;
 
     public FileSender() {
+        this(1024 * 1024 * 4, 4);
+    }
+
+    public FileSender(int block, int window) {
+        this.block = block;
+        this.window = window;
     }
 
     @Override
     public void transfer(Location location, Path source, Path target) {
-        log.info(String.format("FileSender::transfer Location=[%s] Path=from [%s] to [%s]",
-            location.toString(), source.toString(), target.toString()));
+        transfer(location, source, target, 0);
+    }
+
+    @Override
+    public void transfer(Location location, Path source, Path target, long offset) {
+        log.info(String.format("FileSender::transfer Location=[%s] Path=from [%s] to [%s] offset [%s]",
+            location.toString(), source.toString(), target.toString(), offset));
         if (!Files.exists(source) ) {
             throw new IllegalArgumentException(source + " not found.");
         }
@@ -70,24 +99,73 @@ public class FileSender implements io.dingodb.net.service.FileTransferService {
             }
         });
         try (FileChannel fileChannel = FileChannel.open(source, StandardOpenOption.READ)) {
-            ch.send(new Message(FILE_TRANSFER, PrimitiveCodec.encodeString(target.toAbsolutePath().toString())));
-            long position = 0;
             long size = fileChannel.size();
-            int read;
-            ByteBuf buffer;
+            if (offset < 0 || offset > size) {
+                throw new IllegalArgumentException("Offset " + offset + " out of " + source + " size " + size);
+            }
+            byte[] path = PrimitiveCodec.encodeString(target.toAbsolutePath().toString());
+            ch.send(new Message(
+                FILE_TRANSFER, ByteBuffer.allocate(path.length + Long.BYTES).put(path).putLong(offset).array()
+            ));
+            long start = System.currentTimeMillis();
+            SocketChannel socket = ch.connection().socket();
+            boolean sendFile = socket.pipeline().get(SslHandler.class) == null;
+            Deque<ChannelFuture> inflight = new ArrayDeque<>();
+            long position = offset;
             while (position < size) {
-                read = (int) Math.min(size - position, block);
-                position += (buffer = ch.buffer(USER_DEFINE_T, read)).writeBytes(fileChannel, position, read);
-                ch.send(buffer);
+                int count = (int) Math.min(size - position, block);
+                while (!inflight.isEmpty() && (inflight.size() >= window || !socket.isWritable())) {
+                    inflight.poll().sync();
+                }
+                inflight.add(sendFile
+                    ? sendRegion(ch, socket, fileChannel, position, count)
+                    : sendChunk(ch, socket, fileChannel, position, count));
+                position += count;
+            }
+            for (ChannelFuture sent : inflight) {
+                sent.sync();
             }
             ch.send(ch.buffer(USER_DEFINE_T, 0));
             future.join();
+            long cost = Math.max(1, System.currentTimeMillis() - start);
+            DingoMetrics.meter("file_transfer_bytes").mark(size - offset);
+            DingoMetrics.latency("file_transfer", cost);
+            log.info(String.format("FileSender::transfer [%s] sent %s bytes in %s ms, %.2f MB/s, sendfile %s",
+                source, size - offset, cost, (size - offset) * 1000.0 / cost / 1024 / 1024, sendFile));
         } catch (Exception e) {
             ch.close();
             throw new RuntimeException(e);
         }
     }
 
+    private static ChannelFuture sendRegion(
+        Channel ch, SocketChannel socket, FileChannel fileChannel, long position, int count
+    ) {
+        ByteBuf header = header(ch, socket, count);
+        ChannelPromise promise = socket.newPromise();
+        // Header and region must not be interleaved with other frames of the connection.
+        socket.eventLoop().execute(() -> {
+            socket.write(header);
+            socket.writeAndFlush(new NonClosingFileRegion(fileChannel, position, count), promise);
+        });
+        return promise;
+    }
+
+    private static ChannelFuture sendChunk(
+        Channel ch, SocketChannel socket, FileChannel fileChannel, long position, int count
+    ) throws Exception {
+        ChunkedNioFile chunkedFile = new ChunkedNioFile(fileChannel, position, count, count);
+        ByteBuf chunk = chunkedFile.readChunk(socket.alloc());
+        return socket.writeAndFlush(Unpooled.wrappedBuffer(header(ch, socket, count), chunk));
+    }
+
+    private static ByteBuf header(Channel ch, SocketChannel socket, int count) {
+        return socket.alloc().buffer(Integer.BYTES + Long.BYTES + Byte.BYTES)
+            .writeInt(count + Long.BYTES + Byte.BYTES)
+            .writeLong(ch.channelId())
+            .writeByte(USER_DEFINE_T);
+    }
+
     private void recursion(Location location, Path source, Path target) {
         log.info(String.format("FileSender::recursion Location=[%s] Path=from [%s] to [%s]",
             location.toString(), source.toString(), target.toString()));
@@ -110,4 +188,17 @@ public class FileSender implements io.dingodb.net.service.FileTransferService {
         return;
     }
 
+    /**
+     * The file channel is shared by the regions of a file and closed by the sender.
+     */
+    private static class NonClosingFileRegion extends DefaultFileRegion {
+        NonClosingFileRegion(FileChannel file, long position, long count) {
+            super(file, position, count);
+        }
+
+        @Override
+        protected void deallocate() {
+        }
+    }
+
 }
@@ -22,14 +22,23 @@ import io.dingodb.common.codec.ProtostuffCodec;
 import io.dingodb.net.Channel;
 import io.dingodb.net.Message;
 import io.dingodb.net.netty.api.HandshakeApi;
+import io.dingodb.net.netty.service.FileSender;
 import io.dingodb.net.service.FileTransferService;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.net.ServerSocket;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Paths;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class NetServiceTest {
 
     public interface TestApi {
@@ -49,11 +58,71 @@ public class NetServiceTest {
         ProtostuffCodec.read(ProtostuffCodec.write(HandshakeApi.Handshake.INSTANCE));
     }
 
+    private static int fileTransferPort;
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static synchronized Location listen() throws Exception {
+        if (fileTransferPort == 0) {
+            fileTransferPort = freePort();
+            NetServiceProvider.NET_SERVICE_INSTANCE.listenPort(fileTransferPort);
+        }
+        return new Location("localhost", fileTransferPort);
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+
     @Test
-    @Disabled
-    public void fileTransfer() throws Exception {
-        io.dingodb.net.NetService.getDefault().listenPort(19199);
-        FileTransferService.transferTo(new Location("localhost", 19199), Paths.get("/tmp/tf/1"), Paths.get("/tmp/tf/2"));
+    public void fileTransfer(@TempDir Path dir) throws Exception {
+        Location location = listen();
+        Path source = dir.resolve("tf.src");
+        Path target = dir.resolve("tf.dst");
+        byte[] content = content(10 * 1024 * 1024 + 7);
+        Files.write(source, content);
+        FileTransferService.transferTo(location, source, target);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    }
+
+    @Test
+    public void fileTransferResume(@TempDir Path dir) throws Exception {
+        Location location = listen();
+        Path source = dir.resolve("resume.src");
+        Path target = dir.resolve("resume.dst");
+        byte[] content = content(5 * 1024 * 1024 + 11);
+        Files.write(source, content);
+
+        // Resume from an offset, the bytes after the offset are replaced.
+        int offset = 3 * 1024 * 1024 + 3;
+        Files.write(target, Arrays.copyOf(content, offset));
+        Files.write(target, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        FileTransferService.getDefault().transfer(location, source, target, offset);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+
+        // Nothing left after the offset.
+        FileTransferService.getDefault().transfer(location, source, target, content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    }
+
+    @Test
+    public void fileTransferWindow(@TempDir Path dir) throws Exception {
+        Location location = listen();
+        Path source = dir.resolve("window.src");
+        byte[] content = content(2 * 1024 * 1024 + 5);
+        Files.write(source, content);
+        // Many more frames than the window, so the sender waits for the frames in flight.
+        for (int window : new int[]{1, 2}) {
+            Path target = dir.resolve("window.dst" + window);
+            new FileSender(16 * 1024, window).transfer(location, source, target);
+            assertThat(Files.readAllBytes(target)).isEqualTo(content);
+        }
     }
 
     @Test
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.net.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.ThreadPerTaskExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransportTest {
+
+    @Test
+    public void testConsolidatedWrites() throws Exception {
+        int count = 10000;
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(count);
+        EventLoopGroup serverGroup = Transport.eventLoopGroup(
+            2, new ThreadPerTaskExecutor(new DefaultThreadFactory("test-server"))
+        );
+        EventLoopGroup clientGroup = Transport.eventLoopGroup(
+            1, new ThreadPerTaskExecutor(new DefaultThreadFactory("test-client"))
+        );
+        try {
+            Channel server = new ServerBootstrap()
+                .channel(Transport.serverChannel())
+                .group(serverGroup)
+                .childOption(ChannelOption.ALLOCATOR, Transport.ALLOCATOR)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        Transport.initPipeline(ch.pipeline());
+                        ch.pipeline()
+                            .addLast(new NettyHandlers.Decoder())
+                            .addLast(new SimpleChannelInboundHandler<ByteBuffer>() {
+                                @Override
+                                protected void channelRead0(ChannelHandlerContext ctx, ByteBuffer msg) {
+                                    received.add(msg.getInt());
+                                    latch.countDown();
+                                }
+                            });
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+            Channel client = new Bootstrap()
+                .channel(Transport.socketChannel())
+                .group(clientGroup)
+                .option(ChannelOption.ALLOCATOR, Transport.ALLOCATOR)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        Transport.initPipeline(ch.pipeline());
+                    }
+                })
+                .connect(server.localAddress()).sync().channel();
+            assertThat(((InetSocketAddress) client.remoteAddress()).getPort())
+                .isEqualTo(((InetSocketAddress) server.localAddress()).getPort());
+            for (int i = 0; i < count; i++) {
+                client.writeAndFlush(client.alloc().buffer(8).writeInt(4).writeInt(i));
+            }
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < count; i++) {
+                assertThat(received.get(i)).isEqualTo(i);
+            }
+            client.close().sync();
+            server.close().sync();
+        } finally {
+            clientGroup.shutdownGracefully();
+            serverGroup.shutdownGracefully();
+        }
+    }
+}
@@ -76,6 +76,14 @@ public interface StoreInstance {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Puts the rows and deletes the keys in one atomic write, existing values are overwritten without being read.
+     * A key that is both put and deleted is deleted.
+     */
+    default void write(List<KeyValue> puts, List<byte[]> deletes) {
+        throw new UnsupportedOperationException();
+    }
+
     default boolean delete(byte[] key) {
         return delete(System.identityHashCode(key), key);
     }
@@ -228,6 +236,24 @@ public interface StoreInstance {
         throw new UnsupportedOperationException();
     }
 
+    default long insertWithIndex(List<Object[]> records) {
+        return insertWithIndex(System.identityHashCode(records), records);
+    }
+
+    /**
+     * Inserts the records of this region in one request, a record whose key exists is skipped.
+     * @return the count of records inserted
+     */
+    default long insertWithIndex(long requestTs, List<Object[]> records) {
+        long count = 0;
+        for (Object[] record : records) {
+            if (insertWithIndex(requestTs, record)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     default boolean insertIndex(Object[] record) {
         return insertIndex(System.identityHashCode(record), record);
     }
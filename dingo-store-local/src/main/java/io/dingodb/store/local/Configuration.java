@@ -44,6 +44,10 @@ public class Configuration {
     private int bufferSize = 67108864;
     private int bufferNumber = 2;
     private int fileSize = 67108864;
+    // The local store is recreated on start, so the WAL is disabled unless configured.
+    private boolean disableWal = true;
+    private boolean sync = false;
+
     public static String path() {
         return INSTANCE.path;
     }
@@ -22,8 +22,10 @@ import io.dingodb.common.util.ByteArrayUtils;
 import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -38,7 +40,10 @@ import static io.dingodb.common.util.Parameters.nonNull;
 public class StoreInstance implements io.dingodb.store.api.StoreInstance {
 
     public final CommonId regionId;
-    private static final WriteOptions writeOptions = new WriteOptions().setDisableWAL(true);
+    // Sync is only valid with the WAL.
+    private static final WriteOptions writeOptions = new WriteOptions()
+        .setDisableWAL(Configuration.instance().isDisableWal())
+        .setSync(!Configuration.instance().isDisableWal() && Configuration.instance().isSync());
 
     @Override
     public CommonId id() {
@@ -56,6 +61,20 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
         return true;
     }
 
+    @Override
+    @SneakyThrows
+    public void write(List<KeyValue> puts, List<byte[]> deletes) {
+        try (WriteBatch batch = new WriteBatch()) {
+            for (KeyValue row : puts) {
+                batch.put(nonNull(row.getKey(), "key"), cleanNull(row.getValue(), ByteArrayUtils.EMPTY_BYTES));
+            }
+            for (byte[] key : deletes) {
+                batch.delete(key);
+            }
+            StoreService.db.write(writeOptions, batch);
+        }
+    }
+
     @Override
     @SneakyThrows
     public boolean delete(byte[] key) {
@@ -63,10 +82,47 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
         return true;
     }
 
+    /**
+     * Deletes the range with one range tombstone instead of a delete per key, the keys are only iterated to
+     * count them and to find the last one.
+     */
+    @Override
+    @SneakyThrows
+    public long delete(long requestTs, Range range) {
+        byte[] start = range.start == null ? ByteArrayUtils.EMPTY_BYTES
+            : range.withStart ? range.start : nextKey(range.start);
+        if (start == null) {
+            return 0;
+        }
+        byte[] end = range.end == null ? null : range.withEnd ? nextKey(range.end) : range.end;
+        long count = 0;
+        byte[] last = null;
+        try (RocksIterator iterator = StoreService.db.newIterator()) {
+            for (iterator.seek(start); iterator.isValid(); iterator.next()) {
+                byte[] key = iterator.key();
+                if (end != null && compareWithoutLen(key, end) >= 0) {
+                    break;
+                }
+                last = key;
+                count++;
+            }
+        }
+        if (count > 0) {
+            // The end is exclusive, the last key followed by 0 is the smallest key after it.
+            StoreService.db.deleteRange(writeOptions, start, Arrays.copyOf(last, last.length + 1));
+        }
+        return count;
+    }
+
     @Override
     @SneakyThrows
     public void deletePrefix(byte[] prefix) {
-        StoreService.db.deleteRange(writeOptions, prefix, nextKey(prefix));
+        byte[] end = nextKey(prefix);
+        if (end == null) {
+            delete(0, new Range(prefix, null, true, true));
+            return;
+        }
+        StoreService.db.deleteRange(writeOptions, prefix, end);
     }
 
     @Override
@@ -99,6 +155,9 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
         return new KeyValueIterator(StoreService.db.newIterator(), range);
     }
 
+    /**
+     * Returns the smallest key after all the keys starting with the given key, or null if the key is all 0xFF.
+     */
     private byte[] nextKey(byte[] key) {
         byte[] next = new byte[key.length];
         int n = key.length;
@@ -108,6 +167,9 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
                 break;
             }
         }
+        if (n < 0) {
+            return null;
+        }
         System.arraycopy(key, 0, next, 0, n);
         return next;
     }
@@ -129,7 +191,16 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
                 if (range.withStart) {
                     iterator.seek(range.start);
                 } else {
-                    iterator.seek(nextKey(range.start));
+                    byte[] next = nextKey(range.start);
+                    if (next == null) {
+                        // Nothing after an all 0xFF key.
+                        iterator.seekToLast();
+                        if (iterator.isValid()) {
+                            iterator.next();
+                        }
+                    } else {
+                        iterator.seek(next);
+                    }
                 }
             }
             if (range.end == null) {
@@ -147,7 +218,7 @@ public class StoreInstance implements io.dingodb.store.api.StoreInstance {
 
         @Override
         public boolean hasNext() {
-            return hasNext = iterator.isValid() && compareWithoutLen(iterator.key(), end) < 0;
+            return hasNext = iterator.isValid() && (end == null || compareWithoutLen(iterator.key(), end) < 0);
         }
 
         @Override
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.local;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.config.DingoConfiguration;
+import io.dingodb.common.store.KeyValue;
+import io.dingodb.store.api.StoreInstance.Range;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestStoreInstance {
+
+    @TempDir
+    static Path dir;
+
+    private static StoreInstance store;
+
+    @BeforeAll
+    public static void beforeAll() {
+        // Must be set before the configuration and the db are loaded.
+        DingoConfiguration.instance().getConfigMap(Configuration.KEY).put("path", dir.resolve("db").toString());
+        store = new StoreInstance(CommonId.EMPTY_TABLE);
+        assertThat(StoreService.db).isNotNull();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        store.delete(new Range(null, null, true, true));
+        assertThat(keys()).isEmpty();
+    }
+
+    private static byte[] key(int key) {
+        return new byte[]{(byte) key};
+    }
+
+    private static List<Integer> keys() {
+        List<Integer> keys = new ArrayList<>();
+        Iterator<KeyValue> iterator = store.scan(new Range(null, null, true, true));
+        while (iterator.hasNext()) {
+            keys.add((int) iterator.next().getKey()[0]);
+        }
+        return keys;
+    }
+
+    private static void putAll(int from, int to) {
+        List<KeyValue> puts = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            puts.add(new KeyValue(key(i), key(i)));
+        }
+        store.write(puts, Collections.emptyList());
+    }
+
+    @Test
+    public void testPut() {
+        assertThat(store.put(new KeyValue(key(1), key(1)))).isTrue();
+        assertThat(store.put(new KeyValue(key(1), key(2)))).isFalse();
+        assertThat(store.get(key(1)).getValue()).isEqualTo(key(1));
+
+        // Write overwrites without reading.
+        store.write(Collections.singletonList(new KeyValue(key(1), key(2))), Collections.emptyList());
+        assertThat(store.get(key(1)).getValue()).isEqualTo(key(2));
+    }
+
+    @Test
+    public void testPutAndDelete() {
+        putAll(1, 2);
+        store.write(
+            Arrays.asList(new KeyValue(key(2), key(9)), new KeyValue(key(3), key(3))),
+            Arrays.asList(key(1), key(2), key(3))
+        );
+        assertThat(keys()).isEmpty();
+        assertThat(store.get(key(2))).isNull();
+        assertThat(store.get(key(3))).isNull();
+    }
+
+    @Test
+    public void testWriteVisibility() throws Exception {
+        int size = 16;
+        putAll(0, size - 1);
+        // Each batch rewrites every key with the same value, a scan must never see two values.
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int round = 1; round <= 2000; round++) {
+                List<KeyValue> puts = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    puts.add(new KeyValue(key(i), key(round % 100)));
+                }
+                store.write(puts, Collections.emptyList());
+            }
+        });
+        int scans = 0;
+        while (!writer.isDone() || scans == 0) {
+            Iterator<KeyValue> iterator = store.scan(new Range(null, null, true, true));
+            List<KeyValue> rows = new ArrayList<>();
+            iterator.forEachRemaining(rows::add);
+            assertThat(rows).hasSize(size);
+            assertThat(rows).allSatisfy(row -> assertThat(row.getValue()).isEqualTo(rows.get(0).getValue()));
+            scans++;
+        }
+        writer.get();
+    }
+
+    @Test
+    public void testDeleteRange() {
+        putAll(1, 9);
+        assertThat(store.delete(new Range(key(3), key(5), true, true))).isEqualTo(3);
+        assertThat(keys()).containsExactly(1, 2, 6, 7, 8, 9);
+
+        assertThat(store.delete(new Range(key(6), key(8), false, false))).isEqualTo(1);
+        assertThat(keys()).containsExactly(1, 2, 6, 8, 9);
+
+        assertThat(store.delete(new Range(null, key(2), true, false))).isEqualTo(1);
+        assertThat(keys()).containsExactly(2, 6, 8, 9);
+
+        assertThat(store.delete(new Range(key(8), null, false, true))).isEqualTo(1);
+        assertThat(keys()).containsExactly(2, 6, 8);
+
+        // The last key is deleted by an open end.
+        assertThat(store.delete(new Range(key(8), null, true, true))).isEqualTo(1);
+        assertThat(keys()).containsExactly(2, 6);
+
+        assertThat(store.delete(new Range(null, key(6), true, true))).isEqualTo(2);
+        assertThat(keys()).isEmpty();
+
+        // Nothing to delete.
+        assertThat(store.delete(new Range(null, null, true, true))).isZero();
+        assertThat(store.delete(new Range(key(5), key(5), false, false))).isZero();
+        assertThat(keys()).isEmpty();
+    }
+
+    @Test
+    public void testDeleteRangeMaxKey() {
+        byte[] max = {(byte) 0xFF, (byte) 0xFF};
+        putAll(1, 2);
+        store.put(new KeyValue(max, key(1)));
+        assertThat(store.delete(new Range(max, max, false, true))).isZero();
+        assertThat(store.scan(new Range(max, max, false, true)).hasNext()).isFalse();
+        assertThat(store.scan(new Range(key(2), max, true, true))).toIterable().hasSize(2);
+        assertThat(store.delete(new Range(key(2), max, false, true))).isEqualTo(1);
+        assertThat(keys()).containsExactly(1, 2);
+        store.deletePrefix(key(1));
+        assertThat(keys()).containsExactly(2);
+    }
+}
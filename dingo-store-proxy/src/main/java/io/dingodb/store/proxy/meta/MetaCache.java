@@ -65,6 +65,7 @@ import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -82,11 +83,25 @@ import static java.lang.Math.max;
 @Slf4j
 public class MetaCache {
 
+    /**
+     * Receives the region events of the meta watch.
+     */
+    interface RegionListener {
+        void onRegionChange(RegionDefinition definition, boolean deleted);
+
+        /**
+         * Called when the watch (re)starts, events before it may have been missed.
+         */
+        void onWatchStart();
+    }
+
     private final MetaService metaService;
     private final InfoSchemaService infoSchemaService;
     private final TsoService tsoService;
 
-    private final LoadingCache<CommonId, NavigableMap<ComparableByteArray, RangeDistribution>> distributionCache;
+    private final LoadingCache<CommonId, RegionRouting> distributionCache;
+
+    private final List<RegionListener> regionListeners = new CopyOnWriteArrayList<>();
 
     private boolean isClose = false;
 
@@ -146,12 +161,17 @@ public class MetaCache {
         isClose = true;
     }
 
+    void addRegionListener(RegionListener listener) {
+        regionListeners.add(listener);
+    }
+
     private void watch() {
         WatchResponse response = metaService.watch(
             tso(),
             WatchRequest.builder().requestUnion(CreateRequest.builder().eventTypes(eventTypes()).build()).build()
         );
         clear();
+        regionListeners.forEach(RegionListener::onWatchStart);
         long watchId = response.getWatchId();
         long revision = -1;
         while (!isClose) {
@@ -177,7 +197,10 @@ public class MetaCache {
                     case META_EVENT_REGION_CREATE:
                     case META_EVENT_REGION_UPDATE:
                     case META_EVENT_REGION_DELETE: {
-                        invalidateDistribution((MetaEventRegion) event.getEvent());
+                        MetaEventRegion eventRegion = (MetaEventRegion) event.getEvent();
+                        boolean deleted = event.getEventType() == META_EVENT_REGION_DELETE;
+                        patchDistribution(eventRegion, deleted);
+                        regionListeners.forEach(l -> l.onRegionChange(eventRegion.getDefinition(), deleted));
                         revision = max(revision, ((MetaEventRegion) event.getEvent()).getDefinition().getRevision());
                         break;
                     }
@@ -197,13 +220,13 @@ public class MetaCache {
         );
     }
 
-    private LoadingCache<CommonId, NavigableMap<ComparableByteArray, RangeDistribution>> buildDistributionCache() {
+    private LoadingCache<CommonId, RegionRouting> buildDistributionCache() {
         return CacheBuilder.newBuilder()
             .expireAfterAccess(10, TimeUnit.MINUTES).expireAfterWrite(10, TimeUnit.MINUTES)
-            .build(new CacheLoader<CommonId, NavigableMap<ComparableByteArray, RangeDistribution>>() {
+            .build(new CacheLoader<CommonId, RegionRouting>() {
                 @Override
-                public NavigableMap<ComparableByteArray, RangeDistribution> load(CommonId key) {
-                    return loadDistribution(key);
+                public RegionRouting load(CommonId key) {
+                    return loadRouting(key);
                 }
             });
     }
@@ -236,32 +259,27 @@ public class MetaCache {
         }
     }
 
-    @SneakyThrows
-    private NavigableMap<ComparableByteArray, RangeDistribution> loadDistribution(CommonId tableId) {
+    private RegionRouting loadRouting(CommonId tableId) {
         try {
+            RegionRouting routing;
             if (tableId.type == META || tableId.type == DDL) {
-                byte[] startKey = MetaStoreKv.getInstance().getMetaRegionKey();
-                byte[] endKey = MetaStoreKv.getInstance().getMetaRegionEndKey();
-
-                if (tableId.type == DDL) {
-                    startKey = MetaStoreKv.getDdlInstance().getMetaRegionKey();
-                    endKey = MetaStoreKv.getDdlInstance().getMetaRegionEndKey();
-                }
-                List<Object> regionList = infoSchemaService
-                    .scanRegions(startKey, endKey);
-                NavigableMap<ComparableByteArray, RangeDistribution> result = new TreeMap<>();
-                regionList
-                    .forEach(object -> {
-                        ScanRegionInfo scanRegionInfo = (ScanRegionInfo) object;
-                        RangeDistribution distribution = RangeDistribution.builder()
-                            .id(new CommonId(tableId.type,
-                                0, scanRegionInfo.getRegionId()))
-                            .startKey(scanRegionInfo.getRange().getStartKey())
-                            .endKey(scanRegionInfo.getRange().getEndKey())
-                            .build();
-                        result.put(new ComparableByteArray(distribution.getStartKey(), 1), distribution);
-                    });
-                return result;
+                MetaStoreKv metaStoreKv = tableId.type == DDL
+                    ? MetaStoreKv.getDdlInstance() : MetaStoreKv.getInstance();
+                RegionRouting.Mapper mapper = (partId, regionId, startKey, endKey) -> RangeDistribution.builder()
+                    .id(new CommonId(tableId.type, 0, regionId))
+                    .startKey(startKey)
+                    .endKey(endKey)
+                    .build();
+                routing = new RegionRouting(
+                    tableId,
+                    Collections.singletonList(new RegionRouting.Part(
+                        0, metaStoreKv.getMetaRegionKey(), metaStoreKv.getMetaRegionEndKey()
+                    )),
+                    part -> scanRegions(part, mapper),
+                    mapper
+                );
+                routing.get();
+                return routing;
             }
 
             TableDefinitionWithId tableWithId = (TableDefinitionWithId) infoSchemaService.getTable(
@@ -279,49 +297,54 @@ public class MetaCache {
                 return null;
             }
             TableDefinition tableDefinition = tableWithId.getTableDefinition();
-            List<ScanRegionWithPartId> rangeDistributionList = new ArrayList<>();
-            tableDefinition.getTablePartition().getPartitions()
-                .forEach(partition -> {
-                    List<Object> regionList = infoSchemaService
-                        .scanRegions(partition.getRange().getStartKey(), partition.getRange().getEndKey());
-                    regionList
-                        .forEach(object -> {
-                            ScanRegionInfo scanRegionInfo = (ScanRegionInfo) object;
-                            rangeDistributionList.add(
-                                new ScanRegionWithPartId(scanRegionInfo, partition.getId().getEntityId())
-                            );
-                        });
-                });
-            NavigableMap<ComparableByteArray, RangeDistribution> result = new TreeMap<>();
             Table table = MAPPER.tableFrom(tableWithId, getIndexes(tableWithId, tableWithId.getTableId()));
             KeyValueCodec codec = CodecService.getDefault().createKeyValueCodec(
                 tableDefinition.getCodecVersion(), tableDefinition.getVersion(),
                 table.tupleType(), table.keyMapping());
             boolean isOriginalKey = tableDefinition.getTablePartition().getStrategy().number() == 1;
-            rangeDistributionList.forEach(scanRegionWithPartId -> {
-                RangeDistribution distribution = mapping(scanRegionWithPartId, codec, isOriginalKey);
-                result.put(new ComparableByteArray(distribution.getStartKey(), 1), distribution);
-            });
-            return result;
+            List<RegionRouting.Part> parts = tableDefinition.getTablePartition().getPartitions().stream()
+                .map(partition -> new RegionRouting.Part(
+                    partition.getId().getEntityId(),
+                    partition.getRange().getStartKey(),
+                    partition.getRange().getEndKey()
+                ))
+                .collect(Collectors.toList());
+            RegionRouting.Mapper mapper = (partId, regionId, startKey, endKey) ->
+                mapping(partId, regionId, startKey, endKey, codec, isOriginalKey);
+            routing = new RegionRouting(tableId, parts, part -> scanRegions(part, mapper), mapper);
+            routing.get();
+            return routing;
         } catch (Exception e) {
             LogUtils.error(log, e.getMessage(), e);
             return null;
         }
     }
 
+    private List<RangeDistribution> scanRegions(RegionRouting.Part part, RegionRouting.Mapper mapper) {
+        List<Object> regionList = infoSchemaService.scanRegions(part.startKey, part.endKey);
+        List<RangeDistribution> result = new ArrayList<>(regionList.size());
+        for (Object object : regionList) {
+            ScanRegionInfo scanRegionInfo = (ScanRegionInfo) object;
+            result.add(mapper.map(
+                part.id,
+                scanRegionInfo.getRegionId(),
+                scanRegionInfo.getRange().getStartKey(),
+                scanRegionInfo.getRange().getEndKey()
+            ));
+        }
+        return result;
+    }
 
     private static RangeDistribution mapping(
-        ScanRegionWithPartId scanRegionWithPartId,
+        long partId,
+        long regionId,
+        byte[] startKey,
+        byte[] endKey,
         KeyValueCodec codec,
         boolean isOriginalKey
     ) {
-        ScanRegionInfo scanRegionInfo = scanRegionWithPartId.getScanRegionInfo();
-        byte[] startKey = scanRegionInfo.getRange().getStartKey();
-        byte[] endKey = scanRegionInfo.getRange().getEndKey();
         return RangeDistribution.builder()
-            .id(new CommonId(
-                CommonId.CommonType.DISTRIBUTION, scanRegionWithPartId.getPartId(), scanRegionInfo.getRegionId())
-            )
+            .id(new CommonId(CommonId.CommonType.DISTRIBUTION, partId, regionId))
             .startKey(startKey)
             .endKey(endKey)
             .start(codec.decodeKeyPrefix(isOriginalKey ? Arrays.copyOf(startKey, startKey.length) : startKey))
@@ -329,21 +352,42 @@ public class MetaCache {
             .build();
     }
 
-    public void invalidateDistribution(MetaEventRegion metaEventRegion) {
+    /**
+     * Patches the routing of the cached tables owning the region, tables not in cache are loaded when used.
+     */
+    public void patchDistribution(MetaEventRegion metaEventRegion, boolean deleted) {
         RegionDefinition definition = metaEventRegion.getDefinition();
-        LogUtils.info(log, "Invalid table distribution {}", definition);
+        LogUtils.info(log, "Patch table distribution {}, deleted: {}", definition, deleted);
         if (definition.getSchemaId() == 1001) {
-            distributionCache.invalidate(new CommonId(META, 0, 0));
+            patchDistribution(new CommonId(META, 0, 0), definition, deleted);
         } else if (definition.getSchemaId() == 1002) {
-            distributionCache.invalidate(new CommonId(DDL, 0, 0));
+            patchDistribution(new CommonId(DDL, 0, 0), definition, deleted);
         } else {
-            distributionCache.invalidate(new CommonId(TABLE, definition.getSchemaId(), definition.getTableId()));
+            patchDistribution(
+                new CommonId(TABLE, definition.getSchemaId(), definition.getTableId()), definition, deleted
+            );
             if (definition.getIndexId() != 0) {
-                distributionCache.invalidate(new CommonId(INDEX, definition.getTableId(), definition.getIndexId()));
+                patchDistribution(
+                    new CommonId(INDEX, definition.getTableId(), definition.getIndexId()), definition, deleted
+                );
             }
         }
     }
 
+    private void patchDistribution(CommonId tableId, RegionDefinition definition, boolean deleted) {
+        RegionRouting routing = distributionCache.getIfPresent(tableId);
+        if (routing == null) {
+            return;
+        }
+        if (deleted) {
+            routing.delete(definition.getId());
+        } else {
+            routing.update(
+                definition.getId(), definition.getRange().getStartKey(), definition.getRange().getEndKey()
+            );
+        }
+    }
+
     public void invalidateDistribution(CommonId tableId) {
         LogUtils.info(log, "Invalid table distribution {}", tableId);
         distributionCache.invalidate(tableId);
@@ -384,7 +428,7 @@ public class MetaCache {
         if (id == null) {
             return new TreeMap<>();
         }
-        return distributionCache.get(id);
+        return distributionCache.get(id).get();
     }
 
 }
@@ -60,15 +60,11 @@ import io.dingodb.sdk.service.entity.common.IndexType;
 import io.dingodb.sdk.service.entity.common.Location;
 import io.dingodb.sdk.service.entity.common.Range;
 import io.dingodb.sdk.service.entity.common.RawEngine;
-import io.dingodb.sdk.service.entity.common.Region;
-import io.dingodb.sdk.service.entity.common.RegionDefinition;
 import io.dingodb.sdk.service.entity.common.RegionType;
 import io.dingodb.sdk.service.entity.coordinator.CreateIdsRequest;
 import io.dingodb.sdk.service.entity.coordinator.CreateRegionRequest;
 import io.dingodb.sdk.service.entity.coordinator.DropRegionRequest;
-import io.dingodb.sdk.service.entity.coordinator.GetRegionMapRequest;
 import io.dingodb.sdk.service.entity.coordinator.IdEpochType;
-import io.dingodb.sdk.service.entity.coordinator.QueryRegionRequest;
 import io.dingodb.sdk.service.entity.coordinator.RegionCmd.RequestNest.SplitRequest;
 import io.dingodb.sdk.service.entity.coordinator.SplitRegionRequest;
 import io.dingodb.sdk.service.entity.meta.CreateAutoIncrementRequest;
@@ -77,11 +73,8 @@ import io.dingodb.sdk.service.entity.meta.DeleteAutoIncrementRequest;
 import io.dingodb.sdk.service.entity.meta.DingoCommonId;
 import io.dingodb.sdk.service.entity.meta.DropTenantRequest;
 import io.dingodb.sdk.service.entity.meta.EntityType;
-import io.dingodb.sdk.service.entity.meta.GetSchemasRequest;
-import io.dingodb.sdk.service.entity.meta.GetSchemasResponse;
 import io.dingodb.sdk.service.entity.meta.Partition;
 import io.dingodb.sdk.service.entity.meta.ReservedSchemaIds;
-import io.dingodb.sdk.service.entity.meta.Schema;
 import io.dingodb.sdk.service.entity.meta.TableDefinitionWithId;
 import io.dingodb.sdk.service.entity.meta.TableIdWithPartIds;
 import io.dingodb.sdk.service.entity.meta.UpdateTenantRequest;
@@ -96,7 +89,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -110,7 +102,6 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-import static io.dingodb.common.CommonId.CommonType.TABLE;
 import static io.dingodb.common.mysql.error.ErrorCode.ErrUnknown;
 import static io.dingodb.partition.DingoPartitionServiceProvider.HASH_FUNC_NAME;
 import static io.dingodb.store.proxy.mapper.Mapper.MAPPER;
@@ -150,6 +141,7 @@ public class MetaService implements io.dingodb.meta.MetaService {
     public final MetaCache cache;
     public final MetaServiceApiImpl api = MetaServiceApiImpl.INSTANCE;
     public final InfoSchemaService infoSchemaService = new InfoSchemaService();
+    private final RegionMetricsCollector regionMetrics;
 
     public MetaService() {
         Set<Location> coordinators = Configuration.coordinatorSet();
@@ -157,6 +149,8 @@ public class MetaService implements io.dingodb.meta.MetaService {
         this.id = ROOT_SCHEMA_ID;
         this.name = ROOT_NAME;
         this.cache = new MetaCache(coordinators);
+        this.regionMetrics = new RegionMetricsCollector(service, this::tso);
+        this.cache.addRegionListener(regionMetrics);
     }
 
     public MetaService(long pointTs) {
@@ -165,6 +159,8 @@ public class MetaService implements io.dingodb.meta.MetaService {
         this.id = ROOT_SCHEMA_ID;
         this.name = ROOT_NAME;
         this.cache = new MetaCache(coordinators, pointTs);
+        this.regionMetrics = new RegionMetricsCollector(service, this::tso);
+        this.cache.addRegionListener(regionMetrics);
     }
 
     protected MetaService(DingoCommonId id, String name, io.dingodb.sdk.service.MetaService service, MetaCache cache) {
@@ -172,6 +168,7 @@ public class MetaService implements io.dingodb.meta.MetaService {
         this.id = id;
         this.name = name;
         this.cache = cache;
+        this.regionMetrics = null;
     }
 
     @Override
@@ -1220,39 +1217,7 @@ public class MetaService implements io.dingodb.meta.MetaService {
             throw new UnsupportedOperationException("Only supported root meta service.");
         }
 
-        long tso = tso();
-        CoordinatorService coordinatorService = Services.coordinatorService(Configuration.coordinatorSet());
-        List<Region> regions = coordinatorService.getRegionMap(
-                tso, GetRegionMapRequest.builder().tenantId(TenantConstant.TENANT_ID).build()).getRegionmap()
-            .getRegions().stream()
-            .map(Region::getId)
-            .map($ -> coordinatorService.queryRegion(tso, QueryRegionRequest.builder().regionId($).build()).getRegion())
-            .collect(Collectors.toList());
-        GetSchemasResponse getSchemasResponse
-            = service.getSchemas(
-            tso, GetSchemasRequest.builder().schemaId(io.dingodb.store.proxy.meta.MetaService.ROOT.id).build()
-        );
-        List<Long> tableIds = getSchemasResponse
-            .getSchemas().stream()
-            .map(Schema::getTableIds)
-            .filter(Objects::nonNull)
-            .flatMap(Collection::stream)
-            .map(DingoCommonId::getEntityId)
-            .collect(Collectors.toList());
-
-        Map<CommonId, Long> metrics = new HashMap<>();
-
-        for (Region region : regions) {
-            RegionDefinition definition = region.getDefinition();
-            if (!tableIds.contains(definition.getTableId())) {
-                continue;
-            }
-            CommonId tableId = new CommonId(TABLE, definition.getSchemaId(), definition.getTableId());
-            long committedIndex = region.getMetrics().getBraftStatus().getCommittedIndex();
-            metrics.compute(tableId, (id, c) -> c == null ? committedIndex : c + committedIndex);
-        }
-
-        return metrics;
+        return regionMetrics.tableCommitCount();
     }
 
     @Override
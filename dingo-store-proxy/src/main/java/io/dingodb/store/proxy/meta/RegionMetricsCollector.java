@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.store.proxy.meta;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.mysql.scope.ScopeVariables;
+import io.dingodb.common.tenant.TenantConstant;
+import io.dingodb.sdk.service.CoordinatorService;
+import io.dingodb.sdk.service.Services;
+import io.dingodb.sdk.service.entity.common.Region;
+import io.dingodb.sdk.service.entity.common.RegionDefinition;
+import io.dingodb.sdk.service.entity.coordinator.GetRegionMapRequest;
+import io.dingodb.sdk.service.entity.coordinator.QueryRegionRequest;
+import io.dingodb.sdk.service.entity.meta.DingoCommonId;
+import io.dingodb.sdk.service.entity.meta.GetSchemasRequest;
+import io.dingodb.sdk.service.entity.meta.Schema;
+import io.dingodb.store.proxy.Configuration;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import static io.dingodb.common.CommonId.CommonType.TABLE;
+
+/**
+ * Collects the committed index of the table regions. The snapshot is kept per region and the table sums are updated
+ * by the difference of each region, so callers read it without rpc. Regions are added and removed by the region
+ * events of the meta watch, the region map is only loaded when the watch (re)starts. The committed index of the
+ * regions is queried in parallel with bounded concurrency every {@link ScopeVariables#getRegionMetricsTtl()}, in
+ * background while the current snapshot is still served.
+ */
+@Slf4j
+class RegionMetricsCollector implements MetaCache.RegionListener {
+    private static final RegionMetric UNKNOWN = new RegionMetric(null, 0);
+
+    private final io.dingodb.sdk.service.MetaService metaService;
+    private final LongSupplier tso;
+
+    private final Map<Long, RegionMetric> regions = new ConcurrentHashMap<>();
+    private final Map<CommonId, Long> tableCounts = new ConcurrentHashMap<>();
+    private volatile boolean regionsLoaded;
+    private volatile long refreshTime;
+    private CompletableFuture<Void> refreshing;
+
+    @AllArgsConstructor
+    private static class RegionMetric {
+        private final @Nullable CommonId tableId;
+        private final long committedIndex;
+    }
+
+    RegionMetricsCollector(io.dingodb.sdk.service.MetaService metaService, LongSupplier tso) {
+        this.metaService = metaService;
+        this.tso = tso;
+    }
+
+    public Map<CommonId, Long> tableCommitCount() {
+        if (refreshTime > 0) {
+            if (System.currentTimeMillis() - refreshTime >= ScopeVariables.getRegionMetricsTtl()) {
+                refresh();
+            }
+        } else {
+            try {
+                refresh().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return Collections.unmodifiableMap(new HashMap<>(tableCounts));
+    }
+
+    @Override
+    public void onRegionChange(RegionDefinition definition, boolean deleted) {
+        if (deleted) {
+            update(definition.getId(), null);
+        } else {
+            // The committed index is collected by the next refresh.
+            regions.putIfAbsent(definition.getId(), UNKNOWN);
+        }
+    }
+
+    @Override
+    public void onWatchStart() {
+        regionsLoaded = false;
+    }
+
+    private synchronized CompletableFuture<Void> refresh() {
+        if (refreshing != null) {
+            return refreshing;
+        }
+        CompletableFuture<Void> future = Executors.submit("region-metrics-refresh", this::collectAll);
+        refreshing = future;
+        future.whenComplete((r, e) -> {
+            if (e != null) {
+                LogUtils.error(log, "Collect region metrics failed: " + e.getMessage(), e);
+            }
+            synchronized (this) {
+                if (refreshing == future) {
+                    refreshing = null;
+                }
+            }
+        });
+        return future;
+    }
+
+    private void collectAll() {
+        long start = System.currentTimeMillis();
+        long tso = this.tso.getAsLong();
+        CoordinatorService coordinatorService = Services.coordinatorService(Configuration.coordinatorSet());
+        if (!regionsLoaded) {
+            // Set before loading, so that a watch restart during loading causes another loading.
+            regionsLoaded = true;
+            loadRegions(coordinatorService, tso);
+        }
+        Set<Long> tableIds = metaService.getSchemas(
+                tso, GetSchemasRequest.builder().schemaId(MetaService.ROOT.id).build()
+            )
+            .getSchemas().stream()
+            .map(Schema::getTableIds)
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .map(DingoCommonId::getEntityId)
+            .collect(Collectors.toSet());
+
+        List<Long> regionIds = new ArrayList<>(regions.keySet());
+        int concurrency = Math.min(ScopeVariables.getRegionMetricsConcurrency(), regionIds.size());
+        if (concurrency <= 1) {
+            collect(coordinatorService, tso, regionIds, tableIds);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                List<Long> part = new ArrayList<>(regionIds.size() / concurrency + 1);
+                for (int j = i; j < regionIds.size(); j += concurrency) {
+                    part.add(regionIds.get(j));
+                }
+                futures.add(Executors.submit(
+                    "region-metrics-" + i, () -> collect(coordinatorService, tso, part, tableIds)
+                ));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        refreshTime = System.currentTimeMillis();
+        LogUtils.info(log, "Collect metrics of {} regions, cost: {}ms", regionIds.size(), refreshTime - start);
+    }
+
+    private void loadRegions(CoordinatorService coordinatorService, long tso) {
+        Set<Long> regionIds = coordinatorService.getRegionMap(
+                tso, GetRegionMapRequest.builder().tenantId(TenantConstant.TENANT_ID).build()).getRegionmap()
+            .getRegions().stream()
+            .map(Region::getId)
+            .collect(Collectors.toSet());
+        for (Long regionId : new ArrayList<>(regions.keySet())) {
+            if (!regionIds.contains(regionId)) {
+                update(regionId, null);
+            }
+        }
+        regionIds.forEach(id -> regions.putIfAbsent(id, UNKNOWN));
+    }
+
+    private void collect(CoordinatorService coordinatorService, long tso, List<Long> regionIds, Set<Long> tableIds) {
+        for (long regionId : regionIds) {
+            Region region;
+            try {
+                region = coordinatorService.queryRegion(
+                    tso, QueryRegionRequest.builder().regionId(regionId).build()
+                ).getRegion();
+            } catch (Exception e) {
+                // Keep the last metric, a deleted region is removed by its event or by the next region map loading.
+                LogUtils.warn(log, "Query region {} metrics failed: {}", regionId, e.getMessage());
+                continue;
+            }
+            RegionDefinition definition = region.getDefinition();
+            if (!tableIds.contains(definition.getTableId())) {
+                // Not a table region, or the table is not visible yet, kept to be queried again.
+                update(regionId, UNKNOWN);
+                continue;
+            }
+            CommonId tableId = new CommonId(TABLE, definition.getSchemaId(), definition.getTableId());
+            long committedIndex = region.getMetrics().getBraftStatus().getCommittedIndex();
+            update(regionId, new RegionMetric(tableId, committedIndex));
+        }
+    }
+
+    /**
+     * Replaces the metric of a known region, and applies the difference to the table sums. A region removed while
+     * being queried is not added back.
+     */
+    private void update(long regionId, @Nullable RegionMetric metric) {
+        regions.computeIfPresent(regionId, (id, old) -> {
+            add(old.tableId, -old.committedIndex);
+            if (metric != null) {
+                add(metric.tableId, metric.committedIndex);
+            }
+            return metric;
+        });
+    }
+
+    private void add(@Nullable CommonId tableId, long delta) {
+        if (tableId == null || delta == 0) {
+            return;
+        }
+        tableCounts.compute(tableId, (id, count) -> {
+            long sum = (count == null ? 0 : count) + delta;
+            return sum == 0 ? null : sum;
+        });
+    }
+}
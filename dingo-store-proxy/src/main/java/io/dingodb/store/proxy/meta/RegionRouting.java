@@ -0,0 +1,261 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.store.proxy.meta;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.log.LogUtils;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.util.ByteArrayUtils;
+import io.dingodb.common.util.ByteArrayUtils.ComparableByteArray;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Region routing of one table. Region events patch only the key ranges they touch, a partition whose regions no
+ * longer cover its range is marked stale and rescanned on the next read, stale partitions are rescanned in
+ * parallel and failed rescans are retried with backoff while the old regions keep serving.
+ */
+@Slf4j
+class RegionRouting {
+    private static final long MIN_BACKOFF_MS = 100;
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    @FunctionalInterface
+    interface Scanner {
+        List<RangeDistribution> scan(Part part);
+    }
+
+    @FunctionalInterface
+    interface Mapper {
+        RangeDistribution map(long partId, long regionId, byte[] startKey, byte[] endKey);
+    }
+
+    @RequiredArgsConstructor
+    static class Part {
+        final long id;
+        final byte[] startKey;
+        final byte[] endKey;
+
+        private boolean loaded;
+        private boolean stale = true;
+        private int failures;
+        private long retryTime;
+    }
+
+    private final CommonId tableId;
+    private final List<Part> parts;
+    private final Scanner scanner;
+    private final Mapper mapper;
+
+    private final TreeMap<ComparableByteArray, RangeDistribution> regions = new TreeMap<>();
+    private final Map<Long, ComparableByteArray> regionKeys = new HashMap<>();
+
+    private volatile NavigableMap<ComparableByteArray, RangeDistribution> snapshot;
+    private volatile boolean stale = true;
+
+    RegionRouting(CommonId tableId, List<Part> parts, Scanner scanner, Mapper mapper) {
+        this.tableId = tableId;
+        this.parts = parts;
+        this.scanner = scanner;
+        this.mapper = mapper;
+    }
+
+    private static ComparableByteArray key(byte[] bytes) {
+        return new ComparableByteArray(bytes, 1);
+    }
+
+    public NavigableMap<ComparableByteArray, RangeDistribution> get() {
+        NavigableMap<ComparableByteArray, RangeDistribution> current = snapshot;
+        if (current != null && !stale) {
+            return current;
+        }
+        return refresh();
+    }
+
+    /**
+     * Applies a region create or update, regions overlapping the new range are dropped. An update that keeps the
+     * range, such as a leader change, changes nothing.
+     */
+    public synchronized void update(long regionId, byte[] startKey, byte[] endKey) {
+        Part part = partOf(startKey);
+        if (part == null) {
+            return;
+        }
+        ComparableByteArray oldKey = regionKeys.get(regionId);
+        if (oldKey != null) {
+            RangeDistribution old = regions.get(oldKey);
+            if (ByteArrayUtils.compare(old.getStartKey(), startKey, 1) == 0
+                && ByteArrayUtils.compare(old.getEndKey(), endKey, 1) == 0) {
+                return;
+            }
+            remove(regionId);
+        }
+        ComparableByteArray from = regions.floorKey(key(startKey));
+        Iterator<RangeDistribution> it = (from == null ? regions : regions.tailMap(from, true)).values().iterator();
+        while (it.hasNext()) {
+            RangeDistribution distribution = it.next();
+            if (ByteArrayUtils.compare(distribution.getStartKey(), endKey, 1) >= 0) {
+                break;
+            }
+            if (ByteArrayUtils.compare(distribution.getEndKey(), startKey, 1) > 0) {
+                it.remove();
+                regionKeys.remove(distribution.getId().seq);
+            }
+        }
+        put(mapper.map(part.id, regionId, startKey, endKey));
+        checkCovered(part);
+    }
+
+    /**
+     * Applies a region delete, the hole is filled by the update of the merging region or by a rescan.
+     */
+    public synchronized void delete(long regionId) {
+        ComparableByteArray oldKey = regionKeys.get(regionId);
+        if (oldKey == null) {
+            return;
+        }
+        Part part = partOf(oldKey.getBytes());
+        remove(regionId);
+        if (part != null) {
+            checkCovered(part);
+        }
+    }
+
+    private synchronized NavigableMap<ComparableByteArray, RangeDistribution> refresh() {
+        long now = System.currentTimeMillis();
+        List<Part> loads = new ArrayList<>();
+        for (Part part : parts) {
+            if (part.stale && (!part.loaded || part.retryTime <= now)) {
+                loads.add(part);
+            }
+        }
+        if (loads.size() == 1) {
+            Part part = loads.get(0);
+            try {
+                apply(part, scanner.scan(part));
+            } catch (RuntimeException e) {
+                failed(part, e, now);
+            }
+        } else if (loads.size() > 1) {
+            Map<Part, CompletableFuture<List<RangeDistribution>>> futures = new LinkedHashMap<>();
+            for (Part part : loads) {
+                futures.put(part, Executors.submit("load-distribution-" + tableId + "-" + part.id,
+                    () -> scanner.scan(part)));
+            }
+            RuntimeException error = null;
+            for (Map.Entry<Part, CompletableFuture<List<RangeDistribution>>> entry : futures.entrySet()) {
+                try {
+                    apply(entry.getKey(), entry.getValue().join());
+                } catch (CompletionException e) {
+                    RuntimeException cause = e.getCause() instanceof RuntimeException
+                        ? (RuntimeException) e.getCause() : e;
+                    try {
+                        failed(entry.getKey(), cause, now);
+                    } catch (RuntimeException ex) {
+                        error = ex;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+        boolean anyStale = false;
+        for (Part part : parts) {
+            anyStale |= part.stale;
+        }
+        stale = anyStale;
+        if (snapshot == null || !loads.isEmpty()) {
+            snapshot = new TreeMap<>(regions);
+        }
+        return snapshot;
+    }
+
+    private void apply(Part part, List<RangeDistribution> distributions) {
+        NavigableMap<ComparableByteArray, RangeDistribution> old =
+            regions.subMap(key(part.startKey), true, key(part.endKey), false);
+        old.values().forEach(distribution -> regionKeys.remove(distribution.getId().seq));
+        old.clear();
+        distributions.forEach(this::put);
+        part.loaded = true;
+        part.stale = false;
+        part.failures = 0;
+    }
+
+    private void failed(Part part, RuntimeException error, long now) {
+        if (!part.loaded) {
+            throw error;
+        }
+        part.failures++;
+        part.retryTime = now + Math.min(MIN_BACKOFF_MS << Math.min(part.failures, 10), MAX_BACKOFF_MS);
+        LogUtils.warn(log, "Refresh distribution of {} partition {} failed {} times, keep the stale regions.",
+            tableId, part.id, part.failures, error);
+    }
+
+    private void put(RangeDistribution distribution) {
+        ComparableByteArray key = key(distribution.getStartKey());
+        regions.put(key, distribution);
+        regionKeys.put(distribution.getId().seq, key);
+    }
+
+    private void remove(long regionId) {
+        ComparableByteArray key = regionKeys.remove(regionId);
+        if (key != null) {
+            regions.remove(key);
+        }
+    }
+
+    private Part partOf(byte[] key) {
+        for (Part part : parts) {
+            if (ByteArrayUtils.compare(part.startKey, key, 1) <= 0
+                && ByteArrayUtils.compare(key, part.endKey, 1) < 0) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    private void checkCovered(Part part) {
+        byte[] next = part.startKey;
+        for (RangeDistribution distribution : regions.subMap(
+            key(part.startKey), true, key(part.endKey), false).values()
+        ) {
+            if (ByteArrayUtils.compare(distribution.getStartKey(), next, 1) != 0) {
+                break;
+            }
+            next = distribution.getEndKey();
+        }
+        if (ByteArrayUtils.compare(next, part.endKey, 1) != 0) {
+            part.stale = true;
+            stale = true;
+        }
+        snapshot = null;
+    }
+}
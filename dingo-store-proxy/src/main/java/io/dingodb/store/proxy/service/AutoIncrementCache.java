@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.dingodb.store.proxy.service;
+
+import com.codahale.metrics.Counter;
+import io.dingodb.common.concurrent.Executors;
+import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.metrics.LatencyHistogram;
+import io.dingodb.sdk.service.MetaService;
+import io.dingodb.sdk.service.Services;
+import io.dingodb.sdk.service.entity.meta.DingoCommonId;
+import io.dingodb.sdk.service.entity.meta.GenerateAutoIncrementRequest;
+import io.dingodb.sdk.service.entity.meta.GenerateAutoIncrementResponse;
+import io.dingodb.store.proxy.Configuration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Double buffered auto increment ids of a table. The next segment is generated in background when half of the
+ * current one is used, the segment size grows when segments are used fast and shrinks when they are used slowly.
+ */
+class AutoIncrementCache {
+    private static final LatencyHistogram REFILL_LATENCY = DingoMetrics.latencyHistogram("auto_increment_refill");
+    private static final Counter STALL_COUNT = DingoMetrics.counter("auto_increment_stall");
+    private static final long FAST_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SLOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_GROWTH = 16;
+
+    private final DingoCommonId tableId;
+    private final int minSize;
+    private final int maxSize;
+    private final int increment;
+    private final int offset;
+
+    private int size;
+    // The ids of the current segment are next, next + increment, ... until end (exclusive).
+    private long next;
+    private long end;
+    private long last;
+    private long segmentNanos;
+    private CompletableFuture<long[]> prefetch;
+
+    AutoIncrementCache(DingoCommonId tableId, int size, int increment, int offset) {
+        this.tableId = tableId;
+        this.minSize = size;
+        this.maxSize = (int) Math.min(Integer.MAX_VALUE, (long) size * MAX_GROWTH);
+        this.size = size;
+        this.increment = increment;
+        this.offset = offset;
+    }
+
+    synchronized long next() {
+        if (next >= end) {
+            nextSegment();
+        }
+        last = next;
+        next += increment;
+        if (prefetch == null && (end - next) / increment <= size / 2) {
+            int count = size;
+            prefetch = Executors.submit("auto-increment-refill", () -> generate(count));
+        }
+        return last;
+    }
+
+    synchronized long last() {
+        return last;
+    }
+
+    /**
+     * Drops the ids not greater than the given one, they are not generated again because the coordinator has
+     * been updated.
+     */
+    synchronized void update(long id) {
+        if (id >= next) {
+            next = end;
+            prefetch = null;
+        }
+    }
+
+    private void nextSegment() {
+        long[] segment;
+        if (prefetch != null && prefetch.isDone()) {
+            segment = join(prefetch);
+        } else {
+            STALL_COUNT.inc();
+            segment = prefetch != null ? join(prefetch) : generate(size);
+        }
+        prefetch = null;
+        long now = System.nanoTime();
+        if (segmentNanos > 0) {
+            long elapsed = now - segmentNanos;
+            if (elapsed < FAST_NANOS) {
+                size = Math.min(maxSize, size << 1);
+            } else if (elapsed > SLOW_NANOS) {
+                size = Math.max(minSize, size >> 1);
+            }
+        }
+        segmentNanos = now;
+        next = segment[0];
+        end = segment[1];
+    }
+
+    private long[] join(CompletableFuture<long[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            prefetch = null;
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private long[] generate(int count) {
+        long start = System.nanoTime();
+        GenerateAutoIncrementRequest request = GenerateAutoIncrementRequest.builder()
+            .tableId(tableId)
+            .count(count)
+            .autoIncrementIncrement(increment)
+            .autoIncrementOffset(offset)
+            .build();
+        MetaService metaService = Services.autoIncrementMetaService(Configuration.coordinatorSet());
+        GenerateAutoIncrementResponse response = metaService.generateAutoIncrement(
+            System.identityHashCode(request), request
+        );
+        REFILL_LATENCY.record(System.nanoTime() - start);
+        return new long[]{response.getStartId(), response.getEndId()};
+    }
+}
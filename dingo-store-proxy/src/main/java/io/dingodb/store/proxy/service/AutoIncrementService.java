@@ -27,8 +27,10 @@ import io.dingodb.store.proxy.Configuration;
 import lombok.experimental.Delegate;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.dingodb.store.proxy.common.Mapping.mapping;
+import static io.dingodb.store.proxy.mapper.Mapper.MAPPER;
 
 public class AutoIncrementService {
     public static final AutoIncrementService INSTANCE = new AutoIncrementService();
@@ -37,6 +39,11 @@ public class AutoIncrementService {
     private final io.dingodb.sdk.service.meta.AutoIncrementService autoIncrementService =
         new io.dingodb.sdk.service.meta.AutoIncrementService(Configuration.coordinators());
 
+    private final Map<CommonId, AutoIncrementCache> caches = new ConcurrentHashMap<>();
+    private volatile int cacheCount = 10000;
+    private volatile int increment = 1;
+    private volatile int offset = 1;
+
     private AutoIncrementService() {
     }
 
@@ -44,6 +51,7 @@ public class AutoIncrementService {
         SDKCommonId tabId = new SDKCommonId(
             io.dingodb.sdk.common.DingoCommonId.Type.ENTITY_TYPE_TABLE, tableId.domain, tableId.seq);
         autoIncrementService.reset(tabId);
+        caches.remove(tableId);
     }
 
     public void resetAutoIncrement() {
@@ -74,15 +82,22 @@ public class AutoIncrementService {
             .orElseThrow("The config autoIncrementOffset must be a positive integer greater than 0.");
 
         autoIncrementService.reset(count, increment, offset);
+        this.cacheCount = (int) Math.min(Integer.MAX_VALUE, count);
+        this.increment = increment;
+        this.offset = offset;
+        caches.clear();
 
     }
 
     public long getAutoIncrement(CommonId tableId) {
-        return autoIncrementService.next(mapping(tableId));
+        return caches.computeIfAbsent(
+            tableId, k -> new AutoIncrementCache(MAPPER.idTo(tableId), cacheCount, increment, offset)
+        ).next();
     }
 
     public long getLastId(CommonId tableId) {
-        return autoIncrementService.localCurrent(mapping(tableId));
+        AutoIncrementCache cache = caches.get(tableId);
+        return cache != null ? cache.last() : autoIncrementService.localCurrent(mapping(tableId));
     }
 
     public long getNextAutoIncrement(CommonId tableId) {
@@ -91,6 +106,10 @@ public class AutoIncrementService {
 
     public void updateAutoIncrementId(CommonId tableId, long autoIncrementId) {
         autoIncrementService.update(mapping(tableId), autoIncrementId);
+        AutoIncrementCache cache = caches.get(tableId);
+        if (cache != null) {
+            cache.update(autoIncrementId);
+        }
     }
 
 }
@@ -86,6 +86,7 @@ import io.dingodb.sdk.service.entity.meta.DingoCommonId;
 import io.dingodb.sdk.service.entity.store.KvBatchCompareAndSetRequest;
 import io.dingodb.sdk.service.entity.store.KvBatchDeleteRequest;
 import io.dingodb.sdk.service.entity.store.KvBatchGetRequest;
+import io.dingodb.sdk.service.entity.store.KvBatchPutIfAbsentRequest;
 import io.dingodb.sdk.service.entity.store.KvDeleteRangeRequest;
 import io.dingodb.sdk.service.entity.store.KvGetRequest;
 import io.dingodb.sdk.service.entity.store.KvPutIfAbsentRequest;
@@ -307,6 +308,19 @@ public final class StoreService implements io.dingodb.store.api.StoreService {
             return insert(requestTs, tableCodec.encode(record));
         }
 
+        @Override
+        public long insertWithIndex(long requestTs, List<Object[]> records) {
+            if (records.isEmpty()) {
+                return 0;
+            }
+            List<io.dingodb.sdk.service.entity.common.KeyValue> kvs = records.stream()
+                .map(record -> MAPPER.kvTo(setId(tableCodec.encode(record))))
+                .collect(Collectors.toList());
+            return storeService.kvBatchPutIfAbsent(
+                requestTs, KvBatchPutIfAbsentRequest.builder().kvs(kvs).build()
+            ).getKeyStates().stream().filter(Boolean::booleanValue).count();
+        }
+
         @Override
         public boolean insertIndex(long requestTs, Object[] record) {
             for (Map.Entry<CommonId, IndexTable> entry : tableMap.entrySet()) {
@@ -25,6 +25,7 @@ import io.dingodb.common.config.DingoConfiguration;
 import io.dingodb.common.log.LogUtils;
 import io.dingodb.common.log.MdcUtils;
 import io.dingodb.common.metrics.DingoMetrics;
+import io.dingodb.common.metrics.LatencyHistogram;
 import io.dingodb.common.mysql.scope.ScopeVariables;
 import io.dingodb.common.profile.OperatorProfile;
 import io.dingodb.common.profile.Profile;
@@ -121,6 +122,16 @@ public class TransactionStoreInstance {
 
     private static final int VectorKeyLen = 17;
 
+    private static final LatencyHistogram RPC_PRE_WRITE = DingoMetrics.rpcLatency("pre_write");
+    private static final LatencyHistogram RPC_COMMIT = DingoMetrics.rpcLatency("commit");
+    private static final LatencyHistogram RPC_PESSIMISTIC_LOCK = DingoMetrics.rpcLatency("pessimistic_lock");
+    private static final LatencyHistogram RPC_PESSIMISTIC_ROLLBACK = DingoMetrics.rpcLatency("pessimistic_rollback");
+    private static final LatencyHistogram RPC_BATCH_GET = DingoMetrics.rpcLatency("batch_get");
+    private static final LatencyHistogram RPC_BATCH_ROLLBACK = DingoMetrics.rpcLatency("batch_rollback");
+    private static final LatencyHistogram RPC_RESOLVE_LOCK = DingoMetrics.rpcLatency("resolve_lock");
+    private static final LatencyHistogram RPC_SCAN = DingoMetrics.rpcLatency("scan");
+    private static final LatencyHistogram RPC_DOCUMENT_SCAN = DingoMetrics.rpcLatency("document_scan");
+
     public TransactionStoreInstance(StoreService storeService, IndexService indexService, CommonId partitionId) {
         this(storeService, indexService, null, partitionId);
     }
@@ -205,6 +216,7 @@ public class TransactionStoreInstance {
                 }
                 long sub = System.currentTimeMillis() - start1;
                 DingoMetrics.timer("txnPreWriteRpc").update(sub, TimeUnit.MILLISECONDS);
+                RPC_PRE_WRITE.recordMillis(sub);
                 if (response.getKeysAlreadyExist() != null && !response.getKeysAlreadyExist().isEmpty()) {
                     getJoinedPrimaryKey(txnPreWrite, response.getKeysAlreadyExist());
                 }
@@ -344,6 +356,7 @@ public class TransactionStoreInstance {
         } finally {
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnCommitRpc" + type).update(sub, TimeUnit.MILLISECONDS);
+            RPC_COMMIT.recordMillis(sub);
         }
     }
 
@@ -455,6 +468,7 @@ public class TransactionStoreInstance {
         } finally {
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnPessimisticLock").update(sub, TimeUnit.MILLISECONDS);
+            RPC_PESSIMISTIC_LOCK.recordMillis(sub);
         }
     }
 
@@ -514,6 +528,7 @@ public class TransactionStoreInstance {
         } finally {
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnPessimisticLockRollback").update(sub, TimeUnit.MILLISECONDS);
+            RPC_PESSIMISTIC_ROLLBACK.recordMillis(sub);
         }
     }
 
@@ -649,6 +664,7 @@ public class TransactionStoreInstance {
         } finally {
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnBatchGetRpc").update(sub, TimeUnit.MILLISECONDS);
+            RPC_BATCH_GET.recordMillis(sub);
         }
     }
 
@@ -679,6 +695,7 @@ public class TransactionStoreInstance {
         }
         long sub = System.currentTimeMillis() - start;
         DingoMetrics.timer("txnBatchRollbackRpc").update(sub, TimeUnit.MILLISECONDS);
+        RPC_BATCH_ROLLBACK.recordMillis(sub);
         return response.getTxnResult() == null;
     }
 
@@ -696,6 +713,7 @@ public class TransactionStoreInstance {
         } finally {
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnResolveLockRpc").update(sub, TimeUnit.MILLISECONDS);
+            RPC_RESOLVE_LOCK.recordMillis(sub);
         }
     }
 
@@ -1211,6 +1229,7 @@ public class TransactionStoreInstance {
             }
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnScanRpc").update(sub, TimeUnit.MILLISECONDS);
+            RPC_SCAN.recordMillis(sub);
         }
 
         @Override
@@ -1399,6 +1418,7 @@ public class TransactionStoreInstance {
             }
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("txnScanRpc").update(sub, TimeUnit.MILLISECONDS);
+            RPC_SCAN.recordMillis(sub);
         }
 
         @Override
@@ -1535,6 +1555,7 @@ public class TransactionStoreInstance {
             }
             long sub = System.currentTimeMillis() - start;
             DingoMetrics.timer("documentScanFilterRpc").update(sub, TimeUnit.MILLISECONDS);
+            RPC_DOCUMENT_SCAN.recordMillis(sub);
         }
 
         @Override
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 DataCanvas
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.dingodb.store.proxy.meta;
+
+import io.dingodb.common.CommonId;
+import io.dingodb.common.partition.RangeDistribution;
+import io.dingodb.common.util.ByteArrayUtils.ComparableByteArray;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestRegionRouting {
+
+    private static final CommonId TABLE_ID = new CommonId(CommonId.CommonType.TABLE, 1, 1);
+
+    // Region id, start and end of the regions the store reports per partition.
+    private final Map<Long, List<long[]>> store = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> scans = new ConcurrentHashMap<>();
+    private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+    private final RegionRouting.Mapper mapper = (partId, regionId, startKey, endKey) -> RangeDistribution.builder()
+        .id(new CommonId(CommonId.CommonType.DISTRIBUTION, partId, regionId))
+        .startKey(startKey)
+        .endKey(endKey)
+        .build();
+
+    private RegionRouting routing;
+
+    private static byte[] key(long key) {
+        return new byte[]{'t', (byte) key};
+    }
+
+    private RegionRouting routing() {
+        return new RegionRouting(
+            TABLE_ID,
+            Arrays.asList(new RegionRouting.Part(1, key(0), key(50)), new RegionRouting.Part(2, key(50), key(100))),
+            part -> {
+                scans.merge(part.id, 1, Integer::sum);
+                if (failing.contains(part.id)) {
+                    throw new RuntimeException("Scan partition " + part.id + " failed.");
+                }
+                return store.get(part.id).stream()
+                    .map(region -> mapper.map(part.id, region[0], key(region[1]), key(region[2])))
+                    .collect(Collectors.toList());
+            },
+            mapper
+        );
+    }
+
+    private List<Long> regions() {
+        NavigableMap<ComparableByteArray, RangeDistribution> distributions = routing.get();
+        return distributions.values().stream().map(distribution -> distribution.getId().seq)
+            .collect(Collectors.toList());
+    }
+
+    private int scans(long partId) {
+        return scans.getOrDefault(partId, 0);
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        store.put(1L, Arrays.asList(new long[]{1, 0, 50}));
+        store.put(2L, Arrays.asList(new long[]{2, 50, 100}));
+        routing = routing();
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(scans(1)).isEqualTo(1);
+        assertThat(scans(2)).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnchanged() {
+        // A leader change keeps the range, the cached snapshot is still valid.
+        NavigableMap<ComparableByteArray, RangeDistribution> snapshot = routing.get();
+        routing.update(1, key(0), key(50));
+        assertThat(routing.get()).isSameAs(snapshot);
+        routing.delete(9);
+        assertThat(routing.get()).isSameAs(snapshot);
+        assertThat(scans(1)).isEqualTo(1);
+        assertThat(scans(2)).isEqualTo(1);
+    }
+
+    @Test
+    public void testSplit() {
+        store.put(1L, Arrays.asList(new long[]{1, 0, 25}, new long[]{3, 25, 50}));
+        routing.update(1, key(0), key(25));
+        routing.update(3, key(25), key(50));
+        assertThat(regions()).containsExactly(1L, 3L, 2L);
+        assertThat(routing.get().get(new ComparableByteArray(key(25), 1)).getEndKey()).isEqualTo(key(50));
+        // Only the split partition is rescanned.
+        assertThat(scans(2)).isEqualTo(1);
+        regions();
+        assertThat(scans(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void testMerge() {
+        store.put(2L, Arrays.asList(new long[]{2, 50, 75}, new long[]{3, 75, 100}));
+        routing.update(2, key(50), key(75));
+        routing.update(3, key(75), key(100));
+        assertThat(regions()).containsExactly(1L, 2L, 3L);
+        int scanned = scans(2);
+
+        // The merging region covers the merged one, nothing is rescanned.
+        store.put(2L, Arrays.asList(new long[]{2, 50, 100}));
+        routing.update(2, key(50), key(100));
+        routing.delete(3);
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(routing.get().get(new ComparableByteArray(key(50), 1)).getEndKey()).isEqualTo(key(100));
+        assertThat(scans(1)).isEqualTo(1);
+        assertThat(scans(2)).isEqualTo(scanned);
+    }
+
+    @Test
+    public void testGap() {
+        // The merged region is deleted before the merging region is updated.
+        store.put(1L, Arrays.asList(new long[]{4, 0, 50}));
+        routing.delete(1);
+        assertThat(regions()).containsExactly(4L, 2L);
+        assertThat(scans(1)).isEqualTo(2);
+        assertThat(scans(2)).isEqualTo(1);
+
+        // A region update leaving a hole behind.
+        store.put(2L, Arrays.asList(new long[]{2, 50, 60}, new long[]{5, 60, 100}));
+        routing.update(2, key(50), key(60));
+        assertThat(regions()).containsExactly(4L, 2L, 5L);
+        assertThat(scans(1)).isEqualTo(2);
+        assertThat(scans(2)).isEqualTo(2);
+    }
+
+    @Test
+    public void testBackoff() throws Exception {
+        failing.add(2L);
+        store.put(2L, Arrays.asList(new long[]{2, 50, 75}, new long[]{3, 75, 100}));
+        routing.update(2, key(50), key(75));
+
+        // The failed rescan keeps the stale regions serving and is not retried before the backoff.
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(scans(2)).isEqualTo(2);
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(scans(2)).isEqualTo(2);
+
+        Thread.sleep(300);
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(scans(2)).isEqualTo(3);
+        // The backoff doubles.
+        Thread.sleep(250);
+        assertThat(regions()).containsExactly(1L, 2L);
+        assertThat(scans(2)).isEqualTo(3);
+
+        failing.clear();
+        Thread.sleep(300);
+        assertThat(regions()).containsExactly(1L, 2L, 3L);
+        assertThat(scans(2)).isEqualTo(4);
+        assertThat(regions()).containsExactly(1L, 2L, 3L);
+        assertThat(scans(2)).isEqualTo(4);
+        assertThat(scans(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void testLoadFailed() {
+        failing.add(1L);
+        routing = routing();
+        assertThatThrownBy(routing::get).hasMessageContaining("partition 1");
+        failing.clear();
+        assertThat(regions()).containsExactly(1L, 2L);
+    }
+}